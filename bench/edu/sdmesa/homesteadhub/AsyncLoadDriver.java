@@ -0,0 +1,155 @@
+package edu.sdmesa.homesteadhub;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of AsyncLoadDriver is to show how
+ *          AsyncDataService scales when many sessions block at once.
+ *
+ *          Each simulated session looks up its order history and then pays
+ *          through a gateway that blocks for a fixed latency, like a remote
+ *          card processor. All sessions start together. They run once on the
+ *          service's own thread-per-task executor (virtual threads on Java
+ *          21+) and once on a fixed pool. Wall time, sessions per second,
+ *          latency percentiles and the number of threads started are
+ *          printed. Reads go to the data files in the working directory.
+ */
+public class AsyncLoadDriver
+{
+	private static final int DEFAULT_SESSIONS = 2000;
+	private static final int DEFAULT_GATEWAY_MILLIS = 50;
+	private static final int FIXED_POOL_THREADS = 32;
+
+	/**
+	 * Purpose: Runs both executors and prints one row each.
+	 *
+	 * @param args Optional session count and gateway latency in ms
+	 */
+	public static void main(String[] args)
+	{
+		int sessions = args.length > 0 ? Integer.parseInt(args[0])
+				: DEFAULT_SESSIONS;
+		int gatewayMillis = args.length > 1 ? Integer.parseInt(args[1])
+				: DEFAULT_GATEWAY_MILLIS;
+
+		DataRepository repository = new FileDataSource();
+		Customer customer = new Customer("LoadTester", "1234",
+				"load@test.com", "1 Load St");
+		PaymentProcessor gateway = new SlowGateway(gatewayMillis);
+		PaymentDetail detail = new PaymentDetail(10.00, gateway, customer);
+
+		System.out.printf("ASYNCLOADDRIVER: %,d sessions, %d ms gateway, "
+				+ "%d cores%n", sessions, gatewayMillis,
+				Runtime.getRuntime().availableProcessors());
+
+		AsyncDataService perTask = new AsyncDataService(repository);
+		run(perTask.isVirtualThreads() ? "virtual threads" : "thread per task",
+				perTask, sessions, customer, detail);
+		perTask.shutdown();
+
+		AsyncDataService fixed = new AsyncDataService(repository,
+				Executors.newFixedThreadPool(FIXED_POOL_THREADS));
+		run("fixed pool (" + FIXED_POOL_THREADS + ")", fixed, sessions,
+				customer, detail);
+		fixed.shutdown();
+	}
+
+	/**
+	 * Purpose: Starts every session at once and waits for all of them.
+	 *
+	 * @param label    Row label
+	 * @param service  Service whose executor runs the sessions
+	 * @param sessions Number of sessions
+	 * @param customer Customer the sessions act as
+	 * @param detail   Payment details with the slow gateway
+	 */
+	private static void run(String label, AsyncDataService service,
+			int sessions, Customer customer, PaymentDetail detail)
+	{
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long startedBefore = threads.getTotalStartedThreadCount();
+
+		long[] latencies = new long[sessions];
+		List<CompletableFuture<?>> running = new ArrayList<>();
+		long begin = System.nanoTime();
+
+		for (int i = 0; i < sessions; i++)
+		{
+			final int session = i;
+			long start = System.nanoTime();
+			running.add(service.findOrdersByCustomerAsync(customer)
+					.thenCompose(orders -> service
+							.processTransactionAsync(10.00, detail))
+					.thenRun(() -> latencies[session] = System.nanoTime()
+							- start));
+		}
+		CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0]))
+				.join();
+
+		long nanos = System.nanoTime() - begin;
+		Arrays.sort(latencies);
+		System.out.printf(
+				"%-18s %,8d ms  %,9.0f sessions/s  p50=%,d ms  p99=%,d ms  "
+						+ "threads started=%,d%n",
+				label, TimeUnit.NANOSECONDS.toMillis(nanos),
+				sessions * 1e9 / nanos,
+				TimeUnit.NANOSECONDS.toMillis(latencies[sessions / 2]),
+				TimeUnit.NANOSECONDS
+						.toMillis(latencies[(int) (sessions * 0.99)]),
+				threads.getTotalStartedThreadCount() - startedBefore);
+	}
+
+	/**
+	 * Purpose: Payment processor that blocks for a fixed time, standing in
+	 * for a remote card gateway. Prints nothing.
+	 */
+	private static final class SlowGateway implements PaymentProcessor
+	{
+		private final int latencyMillis;
+
+		SlowGateway(int latencyMillis)
+		{
+			this.latencyMillis = latencyMillis;
+		}
+
+		@Override
+		public PaymentResult processTransaction(double totalAmount,
+				PaymentDetail paymentDetails)
+		{
+			try
+			{
+				Thread.sleep(latencyMillis);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return new PaymentResult("FAILED", null, "Interrupted");
+			}
+			return new PaymentResult("SUCCESS",
+					"LOAD-" + System.nanoTime(), "Simulated gateway");
+		}
+
+		@Override
+		public String getPaymentType()
+		{
+			return "Simulated Gateway";
+		}
+	}
+}
@@ -0,0 +1,652 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of BenchmarkSuite is to time the project's hot
+ *          paths in one run and compare them against a checked-in baseline.
+ *
+ *          Covered paths:
+ *          - Helper serialize and deserialize for every entity;
+ *          - the FileDataSource find methods over 1K, 100K and 1M records;
+ *          - Cart.calculateSubtotal and InventoryManager.getLowStockItems;
+ *          - OrderManager.placeOrder end to end with a no-op payment
+ *            processor, waiting for each order to be durable.
+ *
+ *          Each benchmark gets warm-up rounds and then timed rounds. A round
+ *          repeats the operation for at least ROUND_NANOS, and the mean time
+ *          and the current thread's allocation per operation are reported.
+ *          Results are written as CSV. With baseline= each result is
+ *          compared against the baseline and slowdowns past the tolerance
+ *          are flagged.
+ *
+ *          Data files are generated in the working directory, replacing any
+ *          that are there. To protect real data, the suite refuses to run
+ *          in a directory that has data files but no BENCHMARK_MARKER.
+ *
+ *          Usage: sizes=1000,100000,1000000 filter=helper out=results.csv
+ *          baseline=benchmarks/baseline.csv
+ *
+ *          The suite and the load drivers live in the bench source folder,
+ *          outside the HomesteadHub module. Compile them together with src
+ *          and run them on the class path.
+ */
+public class BenchmarkSuite
+{
+	// Marks a working directory whose data files the suite may replace
+	private static final String BENCHMARK_MARKER = ".benchmark-data";
+
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int TIMED_ROUNDS = 5;
+	private static final long ROUND_NANOS = 200_000_000L;
+	// Slowdown against the baseline that is reported as a regression
+	private static final double REGRESSION_TOLERANCE = 0.20;
+
+	private static final int FARMERS = 50;
+
+	// Keeps results reachable so the JIT cannot drop the work
+	private static Object sink;
+
+	private final Map<String, String> settings = new LinkedHashMap<>();
+	// Benchmark name -> {ns/op, bytes/op}, in run order
+	private final Map<String, double[]> results = new LinkedHashMap<>();
+	private final PrintStream console = System.out;
+
+	/**
+	 * Purpose: Runs the suite.
+	 *
+	 * @param args key=value settings: sizes, filter, out, baseline
+	 */
+	public static void main(String[] args)
+	{
+		BenchmarkSuite suite = new BenchmarkSuite(args);
+		try
+		{
+			suite.runAll();
+		}
+		catch (IOException e)
+		{
+			System.err.println("Error running benchmarks: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Purpose: Constructor that reads key=value settings
+	 *
+	 * @param args Settings
+	 */
+	public BenchmarkSuite(String[] args)
+	{
+		settings.put("sizes", "1000,100000,1000000");
+		settings.put("filter", "");
+		settings.put("out", "benchmark-results.csv");
+		settings.put("baseline", "");
+		for (String arg : args)
+		{
+			int equals = arg.indexOf('=');
+			if (equals < 0 || !settings.containsKey(arg.substring(0, equals)))
+			{
+				throw new IllegalArgumentException("Unknown setting: " + arg
+						+ ". Known settings: " + settings.keySet());
+			}
+			settings.put(arg.substring(0, equals), arg.substring(equals + 1));
+		}
+	}
+
+	/**
+	 * Purpose: Runs every benchmark group, writes the CSV and compares it
+	 * with the baseline.
+	 *
+	 * @throws IOException If data files or results cannot be written
+	 */
+	public void runAll() throws IOException
+	{
+		checkWorkingDirectory();
+		console.printf("BENCHMARKSUITE: %s, %d cores, Java %s%n", settings,
+				Runtime.getRuntime().availableProcessors(),
+				System.getProperty("java.version"));
+
+		// The code under test logs as it works; keep it off the console
+		AppLogger.Level logLevel = AppLogger.getLevel();
+		AppLogger.setLevel(AppLogger.Level.WARN);
+		try
+		{
+			helperBenchmarks();
+			for (String size : settings.get("sizes").split(","))
+			{
+				repositoryBenchmarks(Integer.parseInt(size.trim()));
+			}
+			cartAndInventoryBenchmarks();
+			searchBenchmarks();
+			placeOrderBenchmark();
+		}
+		finally
+		{
+			AppLogger.flush();
+			AppLogger.setLevel(logLevel);
+		}
+
+		writeResults(Paths.get(settings.get("out")));
+		if (!settings.get("baseline").isEmpty())
+		{
+			compare(Paths.get(settings.get("baseline")));
+		}
+	}
+
+	// ------Benchmark groups------
+
+	/**
+	 * Purpose: Helper serialize and deserialize of every entity.
+	 */
+	private void helperBenchmarks()
+	{
+		Helper helper = new Helper();
+		Farmer farmer = farmer(7);
+		Customer customer = customer(42);
+		Product product = product(42, farmer);
+		Order order = order(42, customer, product);
+		LineItem lineItem = order.getItems().get(0);
+
+		String customerLine = helper.serializeUser(customer);
+		String farmerLine = helper.serializeUser(farmer);
+		String productLine = helper.serializeProduct(product);
+		String orderLine = helper.serializeOrder(order);
+		String lineItemLine = helper.serializeLineItem(order, lineItem);
+
+		bench("helper.serializeUser.customer",
+				() -> helper.serializeUser(customer));
+		bench("helper.serializeUser.farmer", () -> helper.serializeUser(farmer));
+		bench("helper.deserializeUser.customer",
+				() -> helper.deserializeUser(customerLine));
+		bench("helper.deserializeUser.farmer",
+				() -> helper.deserializeUser(farmerLine));
+		bench("helper.serializeProduct", () -> helper.serializeProduct(product));
+		bench("helper.deserializeProduct",
+				() -> helper.deserializeProduct(productLine));
+		bench("helper.serializeOrder", () -> helper.serializeOrder(order));
+		bench("helper.deserializeOrder",
+				() -> helper.deserializeOrder(orderLine, customer));
+		bench("helper.serializeLineItem",
+				() -> helper.serializeLineItem(order, lineItem));
+		bench("helper.deserializeLineItem",
+				() -> helper.deserializeLineItem(lineItemLine));
+	}
+
+	/**
+	 * Purpose: FileDataSource find methods over data files of one size.
+	 *
+	 * @param records Records in each data file
+	 * @throws IOException If the data files cannot be written
+	 */
+	private void repositoryBenchmarks(int records) throws IOException
+	{
+		if (!matchesFilter("repository." + records + "."))
+		{
+			return;
+		}
+		generateDataFiles(records);
+
+		FileDataSource repository = new FileDataSource();
+		int last = records - 1;
+		Farmer farmer = farmer(last % FARMERS);
+		Customer customer = customer(last);
+		String lastSku = product(last, farmer).getSku();
+		String lastOrder = orderId(last);
+		String prefix = "repository." + records + ".";
+
+		bench(prefix + "findAllUsers", repository::findAllUsers);
+		bench(prefix + "findUserByUsername",
+				() -> repository.findUserByUsername(customer.getUsername()));
+		bench(prefix + "findAllProducts", () -> repository.findAllProducts());
+		bench(prefix + "findProductBySku",
+				() -> repository.findProductBySku(lastSku, farmer));
+		bench(prefix + "findOrdersByCustomer",
+				() -> repository.findOrdersByCustomer(customer));
+		bench(prefix + "findLineItems", repository::findLineItems);
+		bench(prefix + "findOrdersToFarmer",
+				() -> repository.findOrdersToFarmer(farmer));
+		bench(prefix + "findLineItemsByOrder",
+				() -> repository.findLineItemsByOrder(lastOrder));
+	}
+
+	/**
+	 * Purpose: Cart subtotal and low-stock scan.
+	 */
+	private void cartAndInventoryBenchmarks()
+	{
+		Farmer farmer = farmer(0);
+		Cart cart = new Cart(customer(0));
+		for (int i = 0; i < 20; i++)
+		{
+			cart.addProduct(product(i, farmer), 1 + i % 3);
+		}
+		bench("cart.calculateSubtotal.20items", cart::calculateSubtotal);
+
+		InventoryManager inventory = new InventoryManager();
+		for (int i = 0; i < 10_000; i++)
+		{
+			Product product = product(i, farmer);
+			// One product in ten is low on stock
+			product.setStockQuantity(i % 10 == 0 ? 2 : 100);
+			inventory.addProduct(product);
+		}
+		bench("inventory.getLowStockItems.10000products",
+				inventory::getLowStockItems);
+		// product(i) prices cycle from $0.25 to $20.24
+		bench("inventory.getProductsInPriceRange.10000products",
+				() -> inventory.getProductsInPriceRange(5.00, 5.50));
+		bench("inventory.getProductsByFarmer.10000products",
+				() -> inventory.getProductsByFarmer(farmer.getUsername()));
+	}
+
+	/**
+	 * Purpose: Catalog search over 100,000 products named from a produce
+	 * vocabulary, by prefix, by two words and with a typo.
+	 */
+	private void searchBenchmarks()
+	{
+		if (!matchesFilter("inventory.search"))
+		{
+			return;
+		}
+		String[] produce = { "tomatoes", "carrots", "lettuce", "peppers",
+				"squash", "apples", "peaches", "onions", "potatoes", "kale",
+				"spinach", "beets", "radishes", "melons", "berries", "plums",
+				"pears", "garlic", "cucumbers", "cabbage" };
+		String[] varieties = { "heirloom", "cherry", "baby", "golden",
+				"purple", "organic", "wild", "sweet", "early", "giant" };
+
+		InventoryManager inventory = new InventoryManager();
+		List<Farmer> farmers = new ArrayList<>();
+		for (int i = 0; i < FARMERS; i++)
+		{
+			farmers.add(farmer(i));
+		}
+		for (int i = 0; i < 100_000; i++)
+		{
+			String title = varieties[(i / produce.length) % varieties.length]
+					+ " " + produce[i % produce.length] + " " + i;
+			inventory.addProduct(new Product(String.format("SKU-%08d", i),
+					title, "Fresh from the farm", 1 + i % 500,
+					farmers.get(i % FARMERS), 2.50));
+		}
+		bench("inventory.search.100000products.prefix",
+				() -> inventory.search("tom", 50));
+		bench("inventory.search.100000products.twoWords",
+				() -> inventory.search("heirloom tomatoes", 50));
+		bench("inventory.search.100000products.typo",
+				() -> inventory.search("tomatos", 50));
+	}
+
+	/**
+	 * Purpose: OrderManager.placeOrder end to end with a no-op payment
+	 * processor, waiting for each order to be written.
+	 *
+	 * @throws IOException If the data files cannot be written
+	 */
+	private void placeOrderBenchmark() throws IOException
+	{
+		if (!matchesFilter("orderManager.placeOrder"))
+		{
+			return;
+		}
+		generateDataFiles(1000);
+
+		InventoryManager inventory = new InventoryManager();
+		AppInitializer.initialize(new FileDataSource(), inventory);
+		Farmer farmer = farmer(0);
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < 2; i++)
+		{
+			Product product = product(i, farmer);
+			product.setStockQuantity(Integer.MAX_VALUE / 2);
+			inventory.getProductCatalog().put(product.getSku(), product);
+			products.add(product);
+		}
+
+		PaymentProcessor noOp = new PaymentProcessor()
+		{
+			@Override
+			public PaymentResult processTransaction(double totalAmount,
+					PaymentDetail paymentDetails)
+			{
+				return new PaymentResult("SUCCESS", "BENCH", "No-op");
+			}
+
+			@Override
+			public String getPaymentType()
+			{
+				return "No-op";
+			}
+		};
+		Customer customer = customer(0);
+		PaymentDetail detail = new PaymentDetail(0, noOp, customer);
+		OrderManager orderManager = new OrderManager(inventory, noOp);
+
+		bench("orderManager.placeOrder.2items", () -> {
+			for (Product product : products)
+			{
+				customer.getCart().addProduct(product, 1);
+			}
+			try
+			{
+				Order order = orderManager.placeOrder(customer,
+						customer.getCart(), detail);
+				return order.getSaved().join();
+			}
+			catch (InsufficientStockException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	// ------Measurement------
+
+	/**
+	 * Purpose: Warms up and times one operation, then records and prints
+	 * its time and allocation per operation.
+	 *
+	 * @param name      Benchmark name
+	 * @param operation Operation to time
+	 */
+	private void bench(String name, Supplier<Object> operation)
+	{
+		if (!matchesFilter(name))
+		{
+			return;
+		}
+		for (int i = 0; i < WARMUP_ROUNDS; i++)
+		{
+			round(operation);
+		}
+
+		long operations = 0;
+		long nanos = 0;
+		long startBytes = allocatedBytes();
+		for (int i = 0; i < TIMED_ROUNDS; i++)
+		{
+			long[] round = round(operation);
+			operations += round[0];
+			nanos += round[1];
+		}
+		double bytesPerOp = (double) (allocatedBytes() - startBytes)
+				/ operations;
+		double nanosPerOp = (double) nanos / operations;
+
+		results.put(name, new double[] { nanosPerOp, bytesPerOp });
+		console.printf("%-48s %,16.1f ns/op %,14.1f bytes/op%n", name,
+				nanosPerOp, bytesPerOp);
+	}
+
+	/**
+	 * Purpose: Repeats an operation for at least ROUND_NANOS.
+	 *
+	 * @param operation Operation to repeat
+	 * @return {operations, nanoseconds}
+	 */
+	private static long[] round(Supplier<Object> operation)
+	{
+		long operations = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do
+		{
+			sink = operation.get();
+			operations++;
+			elapsed = System.nanoTime() - start;
+		}
+		while (elapsed < ROUND_NANOS);
+		return new long[] { operations, elapsed };
+	}
+
+	// ------Results------
+
+	/**
+	 * Purpose: Writes results as CSV.
+	 *
+	 * @param out File to write
+	 * @throws IOException If the file cannot be written
+	 */
+	private void writeResults(Path out) throws IOException
+	{
+		List<String> lines = new ArrayList<>();
+		lines.add("# " + Runtime.getRuntime().availableProcessors()
+				+ " cores, Java " + System.getProperty("java.version"));
+		lines.add("benchmark,ns_per_op,bytes_per_op");
+		for (Map.Entry<String, double[]> result : results.entrySet())
+		{
+			lines.add(String.format("%s,%.1f,%.1f", result.getKey(),
+					result.getValue()[0], result.getValue()[1]));
+		}
+		if (out.getParent() != null)
+		{
+			Files.createDirectories(out.getParent());
+		}
+		Files.write(out, lines, StandardCharsets.UTF_8);
+		console.println("BENCHMARKSUITE: Wrote " + results.size()
+				+ " results to " + out);
+	}
+
+	/**
+	 * Purpose: Compares results with a baseline CSV and flags slowdowns
+	 * past REGRESSION_TOLERANCE.
+	 *
+	 * @param baselineFile Baseline written by an earlier run
+	 * @throws IOException If the baseline cannot be read
+	 */
+	private void compare(Path baselineFile) throws IOException
+	{
+		Map<String, Double> baseline = new LinkedHashMap<>();
+		for (String line : Files.readAllLines(baselineFile))
+		{
+			String[] fields = line.split(",");
+			if (line.startsWith("#") || fields.length < 3
+					|| fields[0].equals("benchmark"))
+			{
+				continue;
+			}
+			baseline.put(fields[0], Double.parseDouble(fields[1]));
+		}
+
+		int regressions = 0;
+		console.println("\nBENCHMARKSUITE: Compared with " + baselineFile);
+		for (Map.Entry<String, double[]> result : results.entrySet())
+		{
+			Double before = baseline.get(result.getKey());
+			if (before == null)
+			{
+				console.printf("%-48s %16s%n", result.getKey(), "new");
+				continue;
+			}
+			double change = result.getValue()[0] / before - 1;
+			boolean regressed = change > REGRESSION_TOLERANCE;
+			if (regressed) regressions++;
+			console.printf("%-48s %+15.1f%%%s%n", result.getKey(),
+					change * 100, regressed ? "  REGRESSION" : "");
+		}
+		console.println("BENCHMARKSUITE: " + regressions + " regression(s)");
+	}
+
+	// ------Data------
+
+	/**
+	 * Purpose: Refuses to replace data files that were not generated by the
+	 * suite.
+	 *
+	 * @throws IOException If the marker cannot be created
+	 */
+	private static void checkWorkingDirectory() throws IOException
+	{
+		Path marker = Paths.get(BENCHMARK_MARKER);
+		for (String file : new String[] { FileDataSource.USERS_FILE,
+				FileDataSource.PRODUCTS_FILE, FileDataSource.ORDERS_FILE,
+				FileDataSource.LINE_ITEM_FILE })
+		{
+			if (Files.exists(Paths.get(file)) && !Files.exists(marker))
+			{
+				throw new IOException("The working directory has " + file
+						+ " but no " + BENCHMARK_MARKER
+						+ ". Run the suite from a scratch directory.");
+			}
+		}
+		if (!Files.exists(marker))
+		{
+			Files.createFile(marker);
+		}
+	}
+
+	/**
+	 * Purpose: Writes data files with the given number of records each.
+	 * Users are FARMERS farmers plus customers; every order has one line
+	 * item.
+	 *
+	 * @param records Records per file
+	 * @throws IOException If a file cannot be written
+	 */
+	private static void generateDataFiles(int records) throws IOException
+	{
+		Helper helper = new Helper();
+		try (BufferedWriter users = writer(FileDataSource.USERS_FILE);
+				BufferedWriter products = writer(FileDataSource.PRODUCTS_FILE);
+				BufferedWriter orders = writer(FileDataSource.ORDERS_FILE);
+				BufferedWriter lineItems = writer(
+						FileDataSource.LINE_ITEM_FILE))
+		{
+			for (int i = 0; i < records; i++)
+			{
+				Farmer farmer = farmer(i % FARMERS);
+				User user = i < FARMERS ? farmer : customer(i);
+				users.write(helper.serializeUser(user));
+				users.newLine();
+
+				Product product = product(i, farmer);
+				products.write(helper.serializeProduct(product));
+				products.newLine();
+
+				Order order = order(i, customer(i), product);
+				orders.write(helper.serializeOrder(order));
+				orders.newLine();
+				lineItems.write(
+						helper.serializeLineItem(order, order.getItems().get(0)));
+				lineItems.newLine();
+			}
+		}
+		// The sidecar index describes the old line items file
+		FileDataSource.getLineItemIndex().invalidate();
+	}
+
+	/**
+	 * Purpose: Opens a data file for writing from scratch.
+	 *
+	 * @param file Data file
+	 * @return writer Buffered writer
+	 * @throws IOException If the file cannot be opened
+	 */
+	private static BufferedWriter writer(String file) throws IOException
+	{
+		return Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Purpose: Builds farmer number i with a stable ID.
+	 */
+	private static Farmer farmer(int i)
+	{
+		return new Farmer(String.format("F-%08d", i), "farmer" + i, "pw",
+				"farmer" + i + "@bench.test", "Bench Farm " + i, "Bench County");
+	}
+
+	/**
+	 * Purpose: Builds customer number i with a stable ID.
+	 */
+	private static Customer customer(int i)
+	{
+		return new Customer(String.format("C-%08d", i), "customer" + i, "pw",
+				"customer" + i + "@bench.test", i + " Bench St");
+	}
+
+	/**
+	 * Purpose: Builds product number i with a stable SKU.
+	 */
+	private static Product product(int i, Farmer farmer)
+	{
+		return new Product(String.format("SKU-%08d", i), "Item " + i,
+				"Fresh from the farm", 1 + i % 500, farmer,
+				(i % 2000) / 100.0 + 0.25);
+	}
+
+	/**
+	 * Purpose: Builds order number i with one line item.
+	 */
+	private static Order order(int i, Customer customer, Product product)
+	{
+		List<LineItem> items = new ArrayList<>();
+		LineItem item = new LineItem(product, 1 + i % 12);
+		items.add(item);
+		Order order = new Order(orderId(i), customer, items, item.getTotal(),
+				customer.getShippingAddress(), "SUCCESS");
+		return order;
+	}
+
+	/**
+	 * Purpose: Returns the ID of order number i.
+	 */
+	private static String orderId(int i)
+	{
+		return String.format("ORD#-%08x", i);
+	}
+
+	/**
+	 * Purpose: Checks a benchmark name against the filter setting.
+	 *
+	 * @param name Benchmark name or name prefix
+	 * @return True if the benchmark should run
+	 */
+	private boolean matchesFilter(String name)
+	{
+		String filter = settings.get("filter");
+		return filter.isEmpty() || name.contains(filter)
+				|| filter.startsWith(name);
+	}
+
+	/**
+	 * Purpose: Returns bytes allocated so far by the current thread, or 0 if
+	 * the JVM does not report it.
+	 *
+	 * @return Allocated bytes
+	 */
+	private static long allocatedBytes()
+	{
+		java.lang.management.ThreadMXBean bean = ManagementFactory
+				.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean)
+		{
+			return ((com.sun.management.ThreadMXBean) bean)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+}
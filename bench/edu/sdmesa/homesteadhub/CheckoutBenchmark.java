@@ -0,0 +1,234 @@
+package edu.sdmesa.homesteadhub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of CheckoutBenchmark is to measure checkout
+ *          reservation throughput when N threads check out overlapping carts.
+ *
+ *          Every cart takes three of a small set of shared SKUs, in a
+ *          different order per thread, so carts contend for the same
+ *          products. InventoryManager.reserveAll is compared with a single
+ *          global lock around the old check-then-adjust loop. Payment and
+ *          file writes are left out so only the reservation step is measured.
+ *          After each run the stock plus the committed units must equal the
+ *          starting stock.
+ */
+public class CheckoutBenchmark
+{
+	private static final int SKU_COUNT = 8;
+	private static final int CHECKOUTS_PER_THREAD = 200_000;
+	private static final int[] THREAD_COUNTS = { 1, 2, 4, 8 };
+	private static final int WARMUP_ROUNDS = 2;
+
+	/**
+	 * Purpose: Runs both strategies at each thread count and prints one row
+	 * per run.
+	 *
+	 * @param args Optional checkouts per thread
+	 */
+	public static void main(String[] args)
+	{
+		int checkouts = args.length > 0 ? Integer.parseInt(args[0])
+				: CHECKOUTS_PER_THREAD;
+
+		for (int round = 0; round < WARMUP_ROUNDS; round++)
+		{
+			run(4, checkouts / 10, true, false);
+			run(4, checkouts / 10, false, false);
+		}
+
+		System.out.printf("CHECKOUTBENCHMARK: %,d checkouts per thread, "
+				+ "%d shared SKUs, %d cores%n", checkouts, SKU_COUNT,
+				Runtime.getRuntime().availableProcessors());
+		for (int threads : THREAD_COUNTS)
+		{
+			run(threads, checkouts, false, true);
+			run(threads, checkouts, true, true);
+		}
+	}
+
+	/**
+	 * Purpose: Runs one configuration.
+	 *
+	 * @param threads    Number of checkout threads
+	 * @param checkouts  Checkouts per thread
+	 * @param globalLock True for the global-lock baseline
+	 * @param print      True to print the result row
+	 */
+	private static void run(int threads, int checkouts, boolean globalLock,
+			boolean print)
+	{
+		InventoryManager inventory = new InventoryManager();
+		List<Product> products = new ArrayList<>();
+		int startStock = Integer.MAX_VALUE / 2;
+		for (int i = 0; i < SKU_COUNT; i++)
+		{
+			Product product = new Product("BENCH" + i, "Bench " + i, "",
+					startStock, (Farmer) null, 1.00);
+			products.add(product);
+			// Indexed like the app's catalog, so reserves pay for index
+			// updates too
+			inventory.addProduct(product);
+		}
+
+		Object lock = new Object();
+		AtomicLong committedUnits = new AtomicLong();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> workers = new ArrayList<>();
+
+		for (int t = 0; t < threads; t++)
+		{
+			List<LineItem> cart = overlappingCart(products, t);
+			Thread worker = new Thread(() -> {
+				try
+				{
+					start.await();
+				}
+				catch (InterruptedException e)
+				{
+					return;
+				}
+				long units = 0;
+				for (int i = 0; i < checkouts; i++)
+				{
+					if (globalLock)
+					{
+						units += checkoutWithGlobalLock(inventory, cart, lock);
+					}
+					else
+					{
+						units += checkoutWithReserveAll(inventory, cart);
+					}
+				}
+				committedUnits.addAndGet(units);
+			});
+			workers.add(worker);
+			worker.start();
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Thread worker : workers)
+		{
+			try
+			{
+				worker.join();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+		long nanos = System.nanoTime() - begin;
+
+		long remaining = 0;
+		for (Product product : products)
+		{
+			remaining += product.getStockQuantity();
+		}
+		boolean balanced = remaining + committedUnits.get()
+				== (long) startStock * SKU_COUNT;
+
+		if (print)
+		{
+			System.out.printf("%-12s threads=%d  %,12.0f checkouts/s  %s%n",
+					globalLock ? "global-lock" : "reserveAll", threads,
+					threads * (double) checkouts * 1e9 / nanos,
+					balanced ? "stock balanced" : "STOCK MISMATCH");
+		}
+	}
+
+	/**
+	 * Purpose: Builds a three-SKU cart starting at a different SKU per
+	 * thread and listed in descending order, so neighbouring threads share
+	 * SKUs but list them differently.
+	 *
+	 * @param products Shared products
+	 * @param thread   Thread index
+	 * @return cart Line items for the thread
+	 */
+	private static List<LineItem> overlappingCart(List<Product> products,
+			int thread)
+	{
+		List<LineItem> cart = new ArrayList<>();
+		for (int k = 2; k >= 0; k--)
+		{
+			Product product = products.get((thread + k) % products.size());
+			cart.add(new LineItem(product, 1 + k));
+		}
+		return cart;
+	}
+
+	/**
+	 * Purpose: Reserves and commits a cart with reserveAll.
+	 *
+	 * @param inventory Inventory to check out from
+	 * @param cart      Items to check out
+	 * @return units Units committed; 0 if the cart was short
+	 */
+	private static long checkoutWithReserveAll(InventoryManager inventory,
+			List<LineItem> cart)
+	{
+		try
+		{
+			Map<String, Integer> reservation = inventory.reserveAll(cart);
+			inventory.commitAll(reservation);
+			long units = 0;
+			for (int quantity : reservation.values())
+			{
+				units += quantity;
+			}
+			return units;
+		}
+		catch (InsufficientStockException e)
+		{
+			return 0;
+		}
+	}
+
+	/**
+	 * Purpose: Baseline - checks then decrements each item under one lock
+	 * shared by every checkout.
+	 *
+	 * @param inventory Inventory to check out from
+	 * @param cart      Items to check out
+	 * @param lock      Global lock
+	 * @return units Units taken; 0 if the cart was short
+	 */
+	private static long checkoutWithGlobalLock(InventoryManager inventory,
+			List<LineItem> cart, Object lock)
+	{
+		synchronized (lock)
+		{
+			for (LineItem item : cart)
+			{
+				Product product = inventory.getProduct(item.getSku());
+				if (product.getStockQuantity() < item.getQuantity()) return 0;
+			}
+			long units = 0;
+			for (LineItem item : cart)
+			{
+				Product product = inventory.getProduct(item.getSku());
+				product.setStockQuantity(
+						product.getStockQuantity() - item.getQuantity());
+				units += item.getQuantity();
+			}
+			return units;
+		}
+	}
+}
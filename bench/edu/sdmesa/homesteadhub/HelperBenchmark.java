@@ -0,0 +1,226 @@
+package edu.sdmesa.homesteadhub;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of HelperBenchmark is to compare Helper's
+ *          CsvCursor-based deserializers with the String.split versions they
+ *          replaced, on one million generated product and line item lines.
+ *
+ *          Lines are generated in memory so file I/O is not measured. Each
+ *          parser gets warm-up rounds before the timed rounds, and the
+ *          current thread's allocated bytes are reported per line.
+ */
+public class HelperBenchmark
+{
+	private static final int LINES = 1_000_000;
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int TIMED_ROUNDS = 5;
+
+	// Keeps results reachable so the JIT cannot drop the parsing
+	private static Object sink;
+
+	/**
+	 * Purpose: Runs the benchmark and prints one row per parser.
+	 *
+	 * @param args Optional line count
+	 */
+	public static void main(String[] args)
+	{
+		int lines = args.length > 0 ? Integer.parseInt(args[0]) : LINES;
+		Helper helper = new Helper();
+
+		List<String> products = productLines(lines);
+		List<String> lineItems = lineItemLines(lines);
+		checkSameResults(helper, products, lineItems);
+
+		System.out.printf("HELPERBENCHMARK: %,d lines per round%n", lines);
+		run("deserializeProduct  split ", products,
+				HelperBenchmark::splitProduct);
+		run("deserializeProduct  cursor", products,
+				helper::deserializeProduct);
+		run("deserializeLineItem split ", lineItems,
+				HelperBenchmark::splitLineItem);
+		run("deserializeLineItem cursor", lineItems,
+				helper::deserializeLineItem);
+	}
+
+	/**
+	 * Purpose: Times one parser over every line.
+	 *
+	 * @param name   Label to print
+	 * @param lines  Lines to parse
+	 * @param parser Parser under test
+	 */
+	private static void run(String name, List<String> lines,
+			Function<String, Object> parser)
+	{
+		for (int i = 0; i < WARMUP_ROUNDS; i++)
+		{
+			parseAll(lines, parser);
+		}
+
+		long startBytes = allocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < TIMED_ROUNDS; i++)
+		{
+			parseAll(lines, parser);
+		}
+		long elapsed = (System.nanoTime() - start) / TIMED_ROUNDS;
+		long allocated = (allocatedBytes() - startBytes) / TIMED_ROUNDS;
+
+		System.out.printf("HELPERBENCHMARK: %s %7.1f ms/round %7.1f bytes/line%n",
+				name, elapsed / 1e6, (double) allocated / lines.size());
+	}
+
+	/**
+	 * Purpose: Parses every line once.
+	 *
+	 * @param lines  Lines to parse
+	 * @param parser Parser under test
+	 */
+	private static void parseAll(List<String> lines,
+			Function<String, Object> parser)
+	{
+		for (String line : lines)
+		{
+			sink = parser.apply(line);
+		}
+	}
+
+	/**
+	 * Purpose: Checks that both parsers agree on a sample of lines before
+	 * timing them.
+	 *
+	 * @param helper    Helper under test
+	 * @param products  Product lines
+	 * @param lineItems Line item lines
+	 */
+	private static void checkSameResults(Helper helper, List<String> products,
+			List<String> lineItems)
+	{
+		for (int i = 0; i < Math.min(10_000, products.size()); i++)
+		{
+			Product expected = splitProduct(products.get(i));
+			Product actual = helper.deserializeProduct(products.get(i));
+			if (!expected.getSku().equals(actual.getSku())
+					|| expected.getStockQuantity() != actual.getStockQuantity()
+					|| expected.calculatePrice() != actual.calculatePrice())
+			{
+				throw new IllegalStateException(
+						"Parsers disagree on " + products.get(i));
+			}
+
+			LineItem expectedItem = splitLineItem(lineItems.get(i));
+			LineItem actualItem = helper.deserializeLineItem(lineItems.get(i));
+			if (expectedItem.getQuantity() != actualItem.getQuantity()
+					|| expectedItem.getUnitPrice() != actualItem.getUnitPrice()
+					|| expectedItem.getTotal() != actualItem.getTotal()
+					|| !expectedItem.getFarmer().equals(actualItem.getFarmer()))
+			{
+				throw new IllegalStateException(
+						"Parsers disagree on " + lineItems.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Generates product lines in Helper.serializeProduct's format.
+	 *
+	 * @param count Number of lines
+	 * @return lines Generated lines
+	 */
+	private static List<String> productLines(int count)
+	{
+		List<String> lines = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			lines.add(String.format("SIMPLE,%08x-4b1c-4a3e-9d2f-%012x,Item %d,"
+					+ "Fresh from the farm,%010d,%.2f,farmer%d", i, i, i,
+					i % 500, (i % 2000) / 100.0 + 0.25, i % 50));
+		}
+		return lines;
+	}
+
+	/**
+	 * Purpose: Generates line item lines in Helper.serializeLineItem's format.
+	 *
+	 * @param count Number of lines
+	 * @return lines Generated lines
+	 */
+	private static List<String> lineItemLines(int count)
+	{
+		List<String> lines = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+		{
+			int qty = 1 + i % 12;
+			double price = (i % 2000) / 100.0 + 0.25;
+			lines.add(String.format("ORD#-%08x,%08x-4b1c-4a3e-9d2f-%012x,"
+					+ "Item %d,%d,%.2f,%.2f,customer%d,farmer%d", i, i, i, i,
+					qty, price, qty * price, i % 300, i % 50));
+		}
+		return lines;
+	}
+
+	/**
+	 * Purpose: The String.split product parser Helper used before CsvCursor.
+	 *
+	 * @param data Product line
+	 * @return Product; null if the line is invalid
+	 */
+	private static Product splitProduct(String data)
+	{
+		String[] parts = data.split(",");
+		if (parts.length < 7) return null;
+		return new Product(parts[1], parts[2], parts[3],
+				Integer.parseInt(parts[4]), parts[6],
+				Double.parseDouble(parts[5]));
+	}
+
+	/**
+	 * Purpose: The String.split line item parser Helper used before
+	 * CsvCursor.
+	 *
+	 * @param data Line item line
+	 * @return LineItem; null if the line is invalid
+	 */
+	private static LineItem splitLineItem(String data)
+	{
+		String[] parts = data.split(",");
+		if (parts.length < 8) return null;
+		return new LineItem(parts[0], parts[1], parts[2],
+				Integer.parseInt(parts[3]), Double.parseDouble(parts[4]),
+				Double.parseDouble(parts[5]), parts[6], parts[7]);
+	}
+
+	/**
+	 * Purpose: Returns bytes allocated so far by the current thread, or 0 if
+	 * the JVM does not report it.
+	 *
+	 * @return Allocated bytes
+	 */
+	private static long allocatedBytes()
+	{
+		java.lang.management.ThreadMXBean bean = ManagementFactory
+				.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean)
+		{
+			return ((com.sun.management.ThreadMXBean) bean)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+}
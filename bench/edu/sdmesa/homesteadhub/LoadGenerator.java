@@ -0,0 +1,518 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of LoadGenerator is to drive the checkout path
+ *          headlessly with many concurrent customers and farmers, once for
+ *          each DataRepository implementation.
+ *
+ *          Each run seeds farmers, customers and a catalog into the
+ *          repository, then starts every session at once on a worker pool.
+ *          A customer session logs in through PortalManager, fills its cart
+ *          with Cart.addProduct and checks out with OrderManager.placeOrder.
+ *          A farmer session logs in and reads its sales. Cart SKUs follow a
+ *          Zipf distribution, so a few hot products are contended. After the
+ *          run every order is awaited and the stock is audited. A product
+ *          is oversold if its stock went negative or it lost more units than
+ *          were ordered. Its stored stock must also match the catalog.
+ *
+ *          Sessions write to the data files in the working directory (and
+ *          data_log/ for the log repository), so run it from a scratch
+ *          directory. Settings are key=value arguments, e.g.
+ *          sessions=5000 threads=128 products=500 stock=40 maxItems=4
+ *          skew=1.2 farmerShare=0.1 repos=file,mapped,cached,log
+ */
+public class LoadGenerator
+{
+	// Settings and their defaults
+	private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+	static
+	{
+		DEFAULTS.put("sessions", "2000");
+		DEFAULTS.put("threads", "64");
+		DEFAULTS.put("farmers", "20");
+		DEFAULTS.put("products", "200");
+		DEFAULTS.put("stock", "50");
+		DEFAULTS.put("maxItems", "4");
+		DEFAULTS.put("skew", "1.0");
+		DEFAULTS.put("farmerShare", "0.1");
+		DEFAULTS.put("repos", "file,mapped,cached,log");
+	}
+
+	private static final String PASSWORD = "load";
+
+	private final Map<String, String> settings;
+	private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+	/**
+	 * Purpose: Constructor that reads key=value settings
+	 *
+	 * @param args Settings; missing keys use DEFAULTS
+	 */
+	public LoadGenerator(String[] args)
+	{
+		settings = new LinkedHashMap<>(DEFAULTS);
+		for (String arg : args)
+		{
+			int equals = arg.indexOf('=');
+			if (equals < 0 || !DEFAULTS.containsKey(arg.substring(0, equals)))
+			{
+				throw new IllegalArgumentException("Unknown setting: " + arg
+						+ ". Known settings: " + DEFAULTS.keySet());
+			}
+			settings.put(arg.substring(0, equals), arg.substring(equals + 1));
+		}
+	}
+
+	/**
+	 * Purpose: Runs the load once per repository and prints a report.
+	 *
+	 * @param args key=value settings
+	 */
+	public static void main(String[] args)
+	{
+		LoadGenerator generator = new LoadGenerator(args);
+		System.out.println("LOADGENERATOR: " + generator.settings);
+
+		List<Report> reports = new ArrayList<>();
+		for (String repo : generator.settings.get("repos").split(","))
+		{
+			try
+			{
+				reports.add(generator.run(repo.trim()));
+			}
+			catch (IOException | RuntimeException e)
+			{
+				System.err.println(
+						"Error running " + repo + " load: " + e.getMessage());
+			}
+		}
+
+		System.out.println();
+		for (Report report : reports)
+		{
+			report.print();
+		}
+	}
+
+	/**
+	 * Purpose: Creates a repository by name.
+	 *
+	 * @param name file, mapped, cached or log
+	 * @return repository New repository over the working directory
+	 * @throws IOException If the log repository cannot be opened
+	 */
+	private static DataRepository repository(String name) throws IOException
+	{
+		switch (name)
+		{
+			case "file":
+				return new FileDataSource();
+			case "mapped":
+				return new FileDataSource(FileDataSource.ReadMode.MAPPED);
+			case "cached":
+				return new CachedDataSource(new FileDataSource());
+			case "log":
+				return new LogDataSource();
+			default:
+				throw new IllegalArgumentException("Unknown repository: "
+						+ name + ". Use file, mapped, cached or log");
+		}
+	}
+
+	/**
+	 * Purpose: Seeds one repository, runs every session and audits stock.
+	 *
+	 * @param repoName Repository to load
+	 * @return report Results of the run
+	 * @throws IOException If the repository cannot be opened
+	 */
+	private Report run(String repoName) throws IOException
+	{
+		int sessions = intSetting("sessions");
+		int threads = intSetting("threads");
+		int farmerCount = intSetting("farmers");
+		int productCount = intSetting("products");
+		int stock = intSetting("stock");
+		int maxItems = intSetting("maxItems");
+		double farmerShare = Double.parseDouble(settings.get("farmerShare"));
+
+		// The checkout path logs every step; keep it off the console
+		PrintStream console = System.out;
+		AppLogger.Level logLevel = AppLogger.getLevel();
+		AppLogger.setLevel(AppLogger.Level.WARN);
+		try
+		{
+			console.println("LOADGENERATOR: Seeding " + repoName + "...");
+			DataRepository repository = repository(repoName);
+			InventoryManager inventory = new InventoryManager();
+			AppInitializer.initialize(repository, inventory);
+
+			// Farmers and catalog
+			String prefix = "load-" + runId + "-" + repoName + "-";
+			List<Farmer> farmers = new ArrayList<>();
+			for (int i = 0; i < farmerCount; i++)
+			{
+				Farmer farmer = new Farmer(prefix + "farmer" + i, PASSWORD,
+						prefix + "farmer" + i + "@load.test", "Load Farm " + i,
+						"Load County");
+				repository.saveUser(farmer);
+				farmers.add(farmer);
+			}
+			List<Product> products = new ArrayList<>();
+			for (int i = 0; i < productCount; i++)
+			{
+				Product product = new Product(prefix + "sku" + i,
+						"Load Item " + i, "Load test product", stock,
+						farmers.get(i % farmers.size()), 1.00 + i % 20);
+				repository.saveProduct(product);
+				inventory.addProduct(product);
+				products.add(product);
+			}
+
+			// Customers are saved so PortalManager loads them like real users
+			int customerCount = sessions - (int) (sessions * farmerShare);
+			List<Customer> customers = new ArrayList<>();
+			for (int i = 0; i < customerCount; i++)
+			{
+				Customer customer = new Customer(prefix + "customer" + i,
+						PASSWORD, prefix + "customer" + i + "@load.test",
+						i + " Load St");
+				repository.saveUser(customer);
+				customers.add(customer);
+			}
+			PortalManager portal = new PortalManager(repository);
+			// Timed wrapper installed by initialize, so reads show in metrics
+			DataRepository timedRepository = AppInitializer.getRepository();
+
+			OrderManager orderManager = new OrderManager(inventory,
+					new CashPickupProcessor());
+			double[] skuWeights = zipfCumulative(productCount,
+					Double.parseDouble(settings.get("skew")));
+
+			Report report = new Report(repoName, sessions);
+			Map<String, LongAdder> ordered = new ConcurrentHashMap<>();
+			List<CompletableFuture<Order>> saves = new ArrayList<>();
+			AtomicInteger nextCustomer = new AtomicInteger();
+			AtomicInteger nextFarmer = new AtomicInteger();
+			CountDownLatch start = new CountDownLatch(1);
+			ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+			console.println("LOADGENERATOR: Running " + sessions
+					+ " sessions on " + repoName + "...");
+			for (int i = 0; i < sessions; i++)
+			{
+				boolean farmerSession = i >= customerCount;
+				pool.execute(() -> {
+					try
+					{
+						start.await();
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+						return;
+					}
+					long begin = System.nanoTime();
+					try
+					{
+						if (farmerSession)
+						{
+							Farmer farmer = farmers.get(nextFarmer
+									.getAndIncrement() % farmers.size());
+							portal.login(farmer.getUsername(), PASSWORD);
+							timedRepository.findOrdersToFarmer(farmer);
+							report.farmerLatencies.add(System.nanoTime() - begin);
+							return;
+						}
+
+						Customer customer = customers
+								.get(nextCustomer.getAndIncrement());
+						portal.login(customer.getUsername(), PASSWORD);
+						Cart cart = customer.getCart();
+						int items = 1 + ThreadLocalRandom.current()
+								.nextInt(maxItems);
+						for (int k = 0; k < items; k++)
+						{
+							cart.addProduct(
+									products.get(pickSku(skuWeights)),
+									1 + ThreadLocalRandom.current().nextInt(3));
+						}
+						Map<String, Integer> quantities = new HashMap<>();
+						for (LineItem item : cart.getItemMap().values())
+						{
+							quantities.put(item.getSku(), item.getQuantity());
+						}
+
+						Order order = orderManager.placeOrder(customer, cart,
+								new PaymentDetail(cart.calculateSubtotal(),
+										new CashPickupProcessor(), customer));
+						report.customerLatencies.add(System.nanoTime() - begin);
+						report.orders.increment();
+						quantities.forEach((sku, quantity) -> ordered
+								.computeIfAbsent(sku, key -> new LongAdder())
+								.add(quantity));
+						synchronized (saves)
+						{
+							saves.add(order.getSaved());
+						}
+					}
+					catch (InsufficientStockException e)
+					{
+						report.customerLatencies.add(System.nanoTime() - begin);
+						report.rejected.increment();
+					}
+					catch (Exception e)
+					{
+						report.errors.increment();
+						report.lastError = e.toString();
+					}
+				});
+			}
+
+			// Metrics cover the timed sessions only
+			AppInitializer.getMetrics().reset();
+			long begin = System.nanoTime();
+			start.countDown();
+			pool.shutdown();
+			try
+			{
+				pool.awaitTermination(1, TimeUnit.HOURS);
+				CompletableFuture.allOf(saves.toArray(new CompletableFuture<?>[0]))
+						.get(5, TimeUnit.MINUTES);
+			}
+			catch (Exception e)
+			{
+				report.errors.increment();
+				report.lastError = "Waiting for saves: " + e;
+			}
+			report.nanos = System.nanoTime() - begin;
+			report.timers = AppInitializer.getMetrics().timerSnapshot();
+
+			audit(report, repository, products, stock, ordered);
+			return report;
+		}
+		finally
+		{
+			AppLogger.flush();
+			AppLogger.setLevel(logLevel);
+		}
+	}
+
+	/**
+	 * Purpose: Counts oversold products and products whose stored stock
+	 * does not match the catalog.
+	 *
+	 * @param report     Report to fill in
+	 * @param repository Repository the run wrote to
+	 * @param products   Catalog products
+	 * @param stock      Starting stock of every product
+	 * @param ordered    SKU -> units in placed orders
+	 */
+	private static void audit(Report report, DataRepository repository,
+			List<Product> products, int stock, Map<String, LongAdder> ordered)
+	{
+		for (Product product : products)
+		{
+			LongAdder sold = ordered.get(product.getSku());
+			long units = sold == null ? 0 : sold.sum();
+			int remaining = product.getStockQuantity();
+			if (remaining < 0 || stock - remaining > units)
+			{
+				report.oversold++;
+			}
+
+			Product stored = repository.findProductBySku(product.getSku(),
+					product.getFarmer());
+			if (stored == null || stored.getStockQuantity() != remaining)
+			{
+				report.storedMismatches++;
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Builds cumulative Zipf weights; skew 0 is uniform.
+	 *
+	 * @param count Number of products
+	 * @param skew  Zipf exponent
+	 * @return cumulative Normalized cumulative weights
+	 */
+	private static double[] zipfCumulative(int count, double skew)
+	{
+		double[] cumulative = new double[count];
+		double total = 0;
+		for (int rank = 1; rank <= count; rank++)
+		{
+			total += 1.0 / Math.pow(rank, skew);
+			cumulative[rank - 1] = total;
+		}
+		for (int i = 0; i < count; i++)
+		{
+			cumulative[i] /= total;
+		}
+		return cumulative;
+	}
+
+	/**
+	 * Purpose: Picks a product index from cumulative weights.
+	 *
+	 * @param cumulative Weights from zipfCumulative
+	 * @return index Product index
+	 */
+	private static int pickSku(double[] cumulative)
+	{
+		int index = Arrays.binarySearch(cumulative,
+				ThreadLocalRandom.current().nextDouble());
+		index = index >= 0 ? index : -index - 1;
+		return Math.min(index, cumulative.length - 1);
+	}
+
+	/**
+	 * Purpose: Reads an integer setting.
+	 *
+	 * @param key Setting name
+	 * @return value Setting value
+	 */
+	private int intSetting(String key)
+	{
+		return Integer.parseInt(settings.get(key));
+	}
+
+	/**
+	 * Purpose: Results of one repository's run.
+	 */
+	private static final class Report
+	{
+		private final String repository;
+		private final int sessions;
+		private final LatencyLog customerLatencies;
+		private final LatencyLog farmerLatencies;
+		private final LongAdder orders = new LongAdder();
+		private final LongAdder rejected = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private volatile String lastError;
+		private long nanos;
+		private int oversold;
+		private int storedMismatches;
+		// Stage, payment, login and repository timers from the run
+		private Map<String, LatencyHistogram.Snapshot> timers = Map.of();
+
+		Report(String repository, int sessions)
+		{
+			this.repository = repository;
+			this.sessions = sessions;
+			this.customerLatencies = new LatencyLog(sessions);
+			this.farmerLatencies = new LatencyLog(sessions);
+		}
+
+		/**
+		 * Purpose: Prints the report.
+		 */
+		void print()
+		{
+			System.out.printf("%-7s %,7d sessions in %,6d ms  %,8.0f sessions/s%n",
+					repository, sessions, TimeUnit.NANOSECONDS.toMillis(nanos),
+					sessions * 1e9 / nanos);
+			System.out.println("        checkout " + customerLatencies.summary());
+			System.out.println("        farmer   " + farmerLatencies.summary());
+			System.out.printf("        orders=%,d rejected=%,d errors=%,d "
+					+ "oversold=%d storedMismatches=%d%n", orders.sum(),
+					rejected.sum(), errors.sum(), oversold, storedMismatches);
+			if (lastError != null)
+			{
+				System.out.println("        last error: " + lastError);
+			}
+			timers.forEach((name, summary) -> {
+				if (summary.getCount() > 0)
+				{
+					System.out.printf("        %-34s %s%n", name, summary);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Purpose: Thread-safe list of latencies with percentiles.
+	 */
+	private static final class LatencyLog
+	{
+		private final long[] nanos;
+		private final AtomicInteger size = new AtomicInteger();
+
+		LatencyLog(int capacity)
+		{
+			nanos = new long[capacity];
+		}
+
+		/**
+		 * Purpose: Records one latency.
+		 *
+		 * @param latency Nanoseconds
+		 */
+		void add(long latency)
+		{
+			nanos[size.getAndIncrement()] = latency;
+		}
+
+		/**
+		 * Purpose: Formats the count and p50/p99/p999 in milliseconds.
+		 *
+		 * @return summary Text summary
+		 */
+		String summary()
+		{
+			int count = size.get();
+			if (count == 0)
+			{
+				return "n=0";
+			}
+			long[] sorted = Arrays.copyOf(nanos, count);
+			Arrays.sort(sorted);
+			return String.format("n=%,d p50=%.2f ms p99=%.2f ms p999=%.2f ms",
+					count, percentile(sorted, 0.50), percentile(sorted, 0.99),
+					percentile(sorted, 0.999));
+		}
+
+		/**
+		 * Purpose: Reads a percentile from sorted latencies.
+		 *
+		 * @param sorted   Sorted nanoseconds
+		 * @param fraction Percentile as a fraction
+		 * @return millis Latency in milliseconds
+		 */
+		private static double percentile(long[] sorted, double fraction)
+		{
+			int index = Math.min(sorted.length - 1,
+					(int) Math.ceil(fraction * sorted.length) - 1);
+			return sorted[Math.max(0, index)] / 1e6;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package edu.sdmesa.homesteadhub;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of ReadModeBenchmark is to compare the BUFFERED
+ *          and MAPPED read modes of FileDataSource on the data files in the
+ *          working directory.
+ *
+ *          Run it from a directory holding a large copy of the data files.
+ *          Each read gets warm-up rounds before the timed rounds.
+ */
+public class ReadModeBenchmark
+{
+	private static final int WARMUP_ROUNDS = 2;
+	private static final int TIMED_ROUNDS = 5;
+
+	/**
+	 * Purpose: Runs each read in both modes and prints one row per run.
+	 *
+	 * @param args Not used
+	 */
+	public static void main(String[] args)
+	{
+		FileDataSource buffered = new FileDataSource(
+				FileDataSource.ReadMode.BUFFERED);
+		FileDataSource mapped = new FileDataSource(
+				FileDataSource.ReadMode.MAPPED);
+
+		// A SKU near the end of the file so a lookup scans most of it
+		List<Product> products = buffered.findAllProducts();
+		String lastSku = products.isEmpty() ? ""
+				: products.get(products.size() - 1).getSku();
+		Customer customer = new Customer("benchmark-customer", "benchmark", "",
+				"", "");
+
+		compare("findAllProducts", buffered, mapped,
+				repository -> repository.findAllProducts().size());
+		compare("findLineItems", buffered, mapped,
+				repository -> repository.findLineItems().size());
+		compare("findProductBySku", buffered, mapped,
+				repository -> repository.findProductBySku(lastSku,
+						null) == null ? 0 : 1);
+		compare("findOrdersByCustomer", buffered, mapped,
+				repository -> repository.findOrdersByCustomer(customer)
+						.size());
+	}
+
+	/**
+	 * Purpose: Times one read in both modes.
+	 *
+	 * @param name     Label to print
+	 * @param buffered Repository in BUFFERED mode
+	 * @param mapped   Repository in MAPPED mode
+	 * @param read     Read to time; returns the number of records found
+	 */
+	private static void compare(String name, FileDataSource buffered,
+			FileDataSource mapped, ToIntFunction<FileDataSource> read)
+	{
+		for (FileDataSource repository : new FileDataSource[] { buffered,
+				mapped })
+		{
+			int records = 0;
+			for (int i = 0; i < WARMUP_ROUNDS; i++)
+			{
+				records = read.applyAsInt(repository);
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < TIMED_ROUNDS; i++)
+			{
+				read.applyAsInt(repository);
+			}
+			long elapsed = (System.nanoTime() - start) / TIMED_ROUNDS;
+
+			System.out.printf(
+					"READMODEBENCHMARK: %-20s %-8s %8.1f ms/round %,10d records%n",
+					name, repository.getReadMode(), elapsed / 1e6, records);
+		}
+	}
+}
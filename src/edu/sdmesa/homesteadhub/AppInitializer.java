@@ -1,5 +1,9 @@
 package edu.sdmesa.homesteadhub;
 
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Lead Author(s):
  * 
@@ -16,15 +20,44 @@ package edu.sdmesa.homesteadhub;
  *          function.
  *
  *          AppInitializer has-a Farmer, Customer, InventoryManager,
- *          PortalManager, and DataRepository
+ *          PortalManager, DataRepository, MetricsRegistry, and
+ *          ImageIngestor
  */
 public class AppInitializer
 {
-	private static DataRepository repository = new FileDataSource();
+	// Counters and timers for the whole application
+	private static MetricsRegistry metrics = MetricsRegistry.getDefault();
+
+	private static CachedDataSource cache = new CachedDataSource(
+			new FileDataSource());
+	private static DataRepository repository = new InstrumentedDataSource(
+			cache, metrics);
 
 	private static InventoryManager inventoryManager = new InventoryManager();
+
+	// Loads users before the PortalManager below reads them, then keeps
+	// loading products and line items in the background
+	private static CompletableFuture<Void> backgroundLoad = new ParallelDataLoader()
+			.loadInto(cache, inventoryManager);
+
 	private static PortalManager portalManager = new PortalManager(repository);
 
+	// Non-blocking repository and payment calls for GUI event handlers
+	private static AsyncDataService asyncService = new AsyncDataService(
+			repository);
+
+	// How long stock stays held in a customer's cart. Holds are off unless
+	// started with -Dhomesteadhub.cartHolds=true
+	private static final Duration CART_HOLD_TTL = Duration.ofMinutes(15);
+	private static final boolean CART_HOLDS_ENABLED = Boolean
+			.parseBoolean(System.getProperty("homesteadhub.cartHolds", "false"));
+	private static StockHoldManager stockHolds = new StockHoldManager(
+			inventoryManager, CART_HOLD_TTL);
+
+	// Turns uploaded product photos into thumbnail and detail renditions
+	private static ImageIngestor imageIngestor = new ImageIngestor(
+			Paths.get("app_assets", "images"), metrics);
+
 	// Not needed if sign up method is created
 	private static Farmer farmer;
 	private static Customer customer;
@@ -37,8 +70,51 @@ public class AppInitializer
 	 */
 	private AppInitializer(DataRepository repo, InventoryManager im)
 	{
-		repository = repo;
+		// Every repository call is timed, whichever repository is installed
+		repository = repo instanceof InstrumentedDataSource ? repo
+				: new InstrumentedDataSource(repo, metrics);
+
+		// Warm the cache and catalog actually installed. A replaced cache
+		// is no longer read, so loading it would be wasted.
+		CachedDataSource installedCache = cacheOf(repository);
+		if (installedCache != cache || im != inventoryManager)
+		{
+			cache = installedCache;
+			backgroundLoad = installedCache == null
+					? CompletableFuture.completedFuture(null)
+					: new ParallelDataLoader().loadInto(installedCache, im);
+		}
 		inventoryManager = im;
+
+		// Logins must read the installed repository. Users added only in
+		// memory, e.g. by userCreation, are kept.
+		PortalManager previousPortal = portalManager;
+		portalManager = new PortalManager(repository);
+		previousPortal.getUserRoster()
+				.forEach(portalManager.getUserRoster()::putIfAbsent);
+
+		asyncService.shutdown();
+		asyncService = new AsyncDataService(repository);
+
+		// Holds must be taken from the inventory that checkout uses
+		stockHolds.shutdown();
+		stockHolds = new StockHoldManager(im, CART_HOLD_TTL);
+	}
+
+	/**
+	 * Purpose: Finds the cache behind a repository, if it has one.
+	 * 
+	 * @param repo Repository, possibly wrapped in an InstrumentedDataSource
+	 * @return cache The CachedDataSource; null if the repository is uncached
+	 */
+	private static CachedDataSource cacheOf(DataRepository repo)
+	{
+		if (repo instanceof InstrumentedDataSource)
+		{
+			repo = ((InstrumentedDataSource) repo).getDelegate();
+		}
+		return repo instanceof CachedDataSource ? (CachedDataSource) repo
+				: null;
 	}
 
 	/**
@@ -60,7 +136,7 @@ public class AppInitializer
 		// Add Users to PortalManager
 		portalManager.addUser(farmer);
 		portalManager.addUser(customer);
-		System.out.println("\nUsers added to Roster: "
+		AppLogger.info("\nUsers added to Roster: "
 				+ portalManager.getUserRoster().keySet());
 	}
 
@@ -97,6 +173,58 @@ public class AppInitializer
 		return portalManager;
 	}
 
+	/**
+	 * Purpose: Returns the non-blocking facade over the central repository.
+	 * 
+	 * @return asyncService Async repository and payment calls
+	 */
+	public static AsyncDataService getAsyncService()
+	{
+		return asyncService;
+	}
+
+	/**
+	 * Purpose: Returns the registry of application counters and timers.
+	 * 
+	 * @return metrics Central metrics registry
+	 */
+	public static MetricsRegistry getMetrics()
+	{
+		return metrics;
+	}
+
+	/**
+	 * Purpose: Returns the pipeline that stores uploaded product images.
+	 * 
+	 * @return imageIngestor Central image ingestor
+	 */
+	public static ImageIngestor getImageIngestor()
+	{
+		return imageIngestor;
+	}
+
+	/**
+	 * Purpose: Returns the manager for timed cart stock holds.
+	 * 
+	 * @return stockHolds Hold manager; null when cart holds are turned off
+	 */
+	public static StockHoldManager getStockHolds()
+	{
+		return CART_HOLDS_ENABLED ? stockHolds : null;
+	}
+
+	/**
+	 * Purpose: Returns the background load of products and line items into
+	 * the installed cache and inventory, started at startup and again by
+	 * initialize when they are replaced.
+	 * 
+	 * @return backgroundLoad Future completed once loading is done
+	 */
+	public static CompletableFuture<Void> getBackgroundLoad()
+	{
+		return backgroundLoad;
+	}
+
 	/**
 	 * Purpose: Allows us to pull data repository from diffrent classes such as
 	 * Tester and AppInitializer(here)
@@ -1,5 +1,8 @@
 package edu.sdmesa.homesteadhub;
 
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 import javafx.application.Application;
 
 /**
@@ -29,9 +32,16 @@ public class AppLauncher
 		// To start with a clean application, comment out the 3 lines below to
 		// ommit test data and purge the 4 data files
 		Tester.startTester();
-		AppInitializer.initialize(Tester.getRepository(),
+		AppInitializer.initialize(new CachedDataSource(Tester.getRepository()),
 				Tester.getInventoryManager());
 
+		// Drops superseded records from the data files in the background
+		new DataCompactor().start(30, TimeUnit.MINUTES);
+
+		// Writes counters and latency percentiles for a look at where time goes
+		AppInitializer.getMetrics().startDump(Paths.get("metrics.txt"), 1,
+				TimeUnit.MINUTES);
+
 		// This will launch the JavaFX runtime and display the Login window.
 		AppLauncher.launchApp(args);
 	}
@@ -0,0 +1,361 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.PrintStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of AppLogger is to take diagnostic messages off
+ *          the calling thread. Each message has a level, and messages below
+ *          the current level are dropped.
+ *
+ *          A call below the level costs one volatile read and a compare.
+ *          Hot loops can check isDebugEnabled() first so they do not build
+ *          arguments either. An enabled call claims a slot in a fixed ring
+ *          buffer with one atomic increment, stores the format and
+ *          arguments, and publishes the slot. It never locks and never calls
+ *          String.format. A single daemon thread drains the ring in order,
+ *          formats each message and prints it: DEBUG and INFO to
+ *          System.out, WARN and ERROR to System.err. When the ring is empty
+ *          the drain parks, and the caller that publishes into it wakes it,
+ *          so an idle logger uses no CPU. If the ring is full, callers park
+ *          until the drain frees a slot instead of losing messages. A
+ *          shutdown hook flushes what is left.
+ *
+ *          Arguments are formatted later on the drain thread, so pass values
+ *          (strings, numbers), not objects that may still change. A message
+ *          with no arguments is printed as is, even if it contains '%'.
+ *
+ *          The starting level comes from -Dhomesteadhub.logLevel (DEBUG,
+ *          INFO, WARN, ERROR or OFF) and defaults to INFO.
+ */
+public final class AppLogger
+{
+	/**
+	 * Purpose: Message severity, lowest first.
+	 */
+	public enum Level
+	{
+		DEBUG, INFO, WARN, ERROR, OFF
+	}
+
+	// Power of two so a sequence maps to a slot with a mask
+	private static final int CAPACITY = 4096;
+	private static final int MASK = CAPACITY - 1;
+	// Longest a flush or a caller on a full ring parks before checking again
+	private static final long WAIT_PARK_NANOS = TimeUnit.MILLISECONDS
+			.toNanos(1);
+	private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS
+			.toNanos(5);
+
+	private static final Entry[] ring = new Entry[CAPACITY];
+	// Sequence last published in each slot; the drain prints a slot once it
+	// holds the sequence the drain is waiting for
+	private static final AtomicLongArray published = new AtomicLongArray(
+			CAPACITY);
+	// Next sequence a caller will claim
+	private static final AtomicLong claimed = new AtomicLong();
+	// Next sequence the drain will print. Only the drain thread writes it.
+	private static volatile long drained;
+	// Set while the drain is parked on an empty ring
+	private static volatile boolean drainParked;
+	// Callers parked on a full ring
+	private static final Queue<Thread> fullWaiters = new ConcurrentLinkedQueue<>();
+
+	private static volatile Level level = parseLevel(
+			System.getProperty("homesteadhub.logLevel", "INFO"));
+
+	private static final Thread drainer;
+
+	static
+	{
+		for (int i = 0; i < CAPACITY; i++)
+		{
+			ring[i] = new Entry();
+			published.set(i, -1);
+		}
+		drainer = new Thread(AppLogger::drain, "app-logger");
+		drainer.setDaemon(true);
+		drainer.start();
+		Runtime.getRuntime()
+				.addShutdownHook(new Thread(AppLogger::flush, "app-logger-flush"));
+	}
+
+	private AppLogger()
+	{
+	}
+
+	// ------Logging------
+
+	/**
+	 * Purpose: Logs a detailed trace message, off unless the level is DEBUG.
+	 *
+	 * @param format Message, or a String.format pattern when args are given
+	 * @param args   Values for the pattern
+	 */
+	public static void debug(String format, Object... args)
+	{
+		if (Level.DEBUG.compareTo(level) >= 0)
+		{
+			enqueue(Level.DEBUG, format, args);
+		}
+	}
+
+	/**
+	 * Purpose: Logs a normal event, such as a placed order.
+	 *
+	 * @param format Message, or a String.format pattern when args are given
+	 * @param args   Values for the pattern
+	 */
+	public static void info(String format, Object... args)
+	{
+		if (Level.INFO.compareTo(level) >= 0)
+		{
+			enqueue(Level.INFO, format, args);
+		}
+	}
+
+	/**
+	 * Purpose: Logs something unexpected that the application recovered
+	 * from.
+	 *
+	 * @param format Message, or a String.format pattern when args are given
+	 * @param args   Values for the pattern
+	 */
+	public static void warn(String format, Object... args)
+	{
+		if (Level.WARN.compareTo(level) >= 0)
+		{
+			enqueue(Level.WARN, format, args);
+		}
+	}
+
+	/**
+	 * Purpose: Logs a failed operation.
+	 *
+	 * @param format Message, or a String.format pattern when args are given
+	 * @param args   Values for the pattern
+	 */
+	public static void error(String format, Object... args)
+	{
+		if (Level.ERROR.compareTo(level) >= 0)
+		{
+			enqueue(Level.ERROR, format, args);
+		}
+	}
+
+	// ------Level------
+
+	/**
+	 * Purpose: Checks whether DEBUG messages are logged, so callers can skip
+	 * building their arguments.
+	 *
+	 * @return True if the level is DEBUG
+	 */
+	public static boolean isDebugEnabled()
+	{
+		return level == Level.DEBUG;
+	}
+
+	/**
+	 * Purpose: Checks whether messages of a level are logged.
+	 *
+	 * @param messageLevel Level to check
+	 * @return True if messages of that level are logged
+	 */
+	public static boolean isEnabled(Level messageLevel)
+	{
+		return messageLevel != Level.OFF && messageLevel.compareTo(level) >= 0;
+	}
+
+	/**
+	 * Purpose: Getter - Returns the lowest level that is logged
+	 *
+	 * @return level Current level
+	 */
+	public static Level getLevel()
+	{
+		return level;
+	}
+
+	/**
+	 * Purpose: Setter - Sets the lowest level that is logged. Messages
+	 * already queued are still printed.
+	 *
+	 * @param newLevel New level; OFF drops everything
+	 */
+	public static void setLevel(Level newLevel)
+	{
+		level = newLevel;
+	}
+
+	/**
+	 * Purpose: Waits until every message logged before the call is printed,
+	 * or at most FLUSH_TIMEOUT_NANOS.
+	 */
+	public static void flush()
+	{
+		long target = claimed.get();
+		long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+		while (drained < target && drainer.isAlive()
+				&& System.nanoTime() < deadline)
+		{
+			LockSupport.parkNanos(WAIT_PARK_NANOS / 10);
+		}
+	}
+
+	// ------Ring buffer------
+
+	/**
+	 * Purpose: Claims the next slot, fills it and publishes it to the drain
+	 * thread, waking the drain if it is parked.
+	 *
+	 * @param messageLevel Level of the message
+	 * @param format       Message or pattern
+	 * @param args         Values for the pattern
+	 */
+	private static void enqueue(Level messageLevel, String format,
+			Object[] args)
+	{
+		long sequence = claimed.getAndIncrement();
+		// Full: the slot still holds a message the drain has not printed
+		while (sequence - drained >= CAPACITY)
+		{
+			if (!drainer.isAlive())
+			{
+				print(messageLevel, format, args);
+				return;
+			}
+			// Registered before the re-check so the drain's wake-up is not
+			// missed; the timeout covers a drain that dies while we park
+			Thread current = Thread.currentThread();
+			fullWaiters.add(current);
+			if (sequence - drained >= CAPACITY)
+			{
+				LockSupport.parkNanos(WAIT_PARK_NANOS);
+			}
+			fullWaiters.remove(current);
+		}
+
+		int slot = (int) (sequence & MASK);
+		Entry entry = ring[slot];
+		entry.level = messageLevel;
+		entry.format = format;
+		entry.args = args;
+		// Volatile write: the drain sees the fields once it sees the
+		// sequence, and the read of drainParked below cannot move before it
+		published.set(slot, sequence);
+		if (drainParked)
+		{
+			LockSupport.unpark(drainer);
+		}
+	}
+
+	/**
+	 * Purpose: Body of the drain thread. Prints slots in sequence order,
+	 * parks until a caller publishes when the ring is empty, and wakes
+	 * callers waiting on a full ring.
+	 */
+	private static void drain()
+	{
+		while (true)
+		{
+			long sequence = drained;
+			int slot = (int) (sequence & MASK);
+			if (published.get(slot) != sequence)
+			{
+				// Flag set before the re-check, so a caller publishing now
+				// either is seen here or sees the flag and unparks us
+				drainParked = true;
+				if (published.get(slot) != sequence)
+				{
+					LockSupport.park();
+				}
+				drainParked = false;
+				continue;
+			}
+
+			Entry entry = ring[slot];
+			print(entry.level, entry.format, entry.args);
+			// Lets the arguments be collected before the slot is reused
+			entry.format = null;
+			entry.args = null;
+			drained = sequence + 1;
+			if (!fullWaiters.isEmpty())
+			{
+				for (Thread waiter : fullWaiters)
+				{
+					LockSupport.unpark(waiter);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Formats and prints one message.
+	 *
+	 * @param messageLevel Level, which picks the output stream
+	 * @param format       Message or pattern
+	 * @param args         Values for the pattern
+	 */
+	private static void print(Level messageLevel, String format, Object[] args)
+	{
+		PrintStream out = messageLevel.compareTo(Level.WARN) >= 0 ? System.err
+				: System.out;
+		String message;
+		try
+		{
+			message = args == null || args.length == 0 ? format
+					: String.format(format, args);
+		}
+		catch (RuntimeException e)
+		{
+			message = format + " (bad log format: " + e.getMessage() + ")";
+		}
+		out.println(message);
+	}
+
+	/**
+	 * Purpose: Parses a level name, falling back to INFO.
+	 *
+	 * @param name Level name
+	 * @return level Parsed level
+	 */
+	private static Level parseLevel(String name)
+	{
+		try
+		{
+			return Level.valueOf(name.trim().toUpperCase());
+		}
+		catch (IllegalArgumentException e)
+		{
+			System.err.println("Error reading log level " + name
+					+ ": using INFO");
+			return Level.INFO;
+		}
+	}
+
+	/**
+	 * Purpose: One ring slot. Reused for every message that lands in it.
+	 */
+	private static final class Entry
+	{
+		private Level level;
+		private String format;
+		private Object[] args;
+	}
+}
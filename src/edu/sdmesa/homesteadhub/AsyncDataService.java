@@ -0,0 +1,223 @@
+package edu.sdmesa.homesteadhub;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of AsyncDataService is to give the GUI
+ *          non-blocking versions of the DataRepository and PaymentProcessor
+ *          calls it makes from event handlers.
+ *
+ *          Each call runs as its own task and returns a CompletableFuture.
+ *          On Java 21 or newer the tasks run on a virtual-thread-per-task
+ *          executor, so thousands of sessions can block on file or payment
+ *          I/O without holding a platform thread each. Older runtimes fall
+ *          back to a cached pool of daemon platform threads, which is also
+ *          thread-per-task but costs a real thread per blocked call.
+ */
+public class AsyncDataService
+{
+	private final DataRepository repository;
+	private final ExecutorService executor;
+	private final boolean virtualThreads;
+
+	/**
+	 * Purpose: Constructor that runs calls on a new task-per-call executor
+	 *
+	 * @param repository Repository whose calls are wrapped
+	 */
+	public AsyncDataService(DataRepository repository)
+	{
+		ExecutorService virtual = newVirtualThreadExecutor();
+		this.repository = repository;
+		this.virtualThreads = virtual != null;
+		this.executor = virtual != null ? virtual
+				: Executors.newCachedThreadPool(runnable -> {
+					Thread thread = new Thread(runnable, "async-data");
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * Purpose: Constructor that runs calls on a given executor, e.g. a fixed
+	 * pool to compare against
+	 *
+	 * @param repository Repository whose calls are wrapped
+	 * @param executor   Executor the calls run on
+	 */
+	public AsyncDataService(DataRepository repository, ExecutorService executor)
+	{
+		this.repository = repository;
+		this.executor = executor;
+		this.virtualThreads = false;
+	}
+
+	/**
+	 * Purpose: Finds a user by username without blocking.
+	 *
+	 * @param username Username to look up
+	 * @return Future of the user; null if not found
+	 */
+	public CompletableFuture<User> findUserByUsernameAsync(String username)
+	{
+		return CompletableFuture.supplyAsync(
+				() -> repository.findUserByUsername(username), executor);
+	}
+
+	/**
+	 * Purpose: Finds every product without blocking.
+	 *
+	 * @return Future of the products
+	 */
+	public CompletableFuture<List<Product>> findAllProductsAsync()
+	{
+		return CompletableFuture.supplyAsync(repository::findAllProducts,
+				executor);
+	}
+
+	/**
+	 * Purpose: Finds a farmer's products without blocking.
+	 *
+	 * @param farmer Farmer whose products are listed
+	 * @return Future of the products
+	 */
+	public CompletableFuture<List<Product>> findAllProductsAsync(Farmer farmer)
+	{
+		return CompletableFuture.supplyAsync(
+				() -> repository.findAllProducts(farmer), executor);
+	}
+
+	/**
+	 * Purpose: Saves a product without blocking.
+	 *
+	 * @param product Product to save
+	 * @return Future of the saved product
+	 */
+	public CompletableFuture<Product> saveProductAsync(Product product)
+	{
+		return CompletableFuture.supplyAsync(
+				() -> repository.saveProduct(product), executor);
+	}
+
+	/**
+	 * Purpose: Changes a product's stored stock without blocking.
+	 *
+	 * @param sku            Stocking keeping unit of the product
+	 * @param quantityChange Amount to add or subtract
+	 * @return Future of true if the stock was updated
+	 */
+	public CompletableFuture<Boolean> updateStockAsync(String sku,
+			int quantityChange)
+	{
+		return CompletableFuture.supplyAsync(
+				() -> repository.updateStock(sku, quantityChange), executor);
+	}
+
+	/**
+	 * Purpose: Finds a customer's orders without blocking.
+	 *
+	 * @param customer Customer whose orders are listed
+	 * @return Future of the orders
+	 */
+	public CompletableFuture<List<Order>> findOrdersByCustomerAsync(
+			Customer customer)
+	{
+		return CompletableFuture.supplyAsync(
+				() -> repository.findOrdersByCustomer(customer), executor);
+	}
+
+	/**
+	 * Purpose: Finds the line items sold by a farmer without blocking.
+	 *
+	 * @param farmer Farmer whose sales are listed
+	 * @return Future of the line items; empty rather than null if none
+	 */
+	public CompletableFuture<List<LineItem>> findOrdersToFarmerAsync(
+			Farmer farmer)
+	{
+		return CompletableFuture.supplyAsync(() -> {
+			List<LineItem> lineItems = repository.findOrdersToFarmer(farmer);
+			return lineItems != null ? lineItems : new ArrayList<LineItem>();
+		}, executor);
+	}
+
+	/**
+	 * Purpose: Runs a payment through the customer's chosen processor
+	 * without blocking.
+	 *
+	 * @param totalAmount   Amount to charge
+	 * @param paymentDetail Payment details, including the processor
+	 * @return Future of the payment result
+	 */
+	public CompletableFuture<PaymentResult> processTransactionAsync(
+			double totalAmount, PaymentDetail paymentDetail)
+	{
+		return CompletableFuture.supplyAsync(
+				() -> paymentDetail.getPaymentMethod()
+						.processTransaction(totalAmount, paymentDetail),
+				executor);
+	}
+
+	/**
+	 * Purpose: Getter - Returns whether calls run on virtual threads
+	 *
+	 * @return True on a virtual-thread-per-task executor
+	 */
+	public boolean isVirtualThreads()
+	{
+		return virtualThreads;
+	}
+
+	/**
+	 * Purpose: Stops accepting calls. Calls already running finish.
+	 */
+	public void shutdown()
+	{
+		executor.shutdown();
+	}
+
+	/**
+	 * Purpose: Creates Executors.newVirtualThreadPerTaskExecutor() when the
+	 * runtime has it (Java 21+). Looked up at runtime so the project still
+	 * builds on Java 17.
+	 *
+	 * @return executor Virtual-thread executor; null if not supported
+	 */
+	private static ExecutorService newVirtualThreadExecutor()
+	{
+		try
+		{
+			return (ExecutorService) MethodHandles.publicLookup()
+					.findStatic(Executors.class,
+							"newVirtualThreadPerTaskExecutor",
+							MethodType.methodType(ExecutorService.class))
+					.invoke();
+		}
+		catch (NoSuchMethodException | IllegalAccessException e)
+		{
+			return null;
+		}
+		catch (Throwable e)
+		{
+			AppLogger.error(
+					"Error creating virtual thread executor: " + e.getMessage());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,313 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of BinaryLog is to store binary records in a
+ *          directory of append-only segment files.
+ *
+ *          Each record is written as [payload length][CRC32 of payload]
+ *          [payload]. When the active segment passes the segment size limit a
+ *          new segment is started. Segments are read back through a
+ *          memory-mapped FileChannel, and a record with a bad length or CRC
+ *          ends the scan of its segment (a torn write from a crash).
+ *
+ *          Every append is forced to disk before it returns, so a record
+ *          that was acknowledged survives a crash. When the log is opened,
+ *          a torn tail left in the newest segment is cut off, so later
+ *          records are not written behind it and lost on the next read.
+ */
+public class BinaryLog
+{
+	// Default size a segment may grow to before a new one is started
+	public static final long DEFAULT_SEGMENT_BYTES = 4L * 1024 * 1024;
+
+	// Length + CRC header written in front of every payload
+	private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".log";
+
+	private final Path directory;
+	private final long segmentBytes;
+
+	// Segment currently being appended to
+	private FileChannel activeChannel;
+	private int activeIndex;
+
+	/**
+	 * Purpose: Constructor to open (or create) a log directory.
+	 *
+	 * @param directory    Directory holding this log's segments
+	 * @param segmentBytes Size a segment may reach before rolling over
+	 * @throws IOException If the directory or active segment cannot be opened
+	 */
+	public BinaryLog(Path directory, long segmentBytes) throws IOException
+	{
+		this.directory = directory;
+		this.segmentBytes = segmentBytes;
+		Files.createDirectories(directory);
+
+		// Continue appending to the newest existing segment
+		List<Path> segments = listSegments();
+		activeIndex = segments.isEmpty() ? 0
+				: segmentIndex(segments.get(segments.size() - 1));
+		openActiveSegment();
+		truncateTornTail();
+	}
+
+	/**
+	 * Purpose: Appends one record to the active segment, rolling over to a
+	 * new segment first if the active one is full. Returns once the record
+	 * is forced to disk.
+	 *
+	 * @param payload Encoded record bytes
+	 * @throws IOException If the record cannot be written
+	 */
+	public synchronized void append(byte[] payload) throws IOException
+	{
+		if (activeChannel.size() > 0
+				&& activeChannel.size() + HEADER_BYTES
+						+ payload.length > segmentBytes)
+		{
+			activeChannel.close();
+			activeIndex++;
+			openActiveSegment();
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+
+		ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+		record.putInt(payload.length);
+		record.putInt((int) crc.getValue());
+		record.put(payload);
+		record.flip();
+
+		while (record.hasRemaining())
+		{
+			activeChannel.write(record);
+		}
+		activeChannel.force(false);
+	}
+
+	/**
+	 * Purpose: Reads every valid record in segment order. Each payload is
+	 * handed to the reader as a read-only slice of the mapped segment, so the
+	 * reader must decode it before returning.
+	 *
+	 * @param reader Callback that decodes one payload
+	 * @throws IOException If a segment cannot be mapped
+	 */
+	public synchronized void readAll(Consumer<ByteBuffer> reader)
+			throws IOException
+	{
+		for (Path segment : listSegments())
+		{
+			try (FileChannel channel = FileChannel.open(segment,
+					StandardOpenOption.READ))
+			{
+				long size = channel.size();
+				if (size == 0) continue;
+
+				MappedByteBuffer mapped = channel
+						.map(FileChannel.MapMode.READ_ONLY, 0, size);
+				readSegment(segment, mapped, reader);
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Walks the records of one mapped segment.
+	 *
+	 * @param segment Segment path, used for error messages
+	 * @param mapped  Mapped contents of the segment
+	 * @param reader  Callback that decodes one payload; null to only find
+	 *                where the valid records end
+	 * @return end Offset just past the last valid record
+	 */
+	private long readSegment(Path segment, ByteBuffer mapped,
+			Consumer<ByteBuffer> reader)
+	{
+		CRC32 crc = new CRC32();
+		long end = mapped.position();
+		while (mapped.remaining() >= HEADER_BYTES)
+		{
+			int length = mapped.getInt();
+			int expectedCrc = mapped.getInt();
+			if (length < 0 || length > mapped.remaining())
+			{
+				AppLogger.warn("BINARYLOG: Truncated record in "
+						+ segment.getFileName() + ", ignoring the rest.");
+				return end;
+			}
+
+			ByteBuffer payload = mapped.slice();
+			payload.limit(length);
+
+			crc.reset();
+			crc.update(payload.duplicate());
+			if ((int) crc.getValue() != expectedCrc)
+			{
+				AppLogger.warn("BINARYLOG: CRC mismatch in "
+						+ segment.getFileName() + ", ignoring the rest.");
+				return end;
+			}
+
+			if (reader != null)
+			{
+				reader.accept(payload.asReadOnlyBuffer());
+			}
+			mapped.position(mapped.position() + length);
+			end = mapped.position();
+		}
+		if (mapped.hasRemaining())
+		{
+			AppLogger.warn("BINARYLOG: Truncated header in "
+					+ segment.getFileName() + ", ignoring the rest.");
+		}
+		return end;
+	}
+
+	/**
+	 * Purpose: Returns the total size in bytes of every segment.
+	 *
+	 * @return Bytes used by this log on disk
+	 * @throws IOException If a segment cannot be read
+	 */
+	public synchronized long sizeInBytes() throws IOException
+	{
+		long total = 0;
+		for (Path segment : listSegments())
+		{
+			total += Files.size(segment);
+		}
+		return total;
+	}
+
+	/**
+	 * Purpose: Closes the active segment.
+	 *
+	 * @throws IOException If the channel cannot be closed
+	 */
+	public synchronized void close() throws IOException
+	{
+		activeChannel.close();
+	}
+
+	/**
+	 * Purpose: Opens the segment at activeIndex for appending.
+	 *
+	 * @throws IOException If the segment cannot be opened
+	 */
+	private void openActiveSegment() throws IOException
+	{
+		activeChannel = FileChannel.open(segmentPath(activeIndex), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Purpose: Cuts the active segment back to the end of its last valid
+	 * record, dropping a record torn by a crash.
+	 *
+	 * @throws IOException If the segment cannot be read or truncated
+	 */
+	private void truncateTornTail() throws IOException
+	{
+		long size = activeChannel.size();
+		if (size == 0)
+		{
+			return;
+		}
+		Path segment = segmentPath(activeIndex);
+		// Read into the heap rather than mapped, since a live mapping can
+		// keep the file from being truncated
+		ByteBuffer contents = ByteBuffer.allocate((int) size);
+		try (FileChannel channel = FileChannel.open(segment,
+				StandardOpenOption.READ))
+		{
+			while (contents.hasRemaining() && channel.read(contents) >= 0)
+			{
+				// Keep reading until the whole segment is in memory
+			}
+		}
+		contents.flip();
+		long validBytes = readSegment(segment, contents, null);
+		if (validBytes < size)
+		{
+			AppLogger.warn("BINARYLOG: Cutting %d torn bytes off %s",
+					size - validBytes, segment.getFileName());
+			activeChannel.truncate(validBytes);
+			activeChannel.force(true);
+		}
+	}
+
+	/**
+	 * Purpose: Returns the file of a segment index.
+	 *
+	 * @param index Segment index
+	 * @return segment Segment path
+	 */
+	private Path segmentPath(int index)
+	{
+		return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX,
+				index, SEGMENT_SUFFIX));
+	}
+
+	/**
+	 * Purpose: Lists segment files sorted by index.
+	 *
+	 * @return segments Sorted list of segment paths
+	 * @throws IOException If the directory cannot be listed
+	 */
+	private List<Path> listSegments() throws IOException
+	{
+		List<Path> segments = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+				SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX))
+		{
+			for (Path segment : stream)
+			{
+				segments.add(segment);
+			}
+		}
+		// Zero-padded names sort in index order
+		Collections.sort(segments);
+		return segments;
+	}
+
+	/**
+	 * Purpose: Parses the index out of a segment file name.
+	 *
+	 * @param segment Segment path
+	 * @return index Segment index
+	 */
+	private int segmentIndex(Path segment)
+	{
+		String name = segment.getFileName().toString();
+		return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+				name.length() - SEGMENT_SUFFIX.length()));
+	}
+}
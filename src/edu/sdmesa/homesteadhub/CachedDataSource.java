@@ -0,0 +1,794 @@
+package edu.sdmesa.homesteadhub;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of CachedDataSource is to keep an in-memory,
+ *          indexed copy of another DataRepository's data. Each data file is
+ *          loaded once on first use and every save is written through to the
+ *          wrapped repository, so lookups become map reads instead of full
+ *          file scans.
+ *
+ *          The indexes are guarded by a read-write lock, so lookups run in
+ *          parallel. Nothing reads or writes the wrapped repository while
+ *          holding the lock. A save writes through first and then takes the
+ *          write lock only to publish the record into the indexes. A load
+ *          reads the wrapped repository and then publishes the result,
+ *          unless another thread published first. Every save makes sure its
+ *          index is loaded before writing through. A load therefore never
+ *          replaces an index that already holds a newer save.
+ *
+ *          CachedDataSource is-a DataRepository and has-a DataRepository
+ */
+public class CachedDataSource implements DataRepository
+{
+	// Repository that owns the files. Every save is written through to it.
+	private final DataRepository delegate;
+	// Guards every index below. Never held across a call to the delegate.
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// ------User indexes------
+	private final Map<String, User> usersById = new HashMap<>();
+	// Key is the lower-cased username to match equalsIgnoreCase lookups
+	private final Map<String, User> usersByUsername = new HashMap<>();
+	private final List<User> allUsers = new ArrayList<>();
+	private volatile boolean usersLoaded = false;
+
+	// ------Product indexes------
+	private final Map<String, Product> productsBySku = new HashMap<>();
+	// Key is the farmer's username
+	private final Map<String, List<Product>> productsByFarmer = new HashMap<>();
+	private final List<Product> allProducts = new ArrayList<>();
+	private volatile boolean productsLoaded = false;
+
+	// ------Order indexes------
+	private final Map<String, Order> ordersById = new HashMap<>();
+	// Key is the customer's user ID. Orders are loaded per customer because
+	// an Order can only be rebuilt with its Customer object.
+	private final Map<String, List<Order>> ordersByCustomer = new HashMap<>();
+
+	// ------LineItem indexes------
+	// Key is the farmer's username. Line items are loaded per farmer so a
+	// farmer's view only reads that farmer's rows from the wrapped repository.
+	private final Map<String, List<LineItem>> lineItemsByFarmer = new HashMap<>();
+
+	/**
+	 * Purpose: Constructor to wrap an existing repository with a cache.
+	 *
+	 * @param delegate The repository that reads and writes the data files.
+	 */
+	public CachedDataSource(DataRepository delegate)
+	{
+		this.delegate = delegate;
+	}
+
+	// ------User Operations------
+
+	/**
+	 * Purpose: Writes user through to the wrapped repository and indexes it.
+	 *
+	 * @param user User object to save
+	 *
+	 * @return user Specific User type (Customer or Farmer)
+	 */
+	@Override
+	public User saveUser(User user)
+	{
+		loadUsers();
+		delegate.saveUser(user);
+		lock.writeLock().lock();
+		try
+		{
+			indexUser(user);
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+		return user;
+	}
+
+	/**
+	 * Purpose: Finds a user by their unique ID.
+	 *
+	 * @param userId UserId to be found
+	 *
+	 * @return user Found User object matching userId; null if not found
+	 */
+	@Override
+	public User findUserById(String userId)
+	{
+		loadUsers();
+		lock.readLock().lock();
+		try
+		{
+			return usersById.get(userId);
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Finds a user by username, ignoring case.
+	 *
+	 * @param username Username to search
+	 *
+	 * @return user Found User object matching username; null if not found
+	 */
+	@Override
+	public User findUserByUsername(String username)
+	{
+		if (username == null) return null;
+		loadUsers();
+		lock.readLock().lock();
+		try
+		{
+			return usersByUsername.get(username.toLowerCase());
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Returns every cached user.
+	 *
+	 * @return users Copy of the list of all User objects
+	 */
+	@Override
+	public List<User> findAllUsers()
+	{
+		loadUsers();
+		lock.readLock().lock();
+		try
+		{
+			return new ArrayList<>(allUsers);
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	// ------Product Operations------
+
+	/**
+	 * Purpose: Writes product through to the wrapped repository and indexes
+	 * it.
+	 *
+	 * @param product Product object to save
+	 *
+	 * @return product Returns product object
+	 */
+	@Override
+	public Product saveProduct(Product product)
+	{
+		loadProducts();
+		delegate.saveProduct(product);
+		// A copy, so updateStock does not also change the caller's product
+		Product copy = copyOf(product);
+		lock.writeLock().lock();
+		try
+		{
+			indexProduct(copy);
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+		return product;
+	}
+
+	/**
+	 * Purpose: Finds product by SKU.
+	 *
+	 * @param sku    Stock keeping unit of product to find
+	 * @param farmer Farmer the product belongs to (not needed for lookup)
+	 * @return product Product if found; null otherwise
+	 */
+	@Override
+	public Product findProductBySku(String sku, Farmer farmer)
+	{
+		loadProducts();
+		lock.readLock().lock();
+		try
+		{
+			return productsBySku.get(sku);
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Find all products belonging to a farmer
+	 *
+	 * @param farmer Farmer to focus search
+	 * @return products Copy of the farmer's products; empty if none
+	 */
+	@Override
+	public List<Product> findAllProducts(Farmer farmer)
+	{
+		loadProducts();
+		lock.readLock().lock();
+		try
+		{
+			List<Product> products = productsByFarmer
+					.get(farmer.getUsername());
+			return products == null ? new ArrayList<>()
+					: new ArrayList<>(products);
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Find ALL products
+	 *
+	 * @return products Copy of the list of all products
+	 */
+	@Override
+	public List<Product> findAllProducts()
+	{
+		loadProducts();
+		lock.readLock().lock();
+		try
+		{
+			return new ArrayList<>(allProducts);
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Writes a stock change through to the wrapped repository and
+	 * applies it to the cached product.
+	 *
+	 * @param sku            Stock keeping unit of the product
+	 * @param quantityChange Amount to add (negative to remove)
+	 * @return True if the wrapped repository updated the stock
+	 */
+	@Override
+	public boolean updateStock(String sku, int quantityChange)
+	{
+		loadProducts();
+		boolean updated = delegate.updateStock(sku, quantityChange);
+		if (!updated)
+		{
+			return false;
+		}
+		lock.writeLock().lock();
+		try
+		{
+			Product cached = productsBySku.get(sku);
+			if (cached != null)
+			{
+				cached.updateStock(quantityChange);
+			}
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+		return true;
+	}
+
+	// ------Order Operations------
+
+	/**
+	 * Purpose: Writes order through to the wrapped repository and indexes it.
+	 *
+	 * @param order Order to save
+	 *
+	 * @return order Order object
+	 */
+	@Override
+	public Order saveOrder(Order order)
+	{
+		loadOrders(order.getCustomer());
+		delegate.saveOrder(order);
+		lock.writeLock().lock();
+		try
+		{
+			indexOrder(order);
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+		return order;
+	}
+
+	/**
+	 * Purpose: Indexes an order and its line items right away and passes them
+	 * to the wrapped repository to be written.
+	 *
+	 * @param order Order to save, with its line items
+	 *
+	 * @return Future from the wrapped repository
+	 */
+	@Override
+	public CompletableFuture<Order> saveOrderWithItems(Order order)
+	{
+		loadOrders(order.getCustomer());
+		for (LineItem lineItem : order.getItems())
+		{
+			loadLineItems(lineItem.getProduct().getFarmer());
+		}
+		CompletableFuture<Order> saved = delegate.saveOrderWithItems(order);
+
+		lock.writeLock().lock();
+		try
+		{
+			indexOrder(order);
+			for (LineItem lineItem : order.getItems())
+			{
+				indexLineItem(storedLineItem(order, lineItem));
+			}
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+		return saved;
+	}
+
+	/**
+	 * Purpose: Finds order object by Id belonging to a customer
+	 *
+	 * @param orderId  Order ID of object to be found
+	 * @param customer Customer to focus search
+	 *
+	 * @return order Order object if found; null otherwise
+	 */
+	@Override
+	public Order findOrderById(String orderId, Customer customer)
+	{
+		loadOrders(customer);
+		lock.readLock().lock();
+		try
+		{
+			return ordersById.get(orderId);
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Finds ALL orders belonging to a customer
+	 *
+	 * @param customer Customer to focus search on
+	 *
+	 * @return orders Copy of the customer's orders
+	 */
+	@Override
+	public List<Order> findOrdersByCustomer(Customer customer)
+	{
+		loadOrders(customer);
+		lock.readLock().lock();
+		try
+		{
+			return new ArrayList<>(
+					ordersByCustomer.get(customer.getUserId()));
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	// ------LineItem Operations------
+
+	/**
+	 * Purpose: Writes line item through to the wrapped repository and indexes
+	 * it.
+	 *
+	 * @param order    Order associated with line item.
+	 * @param lineItem Line item to save.
+	 * @return lineItem LineItem object
+	 */
+	@Override
+	public LineItem saveLineItem(Order order, LineItem lineItem)
+	{
+		loadLineItems(lineItem.getProduct().getFarmer());
+		delegate.saveLineItem(order, lineItem);
+
+		LineItem stored = storedLineItem(order, lineItem);
+		lock.writeLock().lock();
+		try
+		{
+			indexLineItem(stored);
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+		return lineItem;
+	}
+
+	/**
+	 * Purpose: Retrieves all LineItem orders made to the Farmer.
+	 *
+	 * @param farmer Farmer object to find line items.
+	 * @return List of LineItems associated with farmer; empty if none
+	 */
+	@Override
+	public List<LineItem> findOrdersToFarmer(Farmer farmer)
+	{
+		loadLineItems(farmer);
+		lock.readLock().lock();
+		try
+		{
+			return new ArrayList<>(
+					lineItemsByFarmer.get(farmer.getUsername()));
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Retirieve all line items. Not cached; this reads the wrapped
+	 * repository.
+	 *
+	 * @return List of ALL line items.
+	 */
+	@Override
+	public List<LineItem> findLineItems()
+	{
+		return delegate.findLineItems();
+	}
+
+	/**
+	 * Purpose: Streams the line items that match a filter. Not cached; this
+	 * reads the wrapped repository.
+	 *
+	 * @param filter Condition a line item must meet.
+	 * @return Stream of matching LineItems; close it when done.
+	 */
+	@Override
+	public Stream<LineItem> streamLineItems(Predicate<LineItem> filter)
+	{
+		return delegate.streamLineItems(filter);
+	}
+
+	/**
+	 * Purpose: Retrieves the line items of one order. Not cached; this reads
+	 * the wrapped repository.
+	 *
+	 * @param orderId Order ID of the line items
+	 * @return List of LineItems in the order
+	 */
+	@Override
+	public List<LineItem> findLineItemsByOrder(String orderId)
+	{
+		return delegate.findLineItemsByOrder(orderId);
+	}
+
+	// ------Cache loading and indexing------
+
+	/**
+	 * Purpose: Fills the user indexes with users loaded elsewhere, e.g. by
+	 * ParallelDataLoader. Ignored if users are already loaded.
+	 *
+	 * @param users Users in file order
+	 */
+	public void preloadUsers(List<User> users)
+	{
+		lock.writeLock().lock();
+		try
+		{
+			if (usersLoaded) return;
+			for (User user : users)
+			{
+				indexUser(user);
+			}
+			usersLoaded = true;
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Fills the product indexes with products loaded elsewhere.
+	 * Ignored if products are already loaded.
+	 *
+	 * @param products Products in file order
+	 */
+	public void preloadProducts(List<Product> products)
+	{
+		lock.writeLock().lock();
+		try
+		{
+			if (productsLoaded) return;
+			for (Product product : products)
+			{
+				// The same products go into the catalog, so the cache keeps
+				// copies that updateStock can change on their own
+				indexProduct(copyOf(product));
+			}
+			productsLoaded = true;
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Fills the line item index with line items loaded elsewhere.
+	 * Farmers whose line items are already loaded are skipped.
+	 *
+	 * @param lineItems Line items in file order
+	 */
+	public void preloadLineItems(List<LineItem> lineItems)
+	{
+		Map<String, List<LineItem>> byFarmer = new HashMap<>();
+		for (LineItem lineItem : lineItems)
+		{
+			byFarmer.computeIfAbsent(lineItem.getFarmer(),
+					key -> new ArrayList<>()).add(lineItem);
+		}
+		lock.writeLock().lock();
+		try
+		{
+			for (Map.Entry<String, List<LineItem>> entry : byFarmer
+					.entrySet())
+			{
+				lineItemsByFarmer.putIfAbsent(entry.getKey(),
+						entry.getValue());
+			}
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Loads the users file once and builds the user indexes.
+	 */
+	private void loadUsers()
+	{
+		if (usersLoaded) return;
+		// Read without the lock; a thread that loses the race drops its copy
+		preloadUsers(delegate.findAllUsers());
+	}
+
+	/**
+	 * Purpose: Loads the products file once and builds the product indexes.
+	 */
+	private void loadProducts()
+	{
+		if (productsLoaded) return;
+		List<Product> products = delegate.findAllProducts();
+		lock.writeLock().lock();
+		try
+		{
+			if (productsLoaded) return;
+			for (Product product : products)
+			{
+				indexProduct(product);
+			}
+			productsLoaded = true;
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Loads a customer's orders once and builds the order indexes.
+	 *
+	 * @param customer Customer whose orders should be cached
+	 */
+	private void loadOrders(Customer customer)
+	{
+		String customerId = customer.getUserId();
+		lock.readLock().lock();
+		try
+		{
+			if (ordersByCustomer.containsKey(customerId)) return;
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+
+		List<Order> stored = delegate.findOrdersByCustomer(customer);
+		lock.writeLock().lock();
+		try
+		{
+			if (ordersByCustomer.containsKey(customerId)) return;
+			ordersByCustomer.put(customerId, new ArrayList<>());
+			for (Order order : stored)
+			{
+				indexOrder(order);
+			}
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Loads a farmer's line items once.
+	 *
+	 * @param farmer Farmer whose line items should be cached
+	 */
+	private void loadLineItems(Farmer farmer)
+	{
+		String username = farmer.getUsername();
+		lock.readLock().lock();
+		try
+		{
+			if (lineItemsByFarmer.containsKey(username)) return;
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+
+		List<LineItem> lineItems = new ArrayList<>();
+		List<LineItem> stored = delegate.findOrdersToFarmer(farmer);
+		// The wrapped repository may return null when there are none
+		if (stored != null)
+		{
+			lineItems.addAll(stored);
+		}
+		lock.writeLock().lock();
+		try
+		{
+			lineItemsByFarmer.putIfAbsent(username, lineItems);
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Adds a user to the indexes. A newer record with the same ID or
+	 * username replaces the older one. Caller holds the write lock.
+	 *
+	 * @param user User to index
+	 */
+	private void indexUser(User user)
+	{
+		User previous = usersById.put(user.getUserId(), user);
+		if (previous != null)
+		{
+			allUsers.remove(previous);
+			usersByUsername.remove(previous.getUsername().toLowerCase());
+		}
+		User sameName = usersByUsername.put(user.getUsername().toLowerCase(),
+				user);
+		if (sameName != null && sameName != previous)
+		{
+			allUsers.remove(sameName);
+			usersById.remove(sameName.getUserId());
+		}
+		allUsers.add(user);
+	}
+
+	/**
+	 * Purpose: Adds a product to the indexes. A newer record with the same SKU
+	 * replaces the older one. Caller holds the write lock.
+	 *
+	 * @param product Product to index
+	 */
+	private void indexProduct(Product product)
+	{
+		Product previous = productsBySku.put(product.getSku(), product);
+		if (previous != null)
+		{
+			allProducts.remove(previous);
+			List<Product> farmerProducts = productsByFarmer
+					.get(previous.getFarmerUsername());
+			if (farmerProducts != null)
+			{
+				farmerProducts.remove(previous);
+			}
+		}
+		allProducts.add(product);
+		productsByFarmer
+				.computeIfAbsent(product.getFarmerUsername(),
+						key -> new ArrayList<>())
+				.add(product);
+	}
+
+	/**
+	 * Purpose: Copies a product so the cache does not share it with callers.
+	 *
+	 * @param product Product to copy
+	 * @return copy Product with the same fields
+	 */
+	private static Product copyOf(Product product)
+	{
+		Product copy = product.getFarmer() != null
+				? new Product(product.getSku(), product.getTitle(),
+						product.getDescription(), product.getStockQuantity(),
+						product.getFarmer(), product.getUnitPrice())
+				: new Product(product.getSku(), product.getTitle(),
+						product.getDescription(), product.getStockQuantity(),
+						product.getFarmerUsername(), product.getUnitPrice());
+		copy.setPhotoUri(product.getPhotoUri());
+		copy.setThumbnailUri(product.getThumbnailUri());
+		copy.setDetailUri(product.getDetailUri());
+		return copy;
+	}
+
+	/**
+	 * Purpose: Adds an order to the indexes. Caller holds the write lock.
+	 *
+	 * @param order Order to index
+	 */
+	private void indexOrder(Order order)
+	{
+		ordersById.put(order.getOrderId(), order);
+		ordersByCustomer.computeIfAbsent(order.getCustomer().getUserId(),
+				key -> new ArrayList<>()).add(order);
+	}
+
+	/**
+	 * Purpose: Builds the stored form of a line item so cached rows match
+	 * what a reload from the files returns.
+	 *
+	 * @param order    Order the line item belongs to
+	 * @param lineItem Line item from a cart
+	 * @return Line item with order, customer and farmer set
+	 */
+	private LineItem storedLineItem(Order order, LineItem lineItem)
+	{
+		return new LineItem(order.getOrderId(), lineItem.getSku(),
+				lineItem.getTitle(), lineItem.getQuantity(),
+				lineItem.getUnitPrice(), lineItem.getTotal(),
+				order.getCustomer().getUsername(),
+				lineItem.getProduct().getFarmer().getUsername());
+	}
+
+	/**
+	 * Purpose: Adds a line item to the indexes. Caller holds the write
+	 * lock.
+	 *
+	 * @param lineItem Line item to index
+	 */
+	private void indexLineItem(LineItem lineItem)
+	{
+		lineItemsByFarmer.computeIfAbsent(lineItem.getFarmer(),
+				key -> new ArrayList<>()).add(lineItem);
+	}
+}
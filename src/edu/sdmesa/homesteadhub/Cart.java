@@ -23,7 +23,8 @@ public class Cart
 	private Customer customer;
 	// Cart owns its LineItems. Key is the Product SKU for quick lookup.
 	private Map<String, LineItem> items;
-
+	// Places timed holds on added stock; null when holds are off
+	private StockHoldManager stockHolds;
 
 	/**
 	 * Constructor for Cart.
@@ -38,6 +39,9 @@ public class Cart
 
 	/**
 	 * Adds a product to the cart or updates the quantity if it already exists.
+	 * When stock holds are on, the added units are also held for this cart.
+	 * The hold is soft: the item is added even if it cannot be held, and the
+	 * stock is checked again at checkout.
 	 * 
 	 * @param product  The product to add.
 	 * @param quantity The quantity to add.
@@ -47,6 +51,12 @@ public class Cart
 	{
 		String sku = product.getSku();
 
+		if (stockHolds != null && !stockHolds.hold(this, sku, quantity))
+		{
+			AppLogger.debug("CART: Could not hold %d of %s; stock is checked "
+					+ "at checkout.", quantity, product.getTitle());
+		}
+
 		if (items.containsKey(sku))
 		{
 			// Update existing line item
@@ -71,6 +81,10 @@ public class Cart
 	public void removeItem(String sku)
 	{
 		items.remove(sku);
+		if (stockHolds != null)
+		{
+			stockHolds.release(this, sku);
+		}
 	}
 
 	/**
@@ -96,6 +110,10 @@ public class Cart
 	public void clearCart()
 	{
 		items.clear();
+		if (stockHolds != null)
+		{
+			stockHolds.releaseAll(this);
+		}
 	}
 
 	/**
@@ -108,6 +126,27 @@ public class Cart
 		return customer;
 	}
 
+	/**
+	 * Purpose: Getter - Returns stockHolds
+	 * 
+	 * @return stockHolds Hold manager; null when holds are off
+	 */
+	public StockHoldManager getStockHolds()
+	{
+		return stockHolds;
+	}
+
+	/**
+	 * Purpose: Setter - Turns timed stock holds on for this cart, or off
+	 * with null. Items already in the cart are not held.
+	 * 
+	 * @param stockHolds Hold manager to place holds with
+	 */
+	public void setStockHolds(StockHoldManager stockHolds)
+	{
+		this.stockHolds = stockHolds;
+	}
+
 	/**
 	 * Purpose: Getter - Returns items
 	 * 
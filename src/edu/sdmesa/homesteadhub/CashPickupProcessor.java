@@ -38,7 +38,7 @@ public class CashPickupProcessor implements PaymentProcessor
 				paymentDetails.getPaymentMethod().getPaymentType(), totalAmount,
 				paymentDetails.getCustomer().getName() + "\n");
 
-		System.out.printf(message);
+		AppLogger.debug(message.trim());
 
 		// Simulate transaction success
 		String transactionId = "TS-" + System.currentTimeMillis();
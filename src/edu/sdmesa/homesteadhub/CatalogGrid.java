@@ -0,0 +1,189 @@
+package edu.sdmesa.homesteadhub;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of CatalogGrid is to show a product catalog of
+ *          any size as a scrolling grid, building cards only for the rows on
+ *          screen.
+ *
+ *          Each ListView item is one row of products. ListView only creates
+ *          cells for visible rows and reuses them as the user scrolls, and
+ *          each row cell keeps its product cards and rebinds them to the
+ *          row it now shows. Only products on screen get card nodes or load
+ *          an image. Rows are pulled from the product source a page at a
+ *          time, and the next page is added when the user scrolls near the
+ *          end. Opening the catalog costs the same with 10 or 100,000
+ *          products.
+ *
+ *          CatalogGrid is-a ListView
+ */
+public class CatalogGrid extends ListView<List<Product>>
+{
+	// Rows left below the last visible row when the next page is added
+	private static final int PREFETCH_ROWS = 3;
+
+	private Iterator<Product> source;
+	private final int columns;
+	private final int pageRows;
+	private final Supplier<Dashboard.ProductCard> cardFactory;
+
+	private int loadedProducts;
+	// True while a page load is queued, so scrolling does not queue another
+	private boolean pageQueued;
+
+	/**
+	 * Purpose: Constructor that shows the first page of products
+	 *
+	 * @param source      Products to show, pulled as the user scrolls
+	 * @param columns     Cards per row
+	 * @param pageRows    Rows added per page
+	 * @param cardFactory Creates an empty product card for a row cell
+	 */
+	public CatalogGrid(Iterator<Product> source, int columns, int pageRows,
+			Supplier<Dashboard.ProductCard> cardFactory)
+	{
+		this.source = source;
+		this.columns = columns;
+		this.pageRows = pageRows;
+		this.cardFactory = cardFactory;
+
+		getStyleClass().add("catalog-grid");
+		setCellFactory(list -> new ProductRowCell());
+		loadNextPage();
+	}
+
+	/**
+	 * Purpose: Replaces the products shown, e.g. with search results, and
+	 * shows the first page from the top.
+	 *
+	 * @param newSource Products to show, pulled as the user scrolls
+	 */
+	public void setSource(Iterator<Product> newSource)
+	{
+		source = newSource;
+		loadedProducts = 0;
+		getItems().clear();
+		loadNextPage();
+		scrollTo(0);
+	}
+
+	/**
+	 * Purpose: Adds the next page of rows, if the source has more products.
+	 */
+	public void loadNextPage()
+	{
+		pageQueued = false;
+		List<List<Product>> page = new ArrayList<>(pageRows);
+		while (page.size() < pageRows && source.hasNext())
+		{
+			List<Product> row = new ArrayList<>(columns);
+			while (row.size() < columns && source.hasNext())
+			{
+				row.add(source.next());
+			}
+			page.add(row);
+			loadedProducts += row.size();
+		}
+		getItems().addAll(page);
+		AppLogger.debug("CATALOGGRID: Loaded %d rows, %d products shown",
+				page.size(), loadedProducts);
+	}
+
+	/**
+	 * Purpose: Checks whether the source has products not yet added.
+	 *
+	 * @return True if another page can be loaded
+	 */
+	public boolean hasMore()
+	{
+		return source.hasNext();
+	}
+
+	/**
+	 * Purpose: Getter - Returns how many products have been added so far
+	 *
+	 * @return loadedProducts Products in the loaded rows
+	 */
+	public int getLoadedProducts()
+	{
+		return loadedProducts;
+	}
+
+	/**
+	 * Purpose: Queues the next page once a row near the end is shown. The
+	 * load runs after the current layout pass, since items must not change
+	 * while cells are being updated.
+	 *
+	 * @param rowIndex Row being shown
+	 */
+	private void prefetch(int rowIndex)
+	{
+		if (!pageQueued && rowIndex >= getItems().size() - PREFETCH_ROWS
+				&& source.hasNext())
+		{
+			pageQueued = true;
+			Platform.runLater(this::loadNextPage);
+		}
+	}
+
+	/**
+	 * Purpose: One reusable row of product cards.
+	 */
+	private final class ProductRowCell extends ListCell<List<Product>>
+	{
+		private final HBox row = new HBox(20);
+		private final List<Dashboard.ProductCard> cards = new ArrayList<>();
+
+		ProductRowCell()
+		{
+			row.setAlignment(Pos.CENTER);
+			for (int i = 0; i < columns; i++)
+			{
+				Dashboard.ProductCard card = cardFactory.get();
+				cards.add(card);
+				row.getChildren().add(card.getView());
+			}
+		}
+
+		@Override
+		protected void updateItem(List<Product> products, boolean empty)
+		{
+			super.updateItem(products, empty);
+			setText(null);
+			if (empty || products == null)
+			{
+				setGraphic(null);
+				return;
+			}
+
+			// A short last row leaves its remaining cards blank
+			for (int i = 0; i < cards.size(); i++)
+			{
+				cards.get(i).setProduct(i < products.size() ? products.get(i)
+						: null);
+			}
+			setGraphic(row);
+			prefetch(getIndex());
+		}
+	}
+}
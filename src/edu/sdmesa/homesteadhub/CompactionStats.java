@@ -0,0 +1,135 @@
+package edu.sdmesa.homesteadhub;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of CompactionStats is to report the result of
+ *          compacting one data file, so compaction runs can be scheduled
+ *          based on how much space they reclaim.
+ */
+public class CompactionStats
+{
+	private final String fileName;
+	private final long bytesBefore;
+	private final long bytesAfter;
+	private final int recordsBefore;
+	private final int recordsAfter;
+	private final long durationMillis;
+	private final boolean skipped;
+
+	/**
+	 * Purpose: Constructor sets the private field variables
+	 *
+	 * @param fileName       Data file that was compacted
+	 * @param bytesBefore    File size before compaction
+	 * @param bytesAfter     File size after compaction
+	 * @param recordsBefore  Lines read from the file
+	 * @param recordsAfter   Lines written to the compacted file
+	 * @param durationMillis Time the run took
+	 * @param skipped        True if the compacted file was not swapped in
+	 */
+	public CompactionStats(String fileName, long bytesBefore, long bytesAfter,
+			int recordsBefore, int recordsAfter, long durationMillis,
+			boolean skipped)
+	{
+		this.fileName = fileName;
+		this.bytesBefore = bytesBefore;
+		this.bytesAfter = bytesAfter;
+		this.recordsBefore = recordsBefore;
+		this.recordsAfter = recordsAfter;
+		this.durationMillis = durationMillis;
+		this.skipped = skipped;
+	}
+
+	/**
+	 * Purpose: Getter - Returns fileName
+	 *
+	 * @return fileName Data file that was compacted
+	 */
+	public String getFileName()
+	{
+		return fileName;
+	}
+
+	/**
+	 * Purpose: Getter - Returns bytes removed from the file
+	 *
+	 * @return Bytes reclaimed; 0 if the run was skipped
+	 */
+	public long getBytesReclaimed()
+	{
+		return skipped ? 0 : Math.max(0, bytesBefore - bytesAfter);
+	}
+
+	/**
+	 * Purpose: Getter - Returns bytesBefore
+	 *
+	 * @return bytesBefore File size before compaction
+	 */
+	public long getBytesBefore()
+	{
+		return bytesBefore;
+	}
+
+	/**
+	 * Purpose: Getter - Returns bytesAfter
+	 *
+	 * @return bytesAfter File size after compaction
+	 */
+	public long getBytesAfter()
+	{
+		return bytesAfter;
+	}
+
+	/**
+	 * Purpose: Getter - Returns records removed from the file
+	 *
+	 * @return Superseded, duplicate or blank lines dropped
+	 */
+	public int getRecordsRemoved()
+	{
+		return skipped ? 0 : recordsBefore - recordsAfter;
+	}
+
+	/**
+	 * Purpose: Getter - Returns durationMillis
+	 *
+	 * @return durationMillis Time the run took
+	 */
+	public long getDurationMillis()
+	{
+		return durationMillis;
+	}
+
+	/**
+	 * Purpose: Getter - Returns skipped
+	 *
+	 * @return skipped True if the compacted file was not swapped in
+	 */
+	public boolean isSkipped()
+	{
+		return skipped;
+	}
+
+	/**
+	 * Purpose: Override of toString method
+	 *
+	 * @return formatted CompactionStats details
+	 */
+	@Override
+	public String toString()
+	{
+		return "CompactionStats [file=" + fileName + ", bytesReclaimed="
+				+ getBytesReclaimed() + ", recordsRemoved="
+				+ getRecordsRemoved() + ", durationMillis=" + durationMillis
+				+ ", skipped=" + skipped + "]";
+	}
+}
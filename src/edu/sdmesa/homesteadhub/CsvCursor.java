@@ -0,0 +1,225 @@
+package edu.sdmesa.homesteadhub;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of CsvCursor is to read the comma-separated
+ *          fields of one data file line in order, without splitting the line.
+ *
+ *          A cursor is reset onto each line and reused. Numbers and literal
+ *          comparisons are read straight from the line's characters, so only
+ *          fields kept as Strings (IDs, names) allocate anything. Prices are
+ *          read as fixed-point digits, which gives the same double as
+ *          Double.parseDouble for the %.2f values Helper writes.
+ */
+public class CsvCursor
+{
+	// Powers of ten that are exact as doubles
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15 };
+
+	// Largest mantissa that a double holds exactly (2^53)
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	private String line = "";
+	private int position; // Start of the next field
+	private int fieldEnd; // End of the field just read, exclusive
+
+	/**
+	 * Purpose: Points the cursor at the first field of a line.
+	 *
+	 * @param line Line to read, without a newline
+	 * @return this cursor
+	 */
+	public CsvCursor reset(String line)
+	{
+		this.line = line;
+		this.position = 0;
+		this.fieldEnd = 0;
+		return this;
+	}
+
+	/**
+	 * Purpose: Counts the line's fields the same way String.split(",") does,
+	 * i.e. ignoring trailing empty fields. Used to reject short lines.
+	 *
+	 * @return Number of fields
+	 */
+	public int fieldCount()
+	{
+		int end = line.length();
+		while (end > 0 && line.charAt(end - 1) == ',')
+		{
+			end--;
+		}
+		int count = 1;
+		int comma = line.indexOf(',');
+		while (comma >= 0 && comma < end)
+		{
+			count++;
+			comma = line.indexOf(',', comma + 1);
+		}
+		return count;
+	}
+
+	/**
+	 * Purpose: Skips the next field.
+	 *
+	 * @return this cursor
+	 */
+	public CsvCursor skip()
+	{
+		advance();
+		return this;
+	}
+
+	/**
+	 * Purpose: Reads the next field as a String.
+	 *
+	 * @return Field text
+	 */
+	public String nextString()
+	{
+		int start = advance();
+		return line.substring(start, fieldEnd);
+	}
+
+	/**
+	 * Purpose: Reads the next field and compares it to a literal without
+	 * copying it.
+	 *
+	 * @param expected Text to compare with
+	 * @return True if the field equals expected
+	 */
+	public boolean nextEquals(String expected)
+	{
+		int start = advance();
+		return fieldEnd - start == expected.length()
+				&& line.regionMatches(start, expected, 0, expected.length());
+	}
+
+	/**
+	 * Purpose: Reads the next field as an int. Leading zeros (padded stock)
+	 * are allowed.
+	 *
+	 * @return Parsed value
+	 * @throws NumberFormatException If the field is not an int
+	 */
+	public int nextInt()
+	{
+		int start = advance();
+		int i = start;
+		boolean negative = false;
+		if (i < fieldEnd && (line.charAt(i) == '-' || line.charAt(i) == '+'))
+		{
+			negative = line.charAt(i) == '-';
+			i++;
+		}
+		if (i == fieldEnd) throw invalid(start);
+
+		long value = 0;
+		for (; i < fieldEnd; i++)
+		{
+			int digit = line.charAt(i) - '0';
+			if (digit < 0 || digit > 9) throw invalid(start);
+			value = value * 10 + digit;
+			if (value > (long) Integer.MAX_VALUE + 1) throw invalid(start);
+		}
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE) throw invalid(start);
+		return (int) value;
+	}
+
+	/**
+	 * Purpose: Reads the next field as a decimal price. Plain decimals such
+	 * as 3.50 are parsed as fixed-point; anything else falls back to
+	 * Double.parseDouble.
+	 *
+	 * @return Parsed value
+	 * @throws NumberFormatException If the field is not a number
+	 */
+	public double nextPrice()
+	{
+		int start = advance();
+		int i = start;
+		boolean negative = false;
+		if (i < fieldEnd && (line.charAt(i) == '-' || line.charAt(i) == '+'))
+		{
+			negative = line.charAt(i) == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int scale = -1; // Digits after the point; -1 until a point is seen
+		for (; i < fieldEnd; i++)
+		{
+			char c = line.charAt(i);
+			if (c == '.' && scale < 0)
+			{
+				scale = 0;
+				continue;
+			}
+			int digit = c - '0';
+			if (digit < 0 || digit > 9 || mantissa >= MAX_EXACT_MANTISSA / 10)
+			{
+				// Exponents, NaN or very long values
+				return slowPrice(start);
+			}
+			mantissa = mantissa * 10 + digit;
+			digits++;
+			if (scale >= 0) scale++;
+		}
+		if (digits == 0) throw invalid(start);
+		if (scale >= POWERS_OF_TEN.length) return slowPrice(start);
+
+		// Exact mantissa / exact power of ten is rounded once, like parseDouble
+		double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Purpose: Moves past the next field.
+	 *
+	 * @return Start offset of the field; fieldEnd is set to its end
+	 */
+	private int advance()
+	{
+		int start = position;
+		int end = line.indexOf(',', start);
+		fieldEnd = end < 0 ? line.length() : end;
+		position = fieldEnd + 1;
+		return start;
+	}
+
+	/**
+	 * Purpose: Parses the current field with Double.parseDouble.
+	 *
+	 * @param start Start offset of the field
+	 * @return Parsed value
+	 */
+	private double slowPrice(int start)
+	{
+		return Double.parseDouble(line.substring(start, fieldEnd));
+	}
+
+	/**
+	 * Purpose: Builds the exception for a field that is not a number.
+	 *
+	 * @param start Start offset of the field
+	 * @return Exception naming the field text
+	 */
+	private NumberFormatException invalid(int start)
+	{
+		return new NumberFormatException("For input string: \""
+				+ line.substring(start, fieldEnd) + "\"");
+	}
+}
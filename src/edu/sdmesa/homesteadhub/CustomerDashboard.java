@@ -1,9 +1,12 @@
 package edu.sdmesa.homesteadhub;
 
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -13,6 +16,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
@@ -51,6 +55,12 @@ public class CustomerDashboard extends Dashboard
 			new SidebarButtonConfig("Purchases", "purchases", false),
 			new SidebarButtonConfig("Cart", "cart", false));
 
+	// Catalog grid layout: cards per row, and rows added per scroll page
+	private static final int CATALOG_COLUMNS = 3;
+	private static final int CATALOG_PAGE_ROWS = 10;
+	// Most search results shown, best first
+	private static final int SEARCH_LIMIT = 500;
+
 	// Define colors here so they can be used in the confirmation view
 	private final String primaryColor = "#52B788";
 	private final String darkColor = "#2D6A4F";
@@ -72,6 +82,8 @@ public class CustomerDashboard extends Dashboard
 	{
 
 		customer = (Customer) user;
+		// Items added from now on are held in stock for this cart
+		customer.getCart().setStockHolds(AppInitializer.getStockHolds());
 		// Root Layout as a BorderPane
 		BorderPane root = new BorderPane();
 		// Refeference root for stylization
@@ -119,54 +131,62 @@ public class CustomerDashboard extends Dashboard
 		Label title = new Label("Catalog");
 		title.getStyleClass().add("view-title");
 
-		GridPane grid = new GridPane();
-		// Horizontal gap between cards
-		grid.setHgap(20);
-		// Vertical gap between cards
-		grid.setVgap(20);
-		grid.setPadding(new Insets(20));
-
-		// Pulls product catalog items from Inventory manager's map values
-		List<Product> products = new ArrayList<>(AppInitializer
-				.getInventoryManager().getProductCatalog().values());
-
-		// List to hold all product cards used in the catalog
-		List<Region> productCards = new ArrayList<>();
+		// Pulls product catalog items from Inventory manager's map values.
+		// Cards are only built for rows on screen, and further rows are
+		// pulled from the catalog as the customer scrolls.
+		InventoryManager inventory = AppInitializer.getInventoryManager();
+		Map<String, Product> catalog = inventory.getProductCatalog();
+		CatalogGrid grid = new CatalogGrid(catalog.values().iterator(),
+				CATALOG_COLUMNS, CATALOG_PAGE_ROWS, ProductCard::new);
+
+		Label countLabel = new Label(catalog.size() + " products");
+		countLabel.getStyleClass().add("catalog-count");
+
+		// Filters the grid on every keystroke; the search index answers
+		// from memory, so it runs on the FX thread
+		TextField searchField = new TextField();
+		searchField.setPromptText("Search products, farms or places...");
+		searchField.getStyleClass().add("form-input");
+		searchField.textProperty().addListener((observable, oldText, text) -> {
+			if (text == null || text.isBlank())
+			{
+				grid.setSource(catalog.values().iterator());
+				countLabel.setText(catalog.size() + " products");
+				return;
+			}
+			ProductSearchIndex.Results results = inventory.search(text,
+					SEARCH_LIMIT);
+			grid.setSource(results.getProducts().iterator());
+			countLabel.setText(results.getTotalMatches() > SEARCH_LIMIT
+					? "Best " + SEARCH_LIMIT + " of "
+							+ results.getTotalMatches() + " matches"
+					: results.getTotalMatches() + " matches");
+		});
 
-		// Creates product cards for products inside products.txt
-		for (Product product : products)
+		// Stored products may still be loading; show them once they are in
+		CompletableFuture<Void> backgroundLoad = AppInitializer
+				.getBackgroundLoad();
+		if (!backgroundLoad.isDone())
 		{
-			productCards.add(createProductCard(product));
+			backgroundLoad.thenRunAsync(() -> {
+				String text = searchField.getText();
+				if (text == null || text.isBlank())
+				{
+					grid.setSource(catalog.values().iterator());
+					countLabel.setText(catalog.size() + " products");
+				}
+			}, Platform::runLater);
 		}
 
-		// Defines the number of columns in catalog view
-		final int COLUMNS = 3;
-
-		for (int index = 0; index < productCards.size(); index++)
-		{
-			// Calculate the column index (x) using the modulo operator (%)
-			int x = index % COLUMNS;
-
-			// Calculate the row index (y) using integer division (/)
-			int y = index / COLUMNS;
-
-			// Place the card into the grid at the calculated position (x, y)
-			grid.add(productCards.get(index), x, y);
-
-			System.out.println("Placing product at x: " + x + " | y: " + y
-					+ " | Index: " + index);
-		}
-
-		grid.getStyleClass().add("catalog-grid");
-		grid.setAlignment(Pos.CENTER);
-
-		// Table takes up available vertical space
+		// Grid takes up available vertical space
 		VBox.setVgrow(grid, Priority.ALWAYS);
 
 		// Use a StackPane to place the table and the button
 		StackPane catalogStack = new StackPane(grid);
+		VBox.setVgrow(catalogStack, Priority.ALWAYS);
 
-		inventoryLayout.getChildren().addAll(title, catalogStack);
+		inventoryLayout.getChildren().addAll(title, searchField, countLabel,
+				catalogStack);
 		return inventoryLayout;
 	}
 
@@ -220,7 +240,11 @@ public class CustomerDashboard extends Dashboard
 		getCartTable().setItems(FXCollections
 				.observableArrayList(customer.getCart().getItemMap().values()));
 
-		System.out.println("Cart Items: " + customer.getCart().getItemMap());
+		if (AppLogger.isDebugEnabled())
+		{
+			AppLogger.debug("Cart Items: %s",
+					customer.getCart().getItemMap().toString());
+		}
 
 		// --- Action Button ---
 		Button checkoutButton = new Button("Proceed to Checkout");
@@ -295,8 +319,8 @@ public class CustomerDashboard extends Dashboard
 						// Update the variable/object with the new value
 						selectedMethod = newValue;
 
-						System.out.println("Payment method updated from "
-								+ oldValue + " to " + newValue);
+						AppLogger.debug("Payment method updated from %s to %s",
+								oldValue, newValue);
 					}
 				});
 		// --------- Place Order Button ---------
@@ -325,23 +349,36 @@ public class CustomerDashboard extends Dashboard
 					AppInitializer.getInventoryManager(),
 					detail.getPaymentMethod());
 
-			// Handles order placement
-			try
-			{
-				// newOrder holds a reference to the order.
-				newOrder = orderManager.placeOrder(customer, customer.getCart(),
-						detail);
-
-				// Switches to confirmation view if order was successful
-				switchToView("confirmation");
-
-			}
-			catch (InsufficientStockException e1)
-			{
-				System.err.println("FAIL: Order threw unexpected exception: "
-						+ e1.getMessage());
-			}
-
+			// Handles order placement off the FX thread; only the result
+			// comes back to it. The button stays disabled meanwhile so the
+			// order cannot be placed twice.
+			placeOrderButton.setDisable(true);
+			orderManager
+					.placeOrderAsync(customer, customer.getCart(), detail,
+							Platform::runLater)
+					.whenCompleteAsync((order, error) -> {
+						placeOrderButton.setDisable(false);
+						if (error != null)
+						{
+							Throwable cause = error instanceof CompletionException
+									&& error.getCause() != null
+											? error.getCause()
+											: error;
+							AppLogger.error(
+									"FAIL: Order threw unexpected exception: "
+											+ cause.getMessage());
+							return;
+						}
+
+						// newOrder holds a reference to the order.
+						newOrder = order;
+
+						// Switches to confirmation view if order was successful
+						if ("SUCCESS".equals(order.getStatus()))
+						{
+							switchToView("confirmation");
+						}
+					}, Platform::runLater);
 		});
 
 		// Structure Summary and Button in a VBox
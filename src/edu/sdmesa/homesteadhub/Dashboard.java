@@ -1,15 +1,11 @@
 package edu.sdmesa.homesteadhub;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -79,13 +75,19 @@ public abstract class Dashboard
 	// Provides access to dynamically created toggle buttons
 	private Map<String, ToggleButton> navButtonsMap = new HashMap<>();
 
-	// Define the base directory for all application data/assets.
-	private static final String ASSET_DIR_NAME = "app_assets";
-	private static final String IMAGE_SUB_DIR_NAME = "images";
+	// Catalog images are shown at most this many pixels wide and tall,
+	// the size of the thumbnail rendition made at upload
+	protected static final int THUMBNAIL_SIZE = ImageIngestor.THUMBNAIL_SIZE;
+	// Size of the image on the product page, scaled from the detail rendition
+	private static final int DETAIL_VIEW_SIZE = 300;
 
-	// Defines folder path for product images
-	private final Path imagesDirPath = Paths.get(ASSET_DIR_NAME,
-			IMAGE_SUB_DIR_NAME);
+	// Decoded images shared by every dashboard, keyed by file URL. Bounded
+	// by decoded size: 4 bytes per pixel at the requested size. Set the
+	// limit with -Dhomesteadhub.imageCacheMB
+	private static final LruCache<String, Image> IMAGE_CACHE = new LruCache<>(
+			Long.getLong("homesteadhub.imageCacheMB", 64) * 1024 * 1024,
+			image -> (long) (Math.max(1, image.getRequestedWidth())
+					* Math.max(1, image.getRequestedHeight()) * 4));
 
 	// Both used to help with product image display and replacement
 	private ImageView productImageView;
@@ -271,15 +273,14 @@ public abstract class Dashboard
 						// Removes item from Cart object (data)
 						loggedInCustomer.getCart()
 								.removeItem(lineItem.getSku());
-						System.out.println(
-								"Removed 1" + " of " + lineItem.getTitle()
-										+ " from customer's cart.");
+						AppLogger.debug("Removed 1 of %s from customer's cart.",
+								lineItem.getTitle());
 					}
 					// If quantity drops to 0 or less, remove the item from the
 					// cart/table (view)
 					getTableView().getItems().remove(lineItem);
-					System.out.println("Removed item: "
-							+ lineItem.getProduct().getTitle());
+					AppLogger.debug("Removed item: %s",
+							lineItem.getProduct().getTitle());
 				}
 				else
 				{
@@ -291,9 +292,8 @@ public abstract class Dashboard
 
 					// Update the text field immediately
 					quantityField.setText(String.valueOf(newQuantity));
-					System.out.println(
-							"Quantity for " + lineItem.getProduct().getTitle()
-									+ " updated to: " + newQuantity);
+					AppLogger.debug("Quantity for %s updated to: %d",
+							lineItem.getProduct().getTitle(), newQuantity);
 				}
 				// Updates totals when called
 				updateFinancialSummary();
@@ -338,54 +338,145 @@ public abstract class Dashboard
 	 */
 	protected VBox createProductCard(Product product)
 	{
-		VBox card = new VBox(10);
-		card.getStyleClass().add("product-card");
-		card.setAlignment(Pos.CENTER);
-
-		// Event clicker for product card
-		card.setOnMouseClicked(event -> {
-			// Switches to specific product page view
-			switchToView("productPage", product);
-		});
-		productImageView = new ImageView();
-		productImageView.setFitWidth(150);
-		productImageView.setFitHeight(150);
-		productImageView.setPreserveRatio(true);
+		ProductCard card = new ProductCard();
+		card.setProduct(product);
+		return card.getView();
+	}
+
+	/**
+	 * Purpose: A product card whose nodes are built once and can be shown for
+	 * any product. The catalog grid reuses cards as rows scroll instead of
+	 * building new ones, so setProduct only updates the labels and loads the
+	 * image when the photo changes.
+	 */
+	protected class ProductCard
+	{
+		private final VBox card = new VBox(10);
+		private final ImageView imageView = new ImageView();
+		private final Label nameLabel = new Label();
+		private final Label priceLabel = new Label();
+		private final Label stockLabel = new Label();
+
+		// Product shown now; null while the card is blank
+		private Product product;
+		// Photo currently loaded, so a card rebound to the same product
+		// does not load it again
+		private String shownPhotoUri;
+		private boolean imageShown;
+
+		/**
+		 * Purpose: Constructor that builds the card's nodes with no product
+		 */
+		public ProductCard()
+		{
+			card.getStyleClass().add("product-card");
+			card.setAlignment(Pos.CENTER);
 
-		// Checks if there's a photoUri, if true, will set productImageView with
-		// product photo, otherwise it will place the default placeholder
-		renderImage(productImageView, product.getPhotoUri());
+			// Event clicker for product card
+			card.setOnMouseClicked(event -> {
+				// Switches to specific product page view
+				if (product != null)
+				{
+					switchToView("productPage", product);
+				}
+			});
+			imageView.setFitWidth(THUMBNAIL_SIZE);
+			imageView.setFitHeight(THUMBNAIL_SIZE);
+			imageView.setPreserveRatio(true);
+
+			// Initialize image StackPane with image
+			StackPane imageHolder = new StackPane(imageView);
+			imageHolder.getStyleClass().add("image-placeholder");
+
+			nameLabel.getStyleClass().add("product-name");
+			priceLabel.getStyleClass().add("product-price");
+			stockLabel.getStyleClass().add("product-stock");
+
+			// Add to Cart Button
+			Button addButton = new Button("Add to Cart");
+			addButton.getStyleClass().add("add-to-cart-button");
+			addButton.setOnAction(e -> addToCart());
+
+			card.getChildren().addAll(imageHolder, nameLabel, priceLabel,
+					stockLabel, addButton);
+		}
 
-		// Initialize image StackPane with image
-		imagePlaceholder = new StackPane(productImageView);
-		imagePlaceholder.getStyleClass().add("image-placeholder");
+		/**
+		 * Purpose: Shows a product on the card, or hides the card.
+		 * 
+		 * @param newProduct Product to show; null leaves the card blank
+		 */
+		public void setProduct(Product newProduct)
+		{
+			product = newProduct;
+			card.setVisible(newProduct != null);
+			if (newProduct == null)
+			{
+				return;
+			}
+
+			// Product Name
+			nameLabel.setText(newProduct.getTitle());
+			// Price
+			priceLabel.setText("$" + newProduct.getUnitPrice());
+			refreshStock();
+
+			// Shows the thumbnail rendition, or the photo for products
+			// uploaded before renditions were made, otherwise it will place
+			// the default placeholder
+			String photoUri = newProduct.getThumbnailUri() != null
+					? newProduct.getThumbnailUri()
+					: newProduct.getPhotoUri();
+			if (!imageShown || !Objects.equals(photoUri, shownPhotoUri))
+			{
+				renderImage(imageView, photoUri);
+				shownPhotoUri = photoUri;
+				imageShown = true;
+			}
+		}
 
-		// Product Name
-		Label nameLabel = new Label(product.getTitle());
-		nameLabel.getStyleClass().add("product-name");
+		/**
+		 * Purpose: Getter - Returns the card's root node
+		 * 
+		 * @return card The VBox layout of the card
+		 */
+		public VBox getView()
+		{
+			return card;
+		}
 
-		// Price
-		Label priceLabel = new Label("$" + product.getUnitPrice());
-		priceLabel.getStyleClass().add("product-price");
+		/**
+		 * Purpose: Shows stock left to buy versus stock held in other
+		 * customers' carts.
+		 */
+		private void refreshStock()
+		{
+			StockHoldManager stockHolds = AppInitializer.getStockHolds();
+			int held = stockHolds != null
+					? stockHolds.getHeldQuantity(product.getSku())
+					: 0;
+			stockLabel.setText("Available: " + product.getStockQuantity()
+					+ " | Held: " + held);
+		}
 
-		// Add to Cart Button
-		Button addButton = new Button("Add to Cart");
-		addButton.getStyleClass().add("add-to-cart-button");
-		addButton.setOnAction(e -> {
-			if (loggedInUser instanceof Customer)
+		/**
+		 * Purpose: Adds one of the shown product to the customer's cart.
+		 */
+		private void addToCart()
+		{
+			if (product != null && loggedInUser instanceof Customer)
 			{
 				Customer loggedInCustomer = (Customer) loggedInUser;
 
 				int qty = 1;
 				loggedInCustomer.addProductToCart(product, qty);
-				System.out.println("Added " + qty + " of " + product.getTitle()
-						+ " to cart.");
-			}
-		});
+				AppLogger.debug("Added %d of %s to cart.", qty,
+						product.getTitle());
 
-		card.getChildren().addAll(imagePlaceholder, nameLabel, priceLabel,
-				addButton);
-		return card;
+				// Shows the stock moved into the hold
+				refreshStock();
+			}
+		}
 	}
 
 	/**
@@ -404,18 +495,21 @@ public abstract class Dashboard
 
 		// Initialize product image view
 		productImageView = new ImageView();
-		productImageView.setFitWidth(150);
-		productImageView.setFitHeight(150);
+		productImageView.setFitWidth(DETAIL_VIEW_SIZE);
+		productImageView.setFitHeight(DETAIL_VIEW_SIZE);
 		productImageView.setPreserveRatio(true);
 
-		// Checks if there's a photoUri, if true, will set productImageView with
-		// product photo, otherwise it will place the default placeholder
-		renderImage(productImageView, product.getPhotoUri());
+		// Shows the detail rendition, or the photo for products uploaded
+		// before renditions were made, otherwise it will place the default
+		// placeholder
+		renderImage(productImageView, product.getDetailUri() != null
+				? product.getDetailUri()
+				: product.getPhotoUri());
 
 		// Initialize image StackPane with image
 		imagePlaceholder = new StackPane(productImageView);
 		imagePlaceholder.getStyleClass().add("image-placeholder");
-		imagePlaceholder.setMaxWidth(200);
+		imagePlaceholder.setMaxWidth(DETAIL_VIEW_SIZE + 50);
 
 		// Creates price label and formats it with product's price
 		Label price = new Label(
@@ -468,7 +562,7 @@ public abstract class Dashboard
 		// Sets quantity controls if editable, otherwise it's a simple display
 		if (editable)
 		{
-			System.out.println("Entered editable mode!");
+			AppLogger.debug("Entered editable mode!");
 			// Custom cell factory for quantity buttons (used in Cart view)
 			itemQuantityCol
 					.setCellFactory(column -> createQuantityControlCell());
@@ -921,77 +1015,42 @@ public abstract class Dashboard
 		}
 		else
 		{
-			System.err.println(
+			AppLogger.warn(
 					"Navigation button not found for view ID: " + viewId);
 		}
 	}
 
 	/**
-	 * Purpose: Handles opening the FileChooser, copying the file, and returning
-	 * the path.
+	 * Purpose: Handles opening the FileChooser and hands the picked file to
+	 * the image ingestor, which stores it with its thumbnail and detail
+	 * renditions on a background thread.
 	 * 
 	 * @param stage The JavaFX Stage required to launch the FileChooser.
-	 * @return The path string or null if cancelled/failed.
+	 * @return Future of the stored image paths, or null if cancelled.
 	 */
-	protected String uploadImage(Stage stage)
+	protected CompletableFuture<ImageIngestor.Renditions> uploadImage(
+			Stage stage)
 	{
-		try
-		{
-			// Checks if the destination directory exists
-			Files.createDirectories(imagesDirPath);
-
-			// Open File Chooser
-			FileChooser fileChooser = new FileChooser();
-			fileChooser.setTitle("Select Product Image");
-
-			// Add filters to check that only image files can be selected
-			FileChooser.ExtensionFilter imageFilter = new FileChooser.ExtensionFilter(
-					"Image Files", "*.jpg", "*.jpeg", "*.png", "*.gif");
-			fileChooser.getExtensionFilters().add(imageFilter);
-
-			// Allows user to upload file through their system and assigns to
-			// local File variable for later use
-			File selectedFile = fileChooser.showOpenDialog(stage);
-
-			if (selectedFile != null)
-			{
-				// Define the destination file name
-				String originalFileName = selectedFile.getName();
-				String fileExtension = "";
-				int dotIndex = originalFileName.lastIndexOf('.');
-				if (dotIndex > 0)
-				{
-					fileExtension = originalFileName.substring(dotIndex);
-				}
+		// Open File Chooser
+		FileChooser fileChooser = new FileChooser();
+		fileChooser.setTitle("Select Product Image");
 
-				// Use a UUID for a unique filename
-				String uniqueFileName = UUID.randomUUID().toString()
-						+ fileExtension;
+		// Add filters to check that only image files can be selected
+		FileChooser.ExtensionFilter imageFilter = new FileChooser.ExtensionFilter(
+				"Image Files", "*.jpg", "*.jpeg", "*.png", "*.gif");
+		fileChooser.getExtensionFilters().add(imageFilter);
 
-				// Construct the full destination path
-				Path destinationPath = imagesDirPath.resolve(uniqueFileName);
+		// Allows user to upload file through their system and assigns to
+		// local File variable for later use
+		File selectedFile = fileChooser.showOpenDialog(stage);
 
-				// Copy the file, replace names match (unlikely though)
-				Files.copy(selectedFile.toPath(), destinationPath,
-						StandardCopyOption.REPLACE_EXISTING);
-
-				// Returns the path for the product image
-				return imagesDirPath.resolve(uniqueFileName).toString();
-
-			}
-			else
-			{
-				// If here, then the image upload operation was cancelled
-				return null;
-			}
-		}
-		catch (IOException e)
+		if (selectedFile == null)
 		{
-			System.err
-					.println("Error processing image file: " + e.getMessage());
-			e.printStackTrace();
+			// If here, then the image upload operation was cancelled
 			return null;
 		}
+		// Reading, hashing and scaling all happen off the FX thread
+		return AppInitializer.getImageIngestor().ingest(selectedFile.toPath());
 	}
 
 	/**
@@ -1003,26 +1062,41 @@ public abstract class Dashboard
 	 */
 	protected void renderImage(ImageView imageView, String imagePath)
 	{
-		try
+		// Images are not required for products
+		if (imagePath == null || !new File(imagePath).isFile())
 		{
-			// Create a File object from the string path
-			File file = new File(imagePath);
-
-			// Convert the file to a URI sring
-			String imageUrl = file.toURI().toURL().toString();
+			if (imagePath != null)
+			{
+				AppLogger.warn("DASHBOARD: image %s not found; loading "
+						+ "placeholder...", imagePath);
+			}
+			loadPlaceholder(imageView);
+			return;
+		}
 
-			// Create the Image
-			Image image = new Image(imageUrl, true);
+		try
+		{
+			// Create a File object from the string path and convert the file
+			// to a URI sring
+			String imageUrl = new File(imagePath).toURI().toURL().toString();
+
+			// Reuses the decoded image if this file was shown at this size
+			// before
+			int size = imageView.getFitWidth() > 0
+					? (int) imageView.getFitWidth()
+					: THUMBNAIL_SIZE;
+			Image image = IMAGE_CACHE.get(size + ":" + imageUrl,
+					key -> decodeImage(key, imageUrl, size));
 
 			// Update the display
 			imageView.setImage(image);
 		}
 		catch (Exception e)
 		{
-			// If here, there's an issue with the image, most likely null
-			System.err.println("DASHBOARD: image is " + e.getMessage());
+			// If here, there's an issue with the image path
+			AppLogger.warn("DASHBOARD: image is " + e.getMessage());
 			// Notifys the system we're loading the placeholder image instead
-			System.err.println("loading placeholder...");
+			AppLogger.warn("loading placeholder...");
 			// Loads placeholder image
 			loadPlaceholder(imageView);
 		}
@@ -1042,18 +1116,47 @@ public abstract class Dashboard
 			final String placeholderPath = "app_assets/images/img-placeholder.png";
 			File placeholderFile = new File(placeholderPath);
 
-			// Adds the default placeholder image
-			imageView.setImage(
-					new Image(placeholderFile.toURI().toString(), true));
+			// Adds the default placeholder image, decoded once for every card
+			String placeholderUrl = placeholderFile.toURI().toString();
+			imageView.setImage(IMAGE_CACHE.get(
+					THUMBNAIL_SIZE + ":" + placeholderUrl,
+					key -> decodeImage(key, placeholderUrl, THUMBNAIL_SIZE)));
 
 		}
 		catch (Exception e)
 		{
-			System.err.println("Error loading placeholder: " + e.getMessage());
+			AppLogger.error("Error loading placeholder: " + e.getMessage());
 			imageView.setImage(null);
 		}
 	}
 
+	/**
+	 * Purpose: Starts decoding an image at the size it is shown. JavaFX reads
+	 * and decodes it on a background loader thread, scaled down to fit, so
+	 * neither the FX thread nor the cache holds more pixels than are shown.
+	 * Renditions are already about this size; older full size photos are
+	 * scaled here. An image that fails to load is dropped from the cache so
+	 * the next render tries again.
+	 * 
+	 * @param cacheKey Key the image is cached under
+	 * @param imageUrl File URL of the image
+	 * @param size     Largest width or height to decode
+	 * @return image Image that finishes loading in the background
+	 */
+	private static Image decodeImage(String cacheKey, String imageUrl,
+			int size)
+	{
+		Image image = new Image(imageUrl, size, size, true, true, true);
+		image.errorProperty().addListener((observable, wasError, isError) -> {
+			if (isError)
+			{
+				AppLogger.warn("DASHBOARD: could not decode %s", imageUrl);
+				IMAGE_CACHE.remove(cacheKey);
+			}
+		});
+		return image;
+	}
+
 	/**
 	 * Purpose: Getter - Returns the dashboard's main scene
 	 * 
@@ -1102,7 +1205,7 @@ public abstract class Dashboard
 		// Clears the logged in user
 		loggedInUser = null;
 
-		System.out.println("User logged out. Switching to login scene.");
+		AppLogger.info("User logged out. Switching to login scene.");
 
 		// Return to the login scene
 		primaryStage.setScene(loginScene);
@@ -0,0 +1,355 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of DataCompactor is to rewrite FileDataSource's
+ *          append-only data files in the background, keeping only the newest
+ *          line for each record key.
+ *
+ *          Each file is compacted into a temp file without holding any lock.
+ *          Only the final step takes the file's write lock: lines appended
+ *          during the run are copied to the end of the temp file and the temp
+ *          file is swapped in with an atomic move. The snapshot ends after
+ *          the last complete line, so a line still being appended when it is
+ *          taken is copied whole with the tail. Readers never take a lock,
+ *          and a reader that already has the old file open keeps reading it.
+ */
+public class DataCompactor
+{
+	// Thread that runs scheduled and on-demand compactions
+	private final ScheduledExecutorService executor;
+
+	// Stats from the most recent run, one entry per file
+	private volatile List<CompactionStats> lastStats = Collections.emptyList();
+
+	/**
+	 * Purpose: Constructor to create the background compaction thread
+	 */
+	public DataCompactor()
+	{
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "data-compactor");
+			// Does not keep the application alive on exit
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Purpose: Compacts every data file on a fixed schedule.
+	 *
+	 * @param period Time between runs
+	 * @param unit   Unit of the period
+	 */
+	public void start(long period, TimeUnit unit)
+	{
+		executor.scheduleWithFixedDelay(this::compactAll, period, period,
+				unit);
+	}
+
+	/**
+	 * Purpose: Compacts every data file once on the background thread.
+	 *
+	 * @return Future completed with the stats for each file
+	 */
+	public CompletableFuture<List<CompactionStats>> compactNow()
+	{
+		return CompletableFuture.supplyAsync(this::compactAll, executor);
+	}
+
+	/**
+	 * Purpose: Stops the background thread.
+	 */
+	public void shutdown()
+	{
+		executor.shutdown();
+	}
+
+	/**
+	 * Purpose: Getter - Returns the stats of the most recent run
+	 *
+	 * @return lastStats One CompactionStats per data file
+	 */
+	public List<CompactionStats> getLastStats()
+	{
+		return lastStats;
+	}
+
+	/**
+	 * Purpose: Compacts each data file with its record key.
+	 *
+	 * @return stats One CompactionStats per data file
+	 */
+	private List<CompactionStats> compactAll()
+	{
+		List<CompactionStats> stats = new ArrayList<>();
+
+		// users: userId
+		stats.add(compactFile(FileDataSource.USERS_FILE, line -> field(line, 1)));
+		// products: sku
+		stats.add(compactFile(FileDataSource.PRODUCTS_FILE,
+				line -> field(line, 1)));
+		// orders: orderId
+		stats.add(compactFile(FileDataSource.ORDERS_FILE,
+				line -> field(line, 0)));
+		// line items: orderId + sku
+		stats.add(compactFile(FileDataSource.LINE_ITEM_FILE, line -> {
+			String orderId = field(line, 0);
+			String sku = field(line, 1);
+			return orderId == null || sku == null ? null : orderId + "," + sku;
+		}));
+
+		for (CompactionStats stat : stats)
+		{
+			AppLogger.info("DATACOMPACTOR: " + stat);
+		}
+		lastStats = Collections.unmodifiableList(stats);
+		return lastStats;
+	}
+
+	/**
+	 * Purpose: Compacts one data file.
+	 *
+	 * @param fileName  Data file to compact
+	 * @param keyOfLine Returns a line's record key; null drops the line
+	 * @return stats Result of the run
+	 */
+	CompactionStats compactFile(String fileName,
+			Function<String, String> keyOfLine)
+	{
+		long start = System.currentTimeMillis();
+		Path path = Paths.get(fileName);
+		Path temp = null;
+		boolean isProducts = fileName.equals(FileDataSource.PRODUCTS_FILE);
+		boolean isLineItems = fileName.equals(FileDataSource.LINE_ITEM_FILE);
+		ProductStore productStore = FileDataSource.getProductStore();
+
+		try
+		{
+			if (!Files.exists(path))
+			{
+				return new CompactionStats(fileName, 0, 0, 0, 0, 0, true);
+			}
+
+			// In-place stock writes made after this point would be lost
+			long rewritesAtStart = productStore.getRewriteCount();
+			long snapshotSize = Files.size(path);
+
+			// Key -> newest line. Re-inserting moves a key to its newest spot.
+			Map<String, String> newest = new LinkedHashMap<>();
+			int[] recordsBefore = new int[1];
+			long compactedSize = readLines(path, snapshotSize, newest,
+					keyOfLine, recordsBefore);
+
+			temp = Files.createTempFile(path.toAbsolutePath().getParent(),
+					fileName, ".compact");
+			try (BufferedWriter writer = Files.newBufferedWriter(temp,
+					StandardCharsets.UTF_8))
+			{
+				for (String line : newest.values())
+				{
+					writer.write(line);
+					writer.write('\n');
+				}
+			}
+
+			// Short exclusive section: copy the tail and swap the file in
+			Lock swapLock = FileDataSource.lockFor(fileName).writeLock();
+			swapLock.lock();
+			try
+			{
+				if (isProducts
+						&& productStore.getRewriteCount() != rewritesAtStart)
+				{
+					// A stock update touched lines already copied; retry later
+					Files.deleteIfExists(temp);
+					return new CompactionStats(fileName, snapshotSize,
+							snapshotSize, recordsBefore[0], recordsBefore[0],
+							System.currentTimeMillis() - start, true);
+				}
+
+				copyTail(path, compactedSize, temp);
+				Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+
+				if (isProducts)
+				{
+					// Offsets in the old file no longer apply
+					productStore.invalidate();
+				}
+				else if (isLineItems)
+				{
+					// Sidecar offsets point into the old file
+					FileDataSource.getLineItemIndex().invalidate();
+				}
+			}
+			finally
+			{
+				swapLock.unlock();
+			}
+
+			return new CompactionStats(fileName, snapshotSize,
+					Files.size(path), recordsBefore[0], newest.size(),
+					System.currentTimeMillis() - start, false);
+		}
+		catch (IOException e)
+		{
+			AppLogger.error(
+					"Error compacting " + fileName + ": " + e.getMessage());
+			try
+			{
+				if (temp != null) Files.deleteIfExists(temp);
+			}
+			catch (IOException ignored)
+			{
+				// Temp file is left behind; the next run creates a new one
+			}
+			return new CompactionStats(fileName, 0, 0, 0, 0,
+					System.currentTimeMillis() - start, true);
+		}
+	}
+
+	/**
+	 * Purpose: Reads the complete lines in the first snapshotSize bytes of a
+	 * file and keeps the newest line for each key. A last line without its
+	 * '\n' may still be being appended, so it is left for copyTail.
+	 *
+	 * @param path         Data file to read
+	 * @param snapshotSize Number of bytes to read
+	 * @param newest       Map filled with key -> newest line
+	 * @param keyOfLine    Returns a line's record key; null drops the line
+	 * @param lines        Element 0 is set to the number of lines read
+	 * @return Offset just past the last complete line
+	 * @throws IOException If the file cannot be read
+	 */
+	private long readLines(Path path, long snapshotSize,
+			Map<String, String> newest, Function<String, String> keyOfLine,
+			int[] lines) throws IOException
+	{
+		long lineEnd = 0;
+		try (FileChannel channel = FileChannel.open(path,
+				StandardOpenOption.READ))
+		{
+			ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+			ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+			long position = 0;
+
+			while (position < snapshotSize)
+			{
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(),
+						snapshotSize - position));
+				int read = channel.read(buffer, position);
+				if (read <= 0) break;
+				position += read;
+				buffer.flip();
+
+				while (buffer.hasRemaining())
+				{
+					byte b = buffer.get();
+					if (b == '\n')
+					{
+						keepNewest(line.toString(StandardCharsets.UTF_8),
+								newest, keyOfLine);
+						line.reset();
+						lines[0]++;
+						lineEnd = position - buffer.remaining();
+					}
+					else
+					{
+						line.write(b);
+					}
+				}
+			}
+		}
+		return lineEnd;
+	}
+
+	/**
+	 * Purpose: Records a line as the newest for its key.
+	 *
+	 * @param line      Line text
+	 * @param newest    Map of key -> newest line
+	 * @param keyOfLine Returns a line's record key; null drops the line
+	 */
+	private void keepNewest(String line, Map<String, String> newest,
+			Function<String, String> keyOfLine)
+	{
+		String key = keyOfLine.apply(line);
+		if (key == null) return;
+		newest.remove(key);
+		newest.put(key, line);
+	}
+
+	/**
+	 * Purpose: Appends bytes written to the data file after the snapshot to
+	 * the end of the temp file.
+	 *
+	 * @param path         Data file
+	 * @param snapshotSize Bytes already compacted
+	 * @param temp         Compacted temp file
+	 * @throws IOException If either file cannot be accessed
+	 */
+	private void copyTail(Path path, long snapshotSize, Path temp)
+			throws IOException
+	{
+		try (FileChannel source = FileChannel.open(path,
+				StandardOpenOption.READ);
+				FileChannel target = FileChannel.open(temp,
+						StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+		{
+			long position = snapshotSize;
+			long end = source.size();
+			while (position < end)
+			{
+				position += source.transferTo(position, end - position, target);
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Returns one comma-separated field of a line.
+	 *
+	 * @param line  Line text
+	 * @param index Field index
+	 * @return Field text; null if the line is blank or too short
+	 */
+	private static String field(String line, int index)
+	{
+		if (line.isBlank()) return null;
+		String[] parts = line.split(",", index + 2);
+		return parts.length > index ? parts[index] : null;
+	}
+}
@@ -1,6 +1,10 @@
 package edu.sdmesa.homesteadhub;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Lead Author(s):
@@ -16,6 +20,10 @@ import java.util.List;
  * @Purpose This interface sets the rules for all data persistence operations.
  * 
  *          It separates the Service layer from the database technology used.
+ * 
+ *          The stream* methods may read the data source lazily, so callers
+ *          must close the returned Stream (try-with-resources). By default
+ *          they stream the matching find* List.
  */
 public interface DataRepository
 {
@@ -59,6 +67,16 @@ public interface DataRepository
 	 */
 	List<User> findAllUsers();
 
+	/**
+	 * Purpose: Streams every stored User without building a List first.
+	 * 
+	 * @return A Stream of stored User objects; close it when done.
+	 */
+	default Stream<User> streamUsers()
+	{
+		return findAllUsers().stream();
+	}
+
 	// ------Product Operations------
 
 	/**
@@ -98,6 +116,28 @@ public interface DataRepository
 	 */
 	List<Product> findAllProducts();
 
+	/**
+	 * Purpose: Streams ALL Products without building a List first.
+	 * 
+	 * @return A Stream of all products on platform; close it when done.
+	 */
+	default Stream<Product> streamProducts()
+	{
+		return findAllProducts().stream();
+	}
+
+	/**
+	 * Purpose: Changes the stored stock of a product without rewriting the
+	 * rest of the data source.
+	 * 
+	 * @param sku            The unique SKU string of the Product to update.
+	 * @param quantityChange The amount to add (negative to remove).
+	 * 
+	 * @return True if the stock was updated; false if the product was not
+	 *         found or the stock would become negative.
+	 */
+	boolean updateStock(String sku, int quantityChange);
+
 	// ------Order Operations------
 
 	/**
@@ -131,6 +171,40 @@ public interface DataRepository
 	 */
 	List<Order> findOrdersByCustomer(Customer customer);
 
+	/**
+	 * Purpose: Streams the Orders placed by a specific customer without
+	 * building a List first.
+	 * 
+	 * @param customer The Customer object who placed the orders
+	 * 
+	 * @return A Stream of the customer's orders; close it when done.
+	 */
+	default Stream<Order> streamOrdersByCustomer(Customer customer)
+	{
+		return findOrdersByCustomer(customer).stream();
+	}
+
+	/**
+	 * Purpose: Saves a finalized Order together with all of its line items.
+	 * Implementations may write them in the background; the returned future
+	 * completes once they are durable.
+	 * 
+	 * By default this saves the order and each line item one at a time.
+	 * 
+	 * @param order The completed Order object and its line items.
+	 * 
+	 * @return A future completed with the saved Order.
+	 */
+	default CompletableFuture<Order> saveOrderWithItems(Order order)
+	{
+		saveOrder(order);
+		for (LineItem item : order.getItems())
+		{
+			saveLineItem(order, item);
+		}
+		return CompletableFuture.completedFuture(order);
+	}
+
 	// ------LineItem Operations------
 	/**
 	 * Purpose: Individually saves line items into a list.
@@ -155,4 +229,37 @@ public interface DataRepository
 	 * @return List of ALL line items.
 	 */
 	List<LineItem> findLineItems();
+
+	/**
+	 * Purpose: Streams the line items that match a filter without building a
+	 * List of every line item first.
+	 * 
+	 * @param filter Condition a line item must meet.
+	 * @return A Stream of matching LineItems; close it when done.
+	 */
+	default Stream<LineItem> streamLineItems(Predicate<LineItem> filter)
+	{
+		return findLineItems().stream().filter(filter);
+	}
+
+	/**
+	 * Purpose: Retrieves the line items of one order.
+	 * 
+	 * By default this filters findLineItems().
+	 * 
+	 * @param orderId Order ID of the line items
+	 * @return List of LineItems in the order; empty if none
+	 */
+	default List<LineItem> findLineItemsByOrder(String orderId)
+	{
+		List<LineItem> lineItems = new ArrayList<>();
+		for (LineItem lineItem : findLineItems())
+		{
+			if (lineItem.getOrderId().equals(orderId))
+			{
+				lineItems.add(lineItem);
+			}
+		}
+		return lineItems;
+	}
 }
\ No newline at end of file
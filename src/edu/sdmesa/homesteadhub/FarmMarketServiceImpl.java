@@ -40,7 +40,7 @@ public class FarmMarketServiceImpl implements FarmMarketService
 		this.portalManager = portalManager;
 		this.inventoryManager = inventoryManager;
 		this.paymentProcessor = paymentProcessor;
-		System.out.println(
+		AppLogger.info(
 				"FarmMarketServiceImpl initialized with all required data.");
 	}
 
@@ -70,7 +70,7 @@ public class FarmMarketServiceImpl implements FarmMarketService
 		catch (UserNotFoundException | InvalidCredentialsException e)
 		{
 			// Reports invalid username or password
-			System.err.println(e);
+			AppLogger.error("%s", e);
 
 			// Return null if exception is thrown
 			return null;
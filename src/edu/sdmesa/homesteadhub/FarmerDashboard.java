@@ -1,5 +1,7 @@
 package edu.sdmesa.homesteadhub;
 
+import javafx.application.Platform;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -12,7 +14,11 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.net.URL;
 
 /**
@@ -34,12 +40,20 @@ public class FarmerDashboard extends Dashboard
 {
 	private Farmer farmer;
 	private Stage primaryStage;
-	private String imagePath;
+	// Upload still being turned into renditions, or done; null if none
+	private CompletableFuture<ImageIngestor.Renditions> pendingImage;
 
 	private StackPane newImage;
 
 	// Container for Farmer/Supplier products
 	private ObservableList<Product> products = null;
+	private TableView<Product> inventoryTable;
+	// SKU -> stock pushed by the latest event, shown over the loaded row.
+	// Only read and written on the FX thread.
+	private final Map<String, Integer> pushedStock = new HashMap<>();
+
+	// Receives stock level changes of this farmer's products while logged in
+	private Consumer<InventoryEventBus.StockEvent> stockListener;
 
 	// Sidebar buttons creation
 	List<SidebarButtonConfig> farmerNavButtons = Arrays.asList(
@@ -66,7 +80,7 @@ public class FarmerDashboard extends Dashboard
 		// Safe Check and Downcast
 		if (!(user instanceof Farmer))
 		{
-			System.err.println(
+			AppLogger.error(
 					"Error: FarmerDashboard initialized with non-Farmer user type.");
 			handleLogout();
 		}
@@ -86,6 +100,12 @@ public class FarmerDashboard extends Dashboard
 		VBox sidebar = createSidebar("Farmer Dashboard", farmerNavButtons);
 		root.setLeft(sidebar);
 
+		// Stock levels crossed by customer checkouts are pushed to the
+		// inventory table instead of polled
+		stockListener = event -> Platform.runLater(() -> showStockEvent(event));
+		AppInitializer.getInventoryManager().getEventBus()
+				.subscribe(stockListener);
+
 		// The default view
 		switchToView("inventory");
 
@@ -123,10 +143,14 @@ public class FarmerDashboard extends Dashboard
 
 		// --- Table View Setup ---
 		TableView<Product> table = new TableView<>();
+		inventoryTable = table;
 
-		// Initialize farmer's products with saved products
-		products = FXCollections.observableArrayList(
-				AppInitializer.getRepository().findAllProducts(farmer));
+		// Initialize farmer's products with saved products. They are read off
+		// the FX thread and filled in when ready.
+		products = FXCollections.observableArrayList();
+		pushedStock.clear();
+		AppInitializer.getAsyncService().findAllProductsAsync(farmer)
+				.thenAcceptAsync(products::setAll, Platform::runLater);
 
 		// Populates the table with product data
 		table.setItems(products);
@@ -184,8 +208,46 @@ public class FarmerDashboard extends Dashboard
 			}
 		});
 
+		// --------- Stock Column ---------
+		TableColumn<Product, Integer> stockCol = new TableColumn<>("Stock");
+
+		// Stock pushed by an event wins over the stock the row was loaded
+		// with
+		stockCol.setCellValueFactory(data -> new SimpleObjectProperty<>(
+				pushedStock.getOrDefault(data.getValue().getSku(),
+						data.getValue().getStockQuantity())));
+		stockCol.setPrefWidth(120);
+		stockCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+		// Flags sold out and low stock, which change live as customers buy
+		stockCol.setCellFactory(column -> new TableCell<Product, Integer>()
+		{
+			@Override
+			protected void updateItem(Integer stock, boolean empty)
+			{
+				super.updateItem(stock, empty);
+				if (empty || stock == null)
+				{
+					setText(null);
+				}
+				else if (stock <= 0)
+				{
+					setText("Sold out");
+				}
+				else if (stock < InventoryManager.LOW_STOCK_THRESHOLD)
+				{
+					setText(stock + " (low)");
+				}
+				else
+				{
+					setText(String.valueOf(stock));
+				}
+			}
+		});
+
 		// Build table with inventory columns
-		table.getColumns().addAll(skuCol, productCol, descCol, priceCol);
+		table.getColumns().addAll(skuCol, productCol, descCol, priceCol,
+				stockCol);
 
 		// Table takes up available vertical space
 		VBox.setVgrow(table, Priority.ALWAYS);
@@ -206,6 +268,48 @@ public class FarmerDashboard extends Dashboard
 		return inventoryLayout;
 	}
 
+	/**
+	 * Purpose: Shows a pushed stock event in the inventory table, if the
+	 * product is this farmer's and the table is showing. Runs on the FX
+	 * thread.
+	 * 
+	 * @param event Stock level change
+	 */
+	private void showStockEvent(InventoryEventBus.StockEvent event)
+	{
+		Product changed = event.getProduct();
+		if (farmer == null
+				|| !farmer.getUsername().equals(changed.getFarmerUsername()))
+		{
+			return;
+		}
+		AppLogger.info("FARMERDASHBOARD: %s", event.toString());
+		if (products == null)
+		{
+			return;
+		}
+
+		// Table rows are the repository's products, so the event's stock is
+		// kept beside them instead of being written into them
+		pushedStock.put(changed.getSku(), event.getStock());
+		inventoryTable.refresh();
+	}
+
+	/**
+	 * Purpose: Stops stock events before returning to the login scene.
+	 */
+	@Override
+	protected void handleLogout()
+	{
+		if (stockListener != null)
+		{
+			AppInitializer.getInventoryManager().getEventBus()
+					.unsubscribe(stockListener);
+			stockListener = null;
+		}
+		super.handleLogout();
+	}
+
 	/**
 	 * Purpose: Renders the Product Manager form for adding/editing items
 	 * 
@@ -296,23 +400,37 @@ public class FarmerDashboard extends Dashboard
 
 		pictureBox.getChildren().addAll(picLabel, defaultImage);
 		pictureBox.setOnMouseClicked(e -> {
-			// Calls uploadImage method and returns image file path if
-			// successful, null otherwise
-			imagePath = uploadImage(primaryStage);
-			if (imagePath != null)
+			// Calls uploadImage method and returns the pending renditions if
+			// a file was picked, null otherwise
+			CompletableFuture<ImageIngestor.Renditions> upload = uploadImage(
+					primaryStage);
+			if (upload != null)
 			{
-				// Successful confirmation message
-				System.out.println("Image successfully saved to workspace.");
+				pendingImage = upload;
 				ImageView productImageView = new ImageView();
-				productImageView.setFitWidth(150);
-				productImageView.setFitHeight(150);
+				productImageView.setFitWidth(THUMBNAIL_SIZE);
+				productImageView.setFitHeight(THUMBNAIL_SIZE);
 				productImageView.setPreserveRatio(true);
 
-				// Checks if there's a photoUrl, if true, will set
-				// productImageView with
-				// product photo, otherwise it will place the default
-				// placeholder
-				renderImage(productImageView, imagePath);
+				// Shows the default placeholder until the thumbnail is ready
+				loadPlaceholder(productImageView);
+				upload.whenCompleteAsync((renditions, error) -> {
+					// Ignores a pick the farmer has already replaced
+					if (pendingImage != upload)
+					{
+						return;
+					}
+					if (error != null)
+					{
+						AppLogger.error("Error processing image file: "
+								+ error.getMessage());
+						return;
+					}
+					// Successful confirmation message
+					AppLogger.info("Image successfully saved to workspace.");
+					renderImage(productImageView,
+							renditions.getThumbnailPath());
+				}, Platform::runLater);
 
 				// Removes default place holder from picturebox
 				pictureBox.getChildren().remove(defaultImage);
@@ -327,7 +445,7 @@ public class FarmerDashboard extends Dashboard
 			else
 			{
 				// Failed image operation message
-				System.err.println(
+				AppLogger.info(
 						"Operation cancelled or failed to select file.");
 			}
 		});
@@ -337,7 +455,7 @@ public class FarmerDashboard extends Dashboard
 		Button saveButton = new Button("SAVE ITEM");
 		saveButton.getStyleClass().add("save-button");
 		saveButton.setOnAction(e -> {
-			System.out.println("Saving Item: " + titleField.getText());
+			AppLogger.info("Saving Item: " + titleField.getText());
 
 			// Create new Product object
 			Product newProduct = new Product(titleField.getText(),
@@ -345,23 +463,48 @@ public class FarmerDashboard extends Dashboard
 					Double.parseDouble(priceField.getText()),
 					descriptionArea.getText());
 
-			// Saved photoUrl if set. This makes photo optional as it's not
-			// needed by any constructor.
-			if (imagePath != null)
+			// Saves image paths if a photo was picked, once its renditions
+			// are ready. This makes photo optional as it's not needed by any
+			// constructor.
+			CompletableFuture<Product> ready;
+			if (pendingImage != null)
 			{
-				newProduct.setPhotoUri(imagePath);
+				ready = pendingImage.handle((renditions, error) -> {
+					if (renditions != null)
+					{
+						renditions.applyTo(newProduct);
+					}
+					else
+					{
+						AppLogger.warn("FARMERDASHBOARD: saving without image: "
+								+ error.getMessage());
+					}
+					return newProduct;
+				});
 			}
 			else
 			{
-				System.err.println("FARMERDASHBOARD: imagePath is null");
+				AppLogger.warn("FARMERDASHBOARD: no image selected");
+				ready = CompletableFuture.completedFuture(newProduct);
 			}
 
-			// Saves product to files and adds to inventory manager's catalog
-			AppInitializer.getRepository().saveProduct(newProduct);
-			AppInitializer.getInventoryManager().addProduct(newProduct);
-
-			// After save, switch back to inventory view
-			switchToView("inventory");
+			saveButton.setDisable(true);
+			ready.thenComposeAsync(product -> {
+				// Saves product to files and adds to inventory manager's
+				// catalog
+				AppInitializer.getInventoryManager().addProduct(product);
+				return AppInitializer.getAsyncService()
+						.saveProductAsync(product);
+			}, Platform::runLater)
+					.whenCompleteAsync((saved, error) -> {
+						if (error != null)
+						{
+							AppLogger.error("Error saving product: "
+									+ error.getMessage());
+						}
+						// After save, switch back to inventory view
+						switchToView("inventory");
+					}, Platform::runLater);
 		});
 
 		// Layout the save button below the grid
@@ -389,9 +532,13 @@ public class FarmerDashboard extends Dashboard
 
 		// --------- Order Items Table ---------
 		TableView<LineItem> itemTable = createOrderTable();
-		// Pulls order data from the data repository based on the farmer
-		itemTable.setItems(FXCollections.observableArrayList(
-				AppInitializer.getRepository().findOrdersToFarmer(farmer)));
+		// Pulls order data from the data repository based on the farmer,
+		// off the FX thread
+		ObservableList<LineItem> orderItems = FXCollections
+				.observableArrayList();
+		itemTable.setItems(orderItems);
+		AppInitializer.getAsyncService().findOrdersToFarmerAsync(farmer)
+				.thenAcceptAsync(orderItems::setAll, Platform::runLater);
 
 		ordersLayout.getChildren().addAll(title, itemTable);
 
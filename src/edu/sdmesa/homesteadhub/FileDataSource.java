@@ -1,11 +1,25 @@
 package edu.sdmesa.homesteadhub;
 
 import java.util.List;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Lead Author(s):
@@ -27,18 +41,75 @@ import java.util.Scanner;
 public class FileDataSource implements DataRepository
 {
 	// File paths to store system data
-	private static final String USERS_FILE = "users.txt";
-	private static final String PRODUCTS_FILE = "products.txt";
-	private static final String ORDERS_FILE = "orders.txt";
-	private static final String LINE_ITEM_FILE = "lineitems.txt";
+	static final String USERS_FILE = "users.txt";
+	static final String PRODUCTS_FILE = "products.txt";
+	static final String ORDERS_FILE = "orders.txt";
+	static final String LINE_ITEM_FILE = "lineitems.txt";
+	static final String LINE_ITEM_INDEX_FILE = "lineitems.idx";
+
+	// One lock per data file. Writers share the read lock so they never wait
+	// on each other; DataCompactor takes the write lock only to swap a
+	// compacted file in. Readers take no lock.
+	private static final Map<String, ReadWriteLock> FILE_LOCKS = new HashMap<>();
+	static
+	{
+		FILE_LOCKS.put(USERS_FILE, new ReentrantReadWriteLock());
+		FILE_LOCKS.put(PRODUCTS_FILE, new ReentrantReadWriteLock());
+		FILE_LOCKS.put(ORDERS_FILE, new ReentrantReadWriteLock());
+		FILE_LOCKS.put(LINE_ITEM_FILE, new ReentrantReadWriteLock());
+	}
+
+	// Shared by every FileDataSource so all writers see the same index
+	private static final ProductStore PRODUCT_STORE = new ProductStore(
+			Paths.get(PRODUCTS_FILE));
+
+	// Sidecar index of LINE_ITEM_FILE by farmer and by order
+	private static final LineItemIndex LINE_ITEM_INDEX = new LineItemIndex(
+			Paths.get(LINE_ITEM_FILE), Paths.get(LINE_ITEM_INDEX_FILE));
+
+	// Single writer thread that batches order and line item appends
+	private static final GroupCommitWriter ORDER_WRITER = new GroupCommitWriter(
+			5);
+
+	/**
+	 * Purpose: How a FileDataSource reads its data files.
+	 */
+	public enum ReadMode
+	{
+		// Decodes each file through a BufferedReader
+		BUFFERED,
+		// Scans a read-only memory mapping of each file
+		MAPPED
+	}
 
 	private Helper helper = new Helper();
 
+	private final ReadMode readMode;
+
+	// One mapping per data file, only used in MAPPED mode
+	private final Map<String, MappedDataFile> mappedFiles = new HashMap<>();
+
 	/**
-	 * Purpose: Constructor to create data files
+	 * Purpose: Constructor to create data files, read with a BufferedReader
 	 */
 	public FileDataSource()
 	{
+		this(ReadMode.BUFFERED);
+	}
+
+	/**
+	 * Purpose: Constructor to create data files
+	 * 
+	 * @param readMode How the data files are read
+	 */
+	public FileDataSource(ReadMode readMode)
+	{
+		this.readMode = readMode;
+		for (String fileName : FILE_LOCKS.keySet())
+		{
+			mappedFiles.put(fileName, new MappedDataFile(Paths.get(fileName)));
+		}
+
 		try
 		{
 			// Updated to use files directly without a path prefix
@@ -49,7 +120,7 @@ public class FileDataSource implements DataRepository
 		}
 		catch (IOException e)
 		{
-			System.err.println("Error creating data files: " + e.getMessage());
+			AppLogger.error("Error creating data files: " + e.getMessage());
 		}
 	}
 
@@ -64,13 +135,18 @@ public class FileDataSource implements DataRepository
 	public User saveUser(User user)
 	{
 		// Writing to file to save user
+		lockFor(USERS_FILE).readLock().lock();
 		try (FileWriter writer = new FileWriter(USERS_FILE, true))
 		{
 			writer.write(helper.serializeUser(user) + "\n");
 		}
 		catch (IOException e)
 		{
-			System.err.println("Error saving user to file: " + e.getMessage());
+			AppLogger.error("Error saving user to file: " + e.getMessage());
+		}
+		finally
+		{
+			lockFor(USERS_FILE).readLock().unlock();
 		}
 		return user;
 	}
@@ -86,14 +162,9 @@ public class FileDataSource implements DataRepository
 	@Override
 	public User findUserById(String userId)
 	{
-		for (User user : findAllUsers())
-		{
-			if (user.getUserId().equals(userId))
-			{
-				return user;
-			}
-		}
-		return null;
+		// Stops reading at the first match
+		return findFirst(streamUsers(),
+				user -> user.getUserId().equals(userId), "users file");
 	}
 
 	/**
@@ -106,15 +177,10 @@ public class FileDataSource implements DataRepository
 	@Override
 	public User findUserByUsername(String username)
 	{
-		List<User> users = findAllUsers();
-		for (User user : users)
-		{
-			if (user.getUsername().equalsIgnoreCase(username))
-			{
-				return user;
-			}
-		}
-		return null;
+		// Stops reading at the first match
+		return findFirst(streamUsers(),
+				user -> user.getUsername().equalsIgnoreCase(username),
+				"users file");
 	}
 
 	/**
@@ -125,25 +191,19 @@ public class FileDataSource implements DataRepository
 	@Override
 	public List<User> findAllUsers()
 	{
-		List<User> users = new ArrayList<>();
-		// Updated file access
-		try (Scanner scanner = new Scanner(new File(USERS_FILE)))
-		{
-			while (scanner.hasNextLine())
-			{
-				String line = scanner.nextLine();
-				User user = helper.deserializeUser(line);
-				if (user != null)
-				{
-					users.add(user);
-				}
-			}
-		}
-		catch (IOException e)
-		{
-			System.err.println("Error reading users file: " + e.getMessage());
-		}
-		return users;
+		return toList(streamUsers(), "users file");
+	}
+
+	/**
+	 * Purpose: Streams the users in USERS_FILE, reading one line at a time.
+	 * 
+	 * @return Stream of User objects; close it to close the file
+	 */
+	@Override
+	public Stream<User> streamUsers()
+	{
+		return lines(USERS_FILE).map(helper::deserializeUser)
+				.filter(Objects::nonNull);
 	}
 
 	/**
@@ -156,19 +216,52 @@ public class FileDataSource implements DataRepository
 	@Override
 	public Product saveProduct(Product product)
 	{
-		// Updated file access
-		try (FileWriter writer = new FileWriter(PRODUCTS_FILE, true))
+		// ProductStore appends the line and blanks any older line for the SKU
+		lockFor(PRODUCTS_FILE).readLock().lock();
+		try
 		{
-			writer.write(helper.serializeProduct(product) + "\n");
+			PRODUCT_STORE.append(product.getSku(),
+					helper.serializeProduct(product));
 		}
 		catch (IOException e)
 		{
-			System.err
-					.println("Error saving product to file: " + e.getMessage());
+			AppLogger.error("Error saving product to file: " + e.getMessage());
+		}
+		finally
+		{
+			lockFor(PRODUCTS_FILE).readLock().unlock();
 		}
 		return product;
 	}
 
+	/**
+	 * Purpose: Updates a product's stock by rewriting only its stock field in
+	 * PRODUCTS_FILE.
+	 * 
+	 * @param sku            Stock keeping unit of the product
+	 * @param quantityChange Amount to add (negative to remove)
+	 * @return True if updated; false if not found or stock would go negative
+	 */
+	@Override
+	public boolean updateStock(String sku, int quantityChange)
+	{
+		lockFor(PRODUCTS_FILE).readLock().lock();
+		try
+		{
+			return PRODUCT_STORE.updateStock(sku, quantityChange);
+		}
+		catch (IOException | NumberFormatException e)
+		{
+			AppLogger.error(
+					"Error updating stock in file: " + e.getMessage());
+			return false;
+		}
+		finally
+		{
+			lockFor(PRODUCTS_FILE).readLock().unlock();
+		}
+	}
+
 	/**
 	 * Purpose: Finds product by SKU belonging to a farmer
 	 * 
@@ -179,23 +272,19 @@ public class FileDataSource implements DataRepository
 	@Override
 	public Product findProductBySku(String sku, Farmer farmer)
 	{
-		// Retrieves products belonging to the farmer
-		List<Product> products = findAllProducts(farmer);
-		for (Product product : products)
+		// Stops reading at the first product with a matching SKU. SKU is the
+		// second field of a product line.
+		Product product = findFirst(
+				lines(PRODUCTS_FILE, 1, sku)
+						.map(line -> helper.deserializeProduct(line, farmer))
+						.filter(Objects::nonNull),
+				candidate -> candidate.getSku().equals(sku), "products file");
+		if (product == null)
 		{
-			// Compares prouct in products list with sku passed in
-			if (product.getSku().equals(sku))
-			{
-				// If SKUs match, it returns the product
-				return product;
-			}
-			else
-			{
-				System.err.println("FileDataSource couldn't find product for "
-						+ farmer.getUsername());
-			}
+			AppLogger.warn("FileDataSource couldn't find product for "
+					+ farmer.getUsername());
 		}
-		return null;
+		return product;
 	}
 
 	/**
@@ -207,29 +296,7 @@ public class FileDataSource implements DataRepository
 	@Override
 	public List<Product> findAllProducts(Farmer farmer)
 	{
-		List<Product> products = new ArrayList<>();
-
-		// Updated file access
-		try (Scanner scanner = new Scanner(new File(PRODUCTS_FILE)))
-		{
-			while (scanner.hasNextLine())
-			{
-				String line = scanner.nextLine();
-				Product product = helper.deserializeProduct(line, farmer);
-
-				if (product != null)
-				{
-					products.add(product);
-				}
-			}
-		}
-		catch (IOException e)
-		{
-			System.err
-					.println("Error reading products file: " + e.getMessage());
-		}
-
-		return products;
+		return toList(streamProducts(farmer), "products file");
 	}
 
 	/**
@@ -240,29 +307,33 @@ public class FileDataSource implements DataRepository
 	@Override
 	public List<Product> findAllProducts()
 	{
-		List<Product> products = new ArrayList<>();
-
-		// Updated file access
-		try (Scanner scanner = new Scanner(new File(PRODUCTS_FILE)))
-		{
-			while (scanner.hasNextLine())
-			{
-				String line = scanner.nextLine();
-				Product product = helper.deserializeProduct(line);
+		return toList(streamProducts(), "products file");
+	}
 
-				if (product != null)
-				{
-					products.add(product);
-				}
-			}
-		}
-		catch (IOException e)
-		{
-			System.err
-					.println("Error reading products file: " + e.getMessage());
-		}
+	/**
+	 * Purpose: Streams the products in PRODUCTS_FILE, reading one line at a
+	 * time.
+	 * 
+	 * @return Stream of all products; close it to close the file
+	 */
+	@Override
+	public Stream<Product> streamProducts()
+	{
+		return lines(PRODUCTS_FILE).map(helper::deserializeProduct)
+				.filter(Objects::nonNull);
+	}
 
-		return products;
+	/**
+	 * Purpose: Streams the products in PRODUCTS_FILE rebuilt with a farmer.
+	 * 
+	 * @param farmer Farmer set on each product
+	 * @return Stream of products; close it to close the file
+	 */
+	private Stream<Product> streamProducts(Farmer farmer)
+	{
+		return lines(PRODUCTS_FILE)
+				.map(line -> helper.deserializeProduct(line, farmer))
+				.filter(Objects::nonNull);
 	}
 
 	/**
@@ -276,17 +347,50 @@ public class FileDataSource implements DataRepository
 	public Order saveOrder(Order order)
 	{
 		// Updated file access
+		lockFor(ORDERS_FILE).readLock().lock();
 		try (FileWriter writer = new FileWriter(ORDERS_FILE, true))
 		{
 			writer.write(helper.serializeOrder(order) + "\n");
 		}
 		catch (IOException e)
 		{
-			System.err.println("Error saving order to file: " + e.getMessage());
+			AppLogger.error("Error saving order to file: " + e.getMessage());
+		}
+		finally
+		{
+			lockFor(ORDERS_FILE).readLock().unlock();
 		}
 		return order;
 	}
 
+	/**
+	 * Purpose: Queues an Order and its line items on the group-commit writer,
+	 * which writes them together with other checkouts' records and forces
+	 * them to disk once per batch.
+	 * 
+	 * @param order Order to save, with its line items
+	 * 
+	 * @return Future completed with the order once it is durable
+	 */
+	@Override
+	public CompletableFuture<Order> saveOrderWithItems(Order order)
+	{
+		List<String> lineItems = new ArrayList<>();
+		for (LineItem item : order.getItems())
+		{
+			lineItems.add(helper.serializeLineItem(order, item));
+		}
+
+		Map<String, List<String>> lines = new LinkedHashMap<>();
+		lines.put(ORDERS_FILE, List.of(helper.serializeOrder(order)));
+		lines.put(LINE_ITEM_FILE, lineItems);
+
+		return ORDER_WRITER.submit(lines).thenApply(done -> {
+			refreshLineItemIndex();
+			return order;
+		});
+	}
+
 	/**
 	 * Purpose: Finds order object by Id belonging to a customer
 	 * 
@@ -318,28 +422,25 @@ public class FileDataSource implements DataRepository
 	@Override
 	public List<Order> findOrdersByCustomer(Customer customer)
 	{
-		// Simpler implementation: Find all and filter.
-		List<Order> orders = new ArrayList<>();
+		return toList(streamOrdersByCustomer(customer), "orders file");
+	}
 
-		// Updated file access
-		try (Scanner scanner = new Scanner(new File(ORDERS_FILE)))
-		{
-			while (scanner.hasNextLine())
-			{
-				String line = scanner.nextLine();
-				// We use the simpler deserializeOrder helper
-				Order order = helper.deserializeOrder(line, customer);
-				if (order != null)
-				{
-					orders.add(order);
-				}
-			}
-		}
-		catch (IOException e)
-		{
-			System.err.println("Error reading orders file: " + e.getMessage());
-		}
-		return orders;
+	/**
+	 * Purpose: Streams the customer's orders in ORDERS_FILE, reading one line
+	 * at a time. Lines for other customers are skipped before they are
+	 * deserialized.
+	 * 
+	 * @param customer Customer to focus search on
+	 * 
+	 * @return Stream of the customer's orders; close it to close the file
+	 */
+	@Override
+	public Stream<Order> streamOrdersByCustomer(Customer customer)
+	{
+		// Second field of an order line is the customer's ID
+		return lines(ORDERS_FILE, 1, customer.getUserId())
+				.map(line -> helper.deserializeOrder(line, customer))
+				.filter(Objects::nonNull);
 	}
 
 	/**
@@ -353,15 +454,21 @@ public class FileDataSource implements DataRepository
 	public LineItem saveLineItem(Order order, LineItem lineItem)
 	{
 		// Updated file access
+		lockFor(LINE_ITEM_FILE).readLock().lock();
 		try (FileWriter writer = new FileWriter(LINE_ITEM_FILE, true))
 		{
 			writer.write(helper.serializeLineItem(order, lineItem) + "\n");
 		}
 		catch (IOException e)
 		{
-			System.err.println(
+			AppLogger.error(
 					"Error saving Line Item to file: " + e.getMessage());
 		}
+		finally
+		{
+			lockFor(LINE_ITEM_FILE).readLock().unlock();
+		}
+		refreshLineItemIndex();
 		return lineItem;
 	}
 
@@ -375,19 +482,30 @@ public class FileDataSource implements DataRepository
 	public List<LineItem> findOrdersToFarmer(Farmer farmer)
 	{
 		List<LineItem> lineItems = new ArrayList<>();
-		for (LineItem lineItem : findLineItems())
+		try
 		{
-			if (lineItem.getFarmer().equals(farmer.getUsername()))
+			// Seeks to the farmer's rows instead of reading every line item
+			for (String line : LINE_ITEM_INDEX
+					.readFarmerLines(farmer.getUsername()))
 			{
-				lineItems.add(lineItem);
+				LineItem lineItem = helper.deserializeLineItem(line);
+				if (lineItem != null)
+				{
+					lineItems.add(lineItem);
+				}
 			}
 		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error reading line item index: "
+					+ e.getMessage());
+		}
 
 		if (!lineItems.isEmpty())
 		{
 			return lineItems;
 		}
-		System.err.println(
+		AppLogger.debug(
 				"FILEDATESOURCE (findOrdersToFarmer): Returning null...");
 		return null;
 
@@ -401,16 +519,37 @@ public class FileDataSource implements DataRepository
 	@Override
 	public List<LineItem> findLineItems()
 	{
-		// Simpler implementation: Find all and filter.
-		List<LineItem> lineItems = new ArrayList<>();
+		return toList(streamLineItems(lineItem -> true), "lineitems file");
+	}
 
-		// Updated file access
-		try (Scanner scanner = new Scanner(new File(LINE_ITEM_FILE)))
+	/**
+	 * Purpose: Streams the line items in LINE_ITEM_FILE that match a filter,
+	 * reading one line at a time.
+	 * 
+	 * @param filter Condition a line item must meet
+	 * @return Stream of matching line items; close it to close the file
+	 */
+	@Override
+	public Stream<LineItem> streamLineItems(Predicate<LineItem> filter)
+	{
+		return lines(LINE_ITEM_FILE).map(helper::deserializeLineItem)
+				.filter(Objects::nonNull).filter(filter);
+	}
+
+	/**
+	 * Purpose: Retrieves the line items of one order.
+	 * 
+	 * @param orderId Order ID of the line items
+	 * @return List of LineItems in the order; empty if none
+	 */
+	@Override
+	public List<LineItem> findLineItemsByOrder(String orderId)
+	{
+		List<LineItem> lineItems = new ArrayList<>();
+		try
 		{
-			while (scanner.hasNextLine())
+			for (String line : LINE_ITEM_INDEX.readOrderLines(orderId))
 			{
-				String line = scanner.nextLine();
-				// We use the simpler deserializeOrder helper
 				LineItem lineItem = helper.deserializeLineItem(line);
 				if (lineItem != null)
 				{
@@ -420,10 +559,199 @@ public class FileDataSource implements DataRepository
 		}
 		catch (IOException e)
 		{
-			System.err
-					.println("Error reading lineitems file: " + e.getMessage());
+			AppLogger.error("Error reading line item index: "
+					+ e.getMessage());
 		}
 		return lineItems;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Purpose: Getter - Returns readMode
+	 * 
+	 * @return readMode How the data files are read
+	 */
+	public ReadMode getReadMode()
+	{
+		return readMode;
+	}
+
+	/**
+	 * Purpose: Opens a data file as a lazy Stream of lines, read with this
+	 * repository's ReadMode. Closing the Stream closes the file.
+	 * 
+	 * @param fileName Data file to read
+	 * @return Stream of lines; empty if the file cannot be opened
+	 */
+	private Stream<String> lines(String fileName)
+	{
+		return lines(fileName, -1, null);
+	}
+
+	/**
+	 * Purpose: Opens a data file as a lazy Stream of the lines whose field
+	 * equals a value. In MAPPED mode other lines are never decoded.
+	 * 
+	 * @param fileName Data file to read
+	 * @param field    Field index to compare; -1 returns every line
+	 * @param value    Value the field must equal
+	 * @return Stream of lines; empty if the file cannot be opened
+	 */
+	private Stream<String> lines(String fileName, int field, String value)
+	{
+		try
+		{
+			if (readMode == ReadMode.MAPPED)
+			{
+				return mappedFiles.get(fileName).lines(field, value);
+			}
+
+			Stream<String> lines = bufferedLines(fileName);
+			if (field < 0) return lines;
+
+			CsvCursor fields = new CsvCursor();
+			return lines.filter(line -> {
+				if (fields.reset(line).fieldCount() <= field) return false;
+				for (int i = 0; i < field; i++)
+				{
+					fields.skip();
+				}
+				return fields.nextEquals(value);
+			});
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error reading " + fileName + ": "
+					+ e.getMessage());
+			return Stream.empty();
+		}
+	}
+
+	/**
+	 * Purpose: Opens a data file as a lazy Stream of lines over a
+	 * BufferedReader. Closing the Stream closes the file.
+	 * 
+	 * @param fileName Data file to read
+	 * @return Stream of lines
+	 * @throws IOException If the file cannot be opened
+	 */
+	private static Stream<String> bufferedLines(String fileName)
+			throws IOException
+	{
+		BufferedReader reader = Files.newBufferedReader(Paths.get(fileName),
+				StandardCharsets.UTF_8);
+		return reader.lines().onClose(() -> {
+			try
+			{
+				reader.close();
+			}
+			catch (IOException e)
+			{
+				AppLogger.error(
+						"Error closing " + fileName + ": " + e.getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Purpose: Returns the first record that matches and closes the Stream,
+	 * so the rest of the file is never read.
+	 * 
+	 * @param records     Stream to search
+	 * @param match       Condition the record must meet
+	 * @param description File name for error messages
+	 * @return First matching record; null if none or the file failed
+	 */
+	private static <T> T findFirst(Stream<T> records, Predicate<T> match,
+			String description)
+	{
+		try (records)
+		{
+			return records.filter(match).findFirst().orElse(null);
+		}
+		catch (UncheckedIOException e)
+		{
+			AppLogger.error("Error reading " + description + ": "
+					+ e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Purpose: Collects a Stream into a List and closes it.
+	 * 
+	 * @param records     Stream to collect
+	 * @param description File name for error messages
+	 * @return List of records; empty if the file failed
+	 */
+	private static <T> List<T> toList(Stream<T> records, String description)
+	{
+		try (records)
+		{
+			return records.collect(Collectors.toCollection(ArrayList::new));
+		}
+		catch (UncheckedIOException e)
+		{
+			AppLogger.error("Error reading " + description + ": "
+					+ e.getMessage());
+			return new ArrayList<>();
+		}
+	}
+
+	/**
+	 * Purpose: Adds newly written line items to the sidecar index.
+	 */
+	private static void refreshLineItemIndex()
+	{
+		try
+		{
+			LINE_ITEM_INDEX.refresh();
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error updating line item index: "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * Purpose: Returns the lock guarding appends to a data file.
+	 * 
+	 * @param fileName One of the data file names
+	 * @return lock ReadWriteLock for the file
+	 */
+	static ReadWriteLock lockFor(String fileName)
+	{
+		return FILE_LOCKS.get(fileName);
+	}
+
+	/**
+	 * Purpose: Returns the writer that batches order and line item appends,
+	 * e.g. to change its max latency.
+	 * 
+	 * @return ORDER_WRITER Shared group-commit writer
+	 */
+	public static GroupCommitWriter getOrderWriter()
+	{
+		return ORDER_WRITER;
+	}
+
+	/**
+	 * Purpose: Returns the ProductStore that manages PRODUCTS_FILE.
+	 * 
+	 * @return PRODUCT_STORE Shared product store
+	 */
+	static ProductStore getProductStore()
+	{
+		return PRODUCT_STORE;
+	}
+
+	/**
+	 * Purpose: Returns the sidecar index of LINE_ITEM_FILE.
+	 * 
+	 * @return LINE_ITEM_INDEX Shared line item index
+	 */
+	static LineItemIndex getLineItemIndex()
+	{
+		return LINE_ITEM_INDEX;
+	}
+}
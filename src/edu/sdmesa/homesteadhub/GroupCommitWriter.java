@@ -0,0 +1,332 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of GroupCommitWriter is to append lines to
+ *          FileDataSource's data files from a single long-lived writer
+ *          thread.
+ *
+ *          Requests from concurrent callers are queued. The writer thread
+ *          takes the first waiting request, collects any others that arrive
+ *          within the max latency, and then writes each file once and calls
+ *          force() once for the whole batch. Each request's future completes
+ *          after its lines are on disk. A malformed request, or one whose
+ *          file could not be written, completes exceptionally on its own;
+ *          the rest of its batch still completes and the writer thread moves
+ *          on to the next batch.
+ */
+public class GroupCommitWriter
+{
+	// Most requests coalesced into one batch
+	private static final int MAX_BATCH = 512;
+
+	private final BlockingQueue<WriteRequest> queue = new LinkedBlockingQueue<>();
+
+	// How long the writer waits for more requests after the first one
+	private volatile long maxLatencyNanos;
+
+	private final AtomicLong batchCount = new AtomicLong();
+	private final AtomicLong requestCount = new AtomicLong();
+
+	/**
+	 * Purpose: One caller's lines and the future to complete when they are
+	 * durable.
+	 */
+	private static class WriteRequest
+	{
+		final Map<String, List<String>> linesByFile;
+		final CompletableFuture<Void> done = new CompletableFuture<>();
+
+		WriteRequest(Map<String, List<String>> linesByFile)
+		{
+			this.linesByFile = linesByFile;
+		}
+	}
+
+	/**
+	 * Purpose: Constructor to start the writer thread.
+	 *
+	 * @param maxLatencyMillis How long to wait for more requests to join a
+	 *                         batch
+	 */
+	public GroupCommitWriter(long maxLatencyMillis)
+	{
+		setMaxLatency(maxLatencyMillis);
+		Thread writer = new Thread(this::run, "group-commit-writer");
+		// Does not keep the application alive on exit
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Purpose: Queues lines to append. Lines for each file are written in the
+	 * given order and a newline is added to each.
+	 *
+	 * @param linesByFile Data file name -> lines to append
+	 * @return Future completed once the lines are forced to disk
+	 */
+	public CompletableFuture<Void> submit(Map<String, List<String>> linesByFile)
+	{
+		WriteRequest request = new WriteRequest(linesByFile);
+		queue.add(request);
+		return request.done;
+	}
+
+	/**
+	 * Purpose: Setter - Changes how long the writer waits for more requests
+	 *
+	 * @param maxLatencyMillis Wait in milliseconds; 0 writes what is queued
+	 */
+	public void setMaxLatency(long maxLatencyMillis)
+	{
+		this.maxLatencyNanos = TimeUnit.MILLISECONDS
+				.toNanos(Math.max(0, maxLatencyMillis));
+	}
+
+	/**
+	 * Purpose: Getter - Returns the number of batches written
+	 *
+	 * @return Batches written so far
+	 */
+	public long getBatchCount()
+	{
+		return batchCount.get();
+	}
+
+	/**
+	 * Purpose: Getter - Returns the number of requests written
+	 *
+	 * @return Requests written so far
+	 */
+	public long getRequestCount()
+	{
+		return requestCount.get();
+	}
+
+	/**
+	 * Purpose: Writer thread loop. Collects a batch and writes it.
+	 */
+	private void run()
+	{
+		List<WriteRequest> batch = new ArrayList<>();
+		while (true)
+		{
+			try
+			{
+				batch.add(queue.take());
+
+				// Wait up to the max latency for more requests to join
+				long deadline = System.nanoTime() + maxLatencyNanos;
+				while (batch.size() < MAX_BATCH)
+				{
+					long wait = deadline - System.nanoTime();
+					WriteRequest next = wait > 0
+							? queue.poll(wait, TimeUnit.NANOSECONDS)
+							: queue.poll();
+					if (next == null) break;
+					batch.add(next);
+				}
+
+				writeBatch(batch);
+			}
+			catch (RuntimeException e)
+			{
+				// Not expected; fail what is left so no caller waits forever
+				AppLogger.error("Error writing batch: " + e.getMessage());
+				for (WriteRequest request : batch)
+				{
+					request.done.completeExceptionally(e);
+				}
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+			finally
+			{
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Writes every line in the batch with one write and one force
+	 * per file, then completes the batch's futures. A malformed request is
+	 * rejected on its own, and a request only fails if a file it touches
+	 * failed, so one bad request or file does not fail the whole batch.
+	 *
+	 * @param batch Requests to write
+	 */
+	private void writeBatch(List<WriteRequest> batch)
+	{
+		// Merge lines per file, keeping request order
+		List<WriteRequest> valid = new ArrayList<>(batch.size());
+		Map<String, StringBuilder> merged = new LinkedHashMap<>();
+		for (WriteRequest request : batch)
+		{
+			String problem = validate(request);
+			if (problem != null)
+			{
+				AppLogger.error("Error writing request: " + problem);
+				request.done.completeExceptionally(
+						new IllegalArgumentException(problem));
+				continue;
+			}
+			valid.add(request);
+			for (Map.Entry<String, List<String>> entry : request.linesByFile
+					.entrySet())
+			{
+				StringBuilder text = merged.computeIfAbsent(entry.getKey(),
+						key -> new StringBuilder());
+				for (String line : entry.getValue())
+				{
+					text.append(line).append('\n');
+				}
+			}
+		}
+
+		// File name -> why it could not be written; absent means forced
+		Map<String, Exception> failedFiles = new HashMap<>();
+		for (Map.Entry<String, StringBuilder> entry : merged.entrySet())
+		{
+			try
+			{
+				appendAndForce(entry.getKey(), entry.getValue().toString());
+			}
+			catch (IOException | RuntimeException e)
+			{
+				AppLogger.error("Error writing " + entry.getKey() + ": "
+						+ e.getMessage());
+				failedFiles.put(entry.getKey(), e);
+			}
+		}
+		if (!merged.isEmpty())
+		{
+			batchCount.incrementAndGet();
+		}
+
+		for (WriteRequest request : valid)
+		{
+			Exception failure = null;
+			for (String fileName : request.linesByFile.keySet())
+			{
+				failure = failedFiles.get(fileName);
+				if (failure != null)
+				{
+					break;
+				}
+			}
+			if (failure == null)
+			{
+				requestCount.incrementAndGet();
+				request.done.complete(null);
+			}
+			else
+			{
+				// Lines for its other files may already be on disk
+				request.done.completeExceptionally(failure);
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Checks that a request names only data files and has no
+	 * missing lines.
+	 *
+	 * @param request Request to check
+	 * @return problem Why the request cannot be written; null if it can
+	 */
+	private static String validate(WriteRequest request)
+	{
+		if (request.linesByFile == null)
+		{
+			return "no lines";
+		}
+		for (Map.Entry<String, List<String>> entry : request.linesByFile
+				.entrySet())
+		{
+			if (entry.getKey() == null
+					|| FileDataSource.lockFor(entry.getKey()) == null)
+			{
+				return "not a data file: " + entry.getKey();
+			}
+			if (entry.getValue() == null)
+			{
+				return "missing lines for " + entry.getKey();
+			}
+			for (String line : entry.getValue())
+			{
+				if (line == null)
+				{
+					return "missing lines for " + entry.getKey();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Purpose: Appends text to a data file and forces it to disk. Holds the
+	 * file's shared lock so DataCompactor cannot swap the file mid-write.
+	 *
+	 * @param fileName Data file name
+	 * @param text     Text to append
+	 * @throws IOException If the file cannot be written
+	 */
+	private void appendAndForce(String fileName, String text)
+			throws IOException
+	{
+		ReadWriteLock fileLock = FileDataSource.lockFor(fileName);
+		if (fileLock == null)
+		{
+			throw new IllegalArgumentException("not a data file: " + fileName);
+		}
+		Lock lock = fileLock.readLock();
+		lock.lock();
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND))
+		{
+			ByteBuffer bytes = ByteBuffer
+					.wrap(text.getBytes(StandardCharsets.UTF_8));
+			while (bytes.hasRemaining())
+			{
+				channel.write(bytes);
+			}
+			channel.force(false);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package edu.sdmesa.homesteadhub;
 
 import java.util.ArrayList;
+import java.util.Objects;
 
 /**
  * Lead Author(s):
@@ -19,6 +20,10 @@ import java.util.ArrayList;
  */
 public class Helper
 {
+	// Field reader reused for every line parsed on a thread
+	private static final ThreadLocal<CsvCursor> CURSOR = ThreadLocal
+			.withInitial(CsvCursor::new);
+
 	/**
 	 * Purpose: Converts a User object into a storable string format.
 	 * 
@@ -58,37 +63,42 @@ public class Helper
 	 */
 	public User deserializeUser(String data)
 	{
-		String[] parts = data.split(",");
+		CsvCursor fields = CURSOR.get().reset(data);
+		int fieldCount = fields.fieldCount();
 		// Provides a layer of security to make sure we're not reading from an
 		// invalid line
-		if (parts.length < 5) return null;
+		if (fieldCount < 5) return null;
+
+		// Role is the first field
+		boolean isCustomer = data.startsWith("Customer,");
+		boolean isFarmer = data.startsWith("Farmer,");
+		fields.skip();
+		if (!(isCustomer && fieldCount >= 6) && !(isFarmer && fieldCount >= 7))
+		{
+			return null;
+		}
 
-		String role = parts[0];
-		String userId = parts[1];
-		String username = parts[2];
-		String mockPass = parts[3];
-		String email = parts[4];
+		String userId = fields.nextString();
+		String username = fields.nextString();
+		String mockPass = fields.nextString();
+		String email = fields.nextString();
 
 		// Use secondary constructors that accept the existing userId
-		if (role.equals("Customer") && parts.length >= 6)
+		if (isCustomer)
 		{
-			String address = parts[5];
+			String address = fields.nextString();
 			return new Customer(userId, username, mockPass, email, address);
 		}
-		else if (role.equals("Farmer") && parts.length >= 7)
-		{
-			String farmName = parts[5];
-			String location = parts[6];
-			return new Farmer(userId, username, mockPass, email, farmName,
-					location);
-		}
-		return null;
+		String farmName = fields.nextString();
+		String location = fields.nextString();
+		return new Farmer(userId, username, mockPass, email, farmName,
+				location);
 	}
 
 	/**
 	 * Purpose: Converts a Product object into a storable string format (Type,
-	 * SKU, Name,
-	 * Stock, Price, FarmerID).
+	 * SKU, Name, Description, Stock, Price, FarmerID), followed by the photo,
+	 * thumbnail and detail image paths when the product has a photo.
 	 * 
 	 * @param product Product object to be saved
 	 * 
@@ -97,9 +107,21 @@ public class Helper
 	public String serializeProduct(Product product)
 	{
 
-		return String.format("SIMPLE,%s,%s,%s,%d,%.2f,%s", product.getSku(),
+		// Stock is zero-padded to a fixed width so ProductStore can rewrite it
+		// in place
+		String line = String.format("SIMPLE,%s,%s,%s,%0"
+				+ ProductStore.STOCK_FIELD_WIDTH + "d,%.2f,%s", product.getSku(),
 				product.getTitle(), product.getDescription(), product.getStockQuantity(),
 				product.calculatePrice(), product.getFarmer().getUsername());
+		if (product.getPhotoUri() == null && product.getThumbnailUri() == null
+				&& product.getDetailUri() == null)
+		{
+			return line;
+		}
+		// Image paths go last so lines without them still parse
+		return line + "," + Objects.toString(product.getPhotoUri(), "") + ","
+				+ Objects.toString(product.getThumbnailUri(), "") + ","
+				+ Objects.toString(product.getDetailUri(), "");
 	}
 
 	/**
@@ -113,27 +135,30 @@ public class Helper
 	 */
 	public Product deserializeProduct(String data)
 	{
-		String[] parts = data.split(",");
+		CsvCursor fields = CURSOR.get().reset(data);
 		// Provides a layer of security to make sure we're not reading from an
 		// invalid line
-		if (parts.length < 7) return null;
+		int fieldCount = fields.fieldCount();
+		if (fieldCount < 7) return null;
 
-		String type = parts[0];
-		String sku = parts[1];
-		String title = parts[2];
-		String description = parts[3];
-		int stock = Integer.parseInt(parts[4]);
-		double price = Double.parseDouble(parts[5]);
+		boolean simple = fields.nextEquals("SIMPLE");
+		String sku = fields.nextString();
+		String title = fields.nextString();
+		String description = fields.nextString();
+		int stock = fields.nextInt();
+		double price = fields.nextPrice();
 		// Finds farmer's username instead of ID. Can change later
-		String farmer = parts[6];
-		if (type.equals("SIMPLE"))
+		String farmer = fields.nextString();
+		if (simple)
 		{
-			return new Product(sku, title, description, stock, farmer,
-					price);
+			Product product = new Product(sku, title, description, stock,
+					farmer, price);
+			readImagePaths(fields, fieldCount, product);
+			return product;
 		}
 		else
 		{
-			System.err.println("Helper couldn't return simple product");
+			AppLogger.error("Helper couldn't return simple product");
 		}
 		return null;
 	}
@@ -150,30 +175,54 @@ public class Helper
 	 */
 	public Product deserializeProduct(String data, Farmer farmer)
 	{
-		String[] parts = data.split(",");
+		CsvCursor fields = CURSOR.get().reset(data);
 		// Provides a layer of security to make sure we're not reading from an
 		// invalid line
-		if (parts.length < 7) return null;
+		int fieldCount = fields.fieldCount();
+		if (fieldCount < 7) return null;
 
-		String type = parts[0];
-		String sku = parts[1];
-		String title = parts[2];
-		String description = parts[3];
-		int stock = Integer.parseInt(parts[4]);
-		double price = Double.parseDouble(parts[5]);
-		// parts[6] is the Farmer ID. Not needed right now
-		if (type.equals("SIMPLE"))
+		boolean simple = fields.nextEquals("SIMPLE");
+		String sku = fields.nextString();
+		String title = fields.nextString();
+		String description = fields.nextString();
+		int stock = fields.nextInt();
+		double price = fields.nextPrice();
+		// The Farmer ID field is not needed right now
+		fields.skip();
+		if (simple)
 		{
-			return new Product(sku, title, description, stock, farmer,
-					price);
+			Product product = new Product(sku, title, description, stock,
+					farmer, price);
+			readImagePaths(fields, fieldCount, product);
+			return product;
 		}
 		else
 		{
-			System.err.println("Helper couldn't return simple product");
+			AppLogger.error("Helper couldn't return simple product");
 		}
 		return null;
 	}
 
+	/**
+	 * Purpose: Reads the optional photo, thumbnail and detail image paths
+	 * after a product's farmer field. Empty or missing paths stay null.
+	 * 
+	 * @param fields     Cursor positioned after the farmer field
+	 * @param fieldCount Fields in the line
+	 * @param product    Product to set the paths on
+	 */
+	private static void readImagePaths(CsvCursor fields, int fieldCount,
+			Product product)
+	{
+		int remaining = fieldCount - 7;
+		String photo = remaining > 0 ? fields.nextString() : "";
+		String thumbnail = remaining > 1 ? fields.nextString() : "";
+		String detail = remaining > 2 ? fields.nextString() : "";
+		product.setPhotoUri(photo.isEmpty() ? null : photo);
+		product.setThumbnailUri(thumbnail.isEmpty() ? null : thumbnail);
+		product.setDetailUri(detail.isEmpty() ? null : detail);
+	}
+
 	/**
 	 * Purpose: Converts an Order object into a storable string format (OrderID,
 	 * CustomerID, Total, Status).
@@ -199,15 +248,16 @@ public class Helper
 	 */
 	public Order deserializeOrder(String data, Customer customer)
 	{
-		String[] parts = data.split(",");
+		CsvCursor fields = CURSOR.get().reset(data);
 		// Provides a layer of security to make sure we're not reading from an
 		// invalid line
-		if (parts.length < 4) return null;
+		if (fields.fieldCount() < 4) return null;
 
-		String orderId = parts[0];
-		// parts[1] is customerId. Not needed right now
-		double total = Double.parseDouble(parts[2]);
-		String status = parts[3];
+		String orderId = fields.nextString();
+		// Second field is customerId. Not needed right now
+		fields.skip();
+		double total = fields.nextPrice();
+		String status = fields.nextString();
 
 		// Object is recreated in memory using Order constructor
 		return new Order(orderId, customer, new ArrayList<>(), total,
@@ -239,21 +289,21 @@ public class Helper
 	 */
 	public LineItem deserializeLineItem(String data)
 	{
-		String[] parts = data.split(",");
+		CsvCursor fields = CURSOR.get().reset(data);
 
 		// Provides a layer of security to make sure we're not reading from an
 		// invalid line
-		if (parts.length < 8) return null;
+		if (fields.fieldCount() < 8) return null;
 
 		// Parses line items parts needed for Farmer Orders
-		String orderId = parts[0];
-		String sku = parts[1];
-		String title = parts[2];
-		int qty = Integer.parseInt(parts[3]);
-		double unitPrice = Double.parseDouble(parts[4]);
-		double total = Double.parseDouble(parts[5]);
-		String customer = parts[6];
-		String farmer = parts[7];
+		String orderId = fields.nextString();
+		String sku = fields.nextString();
+		String title = fields.nextString();
+		int qty = fields.nextInt();
+		double unitPrice = fields.nextPrice();
+		double total = fields.nextPrice();
+		String customer = fields.nextString();
+		String farmer = fields.nextString();
 
 		return new LineItem(orderId, sku, title, qty, unitPrice, total,
 				customer, farmer);
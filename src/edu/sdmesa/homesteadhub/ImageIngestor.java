@@ -0,0 +1,408 @@
+package edu.sdmesa.homesteadhub;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of ImageIngestor is to turn an uploaded product
+ *          image into the small files the GUI shows, once, at upload time.
+ *
+ *          Each upload is stored under the SHA-256 of its bytes along with a
+ *          THUMBNAIL_SIZE rendition for catalog cards and a DETAIL_SIZE
+ *          rendition for the product page, both PNG. The same picture
+ *          uploaded twice maps to the same files, so it is decoded and
+ *          stored only once; two uploads of it in flight at the same time
+ *          share one render. Work runs on a small pool of daemon threads,
+ *          so the FX thread only picks the file.
+ *
+ *          ImageIngestor has-a MetricsRegistry
+ */
+public class ImageIngestor
+{
+	// Largest width or height of each rendition, in pixels
+	public static final int THUMBNAIL_SIZE = 150;
+	public static final int DETAIL_SIZE = 600;
+
+	// Decoding is CPU and memory heavy, so only a couple run at once
+	private static final int WORKERS = Math.max(1,
+			Math.min(2, Runtime.getRuntime().availableProcessors()));
+	// Hex digits of the SHA-256 kept in file names
+	private static final int HASH_LENGTH = 32;
+
+	private final Path imagesDir;
+	private final MetricsRegistry metrics;
+	private final ExecutorService workers;
+	// Renders in progress by content hash
+	private final Map<String, CompletableFuture<Renditions>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Purpose: Constructor that stores renditions in a folder
+	 *
+	 * @param imagesDir Folder for originals and renditions; created on first
+	 *                  upload
+	 * @param metrics   Registry for the image.* counters and timer
+	 */
+	public ImageIngestor(Path imagesDir, MetricsRegistry metrics)
+	{
+		AtomicInteger threadCount = new AtomicInteger();
+		this.imagesDir = imagesDir;
+		this.metrics = metrics;
+		this.workers = Executors.newFixedThreadPool(WORKERS, runnable -> {
+			Thread thread = new Thread(runnable,
+					"image-ingest-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Purpose: Stores an image and its renditions in the background.
+	 *
+	 * @param source Image file picked by the user
+	 * @return Future of the stored paths; fails with an UncheckedIOException
+	 *         if the file cannot be read or is not an image
+	 */
+	public CompletableFuture<Renditions> ingest(Path source)
+	{
+		return CompletableFuture.supplyAsync(() -> ingestNow(source), workers);
+	}
+
+	/**
+	 * Purpose: Stops the worker threads. Uploads already queued are dropped.
+	 */
+	public void shutdown()
+	{
+		workers.shutdownNow();
+	}
+
+	/**
+	 * Purpose: Getter - Returns the folder renditions are stored in
+	 *
+	 * @return imagesDir Images folder
+	 */
+	public Path getImagesDir()
+	{
+		return imagesDir;
+	}
+
+	/**
+	 * Purpose: Hashes an image and renders it, unless the same bytes were
+	 * already stored or are being rendered by another worker.
+	 *
+	 * @param source Image file
+	 * @return renditions Stored paths
+	 */
+	private Renditions ingestNow(Path source)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			byte[] bytes = Files.readAllBytes(source);
+			String hash = contentHash(bytes);
+			Renditions renditions = new Renditions(
+					imagesDir.resolve(hash + extensionOf(source)).toString(),
+					imagesDir.resolve(hash + "-thumb.png").toString(),
+					imagesDir.resolve(hash + "-detail.png").toString());
+
+			if (renditions.exist())
+			{
+				metrics.counter("image.deduplicated").increment();
+				AppLogger.debug("IMAGEINGESTOR: %s already stored as %s",
+						source, hash);
+				return renditions;
+			}
+
+			CompletableFuture<Renditions> render = new CompletableFuture<>();
+			CompletableFuture<Renditions> running = inFlight.putIfAbsent(hash,
+					render);
+			if (running != null)
+			{
+				metrics.counter("image.deduplicated").increment();
+				return running.join();
+			}
+
+			try
+			{
+				store(bytes, renditions);
+				render.complete(renditions);
+				metrics.counter("image.ingested").increment();
+				AppLogger.info("IMAGEINGESTOR: stored %s as %s", source, hash);
+				return renditions;
+			}
+			catch (IOException | RuntimeException e)
+			{
+				render.completeExceptionally(e);
+				throw e;
+			}
+			finally
+			{
+				inFlight.remove(hash, render);
+			}
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error ingesting image " + source + ": "
+					+ e.getMessage());
+			throw new UncheckedIOException(e);
+		}
+		finally
+		{
+			metrics.timer("image.ingest").recordSince(start);
+		}
+	}
+
+	/**
+	 * Purpose: Decodes an image and writes the original and both renditions.
+	 *
+	 * @param bytes      Image file contents
+	 * @param renditions Paths to write
+	 * @throws IOException If the bytes are not an image or a file cannot be
+	 *                     written
+	 */
+	private void store(byte[] bytes, Renditions renditions) throws IOException
+	{
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+		if (image == null)
+		{
+			throw new IOException("not a supported image format");
+		}
+
+		Files.createDirectories(imagesDir);
+		Path original = Path.of(renditions.getOriginalPath());
+		if (!Files.exists(original))
+		{
+			Path temp = Files.createTempFile(imagesDir, "upload", ".tmp");
+			Files.write(temp, bytes);
+			Files.move(temp, original, StandardCopyOption.REPLACE_EXISTING);
+		}
+		writePng(scaleToFit(image, THUMBNAIL_SIZE),
+				Path.of(renditions.getThumbnailPath()));
+		writePng(scaleToFit(image, DETAIL_SIZE),
+				Path.of(renditions.getDetailPath()));
+	}
+
+	/**
+	 * Purpose: Writes a PNG through a temporary file so the GUI never reads a
+	 * half-written rendition.
+	 *
+	 * @param image  Image to write
+	 * @param target File to create or replace
+	 * @throws IOException If the file cannot be written
+	 */
+	private void writePng(BufferedImage image, Path target) throws IOException
+	{
+		Path temp = Files.createTempFile(imagesDir, "rendition", ".tmp");
+		try
+		{
+			if (!ImageIO.write(image, "png", temp.toFile()))
+			{
+				throw new IOException("no PNG writer available");
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally
+		{
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Purpose: Scales an image down to fit a square, keeping its aspect
+	 * ratio. Large reductions are done in halving steps, since one bilinear
+	 * pass skips most source pixels and looks grainy. Smaller images keep
+	 * their size.
+	 *
+	 * @param source Decoded image
+	 * @param size   Largest width or height
+	 * @return scaled ARGB image
+	 */
+	static BufferedImage scaleToFit(BufferedImage source, int size)
+	{
+		double scale = Math.min(1.0,
+				(double) size / Math.max(source.getWidth(), source.getHeight()));
+		int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+		int targetHeight = Math.max(1,
+				(int) Math.round(source.getHeight() * scale));
+
+		BufferedImage current = source;
+		int width = source.getWidth();
+		int height = source.getHeight();
+		while (width / 2 >= targetWidth && height / 2 >= targetHeight)
+		{
+			width /= 2;
+			height /= 2;
+			current = resize(current, width, height);
+		}
+		// Also converts indexed or grey sources to ARGB
+		if (current == source || width != targetWidth || height != targetHeight)
+		{
+			current = resize(current, targetWidth, targetHeight);
+		}
+		return current;
+	}
+
+	/**
+	 * Purpose: Draws an image into a new ARGB image of another size.
+	 *
+	 * @param source Image to draw
+	 * @param width  New width
+	 * @param height New height
+	 * @return resized image
+	 */
+	private static BufferedImage resize(BufferedImage source, int width,
+			int height)
+	{
+		BufferedImage target = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = target.createGraphics();
+		try
+		{
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+					RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(source, 0, 0, width, height, null);
+		}
+		finally
+		{
+			graphics.dispose();
+		}
+		return target;
+	}
+
+	/**
+	 * Purpose: Hashes file contents for a content-addressed file name.
+	 *
+	 * @param bytes File contents
+	 * @return hash First HASH_LENGTH hex digits of the SHA-256
+	 */
+	private static String contentHash(byte[] bytes)
+	{
+		try
+		{
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			StringBuilder hex = new StringBuilder(HASH_LENGTH);
+			for (int i = 0; i < HASH_LENGTH / 2; i++)
+			{
+				hex.append(String.format("%02x", digest[i]));
+			}
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// Every Java runtime is required to provide SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Purpose: Returns a file's lower-case extension, e.g. ".jpg".
+	 *
+	 * @param file File to check
+	 * @return extension Extension with its dot; empty if there is none
+	 */
+	private static String extensionOf(Path file)
+	{
+		String name = file.getFileName().toString();
+		int dotIndex = name.lastIndexOf('.');
+		return dotIndex > 0 ? name.substring(dotIndex).toLowerCase() : "";
+	}
+
+	/**
+	 * Purpose: Paths of one stored image and its renditions.
+	 */
+	public static final class Renditions
+	{
+		private final String originalPath;
+		private final String thumbnailPath;
+		private final String detailPath;
+
+		Renditions(String originalPath, String thumbnailPath, String detailPath)
+		{
+			this.originalPath = originalPath;
+			this.thumbnailPath = thumbnailPath;
+			this.detailPath = detailPath;
+		}
+
+		/**
+		 * Purpose: Sets a product's photo and rendition paths.
+		 *
+		 * @param product Product the image belongs to
+		 */
+		public void applyTo(Product product)
+		{
+			product.setPhotoUri(originalPath);
+			product.setThumbnailUri(thumbnailPath);
+			product.setDetailUri(detailPath);
+		}
+
+		/**
+		 * Purpose: Getter - Returns the stored copy of the upload
+		 *
+		 * @return originalPath
+		 */
+		public String getOriginalPath()
+		{
+			return originalPath;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the catalog card rendition
+		 *
+		 * @return thumbnailPath
+		 */
+		public String getThumbnailPath()
+		{
+			return thumbnailPath;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the product page rendition
+		 *
+		 * @return detailPath
+		 */
+		public String getDetailPath()
+		{
+			return detailPath;
+		}
+
+		/**
+		 * Purpose: Checks whether every file was already written.
+		 *
+		 * @return True if the original and both renditions exist
+		 */
+		private boolean exist()
+		{
+			return Files.isRegularFile(Path.of(originalPath))
+					&& Files.isRegularFile(Path.of(thumbnailPath))
+					&& Files.isRegularFile(Path.of(detailPath));
+		}
+	}
+}
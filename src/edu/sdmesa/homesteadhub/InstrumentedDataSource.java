@@ -0,0 +1,369 @@
+package edu.sdmesa.homesteadhub;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of InstrumentedDataSource is to time every call
+ *          made to another DataRepository.
+ *
+ *          Each method records its latency in the timer
+ *          "repository.<method>" and then returns whatever the wrapped
+ *          repository returned. saveOrderWithItems is timed until its future
+ *          completes, so it includes the wait for the group commit. The
+ *          stream methods are timed until the stream is returned; the rows
+ *          are read later, when the caller consumes it.
+ *
+ *          InstrumentedDataSource is-a DataRepository and has-a
+ *          DataRepository
+ */
+public class InstrumentedDataSource implements DataRepository
+{
+	private final DataRepository delegate;
+	private final MetricsRegistry metrics;
+
+	/**
+	 * Purpose: Constructor to time calls to an existing repository.
+	 *
+	 * @param delegate Repository whose calls are timed
+	 * @param metrics  Registry the timers are recorded in
+	 */
+	public InstrumentedDataSource(DataRepository delegate,
+			MetricsRegistry metrics)
+	{
+		this.delegate = delegate;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Purpose: Getter - Returns the wrapped repository
+	 *
+	 * @return delegate Repository whose calls are timed
+	 */
+	public DataRepository getDelegate()
+	{
+		return delegate;
+	}
+
+	// ------User Operations------
+
+	@Override
+	public User saveUser(User user)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.saveUser(user);
+		}
+		finally
+		{
+			metrics.timer("repository.saveUser").recordSince(start);
+		}
+	}
+
+	@Override
+	public User findUserById(String userId)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findUserById(userId);
+		}
+		finally
+		{
+			metrics.timer("repository.findUserById").recordSince(start);
+		}
+	}
+
+	@Override
+	public User findUserByUsername(String username)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findUserByUsername(username);
+		}
+		finally
+		{
+			metrics.timer("repository.findUserByUsername").recordSince(start);
+		}
+	}
+
+	@Override
+	public List<User> findAllUsers()
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findAllUsers();
+		}
+		finally
+		{
+			metrics.timer("repository.findAllUsers").recordSince(start);
+		}
+	}
+
+	@Override
+	public Stream<User> streamUsers()
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.streamUsers();
+		}
+		finally
+		{
+			metrics.timer("repository.streamUsers").recordSince(start);
+		}
+	}
+
+	// ------Product Operations------
+
+	@Override
+	public Product saveProduct(Product product)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.saveProduct(product);
+		}
+		finally
+		{
+			metrics.timer("repository.saveProduct").recordSince(start);
+		}
+	}
+
+	@Override
+	public Product findProductBySku(String sku, Farmer farmer)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findProductBySku(sku, farmer);
+		}
+		finally
+		{
+			metrics.timer("repository.findProductBySku").recordSince(start);
+		}
+	}
+
+	@Override
+	public List<Product> findAllProducts(Farmer farmer)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findAllProducts(farmer);
+		}
+		finally
+		{
+			metrics.timer("repository.findAllProductsByFarmer")
+					.recordSince(start);
+		}
+	}
+
+	@Override
+	public List<Product> findAllProducts()
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findAllProducts();
+		}
+		finally
+		{
+			metrics.timer("repository.findAllProducts").recordSince(start);
+		}
+	}
+
+	@Override
+	public Stream<Product> streamProducts()
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.streamProducts();
+		}
+		finally
+		{
+			metrics.timer("repository.streamProducts").recordSince(start);
+		}
+	}
+
+	@Override
+	public boolean updateStock(String sku, int quantityChange)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.updateStock(sku, quantityChange);
+		}
+		finally
+		{
+			metrics.timer("repository.updateStock").recordSince(start);
+		}
+	}
+
+	// ------Order Operations------
+
+	@Override
+	public Order saveOrder(Order order)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.saveOrder(order);
+		}
+		finally
+		{
+			metrics.timer("repository.saveOrder").recordSince(start);
+		}
+	}
+
+	@Override
+	public Order findOrderById(String orderId, Customer customer)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findOrderById(orderId, customer);
+		}
+		finally
+		{
+			metrics.timer("repository.findOrderById").recordSince(start);
+		}
+	}
+
+	@Override
+	public List<Order> findOrdersByCustomer(Customer customer)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findOrdersByCustomer(customer);
+		}
+		finally
+		{
+			metrics.timer("repository.findOrdersByCustomer")
+					.recordSince(start);
+		}
+	}
+
+	@Override
+	public Stream<Order> streamOrdersByCustomer(Customer customer)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.streamOrdersByCustomer(customer);
+		}
+		finally
+		{
+			metrics.timer("repository.streamOrdersByCustomer")
+					.recordSince(start);
+		}
+	}
+
+	@Override
+	public CompletableFuture<Order> saveOrderWithItems(Order order)
+	{
+		long start = System.nanoTime();
+		LatencyHistogram timer = metrics.timer("repository.saveOrderWithItems");
+		try
+		{
+			CompletableFuture<Order> saved = delegate.saveOrderWithItems(order);
+			saved.whenComplete((result, error) -> timer.recordSince(start));
+			return saved;
+		}
+		catch (RuntimeException e)
+		{
+			timer.recordSince(start);
+			throw e;
+		}
+	}
+
+	// ------LineItem Operations------
+
+	@Override
+	public LineItem saveLineItem(Order order, LineItem lineItem)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.saveLineItem(order, lineItem);
+		}
+		finally
+		{
+			metrics.timer("repository.saveLineItem").recordSince(start);
+		}
+	}
+
+	@Override
+	public List<LineItem> findOrdersToFarmer(Farmer farmer)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findOrdersToFarmer(farmer);
+		}
+		finally
+		{
+			metrics.timer("repository.findOrdersToFarmer").recordSince(start);
+		}
+	}
+
+	@Override
+	public List<LineItem> findLineItems()
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findLineItems();
+		}
+		finally
+		{
+			metrics.timer("repository.findLineItems").recordSince(start);
+		}
+	}
+
+	@Override
+	public Stream<LineItem> streamLineItems(Predicate<LineItem> filter)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.streamLineItems(filter);
+		}
+		finally
+		{
+			metrics.timer("repository.streamLineItems").recordSince(start);
+		}
+	}
+
+	@Override
+	public List<LineItem> findLineItemsByOrder(String orderId)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			return delegate.findLineItemsByOrder(orderId);
+		}
+		finally
+		{
+			metrics.timer("repository.findLineItemsByOrder")
+					.recordSince(start);
+		}
+	}
+}
@@ -0,0 +1,347 @@
+package edu.sdmesa.homesteadhub;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of InventoryEventBus is to push stock level
+ *          changes to subscribers, such as a farmer's dashboard, instead of
+ *          making them poll getLowStockItems.
+ *
+ *          InventoryManager publishes a StockEvent when a product's stock
+ *          crosses a level: it runs low, sells out, or comes back in stock.
+ *          Publishing never blocks the checkout thread. The event replaces
+ *          any event for the same SKU still waiting, and one delivery is
+ *          scheduled per COALESCE_MILLIS window. A burst of sales therefore
+ *          reaches subscribers as one event per SKU, carrying the latest
+ *          level. An event whose level is the one subscribers last saw, such
+ *          as a reservation released within the window, is dropped. Events
+ *          are delivered on a single daemon thread, which is
+ *          started by the first subscriber. With no subscribers, publishing
+ *          does nothing.
+ *
+ *          InventoryEventBus has-a StockEvent
+ */
+public class InventoryEventBus
+{
+	// Events for one SKU within this window are delivered as one
+	private static final long COALESCE_MILLIS = 250;
+
+	private final long coalesceMillis;
+	private final List<Consumer<StockEvent>> subscribers = new CopyOnWriteArrayList<>();
+	// SKU -> latest event not yet delivered
+	private final Map<String, StockEvent> pending = new ConcurrentHashMap<>();
+	// SKU -> level subscribers last saw, or held before the first event
+	private final Map<String, Integer> seenLevels = new ConcurrentHashMap<>();
+	private final AtomicBoolean deliveryScheduled = new AtomicBoolean();
+
+	private volatile ScheduledExecutorService deliverer;
+
+	/**
+	 * Purpose: Constructor that coalesces events over COALESCE_MILLIS
+	 */
+	public InventoryEventBus()
+	{
+		this(COALESCE_MILLIS);
+	}
+
+	/**
+	 * Purpose: Constructor with a chosen coalescing window, e.g. a short one
+	 * for tests
+	 *
+	 * @param coalesceMillis Time events for one SKU are merged over
+	 */
+	public InventoryEventBus(long coalesceMillis)
+	{
+		this.coalesceMillis = coalesceMillis;
+	}
+
+	/**
+	 * Purpose: Registers a subscriber for stock events. It is called on the
+	 * bus's delivery thread, so GUI subscribers hand off to their own thread.
+	 *
+	 * @param subscriber Receives each event
+	 */
+	public void subscribe(Consumer<StockEvent> subscriber)
+	{
+		startDeliverer();
+		subscribers.add(subscriber);
+	}
+
+	/**
+	 * Purpose: Removes a subscriber, e.g. when its dashboard logs out.
+	 *
+	 * @param subscriber Subscriber passed to subscribe
+	 */
+	public void unsubscribe(Consumer<StockEvent> subscriber)
+	{
+		subscribers.remove(subscriber);
+	}
+
+	/**
+	 * Purpose: Checks whether anyone is listening, so publishers can skip
+	 * building events.
+	 *
+	 * @return True if there is at least one subscriber
+	 */
+	public boolean hasSubscribers()
+	{
+		return !subscribers.isEmpty();
+	}
+
+	/**
+	 * Purpose: Queues an event without blocking. It replaces any undelivered
+	 * event for the same SKU, and is dropped at delivery if the stock is back
+	 * at the level subscribers last saw.
+	 *
+	 * @param event Event to deliver
+	 */
+	public void publish(StockEvent event)
+	{
+		ScheduledExecutorService executor = deliverer;
+		if (executor == null || subscribers.isEmpty())
+		{
+			return;
+		}
+		String sku = event.getProduct().getSku();
+		seenLevels.putIfAbsent(sku, event.getPreviousLevel());
+		pending.put(sku, event);
+		if (deliveryScheduled.compareAndSet(false, true))
+		{
+			try
+			{
+				executor.schedule(this::deliver, coalesceMillis,
+						TimeUnit.MILLISECONDS);
+			}
+			catch (RejectedExecutionException e)
+			{
+				// Shut down while publishing; the event is dropped
+				deliveryScheduled.set(false);
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Stops the delivery thread. Undelivered events are dropped.
+	 */
+	public synchronized void shutdown()
+	{
+		if (deliverer != null)
+		{
+			deliverer.shutdownNow();
+			deliverer = null;
+		}
+		pending.clear();
+		seenLevels.clear();
+		deliveryScheduled.set(false);
+	}
+
+	/**
+	 * Purpose: Finds the level a stock change crossed into, if any.
+	 *
+	 * @param previousStock Stock before the change
+	 * @param newStock      Stock after the change
+	 * @param threshold     Stock below this is low
+	 * @return type Event to publish; null if the level did not change
+	 */
+	public static StockEvent.Type crossing(int previousStock, int newStock,
+			int threshold)
+	{
+		int before = level(previousStock, threshold);
+		int after = level(newStock, threshold);
+		if (after == before)
+		{
+			return null;
+		}
+		if (after > before)
+		{
+			return StockEvent.Type.RESTOCKED;
+		}
+		return newStock <= 0 ? StockEvent.Type.SOLD_OUT
+				: StockEvent.Type.LOW_STOCK;
+	}
+
+	/**
+	 * Purpose: Ranks a stock level: 0 sold out, 1 low, 2 in stock.
+	 *
+	 * @param stock     Stock level
+	 * @param threshold Stock below this is low
+	 * @return level Rank of the level
+	 */
+	static int level(int stock, int threshold)
+	{
+		return stock <= 0 ? 0 : stock < threshold ? 1 : 2;
+	}
+
+	/**
+	 * Purpose: Starts the delivery thread if it is not running.
+	 */
+	private synchronized void startDeliverer()
+	{
+		if (deliverer == null)
+		{
+			deliverer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "inventory-events");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * Purpose: Delivers every pending event that changes the level
+	 * subscribers last saw, one per SKU. Runs on the delivery thread.
+	 */
+	private void deliver()
+	{
+		// Cleared first, so an event published during delivery schedules
+		// another run
+		deliveryScheduled.set(false);
+		for (String sku : pending.keySet())
+		{
+			StockEvent event = pending.remove(sku);
+			if (event == null)
+			{
+				continue;
+			}
+			// The changes in the window cancelled out, e.g. a reservation
+			// that was released
+			Integer seen = seenLevels.put(sku, event.getLevel());
+			if (seen != null && seen == event.getLevel())
+			{
+				continue;
+			}
+			for (Consumer<StockEvent> subscriber : subscribers)
+			{
+				try
+				{
+					subscriber.accept(event);
+				}
+				catch (RuntimeException e)
+				{
+					AppLogger.error("Error delivering stock event for " + sku
+							+ ": " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Purpose: A product's stock crossing into a new level.
+	 */
+	public static final class StockEvent
+	{
+		/**
+		 * Purpose: Level the stock crossed into.
+		 */
+		public enum Type
+		{
+			LOW_STOCK, SOLD_OUT, RESTOCKED
+		}
+
+		private final Type type;
+		private final Product product;
+		private final int stock;
+		private final int previousLevel;
+		private final int level;
+
+		/**
+		 * Purpose: Constructor for an event
+		 *
+		 * @param type          Level crossed into
+		 * @param product       Product whose stock changed
+		 * @param previousStock Stock before the change
+		 * @param stock         Stock after the change
+		 * @param threshold     Stock below this is low
+		 */
+		public StockEvent(Type type, Product product, int previousStock,
+				int stock, int threshold)
+		{
+			this.type = type;
+			this.product = product;
+			this.stock = stock;
+			this.previousLevel = level(previousStock, threshold);
+			this.level = level(stock, threshold);
+		}
+
+		/**
+		 * Purpose: Getter - Returns the level crossed into
+		 *
+		 * @return type
+		 */
+		public Type getType()
+		{
+			return type;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the product whose stock changed
+		 *
+		 * @return product Live catalog product
+		 */
+		public Product getProduct()
+		{
+			return product;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the stock when the event was published.
+		 * The product may have changed since.
+		 *
+		 * @return stock
+		 */
+		public int getStock()
+		{
+			return stock;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the rank of the level before the change
+		 *
+		 * @return previousLevel 0 sold out, 1 low, 2 in stock
+		 */
+		int getPreviousLevel()
+		{
+			return previousLevel;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the rank of the level after the change
+		 *
+		 * @return level 0 sold out, 1 low, 2 in stock
+		 */
+		int getLevel()
+		{
+			return level;
+		}
+
+		/**
+		 * Purpose: Formats the event for logs.
+		 *
+		 * @return summary e.g. "SOLD_OUT APPLE1 (0 left)"
+		 */
+		@Override
+		public String toString()
+		{
+			return type + " " + product.getSku() + " (" + stock + " left)";
+		}
+	}
+}
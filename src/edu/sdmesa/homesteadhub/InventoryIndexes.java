@@ -0,0 +1,297 @@
+package edu.sdmesa.homesteadhub;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of InventoryIndexes is to answer stock level,
+ *          price range and per-farmer catalog queries without scanning every
+ *          product.
+ *
+ *          Stock and price are each a ConcurrentSkipListMap sorted by value
+ *          and then SKU, so "stock below 5" or "price between $2 and $4" is
+ *          a range view found in logarithmic time. Products are also grouped
+ *          by farmer username. Each SKU's indexed values are kept in an
+ *          entry that is only changed inside ConcurrentHashMap.compute for
+ *          that SKU. Updates to one product are serialized while different
+ *          products update in parallel. Every update re-reads the product's
+ *          current stock, so the last update to finish leaves the index
+ *          correct even when checkouts race.
+ *
+ *          Stock is re-read when InventoryManager changes it. Price and
+ *          farmer are read when a product is added, so a changed price is
+ *          indexed by adding the product again. A StockListener is told of
+ *          each indexed stock change with the level before and after. It is
+ *          called in order for each SKU, so crossings are never missed or
+ *          seen twice.
+ */
+public class InventoryIndexes
+{
+	/**
+	 * Purpose: Told of each indexed stock change. Called while the SKU is
+	 * locked, so it must return quickly.
+	 */
+	public interface StockListener
+	{
+		/**
+		 * Purpose: Handles one stock change.
+		 *
+		 * @param product       Product whose stock changed
+		 * @param previousStock Stock it was indexed at before
+		 * @param newStock      Stock it is indexed at now
+		 */
+		void stockChanged(Product product, int previousStock, int newStock);
+	}
+
+	// SKU -> values the product is currently indexed under
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final ConcurrentNavigableMap<Key, Product> byStock = new ConcurrentSkipListMap<>();
+	private final ConcurrentNavigableMap<Key, Product> byPrice = new ConcurrentSkipListMap<>();
+	private final Map<String, Set<Product>> byFarmer = new ConcurrentHashMap<>();
+
+	private final StockListener stockListener;
+
+	/**
+	 * Purpose: Constructor for indexes without a stock listener
+	 */
+	public InventoryIndexes()
+	{
+		this(null);
+	}
+
+	/**
+	 * Purpose: Constructor that reports stock changes
+	 *
+	 * @param stockListener Told of each stock change; may be null
+	 */
+	public InventoryIndexes(StockListener stockListener)
+	{
+		this.stockListener = stockListener;
+	}
+
+	/**
+	 * Purpose: Indexes a product, replacing any earlier version of its SKU.
+	 *
+	 * @param product Product to index
+	 */
+	public void add(Product product)
+	{
+		entries.compute(product.getSku(), (sku, old) -> {
+			if (old != null)
+			{
+				unindex(sku, old);
+			}
+			Entry entry = new Entry(product, product.getStockQuantity(),
+					product.getUnitPrice(), farmerOf(product));
+			byStock.put(new Key(entry.stock, sku), product);
+			byPrice.put(new Key(entry.price, sku), product);
+			if (entry.farmer != null)
+			{
+				byFarmer.computeIfAbsent(entry.farmer,
+						key -> ConcurrentHashMap.newKeySet()).add(product);
+			}
+			return entry;
+		});
+	}
+
+	/**
+	 * Purpose: Removes a product from every index.
+	 *
+	 * @param sku SKU of the product to remove
+	 */
+	public void remove(String sku)
+	{
+		entries.computeIfPresent(sku, (key, old) -> {
+			unindex(key, old);
+			return null;
+		});
+	}
+
+	/**
+	 * Purpose: Moves a product to its current stock level. Products that
+	 * were never added are ignored.
+	 *
+	 * @param product Product whose stock changed
+	 */
+	public void refreshStock(Product product)
+	{
+		entries.computeIfPresent(product.getSku(), (sku, entry) -> {
+			// Only the indexed instance; a replaced product's late update
+			// must not move the new one
+			if (entry.product != product)
+			{
+				return entry;
+			}
+			int stock = product.getStockQuantity();
+			if (stock != entry.stock)
+			{
+				byStock.remove(new Key(entry.stock, sku));
+				byStock.put(new Key(stock, sku), product);
+				if (stockListener != null)
+				{
+					stockListener.stockChanged(product, entry.stock, stock);
+				}
+				entry.stock = stock;
+			}
+			return entry;
+		});
+	}
+
+	/**
+	 * Purpose: Finds products with stock below a threshold, lowest first.
+	 *
+	 * @param threshold Stock level products must be below
+	 * @return products Matching products
+	 */
+	public List<Product> stockBelow(int threshold)
+	{
+		return new ArrayList<>(byStock.headMap(Key.lowest(threshold)).values());
+	}
+
+	/**
+	 * Purpose: Finds products priced within a range, cheapest first.
+	 *
+	 * @param minPrice Lowest unit price, inclusive
+	 * @param maxPrice Highest unit price, inclusive
+	 * @return products Matching products; empty if minPrice > maxPrice
+	 */
+	public List<Product> priceBetween(double minPrice, double maxPrice)
+	{
+		if (minPrice > maxPrice)
+		{
+			return new ArrayList<>();
+		}
+		return new ArrayList<>(byPrice.subMap(Key.lowest(minPrice),
+				Key.lowest(Math.nextUp(maxPrice))).values());
+	}
+
+	/**
+	 * Purpose: Finds every product of a farmer.
+	 *
+	 * @param username Farmer's username
+	 * @return products The farmer's products, in no particular order
+	 */
+	public List<Product> ofFarmer(String username)
+	{
+		Collection<Product> products = byFarmer.get(username);
+		return products == null ? new ArrayList<>() : new ArrayList<>(products);
+	}
+
+	/**
+	 * Purpose: Removes a product's keys. Runs inside compute for its SKU.
+	 *
+	 * @param sku   SKU of the product
+	 * @param entry Values it is indexed under
+	 */
+	private void unindex(String sku, Entry entry)
+	{
+		byStock.remove(new Key(entry.stock, sku));
+		byPrice.remove(new Key(entry.price, sku));
+		if (entry.farmer != null)
+		{
+			byFarmer.computeIfPresent(entry.farmer, (farmer, products) -> {
+				products.remove(entry.product);
+				return products.isEmpty() ? null : products;
+			});
+		}
+	}
+
+	/**
+	 * Purpose: Returns the username a product is grouped under.
+	 *
+	 * @param product Product to check
+	 * @return username Farmer's username; null if the product has none
+	 */
+	private static String farmerOf(Product product)
+	{
+		return product.getFarmer() != null ? product.getFarmer().getUsername()
+				: product.getFarmerUsername();
+	}
+
+	/**
+	 * Purpose: Values one SKU is indexed under. Only changed inside compute
+	 * for that SKU.
+	 */
+	private static final class Entry
+	{
+		private final Product product;
+		private int stock;
+		private final double price;
+		private final String farmer;
+
+		Entry(Product product, int stock, double price, String farmer)
+		{
+			this.product = product;
+			this.stock = stock;
+			this.price = price;
+			this.farmer = farmer;
+		}
+	}
+
+	/**
+	 * Purpose: Sort key of an indexed value and SKU, so products with equal
+	 * values are distinct keys. A null SKU sorts before every SKU of its
+	 * value, which makes it a range bound.
+	 */
+	private static final class Key implements Comparable<Key>
+	{
+		private final double value;
+		private final String sku;
+
+		Key(double value, String sku)
+		{
+			this.value = value;
+			this.sku = sku;
+		}
+
+		static Key lowest(double value)
+		{
+			return new Key(value, null);
+		}
+
+		@Override
+		public int compareTo(Key other)
+		{
+			int byValue = Double.compare(value, other.value);
+			if (byValue != 0)
+			{
+				return byValue;
+			}
+			if (sku == null || other.sku == null)
+			{
+				return sku == other.sku ? 0 : sku == null ? -1 : 1;
+			}
+			return sku.compareTo(other.sku);
+		}
+
+		@Override
+		public boolean equals(Object other)
+		{
+			return other instanceof Key && compareTo((Key) other) == 0;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Double.hashCode(value) * 31
+					+ (sku == null ? 0 : sku.hashCode());
+		}
+	}
+}
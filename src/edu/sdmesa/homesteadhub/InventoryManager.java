@@ -1,9 +1,14 @@
 package edu.sdmesa.homesteadhub;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Lead Author(s):
@@ -18,18 +23,55 @@ import java.util.Map;
  * 
  * @Purpose The reponsibility of InventoryManager is to manage the entire
  *          Product catalog and inventory levels.
+ * 
+ *          The catalog is a ConcurrentHashMap, so lookups and updates of
+ *          different SKUs do not block each other. Stock is taken with
+ *          reserve, which checks and decrements a product's atomic counter in
+ *          one step. A reservation is then either committed once the order
+ *          is placed or released to put the units back. reserveAll takes a
+ *          whole cart in SKU order and either reserves every item or none.
+ *          Products added or removed here are also kept in a
+ *          ProductSearchIndex for catalog search, and in InventoryIndexes
+ *          sorted by stock and price and grouped by farmer. Stock changes
+ *          made here move the product in the stock index, and a change that
+ *          crosses a level (low, sold out, restocked) is published on the
+ *          InventoryEventBus.
+ *
+ *          InventoryManager has-a ProductSearchIndex, InventoryIndexes and
+ *          InventoryEventBus
  */
 public class InventoryManager
 {
 	// Map is instantiated and ready to hold Product data. Key is SKU for quick lookup.
-	private Map<String, Product> productCatalog;
+	// Concurrent because checkouts and the background loader share it.
+	private final Map<String, Product> productCatalog;
+
+	// SKU -> units reserved but not yet committed or released
+	private final Map<String, AtomicInteger> reservedStock;
+
+	// Words of every product added through this manager
+	private final ProductSearchIndex searchIndex;
+
+	// Stock, price and farmer lookups of every product added through this
+	// manager
+	private final InventoryIndexes indexes;
+
+	// Low-stock, sold-out and restocked events for subscribers
+	private final InventoryEventBus eventBus;
+
+	// Default stock level products are reported as low below
+	public static final int LOW_STOCK_THRESHOLD = 5;
 
 	/**
 	 * Purpose: no-arg constructor
 	 */
 	public InventoryManager()
 	{
-		this.productCatalog = new LinkedHashMap<>();
+		this.productCatalog = new ConcurrentHashMap<>();
+		this.reservedStock = new ConcurrentHashMap<>();
+		this.searchIndex = new ProductSearchIndex();
+		this.eventBus = new InventoryEventBus();
+		this.indexes = new InventoryIndexes(this::publishStockChange);
 	}
 
 	/**
@@ -40,30 +82,89 @@ public class InventoryManager
 	public void addProduct(Product product)
 	{
 		productCatalog.put(product.getSku(), product);
-		System.out.println("Product added: " + product.getTitle() + " (SKU: "
-				+ product.getSku() + ")");
+		searchIndex.add(product);
+		indexes.add(product);
+		AppLogger.debug("Product added: %s (SKU: %s)", product.getTitle(),
+				product.getSku());
 	}
 
 	/**
-	 * Gets a list of products that are low in stock.
+	 * Adds products loaded from the data files to the catalog. The newest
+	 * stored record of a SKU is used, and a SKU already in the catalog keeps
+	 * its in-memory product and stock. Products without a known farmer
+	 * cannot be ordered and are skipped.
 	 * 
-	 * @return A list of low-stock products.
+	 * @param products The stored products, in file order.
 	 */
-	public List<Product> getLowStockItems()
+	public void addStoredProducts(Collection<Product> products)
 	{
-		// Create new ArrayList
-		List<Product> lowStock = new ArrayList<>();
-		// Use enhanced for loop to iterate through catalog
-		for (Product product : productCatalog.values())
+		Map<String, Product> newest = new LinkedHashMap<>();
+		for (Product product : products)
 		{
-			// Checks if the current product is less than 5
-			if (product.getStockQuantity() < 5)
+			if (product.getFarmer() != null)
 			{
-				// Adds product to lowStock inventory
-				lowStock.add(product);
+				newest.put(product.getSku(), product);
 			}
 		}
-		return lowStock;
+
+		for (Product product : newest.values())
+		{
+			if (productCatalog.putIfAbsent(product.getSku(), product) == null)
+			{
+				searchIndex.add(product);
+				indexes.add(product);
+			}
+		}
+		AppLogger.info("INVENTORYMANAGER: Catalog has "
+				+ productCatalog.size() + " products after loading stored products");
+	}
+
+	/**
+	 * Gets a list of products that are low in stock.
+	 * 
+	 * @return A list of products with stock below LOW_STOCK_THRESHOLD,
+	 *         lowest first.
+	 */
+	public List<Product> getLowStockItems()
+	{
+		return getLowStockItems(LOW_STOCK_THRESHOLD);
+	}
+
+	/**
+	 * Purpose: Gets the products with stock below a threshold from the
+	 * sorted stock index, without scanning the catalog.
+	 * 
+	 * @param threshold Stock level products must be below
+	 * @return lowStock Matching products, lowest stock first
+	 */
+	public List<Product> getLowStockItems(int threshold)
+	{
+		return indexes.stockBelow(threshold);
+	}
+
+	/**
+	 * Purpose: Gets the products priced within a range from the sorted
+	 * price index.
+	 * 
+	 * @param minPrice Lowest unit price, inclusive
+	 * @param maxPrice Highest unit price, inclusive
+	 * @return products Matching products, cheapest first
+	 */
+	public List<Product> getProductsInPriceRange(double minPrice,
+			double maxPrice)
+	{
+		return indexes.priceBetween(minPrice, maxPrice);
+	}
+
+	/**
+	 * Purpose: Gets every product a farmer sells.
+	 * 
+	 * @param username Farmer's username
+	 * @return products The farmer's products
+	 */
+	public List<Product> getProductsByFarmer(String username)
+	{
+		return indexes.ofFarmer(username);
 	}
 
 	/**
@@ -87,9 +188,34 @@ public class InventoryManager
 	 */
 	public boolean removeProduct(String sku)
 	{
+		searchIndex.remove(sku);
+		indexes.remove(sku);
 		return this.productCatalog.remove(sku) != null;
 	}
 
+	/**
+	 * Purpose: Searches product titles, descriptions, farm names and farm
+	 * locations. Query words match by prefix and tolerate one typo.
+	 * 
+	 * @param query Words typed by the customer
+	 * @param limit Most products to return
+	 * @return results Best matches first, with the total number of matches
+	 */
+	public ProductSearchIndex.Results search(String query, int limit)
+	{
+		return searchIndex.search(query, limit);
+	}
+
+	/**
+	 * Purpose: Getter - Returns the bus stock level events are published on
+	 * 
+	 * @return eventBus Bus to subscribe to
+	 */
+	public InventoryEventBus getEventBus()
+	{
+		return eventBus;
+	}
+
 	/**
 	 * Purpose: Getter - Returns productCatalog
 	 * 
@@ -105,17 +231,258 @@ public class InventoryManager
 	 * 
 	 * @param sku Stocking keeping unit of the product
 	 * @param purchasedInventory Amount of inventory purchased
+	 * @return True if the stock was adjusted, false if the product is unknown
+	 *         or has less stock than was purchased
 	 */
-	public void adjustStock(String sku, int purchasedInventory)
+	public boolean adjustStock(String sku, int purchasedInventory)
 	{
 		Product tempProduct = productCatalog.get(sku);
+		if (tempProduct == null)
+		{
+			AppLogger.error("Error adjusting stock: unknown SKU " + sku);
+			return false;
+		}
 		// TESTING PRINTS FOR TROUBLESHOOTING
-		System.out.println("INVENTORYMANAGER: AdjustStock: Temp Product Stock Quantity: " + tempProduct.getStockQuantity());
-		System.out.println("INVENTORYMANAGER: AdjustStock: passed in purchasedInventory: " + purchasedInventory);
+		AppLogger.debug("INVENTORYMANAGER: AdjustStock: Temp Product Stock Quantity: %d", tempProduct.getStockQuantity());
+		AppLogger.debug("INVENTORYMANAGER: AdjustStock: passed in purchasedInventory: %d", purchasedInventory);
 		
-		tempProduct.setStockQuantity(tempProduct.getStockQuantity() - purchasedInventory);
+		// One atomic step, so a concurrent adjustment is not lost
+		if (!tempProduct.updateStock(-purchasedInventory))
+		{
+			AppLogger.error("Error adjusting stock of " + sku + ": "
+					+ purchasedInventory + " purchased but only "
+					+ tempProduct.getStockQuantity() + " in stock");
+			return false;
+		}
+		indexes.refreshStock(tempProduct);
 		// TESTING PRINTS FOR TROUBLESHOOTING
-		System.out.println("INVENTORYMANAGER: AdjustStock: Temp Product Stock Quantity: " + tempProduct.getStockQuantity());
-		
+		AppLogger.debug("INVENTORYMANAGER: AdjustStock: Temp Product Stock Quantity: %d", tempProduct.getStockQuantity());
+		return true;
+	}
+
+	/**
+	 * Purpose: Reserves stock for an order. The stock check and the decrement
+	 * are one atomic step, so two checkouts cannot both take the last units.
+	 * 
+	 * @param sku      Stocking keeping unit of the product
+	 * @param quantity Amount of inventory to reserve
+	 * @return True if the units were reserved, false if the product is
+	 *         unknown or does not have enough stock
+	 */
+	public boolean reserve(String sku, int quantity)
+	{
+		Product product = productCatalog.get(sku);
+		if (product == null || quantity <= 0
+				|| !product.updateStock(-quantity))
+		{
+			return false;
+		}
+		indexes.refreshStock(product);
+		reservedStock.computeIfAbsent(sku, key -> new AtomicInteger())
+				.addAndGet(quantity);
+		return true;
+	}
+
+	/**
+	 * Purpose: Commits reserved stock once its order is placed. The units
+	 * were already taken from the product by reserve.
+	 * 
+	 * @param sku      Stocking keeping unit of the product
+	 * @param quantity Amount of reserved inventory to commit
+	 * @return True if that many units were reserved
+	 */
+	public boolean commit(String sku, int quantity)
+	{
+		return takeReserved(sku, quantity);
+	}
+
+	/**
+	 * Purpose: Releases reserved stock back to the product, e.g. when an
+	 * order fails.
+	 * 
+	 * @param sku      Stocking keeping unit of the product
+	 * @param quantity Amount of reserved inventory to release
+	 * @return True if that many units were reserved and put back
+	 */
+	public boolean release(String sku, int quantity)
+	{
+		Product product = productCatalog.get(sku);
+		if (product == null || !takeReserved(sku, quantity))
+		{
+			return false;
+		}
+		product.updateStock(quantity);
+		indexes.refreshStock(product);
+		return true;
+	}
+
+	/**
+	 * Purpose: Reserves every item of a cart or none of them. SKUs are
+	 * reserved in one fixed global order (sorted by SKU), so concurrent
+	 * carts that share products meet them in the same order. If any SKU
+	 * cannot be reserved, the SKUs already reserved are released before the
+	 * exception is thrown.
+	 * 
+	 * @param items Line items to reserve; repeated SKUs are combined
+	 * @return reservation SKU -> reserved quantity, for commitAll or
+	 *         releaseAll
+	 * @throws InsufficientStockException If any SKU is unknown or short
+	 */
+	public Map<String, Integer> reserveAll(Collection<LineItem> items)
+			throws InsufficientStockException
+	{
+		return reserveAll(items, new HashMap<>());
+	}
+
+	/**
+	 * Purpose: Reserves every item of a cart or none of them, counting units
+	 * the cart already holds (see StockHoldManager.claim). Only the units
+	 * beyond the held ones are reserved, in SKU order; held units the cart no
+	 * longer needs are released. If any SKU is short, the new reservations
+	 * and the held units are all released.
+	 * 
+	 * @param items Line items to reserve; repeated SKUs are combined
+	 * @param held  SKU -> units already reserved for this cart
+	 * @return reservation SKU -> reserved quantity, for commitAll or
+	 *         releaseAll
+	 * @throws InsufficientStockException If any SKU is unknown or short
+	 */
+	public Map<String, Integer> reserveAll(Collection<LineItem> items,
+			Map<String, Integer> held) throws InsufficientStockException
+	{
+		Map<String, Integer> requested = new TreeMap<>();
+		for (LineItem item : items)
+		{
+			requested.merge(item.getSku(), item.getQuantity(), Integer::sum);
+		}
+
+		// Held units of SKUs no longer in the cart, or beyond its quantity
+		Map<String, Integer> unneeded = new HashMap<>();
+		Map<String, Integer> reservation = new LinkedHashMap<>();
+		for (Map.Entry<String, Integer> entry : held.entrySet())
+		{
+			int kept = Math.min(entry.getValue(),
+					requested.getOrDefault(entry.getKey(), 0));
+			if (kept > 0) reservation.put(entry.getKey(), kept);
+			if (entry.getValue() > kept)
+			{
+				unneeded.put(entry.getKey(), entry.getValue() - kept);
+			}
+		}
+		releaseAll(unneeded);
+
+		for (Map.Entry<String, Integer> entry : requested.entrySet())
+		{
+			int missing = entry.getValue()
+					- reservation.getOrDefault(entry.getKey(), 0);
+			if (missing > 0 && !reserve(entry.getKey(), missing))
+			{
+				releaseAll(reservation);
+
+				Product product = productCatalog.get(entry.getKey());
+				throw new InsufficientStockException(
+						"Insufficient stock for SKU: " + entry.getKey()
+								+ ". Requested: " + entry.getValue()
+								+ ", Available: "
+								+ (product != null ? product.getStockQuantity()
+										: 0));
+			}
+			reservation.put(entry.getKey(), entry.getValue());
+		}
+		return reservation;
+	}
+
+	/**
+	 * Purpose: Commits every SKU of a reservation from reserveAll.
+	 * 
+	 * @param reservation SKU -> reserved quantity
+	 */
+	public void commitAll(Map<String, Integer> reservation)
+	{
+		for (Map.Entry<String, Integer> entry : reservation.entrySet())
+		{
+			commit(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Purpose: Releases every SKU of a reservation from reserveAll back to
+	 * stock.
+	 * 
+	 * @param reservation SKU -> reserved quantity
+	 */
+	public void releaseAll(Map<String, Integer> reservation)
+	{
+		for (Map.Entry<String, Integer> entry : reservation.entrySet())
+		{
+			release(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Purpose: Getter - Returns the units of a product that are reserved but
+	 * not yet committed or released
+	 * 
+	 * @param sku Stocking keeping unit of the product
+	 * @return reserved Amount of reserved inventory
+	 */
+	public int getReservedQuantity(String sku)
+	{
+		AtomicInteger reserved = reservedStock.get(sku);
+		return reserved == null ? 0 : reserved.get();
+	}
+
+	/**
+	 * Purpose: Publishes an event when a stock change crosses
+	 * LOW_STOCK_THRESHOLD or zero. Runs on the thread that changed the stock,
+	 * so it only queues the event.
+	 * 
+	 * @param product       Product whose stock changed
+	 * @param previousStock Stock before the change
+	 * @param newStock      Stock after the change
+	 */
+	private void publishStockChange(Product product, int previousStock,
+			int newStock)
+	{
+		if (!eventBus.hasSubscribers())
+		{
+			return;
+		}
+		InventoryEventBus.StockEvent.Type type = InventoryEventBus
+				.crossing(previousStock, newStock, LOW_STOCK_THRESHOLD);
+		if (type != null)
+		{
+			eventBus.publish(new InventoryEventBus.StockEvent(type, product,
+					previousStock, newStock, LOW_STOCK_THRESHOLD));
+		}
+	}
+
+	/**
+	 * Purpose: Removes units from a SKU's reserved count without letting it
+	 * go negative.
+	 * 
+	 * @param sku      Stocking keeping unit of the product
+	 * @param quantity Amount to remove
+	 * @return True if that many units were reserved
+	 */
+	private boolean takeReserved(String sku, int quantity)
+	{
+		AtomicInteger reserved = reservedStock.get(sku);
+		if (reserved == null || quantity <= 0)
+		{
+			return false;
+		}
+		while (true)
+		{
+			int current = reserved.get();
+			if (current < quantity)
+			{
+				return false;
+			}
+			if (reserved.compareAndSet(current, current - quantity))
+			{
+				return true;
+			}
+		}
 	}
 }
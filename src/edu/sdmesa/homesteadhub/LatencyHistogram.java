@@ -0,0 +1,284 @@
+package edu.sdmesa.homesteadhub;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of LatencyHistogram is to record latencies from
+ *          many threads without locking or allocating, and report their
+ *          percentiles.
+ *
+ *          Buckets are log-linear, like HdrHistogram: every power of two is
+ *          split into SUB_BUCKETS equal buckets. Values below SUB_BUCKETS get
+ *          a bucket each. Any recorded value is off by at most 1/SUB_BUCKETS
+ *          (about 3%), from 1 ns up to Long.MAX_VALUE, in a fixed array of
+ *          counters. Recording is an index calculation and an atomic
+ *          increment.
+ */
+public class LatencyHistogram
+{
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	// One group of SUB_BUCKETS per power of two from 2^SUB_BUCKET_BITS up
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Purpose: Records one latency.
+	 *
+	 * @param nanos Latency in nanoseconds; negative values count as 0
+	 */
+	public void record(long nanos)
+	{
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(bucketIndex(value));
+		count.increment();
+		totalNanos.add(value);
+
+		long max = maxNanos.get();
+		while (value > max && !maxNanos.compareAndSet(max, value))
+		{
+			max = maxNanos.get();
+		}
+	}
+
+	/**
+	 * Purpose: Records the time since start.
+	 *
+	 * @param startNanos System.nanoTime() when the timed work started
+	 */
+	public void recordSince(long startNanos)
+	{
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Purpose: Takes a point-in-time summary. Recording may continue while
+	 * it runs, so the figures can be a few samples apart from each other.
+	 *
+	 * @return snapshot Count, mean, percentiles and max
+	 */
+	public Snapshot snapshot()
+	{
+		long[] copy = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			copy[i] = counts.get(i);
+			total += copy[i];
+		}
+		// A bucket's upper bound can be past the largest value recorded in it
+		long max = maxNanos.get();
+		return new Snapshot(total, total == 0 ? 0 : totalNanos.sum() / total,
+				Math.min(max, percentile(copy, total, 0.50)),
+				Math.min(max, percentile(copy, total, 0.99)),
+				Math.min(max, percentile(copy, total, 0.999)), max);
+	}
+
+	/**
+	 * Purpose: Clears every recorded value.
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			counts.set(i, 0);
+		}
+		count.reset();
+		totalNanos.reset();
+		maxNanos.set(0);
+	}
+
+	/**
+	 * Purpose: Getter - Returns the number of recorded values
+	 *
+	 * @return count Recorded values
+	 */
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	/**
+	 * Purpose: Finds the bucket for a value.
+	 *
+	 * @param value Non-negative value
+	 * @return index Bucket index
+	 */
+	static int bucketIndex(long value)
+	{
+		if (value < SUB_BUCKETS)
+		{
+			return (int) value;
+		}
+		// Keeps the leading 1 bit and the SUB_BUCKET_BITS bits below it
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int shift = magnitude - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift);
+		return (shift + 1) * SUB_BUCKETS + subBucket - SUB_BUCKETS;
+	}
+
+	/**
+	 * Purpose: Returns the highest value that falls in a bucket.
+	 *
+	 * @param index Bucket index
+	 * @return value Upper bound of the bucket
+	 */
+	static long bucketUpperBound(int index)
+	{
+		if (index < 2 * SUB_BUCKETS)
+		{
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 * Purpose: Finds the value at or below which a share of samples fall.
+	 *
+	 * @param counts   Bucket counts
+	 * @param total    Sum of counts
+	 * @param quantile Share, e.g. 0.99
+	 * @return value Upper bound of the bucket holding that sample; 0 if empty
+	 */
+	private static long percentile(long[] counts, long total, double quantile)
+	{
+		if (total == 0)
+		{
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(total * quantile));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++)
+		{
+			seen += counts[i];
+			if (seen >= rank)
+			{
+				return bucketUpperBound(i);
+			}
+		}
+		return bucketUpperBound(counts.length - 1);
+	}
+
+	/**
+	 * Purpose: Summary of a histogram at one point in time. Times are in
+	 * nanoseconds.
+	 */
+	public static final class Snapshot
+	{
+		private final long count;
+		private final long meanNanos;
+		private final long p50Nanos;
+		private final long p99Nanos;
+		private final long p999Nanos;
+		private final long maxNanos;
+
+		Snapshot(long count, long meanNanos, long p50Nanos, long p99Nanos,
+				long p999Nanos, long maxNanos)
+		{
+			this.count = count;
+			this.meanNanos = meanNanos;
+			this.p50Nanos = p50Nanos;
+			this.p99Nanos = p99Nanos;
+			this.p999Nanos = p999Nanos;
+			this.maxNanos = maxNanos;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the number of recorded values
+		 *
+		 * @return count
+		 */
+		public long getCount()
+		{
+			return count;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the mean latency in nanoseconds
+		 *
+		 * @return meanNanos
+		 */
+		public long getMeanNanos()
+		{
+			return meanNanos;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the median latency in nanoseconds
+		 *
+		 * @return p50Nanos
+		 */
+		public long getP50Nanos()
+		{
+			return p50Nanos;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the 99th percentile latency in nanoseconds
+		 *
+		 * @return p99Nanos
+		 */
+		public long getP99Nanos()
+		{
+			return p99Nanos;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the 99.9th percentile latency in nanoseconds
+		 *
+		 * @return p999Nanos
+		 */
+		public long getP999Nanos()
+		{
+			return p999Nanos;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the largest latency in nanoseconds
+		 *
+		 * @return maxNanos
+		 */
+		public long getMaxNanos()
+		{
+			return maxNanos;
+		}
+
+		/**
+		 * Purpose: Formats the summary in microseconds.
+		 *
+		 * @return summary e.g. "count=10 mean=12us p50=11us ..."
+		 */
+		@Override
+		public String toString()
+		{
+			return String.format(
+					"count=%,d mean=%,dus p50=%,dus p99=%,dus p999=%,dus max=%,dus",
+					count, micros(meanNanos), micros(p50Nanos),
+					micros(p99Nanos), micros(p999Nanos), micros(maxNanos));
+		}
+
+		private static long micros(long nanos)
+		{
+			return TimeUnit.NANOSECONDS.toMicros(nanos);
+		}
+	}
+}
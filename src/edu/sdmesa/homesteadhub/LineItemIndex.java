@@ -0,0 +1,388 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of LineItemIndex is to keep a persistent sidecar
+ *          index of the line items file, so one farmer's or one order's rows
+ *          can be read by seeking to them instead of scanning every line
+ *          item ever written.
+ *
+ *          The sidecar holds one entry per line item record
+ *          (offset,length,farmer,orderId) followed by a checkpoint line
+ *          (#,coveredBytes) after each update. On load, anything after the
+ *          last checkpoint is an unfinished update and is cut off. A sidecar
+ *          that cannot be parsed, e.g. after a hand edit, is dropped and
+ *          rebuilt from the line items file. Before
+ *          every lookup, records appended to the line items file since the
+ *          checkpoint are scanned and added. If the line items file shrank
+ *          or a row no longer matches its key, the index is rebuilt.
+ */
+public class LineItemIndex
+{
+	// Line item fields: orderId,sku,title,qty,price,total,customer,farmer
+	private static final int ORDER_FIELD = 0;
+	private static final int FARMER_FIELD = 7;
+
+	private final Path dataFile;
+	private final Path indexFile;
+
+	// Key -> {offset, length} of each record, in file order
+	private final Map<String, List<long[]>> byFarmer = new HashMap<>();
+	private final Map<String, List<long[]>> byOrder = new HashMap<>();
+
+	// Bytes of the line items file covered by the index; -1 if not loaded
+	private long covered = -1;
+
+	/**
+	 * Purpose: Constructor to index a line items file
+	 *
+	 * @param dataFile  Line items file
+	 * @param indexFile Sidecar file to store the index in
+	 */
+	public LineItemIndex(Path dataFile, Path indexFile)
+	{
+		this.dataFile = dataFile;
+		this.indexFile = indexFile;
+	}
+
+	/**
+	 * Purpose: Reads the line items file rows supplied by a farmer.
+	 *
+	 * @param farmerUsername Farmer's username
+	 * @return lines Matching rows in file order
+	 * @throws IOException If a file cannot be read or written
+	 */
+	public synchronized List<String> readFarmerLines(String farmerUsername)
+			throws IOException
+	{
+		return readLines(byFarmer, FARMER_FIELD, farmerUsername);
+	}
+
+	/**
+	 * Purpose: Reads the line items file rows belonging to an order.
+	 *
+	 * @param orderId Order ID
+	 * @return lines Matching rows in file order
+	 * @throws IOException If a file cannot be read or written
+	 */
+	public synchronized List<String> readOrderLines(String orderId)
+			throws IOException
+	{
+		return readLines(byOrder, ORDER_FIELD, orderId);
+	}
+
+	/**
+	 * Purpose: Adds any records appended to the line items file since the
+	 * last update to the index and the sidecar.
+	 *
+	 * @throws IOException If a file cannot be read or written
+	 */
+	public synchronized void refresh() throws IOException
+	{
+		if (covered < 0)
+		{
+			load();
+		}
+
+		long size = Files.exists(dataFile) ? Files.size(dataFile) : 0;
+		if (size < covered)
+		{
+			// The file was replaced or truncated
+			rebuild();
+		}
+		else if (size > covered)
+		{
+			scanFrom(covered, size);
+		}
+	}
+
+	/**
+	 * Purpose: Throws the index away. Used after the line items file has been
+	 * rewritten, e.g. by DataCompactor.
+	 */
+	public synchronized void invalidate()
+	{
+		byFarmer.clear();
+		byOrder.clear();
+		covered = -1;
+		try
+		{
+			Files.deleteIfExists(indexFile);
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error deleting line item index: "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * Purpose: Reads the rows for one key, rebuilding once if a row no longer
+	 * matches.
+	 *
+	 * @param index Index to look the key up in
+	 * @param field Field of the row that must equal the key
+	 * @param key   Farmer username or order ID
+	 * @return lines Matching rows in file order
+	 * @throws IOException If a file cannot be read or written
+	 */
+	private List<String> readLines(Map<String, List<long[]>> index, int field,
+			String key) throws IOException
+	{
+		refresh();
+		List<String> lines = readSlots(index.get(key), field, key);
+		if (lines == null)
+		{
+			rebuild();
+			lines = readSlots(index.get(key), field, key);
+		}
+		return lines == null ? new ArrayList<>() : lines;
+	}
+
+	/**
+	 * Purpose: Seeks to and reads each record slot.
+	 *
+	 * @param slots {offset, length} pairs; may be null
+	 * @param field Field of the row that must equal the key
+	 * @param key   Expected key
+	 * @return lines Rows read; null if any row did not match its key
+	 * @throws IOException If the line items file cannot be read
+	 */
+	private List<String> readSlots(List<long[]> slots, int field, String key)
+			throws IOException
+	{
+		if (slots == null || slots.isEmpty()) return Collections.emptyList();
+
+		List<String> lines = new ArrayList<>(slots.size());
+		try (FileChannel channel = FileChannel.open(dataFile,
+				StandardOpenOption.READ))
+		{
+			for (long[] slot : slots)
+			{
+				ByteBuffer bytes = ByteBuffer.allocate((int) slot[1]);
+				while (bytes.hasRemaining())
+				{
+					if (channel.read(bytes,
+							slot[0] + bytes.position()) < 0) return null;
+				}
+				String line = new String(bytes.array(),
+						StandardCharsets.UTF_8);
+				if (!key.equals(field(line, field))) return null;
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Purpose: Loads the sidecar up to its last checkpoint and cuts off any
+	 * unfinished update after it. A malformed sidecar is deleted, leaving
+	 * an empty index that the caller's refresh rebuilds.
+	 *
+	 * @throws IOException If the sidecar cannot be read or truncated
+	 */
+	private void load() throws IOException
+	{
+		covered = 0;
+		if (!Files.exists(indexFile)) return;
+
+		List<String[]> pending = new ArrayList<>();
+		long position = 0;
+		long validEnd = 0;
+		try
+		{
+			for (String line : Files.readAllLines(indexFile,
+					StandardCharsets.UTF_8))
+			{
+				position += line.getBytes(StandardCharsets.UTF_8).length + 1;
+				String[] parts = line.split(",");
+				if (parts[0].equals("#") && parts.length == 2)
+				{
+					for (String[] entry : pending)
+					{
+						addEntry(parseBytes(entry[0], Long.MAX_VALUE),
+								parseBytes(entry[1], Integer.MAX_VALUE),
+								entry[2], entry[3]);
+					}
+					pending.clear();
+					covered = parseBytes(parts[1], Long.MAX_VALUE);
+					validEnd = position;
+				}
+				else if (parts.length == 4)
+				{
+					pending.add(parts);
+				}
+			}
+		}
+		catch (NumberFormatException | CharacterCodingException e)
+		{
+			AppLogger.warn("LINEITEMINDEX: Malformed %s (%s), rebuilding it",
+					indexFile, e.getMessage());
+			invalidate();
+			covered = 0;
+			return;
+		}
+
+		if (validEnd < Files.size(indexFile))
+		{
+			try (FileChannel channel = FileChannel.open(indexFile,
+					StandardOpenOption.WRITE))
+			{
+				channel.truncate(validEnd);
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Parses a byte offset or length from the sidecar.
+	 *
+	 * @param text Field text
+	 * @param max  Largest valid value
+	 * @return bytes Parsed value
+	 * @throws NumberFormatException If the text is not a number from 0 to max
+	 */
+	private static long parseBytes(String text, long max)
+	{
+		long bytes = Long.parseLong(text);
+		if (bytes < 0 || bytes > max)
+		{
+			throw new NumberFormatException("out of range: " + text);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Purpose: Rebuilds the index and sidecar from the whole line items file.
+	 *
+	 * @throws IOException If a file cannot be read or written
+	 */
+	private void rebuild() throws IOException
+	{
+		invalidate();
+		covered = 0;
+		long size = Files.exists(dataFile) ? Files.size(dataFile) : 0;
+		scanFrom(0, size);
+	}
+
+	/**
+	 * Purpose: Indexes the complete lines in a byte range of the line items
+	 * file and appends their entries and a checkpoint to the sidecar.
+	 *
+	 * @param start First byte to scan
+	 * @param end   Byte to stop at
+	 * @throws IOException If a file cannot be read or written
+	 */
+	private void scanFrom(long start, long end) throws IOException
+	{
+		StringBuilder entries = new StringBuilder();
+		long lineStart = start;
+
+		try (FileChannel channel = FileChannel.open(dataFile,
+				StandardOpenOption.READ))
+		{
+			ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+			ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+			long position = start;
+
+			while (position < end)
+			{
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), end - position));
+				int read = channel.read(buffer, position);
+				if (read <= 0) break;
+				buffer.flip();
+
+				while (buffer.hasRemaining())
+				{
+					byte b = buffer.get();
+					position++;
+					if (b != '\n')
+					{
+						line.write(b);
+						continue;
+					}
+
+					String text = line.toString(StandardCharsets.UTF_8);
+					String orderId = field(text, ORDER_FIELD);
+					String farmer = field(text, FARMER_FIELD);
+					if (orderId != null && farmer != null)
+					{
+						addEntry(lineStart, line.size(), farmer, orderId);
+						entries.append(lineStart).append(',')
+								.append(line.size()).append(',')
+								.append(farmer).append(',').append(orderId)
+								.append('\n');
+					}
+					line.reset();
+					lineStart = position;
+				}
+			}
+		}
+
+		// A partial last line is picked up by the next refresh
+		covered = lineStart;
+		entries.append("#,").append(covered).append('\n');
+		Files.write(indexFile,
+				entries.toString().getBytes(StandardCharsets.UTF_8),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Purpose: Adds one record to both in-memory indexes.
+	 *
+	 * @param offset  Byte offset of the record
+	 * @param length  Length of the record in bytes, without newline
+	 * @param farmer  Farmer's username
+	 * @param orderId Order ID
+	 */
+	private void addEntry(long offset, long length, String farmer,
+			String orderId)
+	{
+		long[] slot = { offset, length };
+		byFarmer.computeIfAbsent(farmer, key -> new ArrayList<>()).add(slot);
+		byOrder.computeIfAbsent(orderId, key -> new ArrayList<>()).add(slot);
+	}
+
+	/**
+	 * Purpose: Returns one comma-separated field of a line item row.
+	 *
+	 * @param line  Row text
+	 * @param index Field index
+	 * @return Field text; null if the row does not have eight fields
+	 */
+	private static String field(String line, int index)
+	{
+		CsvCursor fields = new CsvCursor().reset(line);
+		if (fields.fieldCount() < 8) return null;
+		for (int i = 0; i < index; i++)
+		{
+			fields.skip();
+		}
+		return fields.nextString();
+	}
+}
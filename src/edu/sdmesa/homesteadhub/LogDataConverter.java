@@ -0,0 +1,193 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of LogDataConverter is to migrate the text data
+ *          files (users.txt, products.txt, orders.txt, lineitems.txt) into a
+ *          LogDataSource, and to compare how long each repository takes to
+ *          load everything back.
+ */
+public class LogDataConverter
+{
+	private static final String ORDERS_FILE = "orders.txt";
+
+	/**
+	 * Purpose: Converts the text files once into a fresh binary log
+	 * directory, then prints load times for both repositories.
+	 *
+	 * @param args Optional target directory for the logs
+	 */
+	public static void main(String[] args)
+	{
+		Path target = Paths
+				.get(args.length > 0 ? args[0] : LogDataSource.DEFAULT_LOG_DIR);
+		try
+		{
+			if (Files.exists(target))
+			{
+				System.err.println("LOGDATACONVERTER: " + target
+						+ " already exists. Remove it to convert again.");
+				return;
+			}
+
+			FileDataSource source = new FileDataSource();
+			LogDataSource log = new LogDataSource(target,
+					BinaryLog.DEFAULT_SEGMENT_BYTES);
+			convert(source, log);
+
+			compareLoadTimes(source, log, 20);
+			log.close();
+		}
+		catch (IOException e)
+		{
+			System.err.println("Error converting data files: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Purpose: Copies every record in the text files into the binary log.
+	 *
+	 * @param source Text file repository to read from
+	 * @param target Binary log repository to write to
+	 * @throws IOException If the orders file cannot be read or a record
+	 *                     cannot be written
+	 */
+	public static void convert(FileDataSource source, LogDataSource target)
+			throws IOException
+	{
+		List<User> users = source.findAllUsers();
+		for (User user : users)
+		{
+			target.saveUser(user);
+		}
+
+		List<Product> products = source.findAllProducts();
+		for (Product product : products)
+		{
+			target.saveProduct(product);
+		}
+
+		// Orders are copied from their stored fields because Helper needs the
+		// Customer object to rebuild an Order
+		int orderCount = 0;
+		CsvCursor fields = new CsvCursor();
+		for (String line : Files.readAllLines(Paths.get(ORDERS_FILE)))
+		{
+			if (fields.reset(line).fieldCount() < 4) continue;
+			target.appendOrder(fields.nextString(), fields.nextString(),
+					fields.nextPrice(), fields.nextString());
+			orderCount++;
+		}
+
+		List<LineItem> lineItems = source.findLineItems();
+		for (LineItem lineItem : lineItems)
+		{
+			target.appendLineItem(lineItem);
+		}
+
+		System.out.printf(
+				"LOGDATACONVERTER: Converted %d users, %d products, %d orders, %d line items.%n",
+				users.size(), products.size(), orderCount, lineItems.size());
+	}
+
+	/**
+	 * Purpose: Loads every user, product and line item from both repositories
+	 * and prints the average time and bytes allocated per full load.
+	 *
+	 * @param text   Text file repository
+	 * @param binary Binary log repository
+	 * @param rounds Number of timed loads for each repository
+	 */
+	public static void compareLoadTimes(DataRepository text,
+			DataRepository binary, int rounds)
+	{
+		// Warm up both paths so the JIT has compiled them before timing
+		for (int i = 0; i < 3; i++)
+		{
+			loadEverything(text);
+			loadEverything(binary);
+		}
+
+		long[] textResult = timeLoads(text, rounds);
+		long[] binaryResult = timeLoads(binary, rounds);
+
+		System.out.printf("LOGDATACONVERTER: FileDataSource %.3f ms, %,d bytes per load%n",
+				textResult[0] / 1_000_000.0, textResult[1]);
+		System.out.printf("LOGDATACONVERTER: LogDataSource  %.3f ms, %,d bytes per load%n",
+				binaryResult[0] / 1_000_000.0, binaryResult[1]);
+
+		if (binaryResult[0] > 0 && binaryResult[1] > 0)
+		{
+			System.out.printf(
+					"LOGDATACONVERTER: Load time x%.2f, allocation x%.2f compared to text files%n",
+					(double) textResult[0] / binaryResult[0],
+					(double) textResult[1] / binaryResult[1]);
+		}
+	}
+
+	/**
+	 * Purpose: Times full loads of one repository.
+	 *
+	 * @param repository Repository to load
+	 * @param rounds     Number of loads
+	 * @return Average nanoseconds and allocated bytes per load
+	 */
+	private static long[] timeLoads(DataRepository repository, int rounds)
+	{
+		long startBytes = allocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+		{
+			loadEverything(repository);
+		}
+		long elapsed = System.nanoTime() - start;
+		long allocated = allocatedBytes() - startBytes;
+		return new long[] { elapsed / rounds, allocated / rounds };
+	}
+
+	/**
+	 * Purpose: Reads every user, product and line item once.
+	 *
+	 * @param repository Repository to load
+	 */
+	private static void loadEverything(DataRepository repository)
+	{
+		repository.findAllUsers();
+		repository.findAllProducts();
+		repository.findLineItems();
+	}
+
+	/**
+	 * Purpose: Returns bytes allocated so far by the current thread, or 0 if
+	 * the JVM does not report it.
+	 *
+	 * @return Allocated bytes
+	 */
+	private static long allocatedBytes()
+	{
+		java.lang.management.ThreadMXBean bean = ManagementFactory
+				.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean)
+		{
+			return ((com.sun.management.ThreadMXBean) bean)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+}
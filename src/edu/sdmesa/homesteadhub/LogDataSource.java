@@ -0,0 +1,679 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of LogDataSource is to persist data as binary
+ *          records in append-only BinaryLog segments instead of CSV lines.
+ *          Fields are stored as typed values (length-prefixed UTF-8 strings,
+ *          ints and doubles), so reading a record needs no String.split or
+ *          number parsing.
+ *
+ *          LogDataSource is-a DataRepository
+ */
+public class LogDataSource implements DataRepository
+{
+	// Default directory for the log segments
+	public static final String DEFAULT_LOG_DIR = "data_log";
+
+	// Record type tags for the users log
+	private static final byte CUSTOMER_RECORD = 'C';
+	private static final byte FARMER_RECORD = 'F';
+
+	private final BinaryLog usersLog;
+	private final BinaryLog productsLog;
+	private final BinaryLog ordersLog;
+	private final BinaryLog lineItemsLog;
+
+	/**
+	 * Purpose: Constructor to open the logs in the default directory
+	 *
+	 * @throws IOException If the log directories cannot be opened
+	 */
+	public LogDataSource() throws IOException
+	{
+		this(Paths.get(DEFAULT_LOG_DIR), BinaryLog.DEFAULT_SEGMENT_BYTES);
+	}
+
+	/**
+	 * Purpose: Constructor to open the logs in a given directory
+	 *
+	 * @param baseDir      Directory holding one sub-directory per log
+	 * @param segmentBytes Size a segment may reach before rolling over
+	 * @throws IOException If the log directories cannot be opened
+	 */
+	public LogDataSource(Path baseDir, long segmentBytes) throws IOException
+	{
+		usersLog = new BinaryLog(baseDir.resolve("users"), segmentBytes);
+		productsLog = new BinaryLog(baseDir.resolve("products"), segmentBytes);
+		ordersLog = new BinaryLog(baseDir.resolve("orders"), segmentBytes);
+		lineItemsLog = new BinaryLog(baseDir.resolve("lineitems"),
+				segmentBytes);
+	}
+
+	// ------User Operations------
+
+	/**
+	 * Purpose: Appends a user record to the users log
+	 *
+	 * @param user User object to save
+	 *
+	 * @return user Specific User type (Customer or Farmer)
+	 */
+	@Override
+	public User saveUser(User user)
+	{
+		try
+		{
+			RecordBuilder record = new RecordBuilder();
+			if (user instanceof Customer)
+			{
+				Customer customer = (Customer) user;
+				record.putByte(CUSTOMER_RECORD);
+				putUserFields(record, user);
+				record.putString(customer.getShippingAddress());
+			}
+			else if (user instanceof Farmer)
+			{
+				Farmer farmer = (Farmer) user;
+				record.putByte(FARMER_RECORD);
+				putUserFields(record, user);
+				record.putString(farmer.getFarmName());
+				record.putString(farmer.getLocation());
+			}
+			else
+			{
+				return user;
+			}
+			usersLog.append(record.toBytes());
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error saving user to log: " + e.getMessage());
+		}
+		return user;
+	}
+
+	/**
+	 * Purpose: Finds a user by their unique ID.
+	 *
+	 * @param userId UserId to be found
+	 *
+	 * @return user Found User object matching userId; null if not found
+	 */
+	@Override
+	public User findUserById(String userId)
+	{
+		for (User user : findAllUsers())
+		{
+			if (user.getUserId().equals(userId))
+			{
+				return user;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Purpose: Finds a user by username
+	 *
+	 * @param username Username to search
+	 *
+	 * @return user Found User object matching username; null if not found
+	 */
+	@Override
+	public User findUserByUsername(String username)
+	{
+		for (User user : findAllUsers())
+		{
+			if (user.getUsername().equalsIgnoreCase(username))
+			{
+				return user;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Purpose: Reads all users from the users log
+	 *
+	 * @return users List of all User objects
+	 */
+	@Override
+	public List<User> findAllUsers()
+	{
+		List<User> users = new ArrayList<>();
+		try
+		{
+			usersLog.readAll(buffer -> {
+				User user = readUser(buffer);
+				if (user != null)
+				{
+					users.add(user);
+				}
+			});
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error reading users log: " + e.getMessage());
+		}
+		return users;
+	}
+
+	// ------Product Operations------
+
+	/**
+	 * Purpose: Appends a product record to the products log
+	 *
+	 * @param product Product object to save
+	 *
+	 * @return product Returns product object
+	 */
+	@Override
+	public Product saveProduct(Product product)
+	{
+		try
+		{
+			productsLog.append(encodeProduct(product));
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error saving product to log: " + e.getMessage());
+		}
+		return product;
+	}
+
+	/**
+	 * Purpose: Finds product by SKU belonging to a farmer
+	 *
+	 * @param sku    Stock keeping unit of product to find
+	 * @param farmer Farmer to focus search
+	 * @return product Product if found; null otherwise
+	 */
+	@Override
+	public Product findProductBySku(String sku, Farmer farmer)
+	{
+		for (Product product : findAllProducts(farmer))
+		{
+			if (product.getSku().equals(sku))
+			{
+				return product;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Purpose: Find all products belonging to a farmer
+	 *
+	 * @param farmer Farmer to focus search
+	 * @return products List of all products belonging to farmer if any
+	 */
+	@Override
+	public List<Product> findAllProducts(Farmer farmer)
+	{
+		// Key is SKU. A later record for a SKU replaces the earlier one.
+		Map<String, Product> products = new LinkedHashMap<>();
+		try
+		{
+			productsLog.readAll(buffer -> {
+				String sku = getString(buffer);
+				String title = getString(buffer);
+				String description = getString(buffer);
+				int stock = buffer.getInt();
+				double price = buffer.getDouble();
+				String farmerUsername = getString(buffer);
+				if (farmerUsername.equals(farmer.getUsername()))
+				{
+					products.put(sku, new Product(sku, title, description,
+							stock, farmer, price));
+				}
+			});
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error reading products log: " + e.getMessage());
+		}
+		return new ArrayList<>(products.values());
+	}
+
+	/**
+	 * Purpose: Find ALL products
+	 *
+	 * @return products List of all products
+	 */
+	@Override
+	public List<Product> findAllProducts()
+	{
+		// Key is SKU. A later record for a SKU replaces the earlier one.
+		Map<String, Product> products = new LinkedHashMap<>();
+		try
+		{
+			productsLog.readAll(buffer -> {
+				String sku = getString(buffer);
+				String title = getString(buffer);
+				String description = getString(buffer);
+				int stock = buffer.getInt();
+				double price = buffer.getDouble();
+				String farmerUsername = getString(buffer);
+				products.put(sku, new Product(sku, title, description, stock,
+						farmerUsername, price));
+			});
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error reading products log: " + e.getMessage());
+		}
+		return new ArrayList<>(products.values());
+	}
+
+	/**
+	 * Purpose: Appends a new record for the product with its changed stock.
+	 * Reads keep only the newest record per SKU.
+	 *
+	 * @param sku            Stock keeping unit of the product
+	 * @param quantityChange Amount to add (negative to remove)
+	 * @return True if updated; false if not found or stock would go negative
+	 */
+	@Override
+	public synchronized boolean updateStock(String sku, int quantityChange)
+	{
+		for (Product product : findAllProducts())
+		{
+			if (product.getSku().equals(sku))
+			{
+				if (!product.updateStock(quantityChange)) return false;
+				saveProduct(product);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// ------Order Operations------
+
+	/**
+	 * Purpose: Appends an order record to the orders log
+	 *
+	 * @param order Order to save
+	 *
+	 * @return order Order object
+	 */
+	@Override
+	public Order saveOrder(Order order)
+	{
+		try
+		{
+			ordersLog.append(encodeOrder(order.getOrderId(),
+					order.getCustomer().getUserId(), order.getTotalAmount(),
+					order.getStatus()));
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error saving order to log: " + e.getMessage());
+		}
+		return order;
+	}
+
+	/**
+	 * Purpose: Finds order object by Id belonging to a customer
+	 *
+	 * @param orderId  Order ID of object to be found
+	 * @param customer Customer to focus search
+	 *
+	 * @return order Order object if found; null otherwise
+	 */
+	@Override
+	public Order findOrderById(String orderId, Customer customer)
+	{
+		for (Order order : findOrdersByCustomer(customer))
+		{
+			if (order.getOrderId().equals(orderId))
+			{
+				return order;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Purpose: Finds ALL orders placed by a customer, matched on the
+	 * customer's user ID
+	 *
+	 * @param customer Customer to focus search on
+	 *
+	 * @return orders List of all Order objects belonging to customer
+	 */
+	@Override
+	public List<Order> findOrdersByCustomer(Customer customer)
+	{
+		List<Order> orders = new ArrayList<>();
+		try
+		{
+			ordersLog.readAll(buffer -> {
+				String orderId = getString(buffer);
+				String customerId = getString(buffer);
+				double total = buffer.getDouble();
+				String status = getString(buffer);
+				if (customerId.equals(customer.getUserId()))
+				{
+					orders.add(new Order(orderId, customer, new ArrayList<>(),
+							total, customer.getShippingAddress(), status));
+				}
+			});
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error reading orders log: " + e.getMessage());
+		}
+		return orders;
+	}
+
+	// ------LineItem Operations------
+
+	/**
+	 * Purpose: Appends a line item record to the line items log
+	 *
+	 * @param order    Order associated with line item.
+	 * @param lineItem Line item to save.
+	 * @return lineItem LineItem object
+	 */
+	@Override
+	public LineItem saveLineItem(Order order, LineItem lineItem)
+	{
+		try
+		{
+			lineItemsLog.append(encodeLineItem(new LineItem(order.getOrderId(),
+					lineItem.getSku(), lineItem.getTitle(),
+					lineItem.getQuantity(), lineItem.getUnitPrice(),
+					lineItem.getTotal(), order.getCustomer().getUsername(),
+					lineItem.getProduct().getFarmer().getUsername())));
+		}
+		catch (IOException e)
+		{
+			AppLogger.error(
+					"Error saving Line Item to log: " + e.getMessage());
+		}
+		return lineItem;
+	}
+
+	/**
+	 * Purpose: Retrieves all LineItem orders made to the Farmer.
+	 *
+	 * @param farmer Farmer object to find line items.
+	 * @return List of LineItems associated with farmer; empty if none
+	 */
+	@Override
+	public List<LineItem> findOrdersToFarmer(Farmer farmer)
+	{
+		List<LineItem> lineItems = new ArrayList<>();
+		for (LineItem lineItem : findLineItems())
+		{
+			if (lineItem.getFarmer().equals(farmer.getUsername()))
+			{
+				lineItems.add(lineItem);
+			}
+		}
+		return lineItems;
+	}
+
+	/**
+	 * Purpose: Retirieve all line items.
+	 *
+	 * @return List of ALL line items.
+	 */
+	@Override
+	public List<LineItem> findLineItems()
+	{
+		List<LineItem> lineItems = new ArrayList<>();
+		try
+		{
+			lineItemsLog.readAll(buffer -> {
+				String orderId = getString(buffer);
+				String sku = getString(buffer);
+				String title = getString(buffer);
+				int qty = buffer.getInt();
+				double unitPrice = buffer.getDouble();
+				double total = buffer.getDouble();
+				String customer = getString(buffer);
+				String farmer = getString(buffer);
+				lineItems.add(new LineItem(orderId, sku, title, qty, unitPrice,
+						total, customer, farmer));
+			});
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error reading lineitems log: " + e.getMessage());
+		}
+		return lineItems;
+	}
+
+	/**
+	 * Purpose: Closes every log's active segment.
+	 */
+	public void close()
+	{
+		try
+		{
+			usersLog.close();
+			productsLog.close();
+			ordersLog.close();
+			lineItemsLog.close();
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error closing logs: " + e.getMessage());
+		}
+	}
+
+	// ------Raw appends used by LogDataConverter------
+
+	/**
+	 * Purpose: Appends an order record from its stored fields. Used when the
+	 * Customer object is not available, e.g. during conversion.
+	 *
+	 * @param orderId    Unique ID of the order
+	 * @param customerId User ID of the customer who placed it
+	 * @param total      Order total
+	 * @param status     Order status
+	 * @throws IOException If the record cannot be written
+	 */
+	void appendOrder(String orderId, String customerId, double total,
+			String status) throws IOException
+	{
+		ordersLog.append(encodeOrder(orderId, customerId, total, status));
+	}
+
+	/**
+	 * Purpose: Appends an already restored line item record. Used during
+	 * conversion where no Order object exists.
+	 *
+	 * @param lineItem Line item restored from lineitems.txt
+	 * @throws IOException If the record cannot be written
+	 */
+	void appendLineItem(LineItem lineItem) throws IOException
+	{
+		lineItemsLog.append(encodeLineItem(lineItem));
+	}
+
+	// ------Record encoding and decoding------
+
+	/**
+	 * Purpose: Writes the fields shared by every user record
+	 *
+	 * @param record Record being built
+	 * @param user   User to encode
+	 * @throws IOException If the record cannot be written
+	 */
+	private void putUserFields(RecordBuilder record, User user)
+			throws IOException
+	{
+		record.putString(user.getUserId());
+		record.putString(user.getUsername());
+		record.putString(user.getPassword());
+		record.putString(user.getEmail());
+	}
+
+	/**
+	 * Purpose: Restores a user from one users log payload
+	 *
+	 * @param buffer Payload positioned at the record type
+	 * @return user Restored Customer or Farmer; null for an unknown type
+	 */
+	private User readUser(ByteBuffer buffer)
+	{
+		byte type = buffer.get();
+		String userId = getString(buffer);
+		String username = getString(buffer);
+		String password = getString(buffer);
+		String email = getString(buffer);
+
+		if (type == CUSTOMER_RECORD)
+		{
+			return new Customer(userId, username, password, email,
+					getString(buffer));
+		}
+		else if (type == FARMER_RECORD)
+		{
+			String farmName = getString(buffer);
+			String location = getString(buffer);
+			return new Farmer(userId, username, password, email, farmName,
+					location);
+		}
+		return null;
+	}
+
+	/**
+	 * Purpose: Encodes a product record
+	 *
+	 * @param product Product to encode
+	 * @return Encoded record bytes
+	 * @throws IOException If the record cannot be written
+	 */
+	private byte[] encodeProduct(Product product) throws IOException
+	{
+		RecordBuilder record = new RecordBuilder();
+		record.putString(product.getSku());
+		record.putString(product.getTitle());
+		record.putString(product.getDescription());
+		record.putInt(product.getStockQuantity());
+		record.putDouble(product.calculatePrice());
+		record.putString(product.getFarmerUsername());
+		return record.toBytes();
+	}
+
+	/**
+	 * Purpose: Encodes an order record
+	 *
+	 * @param orderId    Unique ID of the order
+	 * @param customerId User ID of the customer who placed it
+	 * @param total      Order total
+	 * @param status     Order status
+	 * @return Encoded record bytes
+	 * @throws IOException If the record cannot be written
+	 */
+	private byte[] encodeOrder(String orderId, String customerId, double total,
+			String status) throws IOException
+	{
+		RecordBuilder record = new RecordBuilder();
+		record.putString(orderId);
+		record.putString(customerId);
+		record.putDouble(total);
+		record.putString(status);
+		return record.toBytes();
+	}
+
+	/**
+	 * Purpose: Encodes a line item record
+	 *
+	 * @param lineItem Line item with its order, customer and farmer set
+	 * @return Encoded record bytes
+	 * @throws IOException If the record cannot be written
+	 */
+	private byte[] encodeLineItem(LineItem lineItem) throws IOException
+	{
+		RecordBuilder record = new RecordBuilder();
+		record.putString(lineItem.getOrderId());
+		record.putString(lineItem.getSku());
+		record.putString(lineItem.getTitle());
+		record.putInt(lineItem.getQuantity());
+		record.putDouble(lineItem.getUnitPrice());
+		record.putDouble(lineItem.getTotal());
+		record.putString(lineItem.getCustomer());
+		record.putString(lineItem.getFarmer());
+		return record.toBytes();
+	}
+
+	/**
+	 * Purpose: Reads a length-prefixed UTF-8 string
+	 *
+	 * @param buffer Payload positioned at the string length
+	 * @return Decoded string; empty if stored as null
+	 */
+	private static String getString(ByteBuffer buffer)
+	{
+		int length = buffer.getInt();
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Purpose: Small helper that builds one record payload with typed fields.
+	 */
+	private static class RecordBuilder
+	{
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+				128);
+		private final DataOutputStream out = new DataOutputStream(bytes);
+
+		void putByte(byte value) throws IOException
+		{
+			out.writeByte(value);
+		}
+
+		void putInt(int value) throws IOException
+		{
+			out.writeInt(value);
+		}
+
+		void putDouble(double value) throws IOException
+		{
+			out.writeDouble(value);
+		}
+
+		// Null strings are stored as empty strings
+		void putString(String value) throws IOException
+		{
+			byte[] encoded = (value == null ? "" : value)
+					.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(encoded.length);
+			out.write(encoded);
+		}
+
+		byte[] toBytes()
+		{
+			return bytes.toByteArray();
+		}
+	}
+}
@@ -139,7 +139,7 @@ public class LoginDashboard extends Application
 				// If it's a Customer, then we downcast it.
 				Customer customer = (Customer) loggedInUser;
 
-				System.out.println(
+				AppLogger.info(
 						"Successfully logged in as: " + customer.getUsername());
 
 				// Create new CustomerDashboard instance
@@ -153,7 +153,7 @@ public class LoginDashboard extends Application
 			else
 			{
 				// Error if there are other User type not handled
-				System.err.println("Unrecognized User type logged in.");
+				AppLogger.error("Unrecognized User type logged in.");
 			}
 
 		}
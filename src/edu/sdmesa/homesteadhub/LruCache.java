@@ -0,0 +1,271 @@
+package edu.sdmesa.homesteadhub;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of LruCache is to keep recently used values in
+ *          memory up to a total weight, such as decoded image bytes.
+ *
+ *          Values are held strongly in access order. When the total weight
+ *          passes the limit, the least recently used values are evicted to
+ *          soft references instead of being dropped. The garbage collector
+ *          clears those only when memory runs low, so a value evicted under
+ *          a small limit can still come back without being loaded again.
+ *          Cleared soft references are purged as the cache is used. All
+ *          methods are synchronized; loaders should be quick or start their
+ *          work asynchronously, since they run while the cache is locked.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class LruCache<K, V>
+{
+	private final long maxWeight;
+	private final ToLongFunction<V> weigher;
+
+	// Access order: iteration starts at the least recently used entry
+	private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f,
+			true);
+	private final Map<K, SoftEntry<K, V>> evicted = new HashMap<>();
+	private final ReferenceQueue<V> cleared = new ReferenceQueue<>();
+	private long weight;
+
+	private long hits;
+	private long softHits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Purpose: Constructor that sets the weight limit
+	 *
+	 * @param maxWeight Total weight of values held strongly
+	 * @param weigher   Weight of one value, e.g. its decoded bytes
+	 */
+	public LruCache(long maxWeight, ToLongFunction<V> weigher)
+	{
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+	}
+
+	/**
+	 * Purpose: Returns the value for a key, loading and caching it on a
+	 * miss.
+	 *
+	 * @param key    Key to look up
+	 * @param loader Loads the value on a miss; may return null
+	 * @return value Cached or loaded value; null if the loader returned null
+	 */
+	public synchronized V get(K key, Function<K, V> loader)
+	{
+		purgeCleared();
+		V value = entries.get(key);
+		if (value != null)
+		{
+			hits++;
+			return value;
+		}
+
+		SoftEntry<K, V> soft = evicted.remove(key);
+		value = soft != null ? soft.get() : null;
+		if (value != null)
+		{
+			softHits++;
+		}
+		else
+		{
+			misses++;
+			value = loader.apply(key);
+			if (value == null)
+			{
+				return null;
+			}
+		}
+		put(key, value);
+		return value;
+	}
+
+	/**
+	 * Purpose: Returns a cached value without loading it.
+	 *
+	 * @param key Key to look up
+	 * @return value Cached value; null if absent or cleared
+	 */
+	public synchronized V getIfPresent(K key)
+	{
+		V value = entries.get(key);
+		if (value == null)
+		{
+			SoftEntry<K, V> soft = evicted.get(key);
+			value = soft != null ? soft.get() : null;
+		}
+		return value;
+	}
+
+	/**
+	 * Purpose: Caches a value as the most recently used, evicting older
+	 * values past the weight limit.
+	 *
+	 * @param key   Key to cache under
+	 * @param value Value to cache
+	 */
+	public synchronized void put(K key, V value)
+	{
+		purgeCleared();
+		evicted.remove(key);
+		V previous = entries.put(key, value);
+		if (previous != null)
+		{
+			weight -= weigher.applyAsLong(previous);
+		}
+		weight += weigher.applyAsLong(value);
+
+		// Least recently used first; a value heavier than the whole limit
+		// ends up soft as well
+		Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+		while (weight > maxWeight && eldest.hasNext())
+		{
+			Map.Entry<K, V> entry = eldest.next();
+			eldest.remove();
+			weight -= weigher.applyAsLong(entry.getValue());
+			evicted.put(entry.getKey(),
+					new SoftEntry<>(entry.getKey(), entry.getValue(), cleared));
+			evictions++;
+		}
+	}
+
+	/**
+	 * Purpose: Drops a key, e.g. when its value failed to load.
+	 *
+	 * @param key Key to drop
+	 */
+	public synchronized void remove(K key)
+	{
+		V value = entries.remove(key);
+		if (value != null)
+		{
+			weight -= weigher.applyAsLong(value);
+		}
+		evicted.remove(key);
+	}
+
+	/**
+	 * Purpose: Drops every value.
+	 */
+	public synchronized void clear()
+	{
+		entries.clear();
+		evicted.clear();
+		weight = 0;
+	}
+
+	/**
+	 * Purpose: Getter - Returns the total weight of values held strongly
+	 *
+	 * @return weight Current weight
+	 */
+	public synchronized long getWeight()
+	{
+		return weight;
+	}
+
+	/**
+	 * Purpose: Getter - Returns the number of values held strongly
+	 *
+	 * @return size Entries in the LRU map
+	 */
+	public synchronized int size()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Purpose: Formats hit, miss and eviction counts.
+	 *
+	 * @return stats e.g. "hits=10 softHits=2 misses=3 evictions=4 ..."
+	 */
+	public synchronized String getStats()
+	{
+		return String.format(
+				"hits=%d softHits=%d misses=%d evictions=%d size=%d weight=%d/%d",
+				hits, softHits, misses, evictions, entries.size(), weight,
+				maxWeight);
+	}
+
+	/**
+	 * Purpose: Getter - Returns lookups answered from the LRU map
+	 *
+	 * @return hits Strong hits
+	 */
+	public synchronized long getHits()
+	{
+		return hits;
+	}
+
+	/**
+	 * Purpose: Getter - Returns lookups answered from an evicted soft
+	 * reference
+	 *
+	 * @return softHits Soft hits
+	 */
+	public synchronized long getSoftHits()
+	{
+		return softHits;
+	}
+
+	/**
+	 * Purpose: Getter - Returns lookups that called the loader
+	 *
+	 * @return misses Misses
+	 */
+	public synchronized long getMisses()
+	{
+		return misses;
+	}
+
+	/**
+	 * Purpose: Removes evicted keys whose values the collector has cleared.
+	 */
+	private void purgeCleared()
+	{
+		Reference<? extends V> reference;
+		while ((reference = cleared.poll()) != null)
+		{
+			SoftEntry<?, ?> soft = (SoftEntry<?, ?>) reference;
+			// The key may have been cached again since
+			evicted.remove(soft.key, soft);
+		}
+	}
+
+	/**
+	 * Purpose: Soft reference that remembers its key, so it can be removed
+	 * from the evicted map once cleared.
+	 */
+	private static final class SoftEntry<K, V> extends SoftReference<V>
+	{
+		private final K key;
+
+		SoftEntry(K key, V value, ReferenceQueue<V> queue)
+		{
+			super(value, queue);
+			this.key = key;
+		}
+	}
+}
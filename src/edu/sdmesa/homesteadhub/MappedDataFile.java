@@ -0,0 +1,241 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of MappedDataFile is to read one data file
+ *          through a read-only memory mapping instead of a Reader.
+ *
+ *          Mapped bytes are copied out in 64 KB windows and scanned for
+ *          newlines, with no charset decoder in the way, and only lines that
+ *          are returned are decoded into Strings. A filtered read compares
+ *          one field's bytes in place, so lines for other keys are never
+ *          decoded. The file is remapped when its size changes or
+ *          when it is replaced (e.g. by DataCompactor). In-place stock writes
+ *          are seen through the existing mapping.
+ */
+public class MappedDataFile
+{
+	// Bytes copied from the mapping at a time
+	private static final int WINDOW_BYTES = 64 * 1024;
+
+	private final Path file;
+
+	private MappedByteBuffer mapping;
+	private long mappedSize = -1;
+	private Object mappedFileKey;
+
+	/**
+	 * Purpose: Constructor to read a data file through a mapping
+	 *
+	 * @param file Data file to map
+	 */
+	public MappedDataFile(Path file)
+	{
+		this.file = file;
+	}
+
+	/**
+	 * Purpose: Streams every line of the file.
+	 *
+	 * @return Stream of lines without newlines
+	 * @throws IOException If the file cannot be mapped
+	 */
+	public Stream<String> lines() throws IOException
+	{
+		return lines(-1, null);
+	}
+
+	/**
+	 * Purpose: Streams the lines whose comma-separated field equals a value.
+	 * Other lines are skipped without being decoded.
+	 *
+	 * @param field Field index to compare; -1 returns every line
+	 * @param value Value the field must equal
+	 * @return Stream of matching lines without newlines
+	 * @throws IOException If the file cannot be mapped
+	 */
+	public Stream<String> lines(int field, String value) throws IOException
+	{
+		MappedByteBuffer buffer = currentMapping();
+		byte[] expected = value == null ? null
+				: value.getBytes(StandardCharsets.UTF_8);
+
+		Iterator<String> iterator = new Iterator<String>()
+		{
+			// Bytes copied out of the mapping in bulk, scanned as an array
+			private byte[] window = new byte[WINDOW_BYTES];
+			private long windowStart = 0; // File offset of window[0]
+			private int windowLength = 0; // Valid bytes in window
+			private int position = 0; // Next unread byte in window
+			private String next = advance();
+
+			@Override
+			public boolean hasNext()
+			{
+				return next != null;
+			}
+
+			@Override
+			public String next()
+			{
+				if (next == null) throw new NoSuchElementException();
+				String line = next;
+				next = advance();
+				return line;
+			}
+
+			/**
+			 * Purpose: Finds the next line that passes the field check.
+			 *
+			 * @return Decoded line; null at the end of the mapping
+			 */
+			private String advance()
+			{
+				while (true)
+				{
+					int end = position;
+					while (end < windowLength && window[end] != '\n')
+					{
+						end++;
+					}
+
+					boolean atEof = windowStart
+							+ windowLength >= buffer.limit();
+					if (end == windowLength && !atEof)
+					{
+						// The line continues past the window
+						refill();
+						continue;
+					}
+					if (position == windowLength) return null;
+
+					int start = position;
+					position = Math.min(end + 1, windowLength);
+					if (expected == null
+							|| fieldEquals(window, start, end, field, expected))
+					{
+						return new String(window, start, end - start,
+								StandardCharsets.UTF_8);
+					}
+				}
+			}
+
+			/**
+			 * Purpose: Keeps the unread bytes and copies the next bytes of
+			 * the mapping after them, growing the window for long lines.
+			 */
+			private void refill()
+			{
+				int remaining = windowLength - position;
+				if (remaining == window.length)
+				{
+					window = Arrays.copyOf(window, window.length * 2);
+				}
+				System.arraycopy(window, position, window, 0, remaining);
+				windowStart += position;
+				position = 0;
+
+				int offset = (int) (windowStart + remaining);
+				int count = Math.min(window.length - remaining,
+						buffer.limit() - offset);
+				buffer.get(offset, window, remaining, count);
+				windowLength = remaining + count;
+			}
+		};
+
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(iterator,
+						Spliterator.ORDERED | Spliterator.NONNULL),
+				false);
+	}
+
+	/**
+	 * Purpose: Returns a view of the mapping, remapping first if the file
+	 * grew, shrank or was replaced since the last read.
+	 *
+	 * @return Independent view of the mapped bytes
+	 * @throws IOException If the file cannot be mapped
+	 */
+	private synchronized MappedByteBuffer currentMapping() throws IOException
+	{
+		BasicFileAttributes attributes = Files.readAttributes(file,
+				BasicFileAttributes.class);
+		long size = attributes.size();
+		if (size > Integer.MAX_VALUE)
+		{
+			throw new IOException(file + " is too large to map");
+		}
+
+		if (mapping == null || size != mappedSize
+				|| !Objects.equals(attributes.fileKey(), mappedFileKey))
+		{
+			try (FileChannel channel = FileChannel.open(file,
+					StandardOpenOption.READ))
+			{
+				// The mapping stays valid after the channel is closed
+				mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			mappedSize = size;
+			mappedFileKey = attributes.fileKey();
+		}
+		// Each reader gets its own position and limit
+		return mapping.duplicate();
+	}
+
+	/**
+	 * Purpose: Compares one field of a line with expected bytes in place.
+	 *
+	 * @param bytes    Bytes holding the line
+	 * @param start    First byte of the line
+	 * @param end      End of the line, exclusive
+	 * @param field    Field index
+	 * @param expected Bytes the field must equal
+	 * @return True if the field matches
+	 */
+	private static boolean fieldEquals(byte[] bytes, int start, int end,
+			int field, byte[] expected)
+	{
+		int fieldStart = start;
+		for (int skipped = 0; skipped < field; skipped++)
+		{
+			while (fieldStart < end && bytes[fieldStart] != ',')
+			{
+				fieldStart++;
+			}
+			if (fieldStart == end) return false;
+			fieldStart++;
+		}
+
+		int fieldEnd = fieldStart + expected.length;
+		if (fieldEnd > end) return false;
+		if (fieldEnd < end && bytes[fieldEnd] != ',') return false;
+		return Arrays.equals(bytes, fieldStart, fieldEnd, expected, 0,
+				expected.length);
+	}
+}
@@ -0,0 +1,186 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of MetricsRegistry is to hold the application's
+ *          named counters and latency timers and report them.
+ *
+ *          Counters are LongAdders, which stripe contended increments across
+ *          cells instead of retrying one CAS. Timers are LatencyHistograms.
+ *          Both are created on first use and then found with a map read, so
+ *          hot paths look them up by name on every call without allocating.
+ *          Classes that record metrics take a registry in their constructor,
+ *          and startDump writes its report to a file on a schedule. The
+ *          application registry is getDefault(); it is a plain static, so
+ *          using it does not start AppInitializer's services.
+ */
+public class MetricsRegistry
+{
+	// Registry the application records into unless given another
+	private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+	private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+	private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService dumper;
+
+	/**
+	 * Purpose: Getter - Returns the application registry
+	 *
+	 * @return DEFAULT Registry shared by the whole application
+	 */
+	public static MetricsRegistry getDefault()
+	{
+		return DEFAULT;
+	}
+
+	/**
+	 * Purpose: Returns the counter with a name, creating it on first use.
+	 *
+	 * @param name Counter name, e.g. "payment.declined"
+	 * @return counter Counter to increment
+	 */
+	public LongAdder counter(String name)
+	{
+		LongAdder counter = counters.get(name);
+		return counter != null ? counter
+				: counters.computeIfAbsent(name, key -> new LongAdder());
+	}
+
+	/**
+	 * Purpose: Returns the timer with a name, creating it on first use.
+	 *
+	 * @param name Timer name, e.g. "repository.findAllProducts"
+	 * @return timer Histogram to record latencies in
+	 */
+	public LatencyHistogram timer(String name)
+	{
+		LatencyHistogram timer = timers.get(name);
+		return timer != null ? timer
+				: timers.computeIfAbsent(name, key -> new LatencyHistogram());
+	}
+
+	/**
+	 * Purpose: Returns every counter's current value, sorted by name.
+	 *
+	 * @return counters Name -> value
+	 */
+	public Map<String, Long> counterSnapshot()
+	{
+		Map<String, Long> snapshot = new TreeMap<>();
+		counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+		return snapshot;
+	}
+
+	/**
+	 * Purpose: Returns a summary of every timer, sorted by name.
+	 *
+	 * @return timers Name -> summary
+	 */
+	public Map<String, LatencyHistogram.Snapshot> timerSnapshot()
+	{
+		Map<String, LatencyHistogram.Snapshot> snapshot = new TreeMap<>();
+		timers.forEach((name, timer) -> snapshot.put(name, timer.snapshot()));
+		return snapshot;
+	}
+
+	/**
+	 * Purpose: Formats every counter and timer, one per line.
+	 *
+	 * @return report Readable report
+	 */
+	public String report()
+	{
+		StringBuilder report = new StringBuilder();
+		report.append("# Metrics at ").append(LocalDateTime.now())
+				.append(System.lineSeparator());
+		counterSnapshot().forEach((name, value) -> report
+				.append(String.format("%-40s %,d%n", name, value)));
+		timerSnapshot().forEach((name, summary) -> report
+				.append(String.format("%-40s %s%n", name, summary)));
+		return report.toString();
+	}
+
+	/**
+	 * Purpose: Clears every counter and timer, e.g. between load test runs.
+	 */
+	public void reset()
+	{
+		counters.values().forEach(LongAdder::reset);
+		timers.values().forEach(LatencyHistogram::reset);
+	}
+
+	/**
+	 * Purpose: Writes the report to a file now and then every period, on a
+	 * daemon thread. Replaces any dump already running.
+	 *
+	 * @param file   File to overwrite with each report
+	 * @param period Time between reports
+	 * @param unit   Unit of period
+	 */
+	public synchronized void startDump(Path file, long period, TimeUnit unit)
+	{
+		stopDump();
+		dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "metrics-dump");
+			thread.setDaemon(true);
+			return thread;
+		});
+		dumper.scheduleAtFixedRate(() -> dump(file), 0, period, unit);
+	}
+
+	/**
+	 * Purpose: Stops the periodic dump, if one is running.
+	 */
+	public synchronized void stopDump()
+	{
+		if (dumper != null)
+		{
+			dumper.shutdownNow();
+			dumper = null;
+		}
+	}
+
+	/**
+	 * Purpose: Writes the report to a file. Writes a temporary file first so
+	 * readers never see half a report.
+	 *
+	 * @param file File to overwrite
+	 */
+	public void dump(Path file)
+	{
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try
+		{
+			Files.write(temp, report().getBytes(StandardCharsets.UTF_8));
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error writing metrics: " + e.getMessage());
+		}
+	}
+}
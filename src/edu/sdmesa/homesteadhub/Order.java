@@ -3,7 +3,9 @@ package edu.sdmesa.homesteadhub;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Lead Author(s):
@@ -33,6 +35,12 @@ public class Order
 	private final List<LineItem> items;
 	private String status; // Set with "PENDING_PICKUP", "SHIPPED", "CANCELLED"
 
+	// Completes once the order and its line items are durable on disk
+	private CompletableFuture<Order> saved;
+
+	// Checkout stage name -> milliseconds spent, in stage order
+	private Map<String, Long> checkoutStageMillis;
+
 	/**
 	 * Constructor for Order. DESERIALIZATION CONSTRUCTOR
 	 * 
@@ -218,4 +226,49 @@ public class Order
 		this.orderDate = orderDate;
 	}
 
+	/**
+	 * Purpose: Getter - Returns the future that completes once this order and
+	 * its line items have been written to disk.
+	 * 
+	 * @return saved Save future; null if the order was never saved
+	 */
+	public CompletableFuture<Order> getSaved()
+	{
+		return this.saved;
+	}
+
+	/**
+	 * Purpose: Setter - Stores the future returned by the repository when the
+	 * order was saved.
+	 * 
+	 * @param saved Save future from DataRepository.saveOrderWithItems
+	 */
+	public void setSaved(CompletableFuture<Order> saved)
+	{
+		this.saved = saved;
+	}
+
+	/**
+	 * Purpose: Getter - Returns how long each checkout stage took for this
+	 * order.
+	 * 
+	 * @return checkoutStageMillis Stage name -> milliseconds, in stage order;
+	 *         null if not recorded
+	 */
+	public Map<String, Long> getCheckoutStageMillis()
+	{
+		return this.checkoutStageMillis;
+	}
+
+	/**
+	 * Purpose: Setter - Stores the checkout stage latencies recorded by
+	 * OrderManager.
+	 * 
+	 * @param checkoutStageMillis Stage name -> milliseconds
+	 */
+	public void setCheckoutStageMillis(Map<String, Long> checkoutStageMillis)
+	{
+		this.checkoutStageMillis = checkoutStageMillis;
+	}
+
 }
@@ -1,128 +1,541 @@
 package edu.sdmesa.homesteadhub;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Lead Author(s):
- * 
+ *
  * @author Joshua Lopez
  *
  *         References:
  *         All detailed citations are located in the central REFERENCES.md
  *         file at the project root.
- * 
+ *
  * @version 2025-12-18
- * 
+ *
  * @Purpose Manages the business logic for placing an order,
  *          coordinating inventory management and payment processing.
+ *
+ *          Checkout runs as five stages: validate, reserve, pay, persist and
+ *          clear cart. placeOrder runs them in turn on the caller's thread.
+ *          placeOrderAsync chains them as a CompletableFuture pipeline. The
+ *          cart is read and cleared on the caller's cart executor (the
+ *          JavaFX thread in the GUI). Reserving runs on the common pool, and
+ *          paying and persisting run on a separate pool that may block. Each
+ *          stage's latency is recorded on the order and in the metrics
+ *          registry, along with payment latency and checkout outcomes.
+ *
+ *          The persist stage waits for the order and its line items to be
+ *          durable before it commits the reservation and writes the stock
+ *          changes. If the order cannot be saved, the reserved stock is
+ *          released, the order is marked FAILED and checkout fails, so no
+ *          stock is taken for an order that was never recorded.
  */
 public class OrderManager
 {
+	// Stage names, in pipeline order
+	private static final String VALIDATE = "validate";
+	private static final String RESERVE = "reserve";
+	private static final String PAY = "pay";
+	private static final String PERSIST = "persist";
+	private static final String CLEAR_CART = "clearCart";
+
+	// Metrics timer for each stage, looked up without building a name
+	private static final Map<String, String> STAGE_TIMERS = Map.of(VALIDATE,
+			"checkout.validate", RESERVE, "checkout.reserve", PAY,
+			"checkout.pay", PERSIST, "checkout.persist", CLEAR_CART,
+			"checkout.clearCart");
+
+	// Payment calls and file writes may block, so they get their own threads
+	private static final ExecutorService BLOCKING_EXECUTOR = Executors
+			.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "checkout-io");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	// Status of an order that was paid for but could not be saved
+	static final String SAVE_FAILED_STATUS = "FAILED";
+
 	private final InventoryManager inventoryManager;
 	private final PaymentProcessor paymentProcessor;
+	private final MetricsRegistry metrics;
+	// Where orders are saved; null uses the application repository
+	private final DataRepository repository;
 
 	/**
 	 * Constructor that accepts dependencies via Dependency Injection.
-	 * 
+	 * Metrics are recorded in the application registry.
+	 *
 	 * @param inventoryManager The manager responsible for product stock.
 	 * @param paymentProcessor The handler for transaction processing.
 	 */
 	public OrderManager(InventoryManager inventoryManager,
 			PaymentProcessor paymentProcessor)
+	{
+		this(inventoryManager, paymentProcessor, MetricsRegistry.getDefault());
+	}
+
+	/**
+	 * Constructor that accepts dependencies via Dependency Injection.
+	 *
+	 * @param inventoryManager The manager responsible for product stock.
+	 * @param paymentProcessor The handler for transaction processing.
+	 * @param metrics          Registry for stage and payment metrics.
+	 */
+	public OrderManager(InventoryManager inventoryManager,
+			PaymentProcessor paymentProcessor, MetricsRegistry metrics)
+	{
+		this(inventoryManager, paymentProcessor, metrics, null);
+	}
+
+	/**
+	 * Constructor that accepts dependencies via Dependency Injection,
+	 * including the repository orders are saved to.
+	 *
+	 * @param inventoryManager The manager responsible for product stock.
+	 * @param paymentProcessor The handler for transaction processing.
+	 * @param metrics          Registry for stage and payment metrics.
+	 * @param repository       Where orders and stock changes are saved; null
+	 *                         uses AppInitializer's repository.
+	 */
+	public OrderManager(InventoryManager inventoryManager,
+			PaymentProcessor paymentProcessor, MetricsRegistry metrics,
+			DataRepository repository)
 	{
 		this.inventoryManager = inventoryManager;
 		this.paymentProcessor = paymentProcessor;
-		System.out.println(
+		this.metrics = metrics;
+		this.repository = repository;
+		AppLogger.info(
 				"OrderManager initialized with InventoryManager and PaymentProcessor.");
 	}
 
 	/**
 	 * Manages the order by validating and attempting to update inventory.
-	 * 
+	 * Stock for the whole cart is reserved first and released again if the
+	 * payment fails.
+	 *
 	 * @param customer      The customer placing the order.
 	 * @param cart          The Cart containing the items and quantities.
 	 * @param paymentDetail The payment method details.
 	 * @return The finalized Order object.
 	 * @throws InsufficientStockException If any item in the cart is out of
 	 *                                    stock.
+	 * @throws CompletionException        If the paid order could not be
+	 *                                    saved; its stock is released.
 	 */
 	public Order placeOrder(Customer customer, Cart cart,
 			PaymentDetail paymentDetail) throws InsufficientStockException
 	{
-		// Calculate totals and prepare data
-		double subtotal = cart.calculateSubtotal();
-		Map<String, LineItem> items = cart.getItemMap();
+		Checkout checkout = new Checkout(customer, cart, paymentDetail, metrics);
 
-		System.out.printf(
-				"\nORDER MANAGER: Starting order process for %s (Total: $%.2f).%n",
-				customer.getUsername(), subtotal);
+		long start = System.nanoTime();
+		validate(checkout);
+		start = checkout.lap(VALIDATE, start);
 
-		// Validate and reduce inventory for all items
+		reserve(checkout);
+		start = checkout.lap(RESERVE, start);
+
+		pay(checkout);
+		start = checkout.lap(PAY, start);
+		if (!checkout.isPaid())
+		{
+			return checkout.order;
+		}
+
+		persist(checkout);
+		start = checkout.lap(PERSIST, start);
 
-		System.out.println("ORDER MANAGER: Checking and updating inventory...");
+		clearCart(checkout);
+		checkout.lap(CLEAR_CART, start);
 
-		for (LineItem item : items.values())
+		printStageTimes(checkout);
+		// Returns the order object if successful
+		return checkout.order;
+	}
+
+	/**
+	 * Purpose: Places an order without blocking the caller. Stages run on
+	 * their own executors and the returned future completes on the cart
+	 * executor once the order is durable and the cart is cleared.
+	 *
+	 * @param customer      The customer placing the order.
+	 * @param cart          The Cart containing the items and quantities.
+	 * @param paymentDetail The payment method details.
+	 * @param cartExecutor  Executor that owns the cart, e.g.
+	 *                      Platform::runLater
+	 * @return Future of the finalized Order. Fails with
+	 *         InsufficientStockException if any item is out of stock.
+	 */
+	public CompletableFuture<Order> placeOrderAsync(Customer customer,
+			Cart cart, PaymentDetail paymentDetail, Executor cartExecutor)
+	{
+		Checkout checkout = new Checkout(customer, cart, paymentDetail, metrics);
+
+		return CompletableFuture
+				.supplyAsync(() -> timed(checkout, VALIDATE, () -> {
+					validate(checkout);
+				}), cartExecutor)
+				.thenApplyAsync(ignored -> timed(checkout, RESERVE, () -> {
+					reserve(checkout);
+				}), ForkJoinPool.commonPool())
+				.thenApplyAsync(ignored -> timed(checkout, PAY, () -> {
+					pay(checkout);
+				}), BLOCKING_EXECUTOR)
+				.thenComposeAsync(ignored -> {
+					if (!checkout.isPaid())
+					{
+						return CompletableFuture.completedFuture(checkout);
+					}
+					long start = System.nanoTime();
+					queueSave(checkout);
+					// Stock is committed only once the group commit is durable
+					return checkout.order.getSaved()
+							.handleAsync((saved, error) -> {
+								if (error != null)
+								{
+									rollBack(checkout, error);
+									throw error instanceof CompletionException
+											? (CompletionException) error
+											: new CompletionException(error);
+								}
+								commit(checkout);
+								checkout.lap(PERSIST, start);
+								return checkout;
+							}, BLOCKING_EXECUTOR);
+				}, BLOCKING_EXECUTOR)
+				.thenApplyAsync(ignored -> {
+					if (checkout.isPaid())
+					{
+						timed(checkout, CLEAR_CART, () -> {
+							clearCart(checkout);
+						});
+						printStageTimes(checkout);
+					}
+					return checkout.order;
+				}, cartExecutor);
+	}
+
+	/**
+	 * Purpose: Validate stage - copies the cart's items and totals them.
+	 *
+	 * @param checkout Checkout in progress
+	 */
+	private void validate(Checkout checkout)
+	{
+		Cart cart = checkout.cart;
+		if (cart.getItemMap().isEmpty())
 		{
-			// Check stock before attempting to adjust by comparing stock
-			// quanity with items in the cart
-			Product product = inventoryManager.getProduct(item.getSku());
+			throw new IllegalStateException("Cannot place an empty order");
+		}
 
-			// Check if product exists or if there's enough product stock for
-			// requested quantity in cart
-			if (product == null
-					|| product.getStockQuantity() < item.getQuantity())
-			{
-				throw new InsufficientStockException(
-						"Insufficient stock for SKU: " + item.getSku()
-								+ ". Requested: " + item.getQuantity()
-								+ ", Available: "
-								+ (product != null ? product.getStockQuantity()
-										: 0));
-			}
+		// Calculate totals and prepare data
+		checkout.items = List.copyOf(cart.getItemMap().values());
+		checkout.subtotal = cart.calculateSubtotal();
 
-			// If successful, reduce the stock
-			inventoryManager.adjustStock(item.getSku(), item.getQuantity());
+		AppLogger.debug(
+				"\nORDER MANAGER: Starting order process for %s (Total: $%.2f).",
+				checkout.customer.getUsername(), checkout.subtotal);
+	}
+
+	/**
+	 * Purpose: Reserve stage - reserves every item or none.
+	 *
+	 * @param checkout Checkout in progress
+	 * @throws InsufficientStockException If any item is out of stock
+	 */
+	private void reserve(Checkout checkout) throws InsufficientStockException
+	{
+		// Validate and reduce inventory for all items
+
+		AppLogger.debug("ORDER MANAGER: Checking and updating inventory...");
+
+		// Reserves every item or none, taking the stock check and the
+		// decrement in one atomic step so two customers cannot both pass the
+		// check for the last units
+		// Units the cart already holds (timed cart holds) count toward it
+		StockHoldManager stockHolds = checkout.cart.getStockHolds();
+		try
+		{
+			checkout.reservation = inventoryManager.reserveAll(checkout.items,
+					stockHolds != null ? stockHolds.claim(checkout.cart)
+							: Map.of());
+		}
+		catch (InsufficientStockException e)
+		{
+			metrics.counter("checkout.outOfStock").increment();
+			throw e;
 		}
 
-		System.out.println("ORDER MANAGER: Inventory update successful.");
+		AppLogger.debug("ORDER MANAGER: Inventory update successful.");
+	}
 
+	/**
+	 * Purpose: Pay stage - processes the payment and creates the order. The
+	 * reservation is released if the payment does not succeed.
+	 *
+	 * @param checkout Checkout in progress
+	 */
+	private void pay(Checkout checkout)
+	{
 		// Process Payment
-		System.out.println("ORDER MANAGER: Processing payment via "
-				+ paymentDetail.getPaymentMethod().getPaymentType() + "...");
+		AppLogger.debug("ORDER MANAGER: Processing payment via %s...",
+				checkout.paymentDetail.getPaymentMethod().getPaymentType());
 
 		// paymentProcessor is defined in the constructor. It is passed in when
 		// called.
-		PaymentResult result = paymentProcessor.processTransaction(subtotal,
-				paymentDetail);
+		PaymentResult result;
+		long start = System.nanoTime();
+		try
+		{
+			result = paymentProcessor.processTransaction(checkout.subtotal,
+					checkout.paymentDetail);
+		}
+		catch (RuntimeException e)
+		{
+			metrics.counter("payment.error").increment();
+			inventoryManager.releaseAll(checkout.reservation);
+			throw e;
+		}
+		finally
+		{
+			metrics.timer("payment.processTransaction").recordSince(start);
+		}
 
-		System.out.println(
-				"ORDER MANAGER: Payment result: " + result.getStatus());
+		AppLogger.debug("ORDER MANAGER: Payment result: %s",
+				result.getStatus());
 
 		// Create and return the final Order
-		// Convert map values to list
-		Order newOrder = new Order(customer, List.copyOf(items.values()),
-				subtotal, customer.getShippingAddress(), result);
+		Customer customer = checkout.customer;
+		checkout.order = new Order(customer, checkout.items, checkout.subtotal,
+				customer.getShippingAddress(), result);
+		checkout.order.setCheckoutStageMillis(checkout.stageMillis);
+
+		metrics.counter(checkout.isPaid() ? "payment.success"
+				: "payment.declined").increment();
+		if (!checkout.isPaid())
+		{
+			// Puts the stock back; the order is not saved and the cart is
+			// kept so the customer can try again
+			inventoryManager.releaseAll(checkout.reservation);
+			AppLogger.info(
+					"ORDER MANAGER: Payment failed. Reserved stock released.");
+		}
+	}
+
+	/**
+	 * Purpose: Persist stage - saves the order and its line items, waits for
+	 * them to be durable, then commits the reservation and writes the stock
+	 * changes.
+	 *
+	 * @param checkout Checkout in progress
+	 * @throws CompletionException If the order could not be saved; the
+	 *                             reservation is released first
+	 */
+	private void persist(Checkout checkout)
+	{
+		queueSave(checkout);
+		try
+		{
+			checkout.order.getSaved().join();
+		}
+		catch (CompletionException | CancellationException e)
+		{
+			rollBack(checkout, e);
+			throw e;
+		}
+		commit(checkout);
+	}
+
+	/**
+	 * Purpose: Queues the order and its line items as one group-commit
+	 * write. The future on the order completes once they are durable.
+	 *
+	 * @param checkout Checkout in progress
+	 */
+	private void queueSave(Checkout checkout)
+	{
+		Order newOrder = checkout.order;
+		newOrder.setSaved(repository().saveOrderWithItems(newOrder));
+		AppLogger.debug("ORDER MANAGER: Order queued for saving");
+	}
+
+	/**
+	 * Purpose: Commits the reservation of a saved order and writes its stock
+	 * changes.
+	 *
+	 * @param checkout Checkout whose order is durable
+	 */
+	private void commit(Checkout checkout)
+	{
+		inventoryManager.commitAll(checkout.reservation);
 
-		// Saves order to repository
-		AppInitializer.getRepository().saveOrder(newOrder);
+		Order newOrder = checkout.order;
 		for (LineItem item : newOrder.getItems())
 		{
-			AppInitializer.getRepository().saveLineItem(newOrder, item);
+			// Persists the stock change in place instead of re-saving product
+			repository().updateStock(item.getSku(), -item.getQuantity());
 		}
 
-		System.out.println("ORDER MANAGER: Order saved");
+		metrics.counter("checkout.orders").increment();
 
-		System.out.printf(
-				"ORDER MANAGER: Order %s placed successfully. Status: %s.%n",
+		AppLogger.info(
+				"ORDER MANAGER: Order %s placed successfully. Status: %s.",
 				newOrder.getOrderId(), newOrder.getStatus());
+	}
+
+	/**
+	 * Purpose: Undoes a paid checkout whose order could not be saved. The
+	 * reserved stock goes back and the order is marked FAILED; the cart is
+	 * kept so the customer can try again.
+	 *
+	 * @param checkout Checkout in progress
+	 * @param error    Why the save failed
+	 */
+	private void rollBack(Checkout checkout, Throwable error)
+	{
+		inventoryManager.releaseAll(checkout.reservation);
+		checkout.order.setStatus(SAVE_FAILED_STATUS);
+		metrics.counter("checkout.saveFailed").increment();
+		Throwable cause = error instanceof CompletionException
+				&& error.getCause() != null ? error.getCause() : error;
+		AppLogger.error("Error saving order " + checkout.order.getOrderId()
+				+ ", reserved stock released: " + cause.getMessage());
+	}
 
+	/**
+	 * Purpose: Returns the repository orders are saved to.
+	 *
+	 * @return repository Injected repository, or AppInitializer's
+	 */
+	private DataRepository repository()
+	{
+		return repository != null ? repository : AppInitializer.getRepository();
+	}
+
+	/**
+	 * Purpose: Clear cart stage - empties the customer's cart.
+	 *
+	 * @param checkout Checkout in progress
+	 */
+	private void clearCart(Checkout checkout)
+	{
 		// Clear the customer's cart after successful order placement
 
-		System.out.println("ORDER MANAGER: Clearing cart...");
-		customer.getCart().clearCart();
+		AppLogger.debug("ORDER MANAGER: Clearing cart...");
+		checkout.customer.getCart().clearCart();
+	}
 
-		// Returns the order object if successful
-		return newOrder;
+	/**
+	 * Purpose: Runs one stage and records its latency. Checked exceptions
+	 * are wrapped so they fail the pipeline.
+	 *
+	 * @param checkout Checkout in progress
+	 * @param stage    Stage name
+	 * @param body     Stage to run
+	 * @return checkout The same checkout, for the next stage
+	 */
+	private static Checkout timed(Checkout checkout, String stage,
+			Stage body)
+	{
+		long start = System.nanoTime();
+		try
+		{
+			body.run();
+		}
+		catch (InsufficientStockException e)
+		{
+			throw new CompletionException(e);
+		}
+		checkout.lap(stage, start);
+		return checkout;
+	}
+
+	/**
+	 * Purpose: Prints how long each stage of a checkout took.
+	 *
+	 * @param checkout Finished checkout
+	 */
+	private static void printStageTimes(Checkout checkout)
+	{
+		if (AppLogger.isDebugEnabled())
+		{
+			AppLogger.debug("ORDER MANAGER: Checkout stage times (ms): %s",
+					checkout.stageMillis.toString());
+		}
+	}
+
+	/**
+	 * Purpose: One checkout stage; may fail with InsufficientStockException.
+	 */
+	@FunctionalInterface
+	private interface Stage
+	{
+		void run() throws InsufficientStockException;
+	}
+
+	/**
+	 * Purpose: State handed from one checkout stage to the next.
+	 */
+	private static final class Checkout
+	{
+		private final Customer customer;
+		private final Cart cart;
+		private final PaymentDetail paymentDetail;
+		private final MetricsRegistry metrics;
+		// Stage name -> milliseconds; stages may finish on different threads
+		private final Map<String, Long> stageMillis = Collections
+				.synchronizedMap(new LinkedHashMap<>());
+
+		private List<LineItem> items;
+		private double subtotal;
+		private Map<String, Integer> reservation;
+		private Order order;
+
+		Checkout(Customer customer, Cart cart, PaymentDetail paymentDetail,
+				MetricsRegistry metrics)
+		{
+			this.customer = customer;
+			this.cart = cart;
+			this.paymentDetail = paymentDetail;
+			this.metrics = metrics;
+		}
+
+		/**
+		 * Purpose: Records a stage that started at start, on the order and in
+		 * the stage's metrics timer.
+		 *
+		 * @param stage Stage name
+		 * @param start System.nanoTime() when the stage started
+		 * @return now System.nanoTime() when the stage ended
+		 */
+		long lap(String stage, long start)
+		{
+			long now = System.nanoTime();
+			stageMillis.put(stage, (now - start) / 1_000_000);
+			metrics.timer(STAGE_TIMERS.get(stage)).record(now - start);
+			return now;
+		}
+
+		/**
+		 * Purpose: Checks whether the payment went through.
+		 *
+		 * @return True if the order was paid
+		 */
+		boolean isPaid()
+		{
+			return order != null && "SUCCESS".equals(order.getStatus());
+		}
 	}
 }
@@ -0,0 +1,323 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of ParallelDataLoader is to load the data files
+ *          at startup using every core.
+ *
+ *          Each file is split into byte ranges whose edges are moved to the
+ *          next newline, and the ranges are parsed with the Helper
+ *          deserializers as ForkJoin tasks. Results are joined back in file
+ *          order, so a newer record still supersedes an older one when they
+ *          are merged into the in-memory maps. Users are loaded first so the
+ *          login screen can be used while products and line items keep
+ *          loading in the background.
+ */
+public class ParallelDataLoader
+{
+	// Smallest byte range worth its own task
+	private static final int MIN_CHUNK_BYTES = 256 * 1024;
+
+	private final ForkJoinPool pool;
+	private final int chunkBytes;
+
+	private final Helper helper = new Helper();
+
+	// File name -> load time in milliseconds, in load order
+	private final Map<String, Long> loadTimes = Collections
+			.synchronizedMap(new LinkedHashMap<>());
+
+	/**
+	 * Purpose: Constructor to load on the common ForkJoin pool
+	 */
+	public ParallelDataLoader()
+	{
+		this(ForkJoinPool.commonPool(), MIN_CHUNK_BYTES);
+	}
+
+	/**
+	 * Purpose: Constructor to load on a given pool with a given chunk size
+	 *
+	 * @param pool       Pool that parses the chunks
+	 * @param chunkBytes Target size of each chunk in bytes
+	 */
+	public ParallelDataLoader(ForkJoinPool pool, int chunkBytes)
+	{
+		this.pool = pool;
+		this.chunkBytes = Math.max(1, chunkBytes);
+	}
+
+	/**
+	 * Purpose: Loads users into the cache right away, then loads products
+	 * and line items into the cache and the catalog in the background.
+	 *
+	 * @param cache     Cache whose indexes are filled
+	 * @param inventory Catalog to add stored products to
+	 * @return Future completed once products and line items are loaded
+	 */
+	public CompletableFuture<Void> loadInto(CachedDataSource cache,
+			InventoryManager inventory)
+	{
+		List<User> users = loadFile(FileDataSource.USERS_FILE,
+				helper::deserializeUser);
+		cache.preloadUsers(users);
+
+		// Products are stored with the farmer's username only
+		Map<String, Farmer> farmers = new HashMap<>();
+		for (User user : users)
+		{
+			if (user instanceof Farmer)
+			{
+				farmers.put(user.getUsername(), (Farmer) user);
+			}
+		}
+
+		return CompletableFuture.runAsync(() -> {
+			List<Product> products = loadFile(FileDataSource.PRODUCTS_FILE,
+					line -> {
+						Product product = helper.deserializeProduct(line);
+						if (product != null)
+						{
+							product.setFarmer(
+									farmers.get(product.getFarmerUsername()));
+						}
+						return product;
+					});
+			cache.preloadProducts(products);
+			inventory.addStoredProducts(products);
+
+			cache.preloadLineItems(loadFile(FileDataSource.LINE_ITEM_FILE,
+					helper::deserializeLineItem));
+		}, pool).exceptionally(e -> {
+			AppLogger.error("Error loading data files: " + e.getMessage());
+			return null;
+		});
+	}
+
+	/**
+	 * Purpose: Parses one data file in parallel chunks.
+	 *
+	 * @param fileName Data file to load
+	 * @param parser   Helper deserializer; null results are dropped
+	 * @return records Parsed records in file order
+	 */
+	public <T> List<T> loadFile(String fileName, Function<String, T> parser)
+	{
+		long start = System.nanoTime();
+		Path path = Paths.get(fileName);
+		List<T> records = new ArrayList<>();
+		int chunkCount = 0;
+
+		try
+		{
+			if (Files.exists(path))
+			{
+				List<long[]> chunks = chunk(path);
+				chunkCount = chunks.size();
+				if (!chunks.isEmpty())
+				{
+					records = pool.invoke(new ChunkTask<>(path, chunks, 0,
+							chunks.size(), parser));
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			AppLogger.error("Error loading " + fileName + ": "
+					+ e.getMessage());
+		}
+
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		loadTimes.put(fileName, millis);
+		AppLogger.info("PARALLELDATALOADER: Loaded " + records.size()
+				+ " records from " + fileName + " in " + millis + " ms ("
+				+ chunkCount + " chunks)");
+		return records;
+	}
+
+	/**
+	 * Purpose: Getter - Returns the load time of each file loaded so far
+	 *
+	 * @return Copy of file name -> milliseconds
+	 */
+	public Map<String, Long> getLoadTimes()
+	{
+		synchronized (loadTimes)
+		{
+			return new LinkedHashMap<>(loadTimes);
+		}
+	}
+
+	/**
+	 * Purpose: Splits a file into byte ranges that start and end on line
+	 * boundaries.
+	 *
+	 * @param path File to split
+	 * @return chunks {start, end} byte ranges in file order
+	 * @throws IOException If the file cannot be read
+	 */
+	private List<long[]> chunk(Path path) throws IOException
+	{
+		List<long[]> chunks = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(path,
+				StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			ByteBuffer probe = ByteBuffer.allocate(4096);
+			long start = 0;
+
+			while (start < size)
+			{
+				long end = Math.min(size, start + chunkBytes);
+
+				// Move the end past the next newline
+				while (end < size)
+				{
+					probe.clear();
+					int read = channel.read(probe, end);
+					if (read <= 0)
+					{
+						end = size;
+						break;
+					}
+					int newline = -1;
+					for (int i = 0; i < read; i++)
+					{
+						if (probe.get(i) == '\n')
+						{
+							newline = i;
+							break;
+						}
+					}
+					if (newline >= 0)
+					{
+						end += newline + 1;
+						break;
+					}
+					end += read;
+				}
+
+				chunks.add(new long[] { start, Math.min(end, size) });
+				start = end;
+			}
+		}
+		return chunks;
+	}
+
+	/**
+	 * Purpose: Parses a range of chunks, splitting the range in half until
+	 * one chunk is left.
+	 */
+	private static class ChunkTask<T> extends RecursiveTask<List<T>>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Path path;
+		private final List<long[]> chunks;
+		private final int from;
+		private final int to;
+		private final Function<String, T> parser;
+
+		ChunkTask(Path path, List<long[]> chunks, int from, int to,
+				Function<String, T> parser)
+		{
+			this.path = path;
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+			this.parser = parser;
+		}
+
+		@Override
+		protected List<T> compute()
+		{
+			if (to - from == 1)
+			{
+				return parseChunk(chunks.get(from));
+			}
+
+			int middle = (from + to) >>> 1;
+			ChunkTask<T> right = new ChunkTask<>(path, chunks, middle, to,
+					parser);
+			right.fork();
+			List<T> records = new ChunkTask<>(path, chunks, from, middle,
+					parser).compute();
+			// Left half first keeps file order
+			records.addAll(right.join());
+			return records;
+		}
+
+		/**
+		 * Purpose: Reads one chunk and parses each of its lines.
+		 *
+		 * @param chunk {start, end} byte range
+		 * @return records Parsed records in file order
+		 */
+		private List<T> parseChunk(long[] chunk)
+		{
+			List<T> records = new ArrayList<>();
+			byte[] bytes = new byte[(int) (chunk[1] - chunk[0])];
+
+			try (FileChannel channel = FileChannel.open(path,
+					StandardOpenOption.READ))
+			{
+				ByteBuffer buffer = ByteBuffer.wrap(bytes);
+				while (buffer.hasRemaining())
+				{
+					if (channel.read(buffer,
+							chunk[0] + buffer.position()) < 0) break;
+				}
+			}
+			catch (IOException e)
+			{
+				AppLogger.error("Error loading " + path + ": "
+						+ e.getMessage());
+				return records;
+			}
+
+			int lineStart = 0;
+			for (int i = 0; i <= bytes.length; i++)
+			{
+				if (i == bytes.length || bytes[i] == '\n')
+				{
+					if (i > lineStart)
+					{
+						T record = parser.apply(new String(bytes, lineStart,
+								i - lineStart, StandardCharsets.UTF_8));
+						if (record != null) records.add(record);
+					}
+					lineStart = i + 1;
+				}
+			}
+			return records;
+		}
+	}
+}
@@ -35,7 +35,7 @@ public class PaymentList
 	public void registerProcessor(String method, PaymentProcessor processor)
 	{
 		this.processors.put(method, processor);
-		System.out.println("Processor registered: " + method);
+		AppLogger.info("Processor registered: " + method);
 	}
 
 	/**
@@ -25,15 +25,32 @@ public class PortalManager
 
 	private final DataRepository dataRepository;
 
+	// Records login latency and outcomes
+	private final MetricsRegistry metrics;
+
 	/**
 	 * Initializes the PortalManager by injecting the data repository
-	 * and loading all user data into the roster.
+	 * and loading all user data into the roster. Login metrics are
+	 * recorded in the application registry.
 	 * 
 	 * @param dataRepository The source of user data.
 	 */
 	public PortalManager(DataRepository dataRepository)
+	{
+		this(dataRepository, MetricsRegistry.getDefault());
+	}
+
+	/**
+	 * Initializes the PortalManager with the data repository and the
+	 * registry that login metrics are recorded in.
+	 * 
+	 * @param dataRepository The source of user data.
+	 * @param metrics        Registry for login metrics.
+	 */
+	public PortalManager(DataRepository dataRepository, MetricsRegistry metrics)
 	{
 		this.dataRepository = dataRepository;
+		this.metrics = metrics;
 		// Initializes the user roster map
 		userRoster = new HashMap<>();
 		loadAllUsers();
@@ -55,7 +72,7 @@ public class PortalManager
 			// Store user by their username
 			userRoster.put(user.getUsername(), user);
 		}
-		System.out.println("PortalManager initialized. Loaded "
+		AppLogger.info("PortalManager initialized. Loaded "
 				+ allUsers.size() + " user accounts.");
 	}
 
@@ -74,24 +91,34 @@ public class PortalManager
 	public User login(String username, String password)
 			throws UserNotFoundException, InvalidCredentialsException
 	{
-		// Searches for our user in our userRoster (user database)
-		User user = userRoster.get(username);
-
-		// Check if user exists (UserNotFoundException)
-		if (user == null)
+		long start = System.nanoTime();
+		try
 		{
-			throw new UserNotFoundException(username);
-		}
+			// Searches for our user in our userRoster (user database)
+			User user = userRoster.get(username);
 
-		// Check if password matches (InvalidCredentialsException)
-		if (!user.authenticate(username, password))
-		{
-			throw new InvalidCredentialsException();
-		}
+			// Check if user exists (UserNotFoundException)
+			if (user == null)
+			{
+				metrics.counter("login.unknownUser").increment();
+				throw new UserNotFoundException(username);
+			}
 
-		// Returns the user if it is valid and userName/password combo match
-		return user;
+			// Check if password matches (InvalidCredentialsException)
+			if (!user.authenticate(username, password))
+			{
+				metrics.counter("login.badPassword").increment();
+				throw new InvalidCredentialsException();
+			}
 
+			// Returns the user if it is valid and userName/password combo match
+			metrics.counter("login.success").increment();
+			return user;
+		}
+		finally
+		{
+			metrics.timer("login").recordSince(start);
+		}
 	}
 
 	/**
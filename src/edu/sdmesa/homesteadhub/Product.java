@@ -1,6 +1,7 @@
 package edu.sdmesa.homesteadhub;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Lead Author(s):
@@ -20,12 +21,17 @@ public class Product
 {
 	private final String sku; // Stock Keeping Unit - unique ID
 	private String title; // Name of the product
-	private int stockQuantity; // Amoung of product available for sale
+	// Amoung of product available for sale. Atomic so concurrent orders
+	// cannot both take the last units.
+	private final AtomicInteger stockQuantity = new AtomicInteger();
 	private Farmer farmer; // Product HAS-A Farmer
 	private String farmerUsername;
 	private double unitPrice; // Base price of the product
 	private String description;
 	private String photoUri;
+	// Small copies of the photo made at upload; null for older products
+	private String thumbnailUri;
+	private String detailUri;
 
 	/**
 	 * Constructor for Product used when a SKU is provided.
@@ -44,7 +50,7 @@ public class Product
 		this.sku = sku;
 		this.title = title;
 		this.description = description;
-		this.stockQuantity = stockQuantity;
+		this.stockQuantity.set(stockQuantity);
 		this.farmer = farmer;
 		this.unitPrice = unitPrice;
 	}
@@ -67,7 +73,7 @@ public class Product
 		this.sku = sku;
 		this.title = title;
 		this.description = description;
-		this.stockQuantity = stockQuantity;
+		this.stockQuantity.set(stockQuantity);
 		this.farmerUsername = farmerUsername;
 		this.unitPrice = unitPrice;
 	}
@@ -86,7 +92,7 @@ public class Product
 	{
 		this.sku = UUID.randomUUID().toString();
 		this.title = title;
-		this.stockQuantity = stockQuantity;
+		this.stockQuantity.set(stockQuantity);
 		this.farmer = farmer;
 		this.unitPrice = unitPrice;
 		this.description = description;
@@ -103,21 +109,28 @@ public class Product
 	}
 
 	/**
-	 * Updates the stock quantity, used during sales or restocking.
+	 * Updates the stock quantity, used during sales or restocking. The check
+	 * and the update happen as one atomic step.
 	 * 
 	 * @param quantityChange The amount to add or subtract.
 	 * @return True if the update was successful.
 	 */
 	public boolean updateStock(int quantityChange)
 	{
-		int newQuantity = this.stockQuantity + quantityChange;
-		if (newQuantity < 0)
+		while (true)
 		{
-			// Cannot fulfill request because stock would be negative
-			return false;
+			int current = this.stockQuantity.get();
+			int newQuantity = current + quantityChange;
+			if (newQuantity < 0)
+			{
+				// Cannot fulfill request because stock would be negative
+				return false;
+			}
+			if (this.stockQuantity.compareAndSet(current, newQuantity))
+			{
+				return true;
+			}
 		}
-		this.stockQuantity = newQuantity;
-		return true;
 	}
 
 	/**
@@ -157,17 +170,19 @@ public class Product
 	 */
 	public int getStockQuantity()
 	{
-		return stockQuantity;
+		return stockQuantity.get();
 	}
 
 	/**
-	 * Purpose: Setter - Modifys stockQuantity
+	 * Purpose: Setter - Modifys stockQuantity. Package-private: stock of a
+	 * catalog product changes only through InventoryManager, which keeps its
+	 * stock index in step.
 	 * 
 	 * @param stockQuantity
 	 */
-	public void setStockQuantity(int stockQuantity)
+	void setStockQuantity(int stockQuantity)
 	{
-		this.stockQuantity = stockQuantity;
+		this.stockQuantity.set(stockQuantity);
 	}
 
 	/**
@@ -180,6 +195,33 @@ public class Product
 		return farmer;
 	}
 
+	/**
+	 * Purpose: Setter - Modifies farmer. Used to attach the Farmer object to
+	 * a product that was loaded with only the farmer's username.
+	 * 
+	 * @param farmer Farmer supplying this product
+	 */
+	public void setFarmer(Farmer farmer)
+	{
+		this.farmer = farmer;
+	}
+
+	/**
+	 * Purpose: Getter - Returns the username of the farmer supplying this
+	 * product. Works for products loaded with either a Farmer object or only
+	 * the farmer's username.
+	 *
+	 * @return farmerUsername Farmer's username; null if unknown
+	 */
+	public String getFarmerUsername()
+	{
+		if (farmer != null)
+		{
+			return farmer.getUsername();
+		}
+		return farmerUsername;
+	}
+
 	/**
 	 * Purpose: Getter - Returns unitPrice
 	 * 
@@ -229,4 +271,44 @@ public class Product
 	{
 		this.photoUri = uri;
 	}
+
+	/**
+	 * Purpose: Getter - Returns the catalog card rendition of the photo.
+	 * 
+	 * @return thumbnailUri Path to the thumbnail; null if none was made
+	 */
+	public String getThumbnailUri()
+	{
+		return this.thumbnailUri;
+	}
+
+	/**
+	 * Purpose: Setter - Sets the catalog card rendition of the photo.
+	 * 
+	 * @param uri Thumbnail path used for this product
+	 */
+	public void setThumbnailUri(String uri)
+	{
+		this.thumbnailUri = uri;
+	}
+
+	/**
+	 * Purpose: Getter - Returns the product page rendition of the photo.
+	 * 
+	 * @return detailUri Path to the detail image; null if none was made
+	 */
+	public String getDetailUri()
+	{
+		return this.detailUri;
+	}
+
+	/**
+	 * Purpose: Setter - Sets the product page rendition of the photo.
+	 * 
+	 * @param uri Detail image path used for this product
+	 */
+	public void setDetailUri(String uri)
+	{
+		this.detailUri = uri;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,897 @@
+package edu.sdmesa.homesteadhub;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of ProductSearchIndex is to find catalog
+ *          products by the words in their title, description, farm name and
+ *          farm location, as the customer types.
+ *
+ *          It is an inverted index: each word maps to the products that
+ *          contain it, with a weight that favours title and farm name
+ *          matches. Words are kept sorted, so a query word also matches every
+ *          word it is a prefix of. A word that matches nothing falls back to
+ *          words one typo away (a letter added, dropped, changed or swapped).
+ *          Those are found through an index of each word with one letter
+ *          deleted, not by comparing against every word. A product must
+ *          match every query word. Results are ranked by summed weight, with
+ *          exact matches above prefix matches and prefix matches above
+ *          typo matches, and ties by document number.
+ *
+ *          Each product has a document number. Re-adding a SKU, e.g. after
+ *          a price or title change, keeps its number, and a removed
+ *          product's number is given to the next new product, so the
+ *          numbers stay as dense as the catalog. Posting lists are kept
+ *          sorted by number, so a product is found in them with a binary
+ *          search. Scoring reuses per-thread arrays indexed by document
+ *          number, so a query over 100,000 products allocates little beyond
+ *          its results. Many threads can search at once;
+ *          adding or removing a product briefly blocks them.
+ *
+ *          ProductSearchIndex has-a Results
+ */
+public class ProductSearchIndex
+{
+	// Weight of a word by the field it appears in
+	private static final int TITLE_WEIGHT = 4;
+	private static final int FARM_NAME_WEIGHT = 2;
+	private static final int DESCRIPTION_WEIGHT = 1;
+	private static final int LOCATION_WEIGHT = 1;
+
+	// Score multipliers by how a query word matched an indexed word
+	private static final float EXACT_MATCH = 1.0f;
+	private static final float PREFIX_MATCH = 0.6f;
+	private static final float TYPO_MATCH = 0.4f;
+
+	// Indexed words a short prefix can expand to, e.g. "t"
+	private static final int MAX_PREFIX_TERMS = 64;
+	// Shorter words are not typo-matched; too many words are one typo away
+	private static final int MIN_TYPO_LENGTH = 4;
+	// Query words past this many are ignored
+	private static final int MAX_QUERY_WORDS = 8;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Word -> products containing it, sorted so prefixes are a range
+	private final TreeMap<String, Postings> terms = new TreeMap<>();
+	// Word with one letter deleted -> indexed words it came from
+	private final Map<String, List<String>> deletions = new HashMap<>();
+
+	// Document number -> product and the words indexed for it
+	private final List<Product> documents = new ArrayList<>();
+	private final List<String[]> documentTerms = new ArrayList<>();
+	private final Map<String, Integer> documentBySku = new HashMap<>();
+	// Numbers of removed products, given out before new numbers
+	private final ArrayDeque<Integer> freeDocuments = new ArrayDeque<>();
+
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal
+			.withInitial(Scratch::new);
+
+	/**
+	 * Purpose: Indexes a product, replacing any earlier version of its SKU.
+	 *
+	 * @param product Product to index
+	 */
+	public void add(Product product)
+	{
+		Map<String, Integer> weights = weighTerms(product);
+
+		lock.writeLock().lock();
+		try
+		{
+			Integer document = documentBySku.get(product.getSku());
+			if (document != null)
+			{
+				removePostings(document);
+			}
+			else if (!freeDocuments.isEmpty())
+			{
+				document = freeDocuments.pop();
+			}
+			else
+			{
+				document = documents.size();
+				documents.add(null);
+				documentTerms.add(null);
+			}
+			documents.set(document, product);
+			documentTerms.set(document, weights.keySet().toArray(new String[0]));
+			documentBySku.put(product.getSku(), document);
+			for (Map.Entry<String, Integer> entry : weights.entrySet())
+			{
+				Postings postings = terms.get(entry.getKey());
+				if (postings == null)
+				{
+					postings = new Postings();
+					terms.put(entry.getKey(), postings);
+					addDeletions(entry.getKey());
+				}
+				postings.add(document, entry.getValue());
+			}
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Removes a product from the index.
+	 *
+	 * @param sku SKU of the product to remove
+	 * @return True if the SKU was indexed
+	 */
+	public boolean remove(String sku)
+	{
+		lock.writeLock().lock();
+		try
+		{
+			return removeLocked(sku);
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Getter - Returns the number of document numbers given out,
+	 * in use or free. Stays at the most products indexed at once.
+	 *
+	 * @return capacity Length of the document table
+	 */
+	int getDocumentCapacity()
+	{
+		lock.readLock().lock();
+		try
+		{
+			return documents.size();
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Getter - Returns the number of indexed products
+	 *
+	 * @return size Indexed products
+	 */
+	public int size()
+	{
+		lock.readLock().lock();
+		try
+		{
+			return documentBySku.size();
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Finds the products matching every word of a query, best
+	 * match first.
+	 *
+	 * @param query Words typed by the customer; case and punctuation are
+	 *              ignored
+	 * @param limit Most products to return
+	 * @return results Best matches and the total number of matches; empty
+	 *         if the query has no words
+	 */
+	public Results search(String query, int limit)
+	{
+		List<String> words = tokenize(query);
+		if (words.isEmpty() || limit <= 0)
+		{
+			return new Results(new ArrayList<>(), 0);
+		}
+		if (words.size() > MAX_QUERY_WORDS)
+		{
+			words = words.subList(0, MAX_QUERY_WORDS);
+		}
+
+		lock.readLock().lock();
+		try
+		{
+			List<List<Match>> matches = new ArrayList<>(words.size());
+			for (String word : words)
+			{
+				List<Match> wordMatches = matchTerms(word);
+				if (wordMatches.isEmpty())
+				{
+					// Every word must match, so nothing can
+					return new Results(new ArrayList<>(), 0);
+				}
+				matches.add(wordMatches);
+			}
+			// The rarest word first, so the fewest documents are touched
+			matches.sort(
+					Comparator.comparingInt(ProductSearchIndex::postingCount));
+			return score(matches, limit);
+		}
+		finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Purpose: Splits text into lower-case words of letters and digits.
+	 *
+	 * @param text Text to split; may be null
+	 * @return words Distinct words in order of appearance
+	 */
+	static List<String> tokenize(String text)
+	{
+		List<String> words = new ArrayList<>();
+		if (text == null)
+		{
+			return words;
+		}
+		StringBuilder word = new StringBuilder();
+		for (int i = 0; i <= text.length(); i++)
+		{
+			char c = i < text.length() ? text.charAt(i) : ' ';
+			if (Character.isLetterOrDigit(c))
+			{
+				word.append(Character.toLowerCase(c));
+			}
+			else if (word.length() > 0)
+			{
+				String finished = word.toString();
+				if (!words.contains(finished))
+				{
+					words.add(finished);
+				}
+				word.setLength(0);
+			}
+		}
+		return words;
+	}
+
+	// ------Indexing------
+
+	/**
+	 * Purpose: Weighs every word of a product's searchable fields.
+	 *
+	 * @param product Product to weigh
+	 * @return weights Word -> summed field weight
+	 */
+	private static Map<String, Integer> weighTerms(Product product)
+	{
+		Map<String, Integer> weights = new LinkedHashMap<>();
+		addWeights(weights, product.getTitle(), TITLE_WEIGHT);
+		addWeights(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+		Farmer farmer = product.getFarmer();
+		if (farmer != null)
+		{
+			addWeights(weights, farmer.getFarmName(), FARM_NAME_WEIGHT);
+			addWeights(weights, farmer.getLocation(), LOCATION_WEIGHT);
+		}
+		return weights;
+	}
+
+	/**
+	 * Purpose: Adds a field's words to a weight map.
+	 *
+	 * @param weights Word -> weight so far
+	 * @param text    Field text
+	 * @param weight  Weight of the field
+	 */
+	private static void addWeights(Map<String, Integer> weights, String text,
+			int weight)
+	{
+		for (String word : tokenize(text))
+		{
+			weights.merge(word, weight, Integer::sum);
+		}
+	}
+
+	/**
+	 * Purpose: Removes a product's postings. The caller holds the write
+	 * lock.
+	 *
+	 * @param sku SKU of the product to remove
+	 * @return True if the SKU was indexed
+	 */
+	private boolean removeLocked(String sku)
+	{
+		Integer document = documentBySku.remove(sku);
+		if (document == null)
+		{
+			return false;
+		}
+		removePostings(document);
+		documents.set(document, null);
+		documentTerms.set(document, null);
+		freeDocuments.push(document);
+		return true;
+	}
+
+	/**
+	 * Purpose: Removes a document from the posting list of each of its
+	 * words. The caller holds the write lock.
+	 *
+	 * @param document Document number
+	 */
+	private void removePostings(int document)
+	{
+		for (String term : documentTerms.get(document))
+		{
+			Postings postings = terms.get(term);
+			postings.remove(document);
+			if (postings.size == 0)
+			{
+				terms.remove(term);
+				removeDeletions(term);
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Indexes a new word under each of its one-letter deletions.
+	 *
+	 * @param term Word just added to the index
+	 */
+	private void addDeletions(String term)
+	{
+		if (!typoMatchable(term))
+		{
+			return;
+		}
+		for (String deletion : deletionsOf(term))
+		{
+			deletions.computeIfAbsent(deletion, key -> new ArrayList<>(1))
+					.add(term);
+		}
+	}
+
+	/**
+	 * Purpose: Drops a word no product contains any more from the deletion
+	 * index.
+	 *
+	 * @param term Word just removed from the index
+	 */
+	private void removeDeletions(String term)
+	{
+		if (!typoMatchable(term))
+		{
+			return;
+		}
+		for (String deletion : deletionsOf(term))
+		{
+			List<String> sources = deletions.get(deletion);
+			if (sources != null)
+			{
+				sources.remove(term);
+				if (sources.isEmpty())
+				{
+					deletions.remove(deletion);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Checks whether a word is long enough and not a number, so
+	 * typo matching it is useful.
+	 *
+	 * @param term Word to check
+	 * @return True if the word can be typo-matched
+	 */
+	private static boolean typoMatchable(String term)
+	{
+		if (term.length() < MIN_TYPO_LENGTH)
+		{
+			return false;
+		}
+		for (int i = 0; i < term.length(); i++)
+		{
+			if (!Character.isDigit(term.charAt(i)))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Purpose: Lists a word with each letter deleted in turn.
+	 *
+	 * @param term Word
+	 * @return deletions Distinct one-letter deletions
+	 */
+	private static List<String> deletionsOf(String term)
+	{
+		List<String> variants = new ArrayList<>(term.length());
+		for (int i = 0; i < term.length(); i++)
+		{
+			// A doubled letter gives the same deletion twice
+			if (i > 0 && term.charAt(i) == term.charAt(i - 1))
+			{
+				continue;
+			}
+			variants.add(term.substring(0, i) + term.substring(i + 1));
+		}
+		return variants;
+	}
+
+	// ------Searching------
+
+	/**
+	 * Purpose: Finds the indexed words a query word matches: itself, words
+	 * it is a prefix of, and if neither exists, words one typo away.
+	 *
+	 * @param word Query word
+	 * @return matches Posting lists with their score multipliers
+	 */
+	private List<Match> matchTerms(String word)
+	{
+		List<Match> matches = new ArrayList<>();
+		Postings exact = terms.get(word);
+		if (exact != null)
+		{
+			matches.add(new Match(exact, EXACT_MATCH));
+		}
+
+		int expanded = 0;
+		for (Postings postings : terms
+				.subMap(word, false, word + Character.MAX_VALUE, false)
+				.values())
+		{
+			if (expanded++ == MAX_PREFIX_TERMS)
+			{
+				break;
+			}
+			matches.add(new Match(postings, PREFIX_MATCH));
+		}
+
+		if (matches.isEmpty() && typoMatchable(word))
+		{
+			for (String term : typoCandidates(word))
+			{
+				matches.add(new Match(terms.get(term), TYPO_MATCH));
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Purpose: Finds indexed words one typo away from a query word. Two
+	 * words one typo apart share a one-letter deletion, or one is a
+	 * deletion of the other; the candidates are then checked exactly.
+	 *
+	 * @param word Query word with no exact or prefix match
+	 * @return terms Indexed words at edit distance 1
+	 */
+	private List<String> typoCandidates(String word)
+	{
+		List<String> candidates = new ArrayList<>();
+		// A letter was added to the indexed word
+		List<String> keys = deletionsOf(word);
+		for (String deletion : keys)
+		{
+			if (terms.containsKey(deletion) && !candidates.contains(deletion))
+			{
+				candidates.add(deletion);
+			}
+		}
+		// A letter was dropped, changed or swapped
+		keys.add(word);
+		for (String key : keys)
+		{
+			List<String> sources = deletions.get(key);
+			if (sources == null)
+			{
+				continue;
+			}
+			for (String term : sources)
+			{
+				if (!candidates.contains(term) && withinOneEdit(word, term))
+				{
+					candidates.add(term);
+				}
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Purpose: Checks whether two words differ by one added, dropped or
+	 * changed letter, or two swapped neighbouring letters.
+	 *
+	 * @param a First word
+	 * @param b Second word
+	 * @return True if the words are at most one edit apart
+	 */
+	static boolean withinOneEdit(String a, String b)
+	{
+		if (Math.abs(a.length() - b.length()) > 1)
+		{
+			return false;
+		}
+		int start = 0;
+		while (start < a.length() && start < b.length()
+				&& a.charAt(start) == b.charAt(start))
+		{
+			start++;
+		}
+		int endA = a.length();
+		int endB = b.length();
+		while (endA > start && endB > start
+				&& a.charAt(endA - 1) == b.charAt(endB - 1))
+		{
+			endA--;
+			endB--;
+		}
+		int differentA = endA - start;
+		int differentB = endB - start;
+		if (differentA <= 1 && differentB <= 1)
+		{
+			return true;
+		}
+		// "ab" -> "ba"
+		return differentA == 2 && differentB == 2
+				&& a.charAt(start) == b.charAt(start + 1)
+				&& a.charAt(start + 1) == b.charAt(start);
+	}
+
+	/**
+	 * Purpose: Scores every document that matches all query words and keeps
+	 * the best. A document scores the best match of each word, summed over
+	 * the words. The caller holds the read lock.
+	 *
+	 * @param matches Matching posting lists per query word, rarest first
+	 * @param limit   Most products to return
+	 * @return results Best matches, best first
+	 */
+	private Results score(List<List<Match>> matches, int limit)
+	{
+		Scratch scratch = SCRATCH.get();
+		scratch.ensureCapacity(documents.size());
+		int[] matched = scratch.matched;
+		float[] total = scratch.total;
+		float[] wordScore = scratch.wordScore;
+
+		// Documents matching the first word; later words can only narrow it
+		int touched = 0;
+		for (int w = 0; w < matches.size(); w++)
+		{
+			for (Match match : matches.get(w))
+			{
+				Postings postings = match.postings;
+				for (int i = 0; i < postings.size; i++)
+				{
+					int document = postings.documents[i];
+					float score = postings.weights[i] * match.factor;
+					if (matched[document] == w)
+					{
+						if (w == 0)
+						{
+							touched = scratch.touch(touched, document);
+						}
+						matched[document] = w + 1;
+						wordScore[document] = score;
+						total[document] += score;
+					}
+					else if (matched[document] == w + 1
+							&& score > wordScore[document])
+					{
+						total[document] += score - wordScore[document];
+						wordScore[document] = score;
+					}
+				}
+			}
+		}
+
+		// Keeps the best `limit` documents in a min-heap on score
+		int[] heap = new int[Math.min(limit, touched)];
+		int heapSize = 0;
+		int totalMatches = 0;
+		int[] touchedDocuments = scratch.touched;
+		for (int i = 0; i < touched; i++)
+		{
+			int document = touchedDocuments[i];
+			if (matched[document] == matches.size())
+			{
+				totalMatches++;
+				if (heapSize < heap.length)
+				{
+					heap[heapSize] = document;
+					siftUp(heap, heapSize++, total);
+				}
+				else if (heap.length > 0 && better(document, heap[0], total))
+				{
+					heap[0] = document;
+					siftDown(heap, heapSize, total);
+				}
+			}
+		}
+
+		Integer[] best = new Integer[heapSize];
+		for (int i = 0; i < heapSize; i++)
+		{
+			best[i] = heap[i];
+		}
+		Arrays.sort(best, (a, b) -> better(a, b, total) ? -1
+				: better(b, a, total) ? 1 : 0);
+		List<Product> products = new ArrayList<>(heapSize);
+		for (Integer document : best)
+		{
+			products.add(documents.get(document));
+		}
+
+		scratch.clear(touched);
+		return new Results(products, totalMatches);
+	}
+
+	/**
+	 * Purpose: Orders documents by score, then by document number.
+	 * Ties are common (every product with the same word in its title), and
+	 * an int compare keeps them cheap.
+	 *
+	 * @param a     Document
+	 * @param b     Other document
+	 * @param total Scores by document
+	 * @return True if a ranks above b
+	 */
+	private static boolean better(int a, int b, float[] total)
+	{
+		if (total[a] != total[b])
+		{
+			return total[a] > total[b];
+		}
+		return a < b;
+	}
+
+	/**
+	 * Purpose: Moves a newly added heap entry up past better parents, so the
+	 * worst document stays at the root.
+	 *
+	 * @param heap  Heap of documents
+	 * @param index Index of the new entry
+	 * @param total Scores by document
+	 */
+	private static void siftUp(int[] heap, int index, float[] total)
+	{
+		while (index > 0)
+		{
+			int parent = (index - 1) / 2;
+			if (!better(heap[parent], heap[index], total))
+			{
+				return;
+			}
+			swap(heap, parent, index);
+			index = parent;
+		}
+	}
+
+	/**
+	 * Purpose: Moves a replaced root down until both children rank above
+	 * it.
+	 *
+	 * @param heap  Heap of documents
+	 * @param size  Entries in the heap
+	 * @param total Scores by document
+	 */
+	private static void siftDown(int[] heap, int size, float[] total)
+	{
+		int index = 0;
+		while (true)
+		{
+			int worst = index;
+			for (int child = 2 * index + 1; child <= 2 * index + 2
+					&& child < size; child++)
+			{
+				if (better(heap[worst], heap[child], total))
+				{
+					worst = child;
+				}
+			}
+			if (worst == index)
+			{
+				return;
+			}
+			swap(heap, index, worst);
+			index = worst;
+		}
+	}
+
+	/**
+	 * Purpose: Swaps two heap entries.
+	 *
+	 * @param heap Heap of documents
+	 * @param i    First index
+	 * @param j    Second index
+	 */
+	private static void swap(int[] heap, int i, int j)
+	{
+		int swapped = heap[i];
+		heap[i] = heap[j];
+		heap[j] = swapped;
+	}
+
+	/**
+	 * Purpose: Counts the postings a query word's matches cover, to order
+	 * the words rarest first.
+	 *
+	 * @param matches Matches of one word
+	 * @return count Total postings
+	 */
+	private static int postingCount(List<Match> matches)
+	{
+		int count = 0;
+		for (Match match : matches)
+		{
+			count += match.postings.size;
+		}
+		return count;
+	}
+
+	/**
+	 * Purpose: Best matching products of a search, and how many matched in
+	 * all.
+	 */
+	public static final class Results
+	{
+		private final List<Product> products;
+		private final int totalMatches;
+
+		Results(List<Product> products, int totalMatches)
+		{
+			this.products = products;
+			this.totalMatches = totalMatches;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the best matches, best first
+		 *
+		 * @return products At most the search limit
+		 */
+		public List<Product> getProducts()
+		{
+			return products;
+		}
+
+		/**
+		 * Purpose: Getter - Returns the number of products that matched,
+		 * including those past the limit
+		 *
+		 * @return totalMatches
+		 */
+		public int getTotalMatches()
+		{
+			return totalMatches;
+		}
+	}
+
+	/**
+	 * Purpose: Documents containing one word, in increasing document order,
+	 * with the word's weight in each.
+	 */
+	private static final class Postings
+	{
+		private int[] documents = new int[4];
+		private int[] weights = new int[4];
+		private int size;
+
+		void add(int document, int weight)
+		{
+			if (size == documents.length)
+			{
+				documents = Arrays.copyOf(documents, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+			}
+			// New numbers go at the end; reused ones are inserted in order
+			int index = size;
+			if (size > 0 && documents[size - 1] > document)
+			{
+				index = -Arrays.binarySearch(documents, 0, size, document) - 1;
+				System.arraycopy(documents, index, documents, index + 1,
+						size - index);
+				System.arraycopy(weights, index, weights, index + 1,
+						size - index);
+			}
+			documents[index] = document;
+			weights[index] = weight;
+			size++;
+		}
+
+		void remove(int document)
+		{
+			int index = Arrays.binarySearch(documents, 0, size, document);
+			if (index < 0)
+			{
+				return;
+			}
+			System.arraycopy(documents, index + 1, documents, index,
+					size - index - 1);
+			System.arraycopy(weights, index + 1, weights, index,
+					size - index - 1);
+			size--;
+		}
+	}
+
+	/**
+	 * Purpose: A posting list matched by a query word, and how well.
+	 */
+	private static final class Match
+	{
+		private final Postings postings;
+		private final float factor;
+
+		Match(Postings postings, float factor)
+		{
+			this.postings = postings;
+			this.factor = factor;
+		}
+	}
+
+	/**
+	 * Purpose: One thread's scoring arrays, indexed by document number.
+	 * Only the entries a search touched are cleared afterwards.
+	 */
+	private static final class Scratch
+	{
+		// Query words a document has matched so far
+		private int[] matched = new int[0];
+		private float[] total = new float[0];
+		// Best score of the current word in a document
+		private float[] wordScore = new float[0];
+		private int[] touched = new int[16];
+
+		void ensureCapacity(int documents)
+		{
+			if (matched.length < documents)
+			{
+				int capacity = Math.max(documents, matched.length * 2);
+				matched = Arrays.copyOf(matched, capacity);
+				total = Arrays.copyOf(total, capacity);
+				wordScore = Arrays.copyOf(wordScore, capacity);
+			}
+		}
+
+		int touch(int count, int document)
+		{
+			if (count == touched.length)
+			{
+				touched = Arrays.copyOf(touched, count * 2);
+			}
+			touched[count] = document;
+			return count + 1;
+		}
+
+		void clear(int count)
+		{
+			for (int i = 0; i < count; i++)
+			{
+				int document = touched[i];
+				matched[document] = 0;
+				total[document] = 0;
+				wordScore[document] = 0;
+			}
+		}
+	}
+}
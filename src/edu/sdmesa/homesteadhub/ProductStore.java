@@ -0,0 +1,403 @@
+package edu.sdmesa.homesteadhub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of ProductStore is to manage the products file
+ *          so a stock change rewrites only that product's stock field.
+ *
+ *          Helper writes the stock field zero-padded to a fixed width, and
+ *          ProductStore keeps an index from SKU to the byte offset of that
+ *          field. updateStock overwrites those bytes with a positional
+ *          FileChannel write instead of appending a duplicate line. A line
+ *          that is replaced is blanked with spaces, which Helper skips as an
+ *          invalid line.
+ */
+public class ProductStore
+{
+	// Every product line starts with its type and SKU
+	private static final String LINE_PREFIX = "SIMPLE,";
+
+	// Width used when a line must be rewritten with a wider stock field
+	public static final int STOCK_FIELD_WIDTH = 10;
+
+	private final Path file;
+
+	// Key is SKU. Built lazily and rebuilt if the file changed underneath.
+	private Map<String, StockSlot> index = null;
+
+	// Counts writes that change bytes already in the file (not appends)
+	private long rewriteCount = 0;
+
+	/**
+	 * Purpose: Location of one product line and its stock field.
+	 */
+	private static class StockSlot
+	{
+		long lineStart; // Offset of the first byte of the line
+		long stockOffset; // Offset of the first byte of the stock field
+		int stockWidth; // Number of bytes in the stock field
+		int lineLength; // Bytes in the line, not counting the newline
+	}
+
+	/**
+	 * Purpose: Constructor to manage an existing products file
+	 *
+	 * @param file Products file written with Helper.serializeProduct
+	 */
+	public ProductStore(Path file)
+	{
+		this.file = file;
+	}
+
+	/**
+	 * Purpose: Appends a serialized product line and indexes it. If the SKU
+	 * is already stored, the old line is blanked so only one line per SKU
+	 * remains readable.
+	 *
+	 * @param sku  SKU of the product being written
+	 * @param line Line from Helper.serializeProduct, without a newline
+	 * @throws IOException If the file cannot be written
+	 */
+	public synchronized void append(String sku, String line) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE))
+		{
+			StockSlot previous = findSlot(channel, sku);
+
+			byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+			long lineStart = channel.size();
+			writeFully(channel, ByteBuffer.wrap(bytes), lineStart);
+
+			if (previous != null)
+			{
+				blankLine(channel, previous);
+			}
+
+			StockSlot slot = slotForLine(line, lineStart);
+			if (slot != null)
+			{
+				index.put(sku, slot);
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Changes a product's stored stock by rewriting only its stock
+	 * field.
+	 *
+	 * @param sku            SKU of the product to update
+	 * @param quantityChange Amount to add (negative to remove)
+	 * @return True if the stock was updated; false if the SKU was not found
+	 *         or the stock would become negative
+	 * @throws IOException If the file cannot be read or written
+	 */
+	public synchronized boolean updateStock(String sku, int quantityChange)
+			throws IOException
+	{
+		if (!Files.exists(file)) return false;
+
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			StockSlot slot = findSlot(channel, sku);
+			if (slot == null) return false;
+
+			// Read the current stock straight from its field
+			ByteBuffer field = ByteBuffer.allocate(slot.stockWidth);
+			readFully(channel, field, slot.stockOffset);
+			int current = Integer.parseInt(
+					new String(field.array(), StandardCharsets.US_ASCII).trim());
+
+			int newStock = current + quantityChange;
+			if (newStock < 0) return false;
+
+			String digits = String.format("%0" + slot.stockWidth + "d",
+					newStock);
+			if (digits.length() == slot.stockWidth)
+			{
+				// Fits the existing field: one positional write
+				writeFully(channel, ByteBuffer.wrap(
+						digits.getBytes(StandardCharsets.US_ASCII)),
+						slot.stockOffset);
+				rewriteCount++;
+			}
+			else
+			{
+				// Field is too narrow (older unpadded line): move the line
+				relocateLine(channel, sku, slot, newStock);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Purpose: Returns how many in-place writes have been made. DataCompactor
+	 * compares this before and after a run to detect writes it would lose.
+	 *
+	 * @return rewriteCount Number of in-place writes so far
+	 */
+	public synchronized long getRewriteCount()
+	{
+		return rewriteCount;
+	}
+
+	/**
+	 * Purpose: Forgets the index so the next call rescans the file. Used
+	 * after the file has been rewritten elsewhere.
+	 */
+	public synchronized void invalidate()
+	{
+		index = null;
+	}
+
+	/**
+	 * Purpose: Finds the slot for a SKU, rebuilding the index once if the
+	 * slot no longer points at that SKU's line.
+	 *
+	 * @param channel Open channel on the products file
+	 * @param sku     SKU to find
+	 * @return slot StockSlot for the SKU; null if not stored
+	 * @throws IOException If the file cannot be read
+	 */
+	private StockSlot findSlot(FileChannel channel, String sku)
+			throws IOException
+	{
+		if (index == null)
+		{
+			rebuildIndex(channel);
+		}
+		StockSlot slot = index.get(sku);
+		if (slot == null || isSlotFor(channel, slot, sku))
+		{
+			return slot;
+		}
+
+		// The file was changed without going through this store
+		rebuildIndex(channel);
+		return index.get(sku);
+	}
+
+	/**
+	 * Purpose: Checks that a slot's line still starts with the given SKU.
+	 *
+	 * @param channel Open channel on the products file
+	 * @param slot    Slot to verify
+	 * @param sku     Expected SKU
+	 * @return True if the slot is still valid
+	 * @throws IOException If the file cannot be read
+	 */
+	private boolean isSlotFor(FileChannel channel, StockSlot slot, String sku)
+			throws IOException
+	{
+		byte[] expected = (LINE_PREFIX + sku + ",")
+				.getBytes(StandardCharsets.UTF_8);
+		if (slot.lineStart + expected.length > channel.size()) return false;
+
+		ByteBuffer actual = ByteBuffer.allocate(expected.length);
+		readFully(channel, actual, slot.lineStart);
+		return Arrays.equals(expected, actual.array());
+	}
+
+	/**
+	 * Purpose: Scans the whole file once and records where each SKU's stock
+	 * field is. Later lines for a SKU replace earlier ones.
+	 *
+	 * @param channel Open channel on the products file
+	 * @throws IOException If the file cannot be read
+	 */
+	private void rebuildIndex(FileChannel channel) throws IOException
+	{
+		index = new HashMap<>();
+		ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+		ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+		long position = 0;
+		long lineStart = 0;
+
+		while (true)
+		{
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0) break;
+			buffer.flip();
+
+			while (buffer.hasRemaining())
+			{
+				byte b = buffer.get();
+				position++;
+				if (b == '\n')
+				{
+					indexLine(line, lineStart);
+					line.reset();
+					lineStart = position;
+				}
+				else
+				{
+					line.write(b);
+				}
+			}
+		}
+		// A last line without a trailing newline
+		if (line.size() > 0)
+		{
+			indexLine(line, lineStart);
+		}
+	}
+
+	/**
+	 * Purpose: Adds one scanned line to the index if it is a product line.
+	 *
+	 * @param line      Bytes of the line
+	 * @param lineStart Offset of the line in the file
+	 */
+	private void indexLine(ByteArrayOutputStream line, long lineStart)
+	{
+		String text = line.toString(StandardCharsets.UTF_8);
+		StockSlot slot = slotForLine(text, lineStart);
+		if (slot != null)
+		{
+			index.put(text.split(",", 3)[1], slot);
+		}
+	}
+
+	/**
+	 * Purpose: Works out the stock field position of a product line.
+	 *
+	 * @param line      Line text without the newline
+	 * @param lineStart Offset of the line in the file
+	 * @return slot StockSlot for the line; null if it is not a product line
+	 */
+	private StockSlot slotForLine(String line, long lineStart)
+	{
+		if (!line.startsWith(LINE_PREFIX)) return null;
+
+		// Stock is the fifth field: type,sku,title,description,stock
+		int fieldStart = 0;
+		for (int field = 0; field < 4; field++)
+		{
+			fieldStart = line.indexOf(',', fieldStart) + 1;
+			if (fieldStart == 0) return null;
+		}
+		int fieldEnd = line.indexOf(',', fieldStart);
+		if (fieldEnd < 0) return null;
+
+		StockSlot slot = new StockSlot();
+		slot.lineStart = lineStart;
+		slot.stockOffset = lineStart + line.substring(0, fieldStart)
+				.getBytes(StandardCharsets.UTF_8).length;
+		slot.stockWidth = fieldEnd - fieldStart;
+		slot.lineLength = line.getBytes(StandardCharsets.UTF_8).length;
+		return slot;
+	}
+
+	/**
+	 * Purpose: Rewrites a line whose stock field is too narrow for the new
+	 * value. The line is appended with a full-width field and the old line
+	 * is blanked.
+	 *
+	 * @param channel  Open channel on the products file
+	 * @param sku      SKU of the product
+	 * @param slot     Current slot of the line
+	 * @param newStock New stock value
+	 * @throws IOException If the file cannot be read or written
+	 */
+	private void relocateLine(FileChannel channel, String sku, StockSlot slot,
+			int newStock) throws IOException
+	{
+		ByteBuffer oldLine = ByteBuffer.allocate(slot.lineLength);
+		readFully(channel, oldLine, slot.lineStart);
+		String text = new String(oldLine.array(), StandardCharsets.UTF_8);
+
+		int fieldStart = (int) (slot.stockOffset - slot.lineStart);
+		String prefix = new String(oldLine.array(), 0, fieldStart,
+				StandardCharsets.UTF_8);
+		String suffix = text.substring(prefix.length() + slot.stockWidth);
+		String newLine = prefix
+				+ String.format("%0" + STOCK_FIELD_WIDTH + "d", newStock)
+				+ suffix;
+
+		long lineStart = channel.size();
+		writeFully(channel, ByteBuffer
+				.wrap((newLine + "\n").getBytes(StandardCharsets.UTF_8)),
+				lineStart);
+		blankLine(channel, slot);
+		index.put(sku, slotForLine(newLine, lineStart));
+	}
+
+	/**
+	 * Purpose: Overwrites a line with spaces, keeping its newline.
+	 *
+	 * @param channel Open channel on the products file
+	 * @param slot    Slot of the line to blank
+	 * @throws IOException If the file cannot be written
+	 */
+	private void blankLine(FileChannel channel, StockSlot slot)
+			throws IOException
+	{
+		byte[] spaces = new byte[slot.lineLength];
+		Arrays.fill(spaces, (byte) ' ');
+		writeFully(channel, ByteBuffer.wrap(spaces), slot.lineStart);
+		rewriteCount++;
+	}
+
+	/**
+	 * Purpose: Positional write that loops until the buffer is written.
+	 *
+	 * @param channel  Channel to write to
+	 * @param buffer   Bytes to write
+	 * @param position File offset to write at
+	 * @throws IOException If the write fails
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer,
+			long position) throws IOException
+	{
+		while (buffer.hasRemaining())
+		{
+			position += channel.write(buffer, position);
+		}
+	}
+
+	/**
+	 * Purpose: Positional read that loops until the buffer is full.
+	 *
+	 * @param channel  Channel to read from
+	 * @param buffer   Buffer to fill
+	 * @param position File offset to read from
+	 * @throws IOException If the read fails or hits end of file
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buffer,
+			long position) throws IOException
+	{
+		while (buffer.hasRemaining())
+		{
+			int read = channel.read(buffer, position);
+			if (read < 0)
+			{
+				throw new IOException("Unexpected end of products file");
+			}
+			position += read;
+		}
+	}
+}
@@ -0,0 +1,335 @@
+package edu.sdmesa.homesteadhub;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lead Author(s):
+ *
+ * @author Joshua Lopez
+ *
+ *         References:
+ *         All detailed citations are located in the central REFERENCES.md
+ *         file at the project root.
+ *
+ * @version 2026-10-18
+ *
+ * @Purpose The reponsibility of StockHoldManager is to place timed holds on
+ *          stock while it sits in a customer's cart.
+ *
+ *          A hold reserves units through InventoryManager.reserve, so held
+ *          units are no longer available to other customers. Holds are kept
+ *          in a priority queue ordered by expiry. One daemon sweeper thread
+ *          takes every expired hold off the queue and returns them to stock
+ *          with one release per SKU. A claimed or released hold is only
+ *          marked cancelled, and the sweeper drops it when it reaches the
+ *          head of the queue, instead of searching the queue for it. At checkout, OrderManager claims a
+ *          cart's holds so the units move into the order without going back
+ *          to stock first.
+ */
+public class StockHoldManager
+{
+	private static final Duration DEFAULT_SWEEP_INTERVAL = Duration
+			.ofSeconds(1);
+
+	private final InventoryManager inventory;
+	private final long ttlNanos;
+	private final long sweepIntervalMillis;
+
+	// Active holds, soonest expiry first
+	private final PriorityQueue<Hold> expiryQueue = new PriorityQueue<>(
+			Comparator.comparingLong(hold -> hold.expiresAt));
+	// Cart -> its active holds; carts are compared by identity
+	private final Map<Cart, List<Hold>> holdsByCart = new IdentityHashMap<>();
+	// SKU -> units currently held in carts, read by the catalog
+	private final Map<String, AtomicInteger> heldBySku = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService sweeper;
+
+	/**
+	 * Purpose: Constructor with the default sweep interval
+	 *
+	 * @param inventory Inventory the holds are taken from
+	 * @param ttl       How long a hold lasts
+	 */
+	public StockHoldManager(InventoryManager inventory, Duration ttl)
+	{
+		this(inventory, ttl, DEFAULT_SWEEP_INTERVAL);
+	}
+
+	/**
+	 * Purpose: Constructor with a given sweep interval
+	 *
+	 * @param inventory     Inventory the holds are taken from
+	 * @param ttl           How long a hold lasts
+	 * @param sweepInterval How often expired holds are returned to stock
+	 */
+	public StockHoldManager(InventoryManager inventory, Duration ttl,
+			Duration sweepInterval)
+	{
+		this.inventory = inventory;
+		this.ttlNanos = ttl.toNanos();
+		this.sweepIntervalMillis = Math.max(1, sweepInterval.toMillis());
+	}
+
+	/**
+	 * Purpose: Holds units of a product for a cart until the TTL runs out.
+	 *
+	 * @param cart     Cart the units are held for
+	 * @param sku      Stocking keeping unit of the product
+	 * @param quantity Amount of inventory to hold
+	 * @return True if the units were held, false if there was not enough
+	 *         stock
+	 */
+	public boolean hold(Cart cart, String sku, int quantity)
+	{
+		if (!inventory.reserve(sku, quantity))
+		{
+			return false;
+		}
+
+		Hold hold = new Hold(cart, sku, quantity,
+				System.nanoTime() + ttlNanos);
+		synchronized (this)
+		{
+			// Counted before the hold can be claimed, released or swept
+			heldBySku.computeIfAbsent(sku, key -> new AtomicInteger())
+					.addAndGet(quantity);
+			expiryQueue.add(hold);
+			holdsByCart.computeIfAbsent(cart, key -> new ArrayList<>())
+					.add(hold);
+			startSweeper();
+		}
+		return true;
+	}
+
+	/**
+	 * Purpose: Takes every hold of a cart off the expiry queue without
+	 * returning the units to stock. The units stay reserved in the
+	 * InventoryManager for the caller to commit or release.
+	 *
+	 * @param cart Cart whose holds are claimed
+	 * @return held SKU -> units held; empty if the cart has no holds
+	 */
+	public Map<String, Integer> claim(Cart cart)
+	{
+		List<Hold> holds;
+		synchronized (this)
+		{
+			holds = holdsByCart.remove(cart);
+			if (holds == null)
+			{
+				return new HashMap<>();
+			}
+			cancel(holds);
+		}
+		return forget(holds);
+	}
+
+	/**
+	 * Purpose: Returns a cart's holds on one product to stock, e.g. when the
+	 * item is removed from the cart.
+	 *
+	 * @param cart Cart whose holds are released
+	 * @param sku  Stocking keeping unit of the product
+	 */
+	public void release(Cart cart, String sku)
+	{
+		List<Hold> released = new ArrayList<>();
+		synchronized (this)
+		{
+			List<Hold> holds = holdsByCart.get(cart);
+			if (holds == null)
+			{
+				return;
+			}
+			for (Hold hold : holds)
+			{
+				if (hold.sku.equals(sku))
+				{
+					released.add(hold);
+				}
+			}
+			holds.removeAll(released);
+			if (holds.isEmpty())
+			{
+				holdsByCart.remove(cart);
+			}
+			cancel(released);
+		}
+		inventory.releaseAll(forget(released));
+	}
+
+	/**
+	 * Purpose: Returns every hold of a cart to stock, e.g. when the cart is
+	 * cleared.
+	 *
+	 * @param cart Cart whose holds are released
+	 */
+	public void releaseAll(Cart cart)
+	{
+		inventory.releaseAll(claim(cart));
+	}
+
+	/**
+	 * Purpose: Returns every expired hold to stock with one release per SKU.
+	 * Called by the sweeper thread; public so it can be run on demand.
+	 *
+	 * @return released Units returned to stock
+	 */
+	public int sweep()
+	{
+		List<Hold> expired = new ArrayList<>();
+		long now = System.nanoTime();
+		synchronized (this)
+		{
+			while (!expiryQueue.isEmpty()
+					&& expiryQueue.peek().expiresAt - now <= 0)
+			{
+				Hold hold = expiryQueue.poll();
+				if (hold.cancelled)
+				{
+					continue;
+				}
+				expired.add(hold);
+
+				List<Hold> holds = holdsByCart.get(hold.cart);
+				holds.remove(hold);
+				if (holds.isEmpty())
+				{
+					holdsByCart.remove(hold.cart);
+				}
+			}
+		}
+		if (expired.isEmpty())
+		{
+			return 0;
+		}
+
+		Map<String, Integer> bySku = forget(expired);
+		inventory.releaseAll(bySku);
+
+		int released = 0;
+		for (int quantity : bySku.values())
+		{
+			released += quantity;
+		}
+		AppLogger.info("STOCKHOLDMANAGER: Released " + released
+				+ " expired held units across " + bySku.size() + " products");
+		return released;
+	}
+
+	/**
+	 * Purpose: Getter - Returns the units of a product held in carts
+	 *
+	 * @param sku Stocking keeping unit of the product
+	 * @return held Units held
+	 */
+	public int getHeldQuantity(String sku)
+	{
+		AtomicInteger held = heldBySku.get(sku);
+		return held == null ? 0 : held.get();
+	}
+
+	/**
+	 * Purpose: Stops the sweeper thread. Holds still in carts stay reserved.
+	 */
+	public synchronized void shutdown()
+	{
+		if (sweeper != null)
+		{
+			sweeper.shutdownNow();
+			sweeper = null;
+		}
+	}
+
+	/**
+	 * Purpose: Starts the sweeper on the first hold. Caller holds the lock.
+	 */
+	private void startSweeper()
+	{
+		if (sweeper != null)
+		{
+			return;
+		}
+		sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "stock-hold-sweeper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sweeper.scheduleWithFixedDelay(() -> {
+			try
+			{
+				sweep();
+			}
+			catch (RuntimeException e)
+			{
+				AppLogger.error(
+						"Error releasing expired holds: " + e.getMessage());
+			}
+		}, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Purpose: Marks holds as claimed or released so the sweeper skips them.
+	 * Caller holds the lock.
+	 *
+	 * @param holds Holds taken out of holdsByCart
+	 */
+	private void cancel(List<Hold> holds)
+	{
+		for (Hold hold : holds)
+		{
+			hold.cancelled = true;
+		}
+	}
+
+	/**
+	 * Purpose: Removes holds from the held counts and sums them per SKU.
+	 *
+	 * @param holds Holds already taken off the queue
+	 * @return bySku SKU -> units
+	 */
+	private Map<String, Integer> forget(List<Hold> holds)
+	{
+		Map<String, Integer> bySku = new HashMap<>();
+		for (Hold hold : holds)
+		{
+			bySku.merge(hold.sku, hold.quantity, Integer::sum);
+			heldBySku.get(hold.sku).addAndGet(-hold.quantity);
+		}
+		return bySku;
+	}
+
+	/**
+	 * Purpose: Units of one product held for one cart until expiresAt.
+	 */
+	private static final class Hold
+	{
+		private final Cart cart;
+		private final String sku;
+		private final int quantity;
+		private final long expiresAt; // System.nanoTime() deadline
+		// Claimed or released; still in the queue until it expires
+		private boolean cancelled;
+
+		Hold(Cart cart, String sku, int quantity, long expiresAt)
+		{
+			this.cart = cart;
+			this.sku = sku;
+			this.quantity = quantity;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -1,9 +1,33 @@
 package edu.sdmesa.homesteadhub;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.imageio.ImageIO;
 
 /**
  * Lead Author(s):
@@ -71,7 +95,21 @@ public class Tester
 		setupUsers(farmer, customer);
 		testUserPersistence(farmer, customer);
 		testProductPersistence(farmer);
+		testStockPersistence(farmer);
 		testOrderPersistence(customer);
+		testBinaryLogRecovery();
+		testCompactionDuringAppend();
+		testGroupCommitFailure();
+		testLineItemIndexRecovery();
+		testCachedRepository(farmer, customer);
+		testMappedReadMode(farmer, customer);
+		testParallelLoader();
+		testAsyncDataService(farmer, customer);
+		testLruCache();
+		testImageIngestor();
+		testProductSearch();
+		testInventoryIndexes();
+		testInventoryEvents();
 		System.out.println("\n##### Week 3 Testing Complete #####");
 
 		System.out.println("\n##### Week 4 Testing Start #####");
@@ -108,6 +146,13 @@ public class Tester
 		System.out.println("\n--- Testing Business Logic ---");
 		testSuccessfulOrderPlacement();
 		testInsufficientStockException();
+		testConcurrentReservations();
+		testReservationRollback();
+		testCartStockHolds();
+		testAsyncCheckout();
+		testCheckoutSaveFailure();
+		testMetrics();
+		testAppLogger();
 
 		// Initailize my FarmMarketService object which will serve as my
 		// front-facing interface similiar to an API
@@ -404,6 +449,61 @@ public class Tester
 		}
 	}
 
+	/**
+	 * Purpose: Test case for updating a product's stored stock in place.
+	 * 
+	 * @param farmer
+	 */
+	public static void testStockPersistence(Farmer farmer)
+	{
+		System.out.println("\n--- Testing Stock Persistence ---");
+		try
+		{
+			int linesBefore = Files.readAllLines(Paths.get("products.txt")).size();
+			int stockBefore = repository
+					.findProductBySku(carrotProduct.getSku(), farmer)
+					.getStockQuantity();
+
+			boolean updated = repository.updateStock(carrotProduct.getSku(),
+					-5);
+
+			int linesAfter = Files.readAllLines(Paths.get("products.txt")).size();
+			int stockAfter = repository
+					.findProductBySku(carrotProduct.getSku(), farmer)
+					.getStockQuantity();
+
+			if (updated && stockAfter == stockBefore - 5
+					&& linesAfter == linesBefore)
+			{
+				System.out.println(
+						"PASS: Stock updated in place. Stock: " + stockAfter);
+			}
+			else
+			{
+				System.err.println("FAIL: Stock update expected "
+						+ (stockBefore - 5) + " in " + linesBefore
+						+ " lines, found " + stockAfter + " in " + linesAfter
+						+ " lines.");
+			}
+
+			// Overselling must be refused without touching the file
+			if (!repository.updateStock(carrotProduct.getSku(),
+					-(stockAfter + 1)))
+			{
+				System.out.println("PASS: Negative stock update was refused.");
+			}
+			else
+			{
+				System.err.println("FAIL: Stock was allowed to go negative.");
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println("FAIL: Could not read products file: "
+					+ e.getMessage());
+		}
+	}
+
 	/**
 	 * Purpose: Test case for saving and finding an Order.
 	 * 
@@ -446,6 +546,245 @@ public class Tester
 
 	}
 
+	/**
+	 * Purpose: Test case for the CachedDataSource decorator. Lookups should
+	 * match the file repository and saves should be visible without a reload.
+	 * 
+	 * @param farmer
+	 * @param customer
+	 */
+	public static void testCachedRepository(Farmer farmer, Customer customer)
+	{
+		System.out.println("\n--- Testing Cached Repository ---");
+		DataRepository cache = new CachedDataSource(repository);
+
+		// Lookups served from the indexes
+		User foundUser = cache.findUserByUsername("josh");
+		Product foundProduct = cache.findProductBySku(carrotProduct.getSku(),
+				farmer);
+		Order foundOrder = cache.findOrderById(testOrder.getOrderId(),
+				customer);
+
+		if (foundUser != null
+				&& foundUser.getUserId().equals(customer.getUserId())
+				&& foundProduct != null
+				&& foundProduct.getTitle().equals("Carrots")
+				&& foundOrder != null)
+		{
+			System.out.println("PASS: Cache found user, product and order.");
+		}
+		else
+		{
+			System.err.println("FAIL: Cache lookups did not match the files.");
+		}
+
+		// A write-through save must be visible in the cache and on disk
+		Product cachedProduct = new Product("Beets", 12, farmer, 2.49,
+				"Red beets");
+		cache.saveProduct(cachedProduct);
+
+		if (cache.findProductBySku(cachedProduct.getSku(), farmer) != null
+				&& repository.findProductBySku(cachedProduct.getSku(),
+						farmer) != null)
+		{
+			System.out.println(
+					"PASS: Cached save was indexed and written through.");
+		}
+		else
+		{
+			System.err.println("FAIL: Cached save was not written through.");
+		}
+
+		// A slow write-through must not block lookups on other threads
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch finishWrite = new CountDownLatch(1);
+		DataRepository slowCache = new CachedDataSource(new FileDataSource()
+		{
+			@Override
+			public Product saveProduct(Product product)
+			{
+				writing.countDown();
+				try
+				{
+					finishWrite.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+				return super.saveProduct(product);
+			}
+		});
+		slowCache.findUserByUsername("josh");
+		slowCache.findAllProducts();
+		Product slowProduct = new Product("Kale", 7, farmer, 3.25,
+				"Curly kale");
+		CompletableFuture<Product> slowSave = CompletableFuture
+				.supplyAsync(() -> slowCache.saveProduct(slowProduct));
+		boolean lookupsFree = false;
+		try
+		{
+			writing.await(5, TimeUnit.SECONDS);
+			lookupsFree = CompletableFuture
+					.supplyAsync(() -> slowCache.findUserByUsername("josh")
+							!= null
+							&& slowCache.findProductBySku(
+									carrotProduct.getSku(), farmer) != null)
+					.get(1, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException | TimeoutException e)
+		{
+			lookupsFree = false;
+		}
+		finishWrite.countDown();
+		slowSave.join();
+
+		Farmer noSales = new Farmer("nosales", "pw", "nosales@test.com",
+				"Quiet Farm", "Julian");
+		List<LineItem> noRows = cache.findOrdersToFarmer(noSales);
+		if (lookupsFree && noRows != null && noRows.isEmpty()
+				&& slowCache.findProductBySku(slowProduct.getSku(),
+						farmer) != null)
+		{
+			System.out.println(
+					"PASS: Lookups ran during a slow save; no rows is empty.");
+		}
+		else
+		{
+			System.err.println("FAIL: Cache blocked lookups on a save ("
+					+ lookupsFree + ") or returned " + noRows
+					+ " for no rows.");
+		}
+	}
+
+	/**
+	 * Purpose: Test case for FileDataSource's MAPPED read mode. It must read
+	 * the same records as the BUFFERED mode, including records written after
+	 * the file was first mapped.
+	 * 
+	 * @param farmer
+	 * @param customer
+	 */
+	public static void testMappedReadMode(Farmer farmer, Customer customer)
+	{
+		System.out.println("\n--- Testing Mapped Read Mode ---");
+		FileDataSource mapped = new FileDataSource(
+				FileDataSource.ReadMode.MAPPED);
+
+		if (mapped.findAllUsers().size() == repository.findAllUsers().size()
+				&& mapped.findAllProducts().size() == repository
+						.findAllProducts().size()
+				&& mapped.findOrdersByCustomer(customer).size() == repository
+						.findOrdersByCustomer(customer).size()
+				&& mapped.findUserByUsername("Luke") != null)
+		{
+			System.out.println("PASS: Mapped reads match buffered reads.");
+		}
+		else
+		{
+			System.err.println("FAIL: Mapped reads differ from buffered reads.");
+		}
+
+		// The file grows after it was mapped, so it must be remapped
+		Product grown = new Product("Radishes", 8, farmer, 1.25,
+				"Spicy radishes");
+		repository.saveProduct(grown);
+		if (mapped.findProductBySku(grown.getSku(), farmer) != null)
+		{
+			System.out.println("PASS: Mapped read saw a product added later.");
+		}
+		else
+		{
+			System.err.println("FAIL: Mapped read missed a product added later.");
+		}
+	}
+
+	/**
+	 * Purpose: Test case for ParallelDataLoader. Tiny chunks force many
+	 * chunk boundaries; the records must still match a sequential read in
+	 * file order.
+	 */
+	public static void testParallelLoader()
+	{
+		System.out.println("\n--- Testing Parallel Data Loader ---");
+		ParallelDataLoader loader = new ParallelDataLoader(
+				ForkJoinPool.commonPool(), 64);
+		Helper helper = new Helper();
+
+		List<String> loadedSkus = new ArrayList<>();
+		for (Product product : loader.loadFile("products.txt",
+				helper::deserializeProduct))
+		{
+			loadedSkus.add(product.getSku());
+		}
+		List<String> expectedSkus = new ArrayList<>();
+		for (Product product : repository.findAllProducts())
+		{
+			expectedSkus.add(product.getSku());
+		}
+
+		if (loadedSkus.equals(expectedSkus)
+				&& loader.loadFile("lineitems.txt", helper::deserializeLineItem)
+						.size() == repository.findLineItems().size()
+				&& loader.getLoadTimes().containsKey("products.txt"))
+		{
+			System.out.println(
+					"PASS: Parallel loader matches a sequential read.");
+		}
+		else
+		{
+			System.err.println(
+					"FAIL: Parallel loader differs from a sequential read.");
+		}
+	}
+
+	/**
+	 * Purpose: Test case for AsyncDataService. Async calls must return the
+	 * same data as the blocking repository calls.
+	 */
+	public static void testAsyncDataService(Farmer farmer, Customer customer)
+	{
+		System.out.println("\n--- Testing Async Data Service ---");
+		AsyncDataService service = new AsyncDataService(repository);
+		try
+		{
+			int products = service.findAllProductsAsync()
+					.get(5, TimeUnit.SECONDS).size();
+			int orders = service.findOrdersByCustomerAsync(customer)
+					.get(5, TimeUnit.SECONDS).size();
+			List<LineItem> farmerItems = service.findOrdersToFarmerAsync(farmer)
+					.get(5, TimeUnit.SECONDS);
+
+			if (products == repository.findAllProducts().size()
+					&& orders == repository.findOrdersByCustomer(customer)
+							.size()
+					&& farmerItems != null)
+			{
+				System.out.println("PASS: Async calls match blocking calls ("
+						+ (service.isVirtualThreads() ? "virtual threads"
+								: "platform threads")
+						+ ").");
+			}
+			else
+			{
+				System.err.println(
+						"FAIL: Async calls differ from blocking calls.");
+			}
+		}
+		catch (Exception e)
+		{
+			System.err.println("FAIL: Async call threw: " + e);
+		}
+		finally
+		{
+			service.shutdown();
+		}
+	}
+
 	/**
 	 * Purpose: Tests the PortalManager login method to check if it correctly
 	 * throws UserNotFoundException and InvalidCredentialsException.
@@ -582,6 +921,37 @@ public class Tester
 						"FAIL: Order creation failed or status was incorrect.");
 			}
 
+			// Order Durability
+			try
+			{
+				newOrder.getSaved().get(5, TimeUnit.SECONDS);
+				System.out.println(
+						"PASS: Order and line items were written to disk.");
+			}
+			catch (Exception e)
+			{
+				System.err.println(
+						"FAIL: Order was not saved: " + e.getMessage());
+			}
+
+			// Line Item Index
+			FileDataSource files = new FileDataSource();
+			List<LineItem> farmerRows = files
+					.findOrdersToFarmer(appleProduct.getFarmer());
+			if (files.findLineItemsByOrder(newOrder.getOrderId())
+					.size() == newOrder.getItems().size() && farmerRows != null
+					&& farmerRows.stream().anyMatch(item -> item.getOrderId()
+							.equals(newOrder.getOrderId())))
+			{
+				System.out.println(
+						"PASS: Line item index finds the order's rows.");
+			}
+			else
+			{
+				System.err.println(
+						"FAIL: Line item index did not find the order's rows.");
+			}
+
 			// Inventory Deduction
 			Product updatedProduct = inventoryManager
 					.getProduct(appleProduct.getSku());
@@ -677,6 +1047,1377 @@ public class Tester
 		}
 	}
 
+	/**
+	 * Purpose: Stress test for InventoryManager.reserve. Many threads race to
+	 * reserve, commit and release units of one product; stock must never go
+	 * negative and every unit must be accounted for.
+	 */
+	private static void testConcurrentReservations()
+	{
+		System.out.println("\n--- Testing Concurrent Reservations ---");
+
+		final int initialStock = 1000;
+		final int threadCount = 8;
+		final int attemptsPerThread = 500;
+
+		InventoryManager stressInventory = new InventoryManager();
+		Product stressProduct = new Product("STRESS1", "Stress Eggs",
+				"Reservation stress test", initialStock, farmer, 1.00);
+		stressInventory.addProduct(stressProduct);
+
+		AtomicInteger committed = new AtomicInteger();
+		AtomicInteger lowestSeen = new AtomicInteger(initialStock);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+
+		for (int t = 0; t < threadCount; t++)
+		{
+			final int threadId = t;
+			Thread thread = new Thread(() -> {
+				try
+				{
+					start.await();
+				}
+				catch (InterruptedException e)
+				{
+					return;
+				}
+				for (int i = 0; i < attemptsPerThread; i++)
+				{
+					int quantity = 1 + (i + threadId) % 3;
+					if (stressInventory.reserve("STRESS1", quantity))
+					{
+						// Every third reservation is released, e.g. a
+						// failed payment
+						if (i % 3 == 0)
+						{
+							stressInventory.release("STRESS1", quantity);
+						}
+						else
+						{
+							stressInventory.commit("STRESS1", quantity);
+							committed.addAndGet(quantity);
+						}
+					}
+					lowestSeen.accumulateAndGet(
+							stressProduct.getStockQuantity(), Math::min);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		start.countDown();
+		for (Thread thread : threads)
+		{
+			try
+			{
+				thread.join();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		int finalStock = stressProduct.getStockQuantity();
+		if (lowestSeen.get() >= 0 && finalStock >= 0
+				&& finalStock + committed.get() == initialStock
+				&& stressInventory.getReservedQuantity("STRESS1") == 0)
+		{
+			System.out.println("PASS: Stock never went negative. Committed: "
+					+ committed.get() + ", Remaining: " + finalStock);
+		}
+		else
+		{
+			System.err.println("FAIL: Concurrent reservations lost stock. "
+					+ "Committed: " + committed.get() + ", Remaining: "
+					+ finalStock + ", Lowest seen: " + lowestSeen.get());
+		}
+	}
+
+	/**
+	 * Purpose: Tests that a cart is reserved all or nothing. A short second
+	 * SKU must leave the first SKU's stock untouched, and a failed payment
+	 * must put the reserved stock back.
+	 */
+	private static void testReservationRollback()
+	{
+		System.out.println("\n--- Testing Reservation Rollback ---");
+
+		int appleStock = appleProduct.getStockQuantity();
+		int carrotStock = carrotProduct.getStockQuantity();
+
+		// Second SKU is short, so the apples must not stay reserved
+		Cart shortCart = new Cart(customer);
+		shortCart.addProduct(appleProduct, 1);
+		shortCart.addProduct(carrotProduct, carrotStock + 1);
+		try
+		{
+			orderManager.placeOrder(customer, shortCart, detail);
+			System.err.println("FAIL: Short multi-item order was placed.");
+		}
+		catch (InsufficientStockException e)
+		{
+			if (appleProduct.getStockQuantity() == appleStock
+					&& inventoryManager
+							.getReservedQuantity(appleProduct.getSku()) == 0)
+			{
+				System.out.println(
+						"PASS: No stock reserved when one item is short.");
+			}
+			else
+			{
+				System.err.println("FAIL: Apples stayed reserved. Stock: "
+						+ appleProduct.getStockQuantity());
+			}
+		}
+
+		// Payment is declined after the stock was reserved
+		PaymentProcessor declined = new PaymentProcessor()
+		{
+			@Override
+			public PaymentResult processTransaction(double totalAmount,
+					PaymentDetail paymentDetails)
+			{
+				return new PaymentResult("DECLINED", null, "Card declined");
+			}
+
+			@Override
+			public String getPaymentType()
+			{
+				return "Declined Card";
+			}
+		};
+		Cart declinedCart = new Cart(customer);
+		declinedCart.addProduct(appleProduct, 1);
+		declinedCart.addProduct(carrotProduct, 1);
+		try
+		{
+			Order declinedOrder = new OrderManager(inventoryManager, declined)
+					.placeOrder(customer, declinedCart,
+							new PaymentDetail(0, declined, customer));
+			if (declinedOrder.getSaved() == null
+					&& appleProduct.getStockQuantity() == appleStock
+					&& carrotProduct.getStockQuantity() == carrotStock
+					&& !declinedCart.getItemMap().isEmpty())
+			{
+				System.out.println(
+						"PASS: Reserved stock released after failed payment.");
+			}
+			else
+			{
+				System.err.println(
+						"FAIL: Stock not restored after failed payment.");
+			}
+		}
+		catch (InsufficientStockException e)
+		{
+			System.err.println("FAIL: Declined order threw: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Purpose: Tests timed cart holds. Adding to a cart holds the stock,
+	 * removing or expiring returns it, and checkout uses the held units
+	 * without reserving them twice.
+	 */
+	private static void testCartStockHolds()
+	{
+		System.out.println("\n--- Testing Cart Stock Holds ---");
+
+		InventoryManager holdInventory = new InventoryManager();
+		Product holdProduct = new Product("HOLD1", "Held Honey",
+				"Cart hold test", 10, farmer, 8.00);
+		holdInventory.addProduct(holdProduct);
+
+		// Sweeps are run by hand below, so the sweeper never fires here
+		StockHoldManager holds = new StockHoldManager(holdInventory,
+				Duration.ofMillis(50), Duration.ofHours(1));
+		Cart holdCart = new Cart(customer);
+		holdCart.setStockHolds(holds);
+
+		holdCart.addProduct(holdProduct, 4);
+		boolean held = holdProduct.getStockQuantity() == 6
+				&& holds.getHeldQuantity("HOLD1") == 4;
+		holdCart.removeItem("HOLD1");
+		boolean removed = holdProduct.getStockQuantity() == 10
+				&& holds.getHeldQuantity("HOLD1") == 0;
+
+		holdCart.addProduct(holdProduct, 3);
+		try
+		{
+			Thread.sleep(100);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		boolean expired = holds.sweep() == 3
+				&& holdProduct.getStockQuantity() == 10
+				&& holds.getHeldQuantity("HOLD1") == 0;
+
+		// A released hold still in the queue is skipped once it expires
+		holds.hold(holdCart, "HOLD1", 2);
+		holds.releaseAll(holdCart);
+		try
+		{
+			Thread.sleep(100);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		expired &= holds.sweep() == 0 && holdProduct.getStockQuantity() == 10;
+
+		// Holds placed and released on many threads while expiring
+		Product raceProduct = new Product("HOLD2", "Raced Honey",
+				"Cart hold race test", 1000, farmer, 8.00);
+		holdInventory.addProduct(raceProduct);
+		StockHoldManager racedHolds = new StockHoldManager(holdInventory,
+				Duration.ZERO, Duration.ofHours(1));
+		AtomicInteger failures = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+		Thread sweeper = new Thread(() -> {
+			try
+			{
+				for (int i = 0; i < 2000; i++)
+				{
+					racedHolds.sweep();
+				}
+			}
+			catch (RuntimeException e)
+			{
+				failures.incrementAndGet();
+			}
+		});
+		threads.add(sweeper);
+		sweeper.start();
+		for (int t = 0; t < 4; t++)
+		{
+			Thread thread = new Thread(() -> {
+				Cart raceCart = new Cart(customer);
+				try
+				{
+					for (int i = 0; i < 2000; i++)
+					{
+						racedHolds.hold(raceCart, "HOLD2", 1);
+						if (i % 2 == 0)
+						{
+							racedHolds.releaseAll(raceCart);
+						}
+					}
+				}
+				catch (RuntimeException e)
+				{
+					failures.incrementAndGet();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		try
+		{
+			for (Thread thread : threads)
+			{
+				thread.join();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		racedHolds.sweep();
+		racedHolds.shutdown();
+		boolean raced = failures.get() == 0
+				&& racedHolds.getHeldQuantity("HOLD2") == 0
+				&& raceProduct.getStockQuantity() == 1000;
+
+		// Checkout claims the holds instead of reserving the units again
+		StockHoldManager longHolds = new StockHoldManager(holdInventory,
+				Duration.ofMinutes(5), Duration.ofHours(1));
+		Cart checkoutCart = new Cart(customer);
+		checkoutCart.setStockHolds(longHolds);
+		checkoutCart.addProduct(holdProduct, 5);
+		boolean claimed = false;
+		try
+		{
+			Map<String, Integer> reservation = holdInventory.reserveAll(
+					checkoutCart.getItemMap().values(),
+					longHolds.claim(checkoutCart));
+			claimed = reservation.get("HOLD1") == 5
+					&& holdProduct.getStockQuantity() == 5
+					&& holdInventory.getReservedQuantity("HOLD1") == 5
+					&& longHolds.getHeldQuantity("HOLD1") == 0;
+			holdInventory.commitAll(reservation);
+		}
+		catch (InsufficientStockException e)
+		{
+			System.err.println("FAIL: Held checkout threw: " + e.getMessage());
+		}
+		holds.shutdown();
+		longHolds.shutdown();
+
+		if (held && removed && expired && claimed && raced)
+		{
+			System.out.println(
+					"PASS: Cart holds are placed, released, expired and claimed.");
+		}
+		else
+		{
+			System.err.println("FAIL: Cart holds. Held: " + held
+					+ ", Removed: " + removed + ", Expired: " + expired
+					+ ", Claimed: " + claimed + ", Raced: " + raced);
+		}
+	}
+
+	/**
+	 * Purpose: Tests the asynchronous checkout pipeline. The order must come
+	 * back saved, with a latency for every stage, and the cart cleared.
+	 */
+	private static void testAsyncCheckout()
+	{
+		System.out.println("\n--- Testing Async Checkout Pipeline ---");
+
+		int initialStock = appleProduct.getStockQuantity();
+		customer.getCart().addProduct(appleProduct, 1);
+
+		try
+		{
+			// Runnable::run stands in for the FX thread
+			Order order = orderManager.placeOrderAsync(customer,
+					customer.getCart(), detail, Runnable::run)
+					.get(5, TimeUnit.SECONDS);
+			Map<String, Long> stages = order.getCheckoutStageMillis();
+
+			if ("SUCCESS".equals(order.getStatus()) && order.getSaved().isDone()
+					&& stages != null
+					&& stages.keySet().equals(Set.of("validate",
+							"reserve", "pay", "persist", "clearCart"))
+					&& appleProduct.getStockQuantity() == initialStock - 1
+					&& customer.getCart().getItemMap().isEmpty())
+			{
+				System.out.println("PASS: Async checkout placed the order. "
+						+ "Stage times (ms): " + stages);
+			}
+			else
+			{
+				System.err.println("FAIL: Async checkout result was wrong. "
+						+ "Stage times (ms): " + stages);
+			}
+		}
+		catch (Exception e)
+		{
+			System.err.println("FAIL: Async checkout threw: " + e);
+		}
+	}
+
+	/**
+	 * Purpose: Tests that a paid order that cannot be saved takes no stock.
+	 * The reservation is released, the stored stock is not written and the
+	 * order is marked FAILED, on both the blocking and the async path.
+	 */
+	private static void testCheckoutSaveFailure()
+	{
+		System.out.println("\n--- Testing Checkout Save Failure ---");
+
+		AtomicInteger stockWrites = new AtomicInteger();
+		DataRepository failingRepository = new FileDataSource()
+		{
+			@Override
+			public CompletableFuture<Order> saveOrderWithItems(Order order)
+			{
+				return CompletableFuture
+						.failedFuture(new IOException("disk full"));
+			}
+
+			@Override
+			public boolean updateStock(String sku, int quantityChange)
+			{
+				stockWrites.incrementAndGet();
+				return true;
+			}
+		};
+		InventoryManager inventory = new InventoryManager();
+		Product butter = new Product("SAVEFAIL1", "Butter", "Salted", 10,
+				farmer, 5.00);
+		inventory.addProduct(butter);
+		OrderManager failingOrders = new OrderManager(inventory,
+				new CashPickupProcessor(), new MetricsRegistry(),
+				failingRepository);
+		PaymentDetail payment = new PaymentDetail(10.00,
+				new CashPickupProcessor(), customer);
+
+		customer.getCart().clearCart();
+		customer.getCart().addProduct(butter, 2);
+		boolean blockingFailed = false;
+		try
+		{
+			failingOrders.placeOrder(customer, customer.getCart(), payment);
+		}
+		catch (CompletionException e)
+		{
+			blockingFailed = true;
+		}
+		catch (InsufficientStockException e)
+		{
+			System.err.println("FAIL: Save failure test out of stock.");
+		}
+		boolean blockingRestored = butter.getStockQuantity() == 10
+				&& inventory.getReservedQuantity("SAVEFAIL1") == 0;
+
+		boolean asyncFailed = false;
+		try
+		{
+			failingOrders.placeOrderAsync(customer, customer.getCart(),
+					payment, Runnable::run).get(5, TimeUnit.SECONDS);
+		}
+		catch (ExecutionException e)
+		{
+			asyncFailed = true;
+		}
+		catch (InterruptedException | TimeoutException e)
+		{
+			System.err.println("FAIL: Async save failure did not finish.");
+		}
+		boolean asyncRestored = butter.getStockQuantity() == 10
+				&& inventory.getReservedQuantity("SAVEFAIL1") == 0
+				&& customer.getCart().getItemMap().size() == 1;
+		customer.getCart().clearCart();
+
+		if (blockingFailed && blockingRestored && asyncFailed && asyncRestored
+				&& stockWrites.get() == 0)
+		{
+			System.out.println("PASS: Unsaved orders released their stock.");
+		}
+		else
+		{
+			System.err.println("FAIL: Unsaved order kept stock. Blocking "
+					+ blockingFailed + "/" + blockingRestored + ", async "
+					+ asyncFailed + "/" + asyncRestored + ", stock writes "
+					+ stockWrites.get());
+		}
+	}
+
+	/**
+	 * Purpose: Tests the LRU cache used for decoded images. The least
+	 * recently used value is evicted past the weight limit, and an evicted
+	 * value still held softly comes back without being loaded again.
+	 */
+	private static void testLruCache()
+	{
+		System.out.println("\n--- Testing LRU Cache ---");
+
+		AtomicInteger loads = new AtomicInteger();
+		LruCache<String, byte[]> cache = new LruCache<>(100,
+				value -> value.length);
+		Function<String, byte[]> loader = key -> {
+			loads.incrementAndGet();
+			return new byte[40];
+		};
+
+		cache.get("a", loader);
+		cache.get("b", loader);
+		// Touching a makes b the least recently used
+		cache.get("a", loader);
+		cache.get("c", loader);
+
+		boolean evictedLru = cache.size() == 2 && cache.getWeight() == 80
+				&& cache.getIfPresent("a") != null;
+		// b was evicted to a soft reference, so no fourth load
+		cache.get("b", loader);
+		if (evictedLru && loads.get() == 3 && cache.getHits() == 1
+				&& cache.getSoftHits() == 1 && cache.getWeight() <= 100)
+		{
+			System.out.println("PASS: LRU evicted by weight and reused a "
+					+ "soft value. " + cache.getStats());
+		}
+		else
+		{
+			System.err.println("FAIL: LRU cache wrong. Loads: " + loads.get()
+					+ " " + cache.getStats());
+		}
+	}
+
+	/**
+	 * Purpose: Tests that a record torn by a crash is cut off when the log is
+	 * reopened, so records appended afterwards are still read back.
+	 */
+	private static void testBinaryLogRecovery()
+	{
+		System.out.println("\n--- Testing Binary Log Recovery ---");
+
+		Path logDir = null;
+		try
+		{
+			logDir = Files.createTempDirectory("binarylog");
+			BinaryLog log = new BinaryLog(logDir, BinaryLog.DEFAULT_SEGMENT_BYTES);
+			log.append("first".getBytes());
+			log.append("second".getBytes());
+			log.close();
+
+			// A crash mid-write: a header promising more bytes than were
+			// written
+			Path segment = logDir.resolve("segment-000000.log");
+			Files.write(segment, new byte[] { 0, 0, 0, 100, 1, 2, 3, 4, 5 },
+					StandardOpenOption.APPEND);
+
+			log = new BinaryLog(logDir, BinaryLog.DEFAULT_SEGMENT_BYTES);
+			log.append("third".getBytes());
+			List<String> records = new ArrayList<>();
+			log.readAll(payload -> {
+				byte[] bytes = new byte[payload.remaining()];
+				payload.get(bytes);
+				records.add(new String(bytes));
+			});
+			log.close();
+
+			if (records.equals(List.of("first", "second", "third")))
+			{
+				System.out.println("PASS: Torn record cut off and later "
+						+ "appends kept.");
+			}
+			else
+			{
+				System.err.println("FAIL: Records after a torn write lost: "
+						+ records);
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println("FAIL: Binary log threw " + e);
+		}
+		finally
+		{
+			deleteTree(logDir);
+		}
+	}
+
+	/**
+	 * Purpose: Tests that a line half written when compaction takes its
+	 * snapshot comes out whole in the compacted file.
+	 */
+	private static void testCompactionDuringAppend()
+	{
+		System.out.println("\n--- Testing Compaction During Append ---");
+
+		String record = "ORD#-compact1," + customer.getUserId()
+				+ ",12.50,SUCCESS";
+		int split = record.length() / 2;
+		Path orders = Paths.get(FileDataSource.ORDERS_FILE);
+		DataCompactor compactor = new DataCompactor();
+		CompletableFuture<CompactionStats> compaction = null;
+
+		// Appenders hold the shared lock, which keeps the swap waiting
+		FileDataSource.lockFor(FileDataSource.ORDERS_FILE).readLock().lock();
+		try
+		{
+			Files.write(orders, record.substring(0, split).getBytes(),
+					StandardOpenOption.APPEND);
+			compaction = CompletableFuture.supplyAsync(() -> compactor
+					.compactFile(FileDataSource.ORDERS_FILE,
+							line -> line.split(",", 2)[0]));
+			// Let the compactor snapshot the half line and reach the swap
+			Thread.sleep(300);
+			Files.write(orders, (record.substring(split) + "\n").getBytes(),
+					StandardOpenOption.APPEND);
+		}
+		catch (IOException | InterruptedException e)
+		{
+			System.err.println("FAIL: Append during compaction threw " + e);
+		}
+		finally
+		{
+			FileDataSource.lockFor(FileDataSource.ORDERS_FILE).readLock()
+					.unlock();
+		}
+
+		try
+		{
+			if (compaction != null)
+			{
+				compaction.join();
+			}
+			List<String> lines = Files.readAllLines(orders);
+			boolean whole = lines.contains(record);
+			boolean torn = lines.contains(record.substring(0, split))
+					|| lines.contains(record.substring(split));
+			if (whole && !torn)
+			{
+				System.out.println("PASS: Line appended during compaction "
+						+ "kept whole.");
+			}
+			else
+			{
+				System.err.println("FAIL: Line appended during compaction "
+						+ "split. Whole " + whole + ", torn " + torn);
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println("FAIL: Compacted orders unreadable: " + e);
+		}
+		finally
+		{
+			compactor.shutdown();
+		}
+	}
+
+	/**
+	 * Purpose: Tests that a bad request fails on its own. A good request
+	 * coalesced into the same batch is still written, and the writer thread
+	 * keeps serving later batches.
+	 */
+	private static void testGroupCommitFailure()
+	{
+		System.out.println("\n--- Testing Group Commit Failure ---");
+
+		// Long enough for both requests to join one batch
+		GroupCommitWriter writer = new GroupCommitWriter(100);
+		Map<String, List<String>> badLines = new HashMap<>();
+		badLines.put("not-a-data-file.txt", List.of("line"));
+		Map<String, List<String>> nullLines = new HashMap<>();
+		nullLines.put(FileDataSource.ORDERS_FILE, null);
+		String goodLine = "ORD#-groupcommit1," + customer.getUserId()
+				+ ",1.00,SUCCESS";
+
+		CompletableFuture<Void> good = writer
+				.submit(Map.of(FileDataSource.ORDERS_FILE, List.of(goodLine)));
+		CompletableFuture<Void> bad = writer.submit(badLines);
+		boolean goodWritten = false;
+		try
+		{
+			good.get(2, TimeUnit.SECONDS);
+			goodWritten = Files.readAllLines(Paths.get(
+					FileDataSource.ORDERS_FILE)).contains(goodLine);
+		}
+		catch (ExecutionException | TimeoutException | IOException e)
+		{
+			System.err.println("FAIL: Good request in a bad batch threw " + e);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		boolean failed = failsWithin(bad) && writer.getBatchCount() == 1
+				&& failsWithin(writer.submit(nullLines))
+				&& failsWithin(writer.submit(badLines));
+		if (goodWritten && failed)
+		{
+			System.out.println("PASS: Bad requests failed alone and the "
+					+ "writer kept running.");
+		}
+		else
+		{
+			System.err.println("FAIL: Group commit failure handling wrong. "
+					+ "Good written " + goodWritten + ", bad failed " + failed
+					+ ", batches " + writer.getBatchCount());
+		}
+	}
+
+	/**
+	 * Purpose: Checks that a write future fails within a second.
+	 *
+	 * @param done Future returned by GroupCommitWriter.submit
+	 * @return True if it completed exceptionally in time
+	 */
+	private static boolean failsWithin(CompletableFuture<Void> done)
+	{
+		try
+		{
+			done.get(1, TimeUnit.SECONDS);
+			return false;
+		}
+		catch (ExecutionException e)
+		{
+			return true;
+		}
+		catch (TimeoutException e)
+		{
+			return false;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Purpose: Tests that a hand-edited sidecar index is rebuilt from the
+	 * line items file instead of breaking lookups.
+	 */
+	private static void testLineItemIndexRecovery()
+	{
+		System.out.println("\n--- Testing Line Item Index Recovery ---");
+
+		Path dir = null;
+		try
+		{
+			dir = Files.createTempDirectory("lineitemindex");
+			Path dataFile = dir.resolve("lineitems.txt");
+			Path indexFile = dir.resolve("lineitems.idx");
+			String row = "ORD#-idx1,SKU1,Eggs,2,4.00,8.00,cust1,sunny";
+			Files.write(dataFile, (row + "\n").getBytes());
+			Files.write(indexFile, "0,4x,sunny,ORD#-idx1\n#,44\n".getBytes());
+
+			LineItemIndex index = new LineItemIndex(dataFile, indexFile);
+			List<String> rows = index.readFarmerLines("sunny");
+			if (rows.equals(List.of(row))
+					&& index.readOrderLines("ORD#-idx1").equals(List.of(row)))
+			{
+				System.out.println("PASS: Malformed sidecar rebuilt.");
+			}
+			else
+			{
+				System.err.println("FAIL: Rows after sidecar rebuild: " + rows);
+			}
+		}
+		catch (IOException | RuntimeException e)
+		{
+			System.err.println("FAIL: Malformed sidecar threw " + e);
+		}
+		finally
+		{
+			deleteTree(dir);
+		}
+	}
+
+	/**
+	 * Purpose: Tests the upload pipeline. Renditions fit their sizes, the
+	 * same picture uploaded twice under different names is stored once, and
+	 * the paths survive a save and load.
+	 */
+	private static void testImageIngestor()
+	{
+		System.out.println("\n--- Testing Image Ingestor ---");
+
+		MetricsRegistry metrics = new MetricsRegistry();
+		Path imagesDir = null;
+		ImageIngestor ingestor = null;
+		try
+		{
+			imagesDir = Files.createTempDirectory("images");
+			ingestor = new ImageIngestor(imagesDir, metrics);
+
+			Path upload = imagesDir.resolve("upload.png");
+			ImageIO.write(new BufferedImage(1600, 800,
+					BufferedImage.TYPE_INT_RGB), "png", upload.toFile());
+			Path sameUpload = imagesDir.resolve("copy.png");
+			Files.copy(upload, sameUpload);
+
+			// Both start before either is stored
+			CompletableFuture<ImageIngestor.Renditions> first = ingestor
+					.ingest(upload);
+			CompletableFuture<ImageIngestor.Renditions> second = ingestor
+					.ingest(sameUpload);
+			ImageIngestor.Renditions stored = first.get(10, TimeUnit.SECONDS);
+			ImageIngestor.Renditions again = second.get(10,
+					TimeUnit.SECONDS);
+
+			BufferedImage thumbnail = ImageIO
+					.read(new File(stored.getThumbnailPath()));
+			BufferedImage detailImage = ImageIO
+					.read(new File(stored.getDetailPath()));
+			if (stored.getThumbnailPath().equals(again.getThumbnailPath())
+					&& thumbnail.getWidth() == ImageIngestor.THUMBNAIL_SIZE
+					&& thumbnail.getHeight() == ImageIngestor.THUMBNAIL_SIZE / 2
+					&& detailImage.getWidth() == ImageIngestor.DETAIL_SIZE
+					&& metrics.counterSnapshot().get("image.ingested") == 1)
+			{
+				System.out.println("PASS: Renditions fit and a repeated upload "
+						+ "was stored once.");
+			}
+			else
+			{
+				System.err.println("FAIL: Ingested renditions wrong. Thumbnail "
+						+ thumbnail.getWidth() + "x" + thumbnail.getHeight()
+						+ ", detail " + detailImage.getWidth() + ", counters "
+						+ metrics.counterSnapshot());
+			}
+
+			Product product = new Product("Photo Test", 1, farmer, 1.00,
+					"Has a photo");
+			stored.applyTo(product);
+			Helper helper = new Helper();
+			Product loaded = helper.deserializeProduct(
+					helper.serializeProduct(product));
+			if (loaded != null
+					&& stored.getThumbnailPath().equals(loaded.getThumbnailUri())
+					&& stored.getDetailPath().equals(loaded.getDetailUri())
+					&& stored.getOriginalPath().equals(loaded.getPhotoUri()))
+			{
+				System.out.println("PASS: Image paths saved with the product.");
+			}
+			else
+			{
+				System.err.println("FAIL: Image paths lost on save and load.");
+			}
+		}
+		catch (Exception e)
+		{
+			System.err.println("FAIL: Image ingestor threw " + e);
+		}
+		finally
+		{
+			if (ingestor != null)
+			{
+				ingestor.shutdown();
+			}
+			deleteTree(imagesDir);
+		}
+	}
+
+	/**
+	 * Purpose: Tests catalog search. Prefix, typo, farm and multi-word
+	 * queries find the right products, best match first, and the index
+	 * follows products as they are added, replaced and removed.
+	 */
+	private static void testProductSearch()
+	{
+		System.out.println("\n--- Testing Product Search ---");
+
+		InventoryManager inventory = new InventoryManager();
+		Farmer sunny = new Farmer("sunny", "pw", "sunny@test.com",
+				"Sunny Acres", "Escondido");
+		Product heirloom = new Product("Heirloom Tomatoes", 5, farmer, 4.50,
+				"Juicy and red");
+		Product cherry = new Product("Cherry Tomato Mix", 5, farmer, 3.00,
+				"Snacking size");
+		Product carrots = new Product("Carrots", 5, sunny, 2.00,
+				"Crunchy, goes well with tomatoes");
+		inventory.addProduct(heirloom);
+		inventory.addProduct(cherry);
+		inventory.addProduct(carrots);
+
+		List<Product> byPrefix = inventory.search("TOM", 10).getProducts();
+		List<Product> exact = inventory.search("tomatoes", 10).getProducts();
+		List<Product> typo = inventory.search("carots", 10).getProducts();
+		List<Product> byFarm = inventory.search("sunny escondido", 10)
+				.getProducts();
+		List<Product> twoWords = inventory.search("cherry tom", 10)
+				.getProducts();
+		// Title matches outrank the description match
+		if (byPrefix.size() == 3 && byPrefix.get(2) == carrots
+				&& exact.size() == 2 && exact.get(0) == heirloom
+				&& typo.size() == 1 && typo.get(0) == carrots
+				&& byFarm.size() == 1 && byFarm.get(0) == carrots
+				&& twoWords.size() == 1 && twoWords.get(0) == cherry)
+		{
+			System.out.println("PASS: Prefix, typo, farm and multi-word "
+					+ "searches ranked correctly.");
+		}
+		else
+		{
+			System.err.println("FAIL: Search results wrong. Prefix "
+					+ byPrefix.size() + ", exact " + exact.size() + ", typo "
+					+ typo.size() + ", farm " + byFarm.size() + ", words "
+					+ twoWords.size());
+		}
+
+		Product renamed = new Product(cherry.getSku(), "Grape Tomato Mix",
+				"Snacking size", 5, farmer, 3.00);
+		inventory.addProduct(renamed);
+		inventory.removeProduct(carrots.getSku());
+		if (inventory.search("cherry", 10).getTotalMatches() == 0
+				&& inventory.search("grape", 10).getProducts().get(0) == renamed
+				&& inventory.search("carrots", 10).getTotalMatches() == 0
+				&& inventory.search("tom", 1).getTotalMatches() == 2)
+		{
+			System.out.println("PASS: Search follows replaced and removed "
+					+ "products.");
+		}
+		else
+		{
+			System.err.println("FAIL: Search index out of date.");
+		}
+
+		// Re-adds keep their number and removed numbers are reused
+		ProductSearchIndex index = new ProductSearchIndex();
+		Product pie = new Product("SRCH-PIE", "Apple Pie", "", 1, farmer, 9.00);
+		Product jam = new Product("SRCH-JAM", "Apple Jam", "", 1, farmer, 6.00);
+		index.add(pie);
+		index.add(jam);
+		for (int i = 0; i < 200; i++)
+		{
+			index.add(new Product("SRCH-JAM", "Apple Jam " + i, "", 1, farmer,
+					6.00 + i));
+		}
+		index.remove("SRCH-PIE");
+		Product cider = new Product("SRCH-CIDER", "Apple Cider", "", 1, farmer,
+				4.00);
+		index.add(cider);
+		boolean reused = index.getDocumentCapacity() == 2
+				&& index.search("apple", 10).getTotalMatches() == 2
+				&& index.search("cider", 10).getProducts().equals(List.of(cider))
+				&& index.remove("SRCH-CIDER")
+				&& index.search("apple", 10).getTotalMatches() == 1;
+		if (reused)
+		{
+			System.out.println("PASS: Search index reuses document numbers.");
+		}
+		else
+		{
+			System.err.println("FAIL: Search index grew under churn: "
+					+ index.getDocumentCapacity());
+		}
+	}
+
+	/**
+	 * Purpose: Tests the stock, price and farmer indexes. Queries return the
+	 * right products in order, follow stock changes, and stay consistent
+	 * after concurrent reserves and releases.
+	 */
+	private static void testInventoryIndexes()
+	{
+		System.out.println("\n--- Testing Inventory Indexes ---");
+
+		InventoryManager inventory = new InventoryManager();
+		Farmer sunny = new Farmer("sunny", "pw", "sunny@test.com",
+				"Sunny Acres", "Escondido");
+		Product eggs = new Product("IDX-EGGS", "Eggs", "Dozen", 2, farmer,
+				4.00);
+		Product honey = new Product("IDX-HONEY", "Honey", "Jar", 4, sunny,
+				2.50);
+		Product beans = new Product("IDX-BEANS", "Beans", "Pound", 10, sunny,
+				1.00);
+		inventory.addProduct(eggs);
+		inventory.addProduct(honey);
+		inventory.addProduct(beans);
+
+		boolean queries = inventory.getLowStockItems()
+				.equals(List.of(eggs, honey))
+				&& inventory.getLowStockItems(3).equals(List.of(eggs))
+				&& inventory.getProductsInPriceRange(2.50, 4.00)
+						.equals(List.of(honey, eggs))
+				&& inventory.getProductsByFarmer("sunny").size() == 2;
+
+		// Beans drop to 1 through a sale, honey rises to 6 through a release
+		boolean adjusted = inventory.adjustStock("IDX-BEANS", 9)
+				&& !inventory.adjustStock("IDX-BEANS", 5)
+				&& beans.getStockQuantity() == 1;
+		inventory.reserve("IDX-HONEY", 1);
+		inventory.release("IDX-HONEY", 1);
+		honey.updateStock(2);
+		inventory.reserve("IDX-HONEY", 1);
+		inventory.release("IDX-HONEY", 1);
+		inventory.removeProduct("IDX-EGGS");
+		boolean updates = inventory.getLowStockItems().equals(List.of(beans))
+				&& inventory.getProductsByFarmer(farmer.getUsername())
+						.isEmpty();
+
+		if (queries && updates && adjusted)
+		{
+			System.out.println("PASS: Stock, price and farmer queries follow "
+					+ "changes.");
+		}
+		else
+		{
+			System.err.println("FAIL: Inventory index queries wrong. Low: "
+					+ inventory.getLowStockItems().size() + ", queries "
+					+ queries + ", updates " + updates + ", adjusted "
+					+ adjusted);
+		}
+
+		// Racing reserves and releases on shared SKUs
+		List<Product> shared = new ArrayList<>();
+		for (int i = 0; i < 4; i++)
+		{
+			Product product = new Product("IDX-RACE" + i, "Race " + i, "",
+					1000, farmer, 1.00);
+			shared.add(product);
+			inventory.addProduct(product);
+		}
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++)
+		{
+			final int threadId = t;
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 5000; i++)
+				{
+					String sku = "IDX-RACE" + ((i + threadId) % 4);
+					int quantity = 1 + i % 3;
+					if (inventory.reserve(sku, quantity) && i % 2 == 0)
+					{
+						inventory.release(sku, quantity);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		try
+		{
+			for (Thread thread : threads)
+			{
+				thread.join();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		List<Product> all = inventory.getLowStockItems(Integer.MAX_VALUE);
+		boolean sorted = all.size() == 6;
+		for (int i = 1; i < all.size(); i++)
+		{
+			sorted &= all.get(i - 1).getStockQuantity() <= all.get(i)
+					.getStockQuantity();
+		}
+		if (sorted && all.containsAll(shared))
+		{
+			System.out.println("PASS: Stock index consistent after concurrent "
+					+ "reserves.");
+		}
+		else
+		{
+			System.err.println("FAIL: Stock index out of order or missing "
+					+ "products: " + all.size());
+		}
+	}
+
+	private static void testInventoryEvents()
+	{
+		System.out.println("\n--- Testing Inventory Events ---");
+
+		boolean crossings = InventoryEventBus.crossing(6, 4,
+				5) == InventoryEventBus.StockEvent.Type.LOW_STOCK
+				&& InventoryEventBus.crossing(3, 0,
+						5) == InventoryEventBus.StockEvent.Type.SOLD_OUT
+				&& InventoryEventBus.crossing(0, 2,
+						5) == InventoryEventBus.StockEvent.Type.RESTOCKED
+				&& InventoryEventBus.crossing(9, 6, 5) == null
+				&& InventoryEventBus.crossing(4, 1, 5) == null;
+
+		InventoryManager inventory = new InventoryManager();
+		Product jam = new Product("EVT-JAM", "Jam", "Jar", 10, farmer, 5.00);
+		Product milk = new Product("EVT-MILK", "Milk", "Quart", 8, farmer,
+				3.00);
+		inventory.addProduct(jam);
+		inventory.addProduct(milk);
+
+		// Nothing is published before anyone subscribes
+		inventory.adjustStock("EVT-MILK", 2);
+		List<InventoryEventBus.StockEvent> events = new CopyOnWriteArrayList<>();
+		inventory.getEventBus().subscribe(events::add);
+
+		// A burst of sales within one window: jam goes low then sells out, milk goes low
+		inventory.adjustStock("EVT-JAM", 4);
+		inventory.adjustStock("EVT-JAM", 3);
+		inventory.adjustStock("EVT-MILK", 3);
+		inventory.reserve("EVT-JAM", 3);
+		try
+		{
+			Thread.sleep(600);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		boolean burst = events.size() == 2
+				&& hasEvent(events, "EVT-JAM",
+						InventoryEventBus.StockEvent.Type.SOLD_OUT, 0)
+				&& hasEvent(events, "EVT-MILK",
+						InventoryEventBus.StockEvent.Type.LOW_STOCK, 3);
+
+		// A cancelled order puts jam back in stock
+		events.clear();
+		inventory.release("EVT-JAM", 3);
+		try
+		{
+			Thread.sleep(600);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		boolean restocked = events.size() == 1
+				&& hasEvent(events, "EVT-JAM",
+						InventoryEventBus.StockEvent.Type.RESTOCKED, 3);
+
+		// Milk reserved to zero and released within one window is unchanged
+		events.clear();
+		inventory.reserve("EVT-MILK", 3);
+		inventory.release("EVT-MILK", 3);
+		try
+		{
+			Thread.sleep(600);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		boolean transientHold = events.isEmpty();
+		inventory.getEventBus().shutdown();
+
+		if (crossings && burst && restocked && transientHold)
+		{
+			System.out.println("PASS: Stock crossings pushed once per SKU.");
+		}
+		else
+		{
+			System.err.println("FAIL: Inventory events wrong. Crossings "
+					+ crossings + ", burst " + burst + ", restocked "
+					+ restocked + ", transient hold " + transientHold
+					+ ", events " + events);
+		}
+	}
+
+	/**
+	 * Purpose: Checks whether a stock event was delivered.
+	 *
+	 * @param events Delivered events
+	 * @param sku    SKU of the product
+	 * @param type   Level crossed into
+	 * @param stock  Stock when published
+	 * @return True if a matching event is in the list
+	 */
+	private static boolean hasEvent(List<InventoryEventBus.StockEvent> events,
+			String sku, InventoryEventBus.StockEvent.Type type, int stock)
+	{
+		for (InventoryEventBus.StockEvent event : events)
+		{
+			if (event.getProduct().getSku().equals(sku)
+					&& event.getType() == type && event.getStock() == stock)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Purpose: Deletes a temporary folder and the files in it.
+	 *
+	 * @param dir Folder to delete; ignored if null
+	 */
+	private static void deleteTree(Path dir)
+	{
+		if (dir == null)
+		{
+			return;
+		}
+		File[] files = dir.toFile().listFiles();
+		if (files != null)
+		{
+			for (File file : files)
+			{
+				file.delete();
+			}
+		}
+		dir.toFile().delete();
+	}
+
+	/**
+	 * Purpose: Tests the metrics registry. Histogram percentiles stay within
+	 * bucket precision, and checkout, payment, login and repository calls
+	 * are recorded.
+	 */
+	private static void testMetrics()
+	{
+		System.out.println("\n--- Testing Metrics Registry ---");
+
+		// 1..10,000 microseconds, so p50 is 5 ms and p99 is 9.9 ms
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 10_000; i++)
+		{
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+		}
+		LatencyHistogram.Snapshot summary = histogram.snapshot();
+		double p50Error = Math.abs(summary.getP50Nanos() - 5_000_000) / 5e6;
+		double p99Error = Math.abs(summary.getP99Nanos() - 9_900_000) / 9.9e6;
+		if (summary.getCount() == 10_000 && p50Error < 0.04 && p99Error < 0.04
+				&& summary.getMaxNanos() == 10_000_000)
+		{
+			System.out.println("PASS: Histogram percentiles within 4%: "
+					+ summary);
+		}
+		else
+		{
+			System.err.println("FAIL: Histogram percentiles off: " + summary);
+		}
+
+		MetricsRegistry metrics = new MetricsRegistry();
+		OrderManager metered = new OrderManager(inventoryManager,
+				detail.getPaymentMethod(), metrics);
+		customer.getCart().addProduct(appleProduct, 1);
+		try
+		{
+			metered.placeOrder(customer, customer.getCart(), detail)
+					.getSaved().join();
+		}
+		catch (InsufficientStockException e)
+		{
+			System.err.println("FAIL: Metered order threw: " + e.getMessage());
+		}
+
+		PortalManager portal = new PortalManager(repository, metrics);
+		try
+		{
+			portal.login("nobody-" + System.nanoTime(), "x");
+		}
+		catch (UserNotFoundException | InvalidCredentialsException e)
+		{
+			// Expected; counted as an unknown user
+		}
+
+		DataRepository timed = new InstrumentedDataSource(repository, metrics);
+		timed.findAllProducts();
+
+		Map<String, LatencyHistogram.Snapshot> timers = metrics.timerSnapshot();
+		Map<String, Long> counters = metrics.counterSnapshot();
+		boolean stagesTimed = timers.keySet()
+				.containsAll(Set.of("checkout.validate", "checkout.reserve",
+						"checkout.pay", "checkout.persist",
+						"checkout.clearCart", "payment.processTransaction",
+						"login", "repository.findAllProducts"));
+		if (stagesTimed && counters.get("checkout.orders") == 1
+				&& counters.get("payment.success") == 1
+				&& counters.get("login.unknownUser") == 1)
+		{
+			System.out.println("PASS: Checkout, payment, login and "
+					+ "repository calls recorded.");
+		}
+		else
+		{
+			System.err.println("FAIL: Metrics missing.\n" + metrics.report());
+		}
+
+		try
+		{
+			File dump = File.createTempFile("metrics", ".txt");
+			metrics.dump(dump.toPath());
+			String text = Files.readString(dump.toPath());
+			dump.delete();
+			if (text.contains("checkout.reserve") && text.contains("login"))
+			{
+				System.out.println("PASS: Metrics dumped to a file.");
+			}
+			else
+			{
+				System.err.println("FAIL: Metrics dump incomplete:\n" + text);
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println("FAIL: Metrics dump threw: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Purpose: Tests the async logger. Messages below the level are dropped,
+	 * and messages from several threads all arrive, each thread's in order,
+	 * even when they wrap the ring buffer many times. Once drained, the drain
+	 * thread parks without a timeout instead of polling.
+	 */
+	private static void testAppLogger()
+	{
+		System.out.println("\n--- Testing Async Logger ---");
+
+		int threads = 4;
+		int perThread = 5_000;
+		AppLogger.Level originalLevel = AppLogger.getLevel();
+		AppLogger.flush();
+		PrintStream console = System.out;
+		ByteArrayOutputStream captured = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(captured, true));
+		try
+		{
+			AppLogger.setLevel(AppLogger.Level.INFO);
+			AppLogger.debug("LOGTEST hidden %d", 1);
+			AppLogger.info("LOGTEST shown %d%%", 100);
+
+			CountDownLatch start = new CountDownLatch(1);
+			List<Thread> writers = new ArrayList<>();
+			for (int t = 0; t < threads; t++)
+			{
+				final int writer = t;
+				Thread thread = new Thread(() -> {
+					try
+					{
+						start.await();
+					}
+					catch (InterruptedException e)
+					{
+						return;
+					}
+					for (int i = 0; i < perThread; i++)
+					{
+						AppLogger.info("LOGTEST %d %d", writer, i);
+					}
+				});
+				thread.start();
+				writers.add(thread);
+			}
+			start.countDown();
+			for (Thread thread : writers)
+			{
+				thread.join();
+			}
+			AppLogger.flush();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			System.setOut(console);
+			AppLogger.setLevel(originalLevel);
+		}
+
+		int[] next = new int[threads];
+		boolean ordered = true;
+		for (String line : captured.toString().split("\\R"))
+		{
+			String[] fields = line.split(" ");
+			if (fields.length == 3 && fields[0].equals("LOGTEST")
+					&& !fields[1].equals("shown") && !fields[1].equals("hidden"))
+			{
+				int writer = Integer.parseInt(fields[1]);
+				ordered &= Integer.parseInt(fields[2]) == next[writer]++;
+			}
+		}
+		String output = captured.toString();
+		boolean allArrived = true;
+		for (int count : next)
+		{
+			allArrived &= count == perThread;
+		}
+		try
+		{
+			Thread.sleep(50);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		boolean idleParked = false;
+		for (Thread thread : Thread.getAllStackTraces().keySet())
+		{
+			if (thread.getName().equals("app-logger"))
+			{
+				idleParked = thread.getState() == Thread.State.WAITING;
+			}
+		}
+		if (ordered && allArrived && idleParked
+				&& output.contains("LOGTEST shown 100%")
+				&& !output.contains("LOGTEST hidden"))
+		{
+			System.out.println("PASS: " + threads * perThread
+					+ " async log lines arrived in order; DEBUG dropped at INFO;"
+					+ " idle drain parked.");
+		}
+		else
+		{
+			System.err.println("FAIL: Async logger lost, reordered or leaked "
+					+ "messages, or polls when idle. Per-thread counts: "
+					+ Arrays.toString(next) + ", idle parked " + idleParked);
+		}
+	}
+
 	/**
 	 * Purpose: Public static getter for the repository, allowing the GUI to
 	 * access it. TESTING ONLY
@@ -18,5 +18,7 @@ module HomesteadHub
 	requires javafx.base;
 	requires javafx.controls;
 	requires javafx.graphics;
+	requires java.desktop;
+	requires jdk.management;
 	opens edu.sdmesa.homesteadhub to javafx.graphics, javafx.fxml;
 }
\ No newline at end of file